@@ -20,15 +20,20 @@ import io.opentelemetry.contrib.generator.core.dto.*;
 import io.opentelemetry.contrib.generator.core.jel.ExpressionProcessor;
 import io.opentelemetry.contrib.generator.core.jel.ResourceExpressionsJELProvider;
 import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
+import io.opentelemetry.contrib.generator.core.jel.methods.SequenceContext;
 import io.opentelemetry.contrib.generator.core.utils.CommonUtils;
-import io.opentelemetry.proto.common.v1.KeyValue;
-import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.common.v1.AnyValue;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -38,72 +43,250 @@ import java.util.stream.IntStream;
  * (resource_type, list of resources of that type)
  * <p>
  * This is done in 3 phases: <p>
- *     - Generate the resources of each type with the specified attributes stored in the OTel representation <p>
+ *     - Generate the resources of each type with the specified attributes stored in the OTel representation. The types are
+ *     generated in parallel, and the large types are also split into index ranges generated in parallel <p>
  *     - Perform parent-child mapping between the resources <p>
- *     - Execute the attribute operations last since they are dependent on the parent-child mappings
+ *     - Execute the attribute operations last since they are dependent on the parent-child mappings. The types at the same
+ *     level of the hierarchy are processed in parallel, each operation filling a new attribute column for all the resources
+ *     of its type at once
+ * <p>
+ * If a snapshot directory is set, the model is loaded from the snapshot of the same resource definitions instead, if there
+ * is one, or saved to a new snapshot after it has been generated.
  */
 @Slf4j
 public class ResourceModelGenerator {
 
     private final Map<String, ResourceDefinition> allResources; //input resource definitions
     private final String requestID;
-    private static final ExpressionProcessor jelProcessor = ResourceExpressionsJELProvider.getJelProcessor();
     private static Map<String, List<GeneratorResource>> resourceModel; //output resource model
-    private Map<String, ResourceType> typeMappings; //stores parent & child types for each resource type
+    private static Map<String, ResourceColumnStore> resourceStores; //storage behind the resources of each type
+    private static final ThreadLocal<ResourceColumnStore> operationStore = new ThreadLocal<>(); //type of the attribute operations being executed
+    private ResourceTypeHierarchy typeHierarchy; //parent & child types and levels of each resource type
+    private int parallelThreshold = 10_000; //min resources of a type for its index ranges to be generated in parallel
+    private int parallelChunkSize = 2048; //resources in each index range generated in parallel
+    private String snapshotDirectory; //directory of the resource model snapshots or null to always generate the model
 
     public ResourceModelGenerator(Map<String, ResourceDefinition> allResources, String requestID) {
         this.allResources = allResources;
         this.requestID = requestID;
     }
 
+    /**
+     * @return hierarchy of the resource types, compiled when the resource model is generated
+     */
+    public ResourceTypeHierarchy getTypeHierarchy() {
+        return typeHierarchy;
+    }
+
+    /**
+     * Sets the directory of the resource model snapshots. If a snapshot of the same resource definitions exists there, the
+     * model is loaded from it instead of being generated, otherwise the generated model is saved to a new snapshot.
+     */
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    void setParallelGeneration(int parallelThreshold, int parallelChunkSize) {
+        this.parallelThreshold = parallelThreshold;
+        this.parallelChunkSize = parallelChunkSize;
+    }
+
     public Map<String, List<GeneratorResource>> getResourceModel() {
-        generateMappedResources();
-        executeAttributeOperations();
+        Path snapshotPath = snapshotDirectory == null ? null :
+                ResourceModelSnapshot.getSnapshotPath(snapshotDirectory, allResources.values());
+        if (snapshotPath == null || !loadSnapshot(snapshotPath)) {
+            generateMappedResources();
+            executeAttributeOperations();
+            resourceStores.values().forEach(ResourceColumnStore::compactColumns);
+            if (snapshotPath != null) {
+                saveSnapshot(snapshotPath);
+            }
+        }
+        //The cached resources would go stale if attributes were still added, so the caches are enabled only at the end
+        allResources.values().stream()
+                .filter(resourceDefinition -> Boolean.TRUE.equals(resourceDefinition.getLazyAttributes()))
+                .forEach(resourceDefinition -> resourceStores.get(resourceDefinition.getName()).enableResourceCache(
+                        Optional.ofNullable(resourceDefinition.getResourceCacheSize()).orElse(10_000)));
         return resourceModel;
     }
 
+    private boolean loadSnapshot(Path snapshotPath) {
+        if (!Files.exists(snapshotPath)) {
+            return false;
+        }
+        Map<String, ResourceColumnStore> stores;
+        try {
+            stores = ResourceModelSnapshot.read(snapshotPath, ResourceModelGenerator::getDerivedValueFunction);
+        } catch (IOException ioException) {
+            log.warn(requestID + ": Failed to load resource model snapshot " + snapshotPath + ", generating the model", ioException);
+            return false;
+        }
+        if (!stores.keySet().equals(allResources.keySet())) {
+            log.warn(requestID + ": Resource model snapshot " + snapshotPath + " does not match the resource definitions, " +
+                    "generating the model");
+            return false;
+        }
+        typeHierarchy = new ResourceTypeHierarchy(allResources.values());
+        resourceStores = new HashMap<>(stores);
+        resourceModel = new HashMap<>();
+        for (ResourceDefinition eachResourceType: allResources.values()) {
+            ResourceColumnStore store = stores.get(eachResourceType.getName());
+            eachResourceType.setCountWithRuntimeModifications(store.getSize());
+            resourceModel.put(eachResourceType.getName(), store.getResources());
+        }
+        log.info(requestID + ": Loaded resource model snapshot " + snapshotPath);
+        return true;
+    }
+
+    private void saveSnapshot(Path snapshotPath) {
+        try {
+            ResourceModelSnapshot.write(snapshotPath, resourceStores);
+            log.info(requestID + ": Saved resource model snapshot " + snapshotPath);
+        } catch (IOException ioException) {
+            log.warn(requestID + ": Failed to save resource model snapshot " + snapshotPath, ioException);
+        }
+    }
+
     /**
      * Processes first 2 phases of the resource model generation.
      */
     private void generateMappedResources() {
+        typeHierarchy = new ResourceTypeHierarchy(allResources.values());
         resourceModel = new HashMap<>();
-        typeMappings = new HashMap<>();
+        resourceStores = new HashMap<>();
+        //The sequences of each type are keyed by the type, so the types can be generated independently of each other
+        Map<String, ResourceColumnStore> instances = new ConcurrentHashMap<>();
+        allResources.values().parallelStream().forEach(eachResourceType ->
+                instances.put(eachResourceType.getName(), getInstances(eachResourceType)));
         for (ResourceDefinition eachResourceType: allResources.values()) {
-            typeMappings.put(eachResourceType.getName(), new ResourceType(eachResourceType.getName()));
-            resourceModel.put(eachResourceType.getName(), getInstances(eachResourceType));
+            resourceStores.put(eachResourceType.getName(), instances.get(eachResourceType.getName()));
+            resourceModel.put(eachResourceType.getName(), instances.get(eachResourceType.getName()).getResources());
             log.info(requestID + ": Generated " + resourceModel.get(eachResourceType.getName()).size() + " " +
                     eachResourceType.getName() + " resources");
         }
         mapChildResources();
     }
 
-    private List<GeneratorResource> getInstances(ResourceDefinition resourceDefinition) {
-        List<GeneratorResource> resources = new ArrayList<>();
+    private ResourceColumnStore getInstances(ResourceDefinition resourceDefinition) {
         resourceDefinition.setCountWithRuntimeModifications(resourceDefinition.getCount() + getRuntimeResourcesCount(resourceDefinition.getRuntimeModifications()));
-        IntStream.range(0, resourceDefinition.getCount()).forEach(eachCount -> resources.add(getInstance(resourceDefinition, true)));
-        IntStream.range(resourceDefinition.getCount(), resourceDefinition.getCountWithRuntimeModifications()).forEach(eachCount -> resources.add(getInstance(resourceDefinition, false)));
-        return resources;
+        ResourceColumnStore store = null;
+        if (resourceDefinition.getCountWithRuntimeModifications() >= parallelThreshold) {
+            store = getInstancesInParallel(resourceDefinition);
+        }
+        if (store == null) {
+            List<Map.Entry<String, String>> attributes = new ArrayList<>(resourceDefinition.getAttributes().entrySet());
+            store = getStore(resourceDefinition, attributes);
+            int[] columns = getEvaluatedColumns(store);
+            SequenceContext[] contexts = Arrays.stream(columns)
+                    .mapToObj(column -> SequenceContext.keyed(getExpressionsKey(resourceDefinition, attributes.get(column))))
+                    .toArray(SequenceContext[]::new);
+            for (var i=0; i<resourceDefinition.getCountWithRuntimeModifications(); i++) {
+                setInstanceAttributes(store, attributes, columns, contexts, i);
+            }
+        }
+        return store;
     }
 
     /**
-     * Get instance of a resource
+     * Generates the resources of a type in index ranges evaluated in parallel. The position of every sequence used by the
+     * attribute expressions is derived from the index of the resource, based on the number of times the first resource
+     * advances each of them, which gives exactly the same resources as the sequential generation.
      * @param resourceDefinition - Resource metadata about the type of resource to be generated
-     * @return GeneratorResource
+     * @return Generated resources or null if the attribute expressions do not advance their sequences uniformly for each
+     * resource, in which case the type has to be generated sequentially
      */
-    private GeneratorResource getInstance(ResourceDefinition resourceDefinition, boolean isActive) {
-        var newResource = new GeneratorResource();
-        newResource.setType(resourceDefinition.getName());
-        newResource.setOtelResource(Resource.newBuilder());
-        newResource.setActive(isActive);
-        for (Map.Entry<String, String> eachAttribute: resourceDefinition.getAttributes().entrySet()) {
-            ResourceModelExpressions.expressionsGlobalKey = requestID + ":" + newResource.getType() + ":" + eachAttribute.getKey() + ":" +
-                    eachAttribute.getValue().hashCode();
-            newResource.getOTelResourceBuilder().addAttributes(KeyValue.newBuilder()
-                    .setKey(eachAttribute.getKey())
-                    .setValue(CommonUtils.buildAnyValue(jelProcessor.eval(eachAttribute.getValue())))
-                    .build());
+    private ResourceColumnStore getInstancesInParallel(ResourceDefinition resourceDefinition) {
+        List<Map.Entry<String, String>> attributes = new ArrayList<>(resourceDefinition.getAttributes().entrySet());
+        ResourceColumnStore store = getStore(resourceDefinition, attributes);
+        int[] columns = getEvaluatedColumns(store);
+        List<Map<String, Integer>> callsPerEvaluation = new ArrayList<>();
+        for (int eachColumn: columns) {
+            var recordingContext = SequenceContext.recording(getExpressionsKey(resourceDefinition, attributes.get(eachColumn)));
+            evaluateAttribute(attributes.get(eachColumn).getValue(), recordingContext, 0);
+            callsPerEvaluation.add(recordingContext.getCallsInEvaluation());
         }
-        return newResource;
+        int resourceCount = resourceDefinition.getCountWithRuntimeModifications();
+        try {
+            IntStream.range(0, (resourceCount + parallelChunkSize - 1) / parallelChunkSize).parallel().forEach(chunk -> {
+                SequenceContext[] contexts = IntStream.range(0, columns.length)
+                        .mapToObj(i -> SequenceContext.indexed(getExpressionsKey(resourceDefinition, attributes.get(columns[i])),
+                                callsPerEvaluation.get(i)))
+                        .toArray(SequenceContext[]::new);
+                int chunkEnd = Math.min(resourceCount, (chunk + 1) * parallelChunkSize);
+                for (int i=chunk * parallelChunkSize; i<chunkEnd; i++) {
+                    setInstanceAttributes(store, attributes, columns, contexts, i);
+                }
+            });
+        } catch (RuntimeException evaluationException) {
+            if (SequenceContext.isNonUniform(evaluationException)) {
+                log.info(requestID + ": Attribute expressions of " + resourceDefinition.getName() + " resources do not " +
+                        "advance their sequences uniformly, generating them sequentially");
+                return null;
+            }
+            throw evaluationException;
+        }
+        return store;
+    }
+
+    /**
+     * Creates the store for the resources of a type, with a column for each attribute and the resources needed only for
+     * the runtime modifications marked inactive. If the type has lazy attributes, the columns of the attributes whose
+     * values can be derived from the resource index are derived columns, which are never evaluated up front.
+     */
+    private ResourceColumnStore getStore(ResourceDefinition resourceDefinition, List<Map.Entry<String, String>> attributes) {
+        var store = new ResourceColumnStore(resourceDefinition.getName(), resourceDefinition.getCountWithRuntimeModifications(),
+                resourceDefinition.getCount());
+        boolean lazyAttributes = Boolean.TRUE.equals(resourceDefinition.getLazyAttributes());
+        for (Map.Entry<String, String> eachAttribute: attributes) {
+            IntFunction<AnyValue> valueFunction = lazyAttributes ? getDerivedValueFunction(eachAttribute.getValue()) : null;
+            if (valueFunction == null) {
+                store.addColumn(eachAttribute.getKey());
+            } else {
+                store.addDerivedColumn(eachAttribute.getKey(), eachAttribute.getValue(), valueFunction);
+            }
+        }
+        return store;
+    }
+
+    private static IntFunction<AnyValue> getDerivedValueFunction(String expression) {
+        IntFunction<String> indexFunction = ResourceModelExpressions.getIndexFunction(expression);
+        return indexFunction == null ? null : index -> CommonUtils.buildAnyValue(indexFunction.apply(index));
+    }
+
+    private int[] getEvaluatedColumns(ResourceColumnStore store) {
+        return IntStream.range(0, store.getColumnCount()).filter(column -> !store.isDerivedColumn(column)).toArray();
+    }
+
+    /**
+     * Evaluates the attributes of a resource into the columns of its store.
+     * @param store - Store of the resources of the type, having a column for each attribute in order
+     * @param attributes - Attribute expressions of the type
+     * @param columns - Columns of the attributes to be evaluated, i.e. the ones which are not derived
+     * @param contexts - Sequence context of the attribute expression of each evaluated column
+     * @param resourceIndex - Index of the resource in its type
+     */
+    private void setInstanceAttributes(ResourceColumnStore store, List<Map.Entry<String, String>> attributes, int[] columns,
+                                       SequenceContext[] contexts, int resourceIndex) {
+        for (var i=0; i<columns.length; i++) {
+            store.setAttribute(columns[i], resourceIndex, CommonUtils.buildAnyValue(
+                    evaluateAttribute(attributes.get(columns[i]).getValue(), contexts[i], resourceIndex)));
+        }
+    }
+
+    private Object evaluateAttribute(String expression, SequenceContext context, int resourceIndex) {
+        ResourceModelExpressions.setSequenceContext(context);
+        try {
+            context.startEvaluation(resourceIndex);
+            Object value = ResourceExpressionsJELProvider.getThreadJelProcessor().eval(expression);
+            context.verifyUniformEvaluation();
+            return value;
+        } finally {
+            ResourceModelExpressions.clearSequenceContext();
+        }
+    }
+
+    private String getExpressionsKey(ResourceDefinition resourceDefinition, Map.Entry<String, String> attribute) {
+        return requestID + ":" + resourceDefinition.getName() + ":" + attribute.getKey() + ":" + attribute.getValue().hashCode();
     }
 
     /**
@@ -121,8 +304,8 @@ public class ResourceModelGenerator {
         for (RuntimeModification eachModification: CollectionUtils.emptyIfNull(runtimeModifications).stream()
                 .filter(modification -> !modification.getResourceModificationType().equals(ResourceModificationType.REMOVE))
                 .toList()) {
-            int newCount = ((eachModification.getEndAfterMinutes() - eachModification.getStartAfterMinutes())
-                    / eachModification.getModificationFrequencyMinutes()) * eachModification.getModificationQuantity();
+            int newCount = (int) ((eachModification.getEndAfterMillis() - eachModification.getStartAfterMillis())
+                    / eachModification.getModificationFrequencyMillis()) * eachModification.getModificationQuantity();
             count = count + newCount;
         }
         return count;
@@ -132,31 +315,33 @@ public class ResourceModelGenerator {
      * Performs second phase of the resource model generation, i.e. parent-child mappings.
      */
     private void mapChildResources() {
-        //We will do this only for resources that have some children defined
-        for (ResourceDefinition parentType: allResources.values().stream()
+        //We will do this only for resources that have some children defined, parents before their children
+        for (ResourceDefinition parentType: typeHierarchy.getTopologicalOrder().stream()
+                .map(allResources::get)
                 .filter(resource -> !MapUtils.emptyIfNull(resource.getChildrenDistribution()).isEmpty())
                 .toList()) {
-            setParentToChildrenTypes(parentType.getName(), parentType.getChildrenDistribution().keySet());
+            log.info(requestID + ": Mapping parent -> children types: " + parentType.getName() + " -> " +
+                    StringUtils.join(typeHierarchy.getChildTypes(parentType.getName())));
             //For each childType-distribution expression pair
-            for (Map.Entry<String, String> eachChildTypeExpr: parentType.getChildrenDistribution().entrySet()) {
-                String childType = eachChildTypeExpr.getKey();
+            for (String childType: typeHierarchy.getChildTypes(parentType.getName())) {
+                String childrenExpression = parentType.getChildrenDistribution().get(childType);
                 int childrenSize = resourceModel.get(childType).size();
                 ResourceModelExpressions.expressionsGlobalKey = requestID + ":" + parentType.getName() + ":" + childType;
+                var links = new ResourceAdjacency.Builder();
                 var nextChildIndex = 0;
                 //For each resource of the parent type
                 for (var parentCounter = 0; parentCounter < parentType.getCountWithRuntimeModifications(); parentCounter++) {
                     if (nextChildIndex >= childrenSize) {
                         nextChildIndex = 0;
                     }
-                    int count = jelProcessor.eval(eachChildTypeExpr.getValue());
+                    int count = ResourceExpressionsJELProvider.getThreadJelProcessor().eval(childrenExpression);
                     int childEndIndex = nextChildIndex + count;
                     if (childEndIndex > childrenSize) {
                         childEndIndex = childrenSize;
                     }
                     log.debug("Mapping parent resource '" + parentType.getName() + "' at index " + parentCounter +
                             " to children of type '" + childType + "' at indices range " + nextChildIndex + "-" + childEndIndex);
-                    setParentToChildren(resourceModel.get(parentType.getName()).get(parentCounter), childType,
-                            nextChildIndex, childEndIndex);
+                    links.addLinks(parentCounter, nextChildIndex, childEndIndex);
                     nextChildIndex = nextChildIndex + count;
                 }
                 //Map any remaining child resource to the last parent resource
@@ -164,9 +349,9 @@ public class ResourceModelGenerator {
                     log.debug("Remaining children of type '" + childType + "' from index " + nextChildIndex +
                             " mapped to the last parent of type '" + parentType + "' at index " +
                             (parentType.getCountWithRuntimeModifications()-1));
-                    setParentToChildren(resourceModel.get(parentType.getName()).get(parentType.getCountWithRuntimeModifications()-1), childType,
-                            nextChildIndex, childrenSize);
+                    links.addLinks(parentType.getCountWithRuntimeModifications()-1, nextChildIndex, childrenSize);
                 }
+                setParentToChildren(parentType.getName(), childType, links);
             }
         }
     }
@@ -179,85 +364,37 @@ public class ResourceModelGenerator {
                 .filter(resource -> !CollectionUtils.emptyIfNull(resource.getAttributeOperations()).isEmpty())
                 .map(ResourceDefinition::getName)
                 .collect(Collectors.toSet());
-        //If there are some resource types that need attribute operations, we need to know the top-down levels of the types
-        //since the attribute operations like copyFromParent need to be processed top -> down
-        List<Set<String>> resourceLevels = resourceWithOperations.isEmpty() ? new ArrayList<>() : getResourceLevels();
-        resourceLevels.forEach(resources -> resources.stream()
+        //The attribute operations like copyFromParent need to be processed top -> down. The parents of a type are always at
+        //lower levels, so the types at the same level can be processed in parallel
+        typeHierarchy.getTypesByLevel().forEach(resources -> resources.parallelStream()
                 .filter(resourceWithOperations::contains)
                 .map(allResources::get)
-                .forEach(resourceDefinition -> {
-                    log.info(requestID + ": Executing " + resourceDefinition.getAttributeOperations().size() +
-                            " attribute operations for " + resourceDefinition.getName() + " types");
-                    ResourceModelExpressions.expressionsGlobalKey = requestID + ":" + resourceDefinition.getName();
-                    for (String expression: resourceDefinition.getAttributeOperations()) {
-                        jelProcessor.eval(expression);
-                    }
-                }));
-        //We also want to set the evaluated attributes at this stage
-        resourceModel.values().forEach(resourceList -> resourceList.forEach(GeneratorResource::setEvaluatedAttributes));
+                .forEach(this::executeAttributeOperations));
     }
 
-    private void setParentToChildrenTypes(String parentType, Set<String> childTypes) {
-        log.info(requestID + ": Mapping parent -> children types: " + parentType + " -> " + StringUtils.join(childTypes));
-        typeMappings.get(parentType).setChildTypes(new HashSet<>(childTypes));
-        for (String eachChildType: childTypes) {
-            if (typeMappings.get(eachChildType).getParentTypes() == null) {
-                typeMappings.get(eachChildType).setParentTypes(new HashSet<>());
+    private void executeAttributeOperations(ResourceDefinition resourceDefinition) {
+        log.info(requestID + ": Executing " + resourceDefinition.getAttributeOperations().size() +
+                " attribute operations for " + resourceDefinition.getName() + " types");
+        operationStore.set(resourceStores.get(resourceDefinition.getName()));
+        ResourceModelExpressions.setSequenceContext(SequenceContext.keyed(requestID + ":" + resourceDefinition.getName()));
+        try {
+            for (String expression: resourceDefinition.getAttributeOperations()) {
+                ResourceExpressionsJELProvider.getThreadJelProcessor().eval(expression);
             }
-            typeMappings.get(eachChildType).getParentTypes().add(parentType);
+        } finally {
+            ResourceModelExpressions.clearSequenceContext();
+            operationStore.remove();
         }
-        //Also initialize the children types map for all the resources of parent type
-        resourceModel.get(parentType).forEach(parentResource -> parentResource.setChildrenByType(new HashMap<>()));
-    }
-
-    @SuppressWarnings("ArraysAsListWithZeroOrOneArgument")
-    private void setParentToChildren(GeneratorResource parent, String childrenType, int childStartIndex, int childEndIndex) {
-        List<GeneratorResource> children = resourceModel.get(childrenType).subList(childStartIndex, childEndIndex);
-        if (!parent.getChildrenByType().containsKey(childrenType) || parent.getChildrenByType().get(childrenType) == null) {
-            parent.getChildrenByType().put(childrenType, new ArrayList<>());
-        }
-        parent.getChildrenByType().get(childrenType).addAll(children);
-        children.forEach(eachChild -> {
-            if (eachChild.getParentsByType() == null) {
-                eachChild.setParentsByType(new HashMap<>());
-                eachChild.getParentsByType().put(parent.getType(), new ArrayList<>(Arrays.asList(parent)));
-                return;
-            }
-            if (!eachChild.getParentsByType().containsKey(parent.getType())) {
-                eachChild.getParentsByType().put(parent.getType(), new ArrayList<>(Arrays.asList(parent)));
-                return;
-            }
-            eachChild.getParentsByType().get(parent.getType()).add(parent);
-        });
     }
 
     /**
-     * The attribute operations need to be performed from top->bottom (parent->child types) and this method provides the list of
-     * all the resource types in this order with all the resources at a similar level in the hierarchy put in the same set of that level.
-     * @return List of Set of all resource types at their particular level
+     * Stores the links between the resources of a parent type and a child type in both of their stores.
      */
-    private List<Set<String>> getResourceLevels() {
-        List<Set<String>> resourceLevels = new ArrayList<>();
-        Map<String, Integer> parentCounts = new HashMap<>();
-        typeMappings.values().forEach(eachType -> parentCounts.put(eachType.getName(), getResourceLevel(eachType.getName())));
-        IntStream.range(0, Collections.max(parentCounts.values())+1).forEach(i -> resourceLevels.add(new HashSet<>()));
-        for(Map.Entry<String, Integer> typeLevel: parentCounts.entrySet()) {
-            resourceLevels.get(typeLevel.getValue()).add(typeLevel.getKey());
-        }
-        CollectionUtils.filter(resourceLevels, level -> !level.isEmpty());
-        log.debug(requestID + ": Resource levels are: " + StringUtils.join(resourceLevels));
-        return resourceLevels;
-    }
-
-    private int getResourceLevel(String resurceType) {
-        if (CollectionUtils.emptyIfNull(typeMappings.get(resurceType).getParentTypes()).isEmpty()) {
-            return 0;
-        }
-        int level = typeMappings.get(resurceType).getParentTypes().size();
-        for (String eachParent: typeMappings.get(resurceType).getParentTypes()) {
-            level = Math.max(level, getResourceLevel(eachParent)+1);
-        }
-        return level;
+    private void setParentToChildren(String parentType, String childType, ResourceAdjacency.Builder links) {
+        ResourceColumnStore parentStore = resourceStores.get(parentType);
+        ResourceColumnStore childStore = resourceStores.get(childType);
+        parentStore.setChildren(childType, links.build(parentStore, childStore));
+        childStore.setParents(parentType, links.buildInverse(parentStore, childStore));
     }
 
     /**
@@ -268,20 +405,15 @@ public class ResourceModelGenerator {
      */
     @SuppressWarnings("unused")
     public static void copyFromParent(String parentType, String attribute) {
-        for (GeneratorResource eachResource: resourceModel
-                .get(ResourceModelExpressions.expressionsGlobalKey.split(":")[1]).stream()
-                .filter(resource -> resource.getParentsByType()!=null)
-                .filter(resource -> resource.getParentsByType().containsKey(parentType))
-                .toList()) {
-            Optional<KeyValue> parentAttribute = eachResource.getParentsByType().get(parentType).get(0)
-                    .getOTelResource().getAttributesList().stream()
-                    .filter(attrKV -> attrKV.getKey().equals(attribute)).findAny();
-            String attributeValue = parentAttribute.map(keyValue -> keyValue.getValue().getStringValue()).orElse("");
-            eachResource.getOTelResourceBuilder().addAttributes(KeyValue.newBuilder()
-                    .setKey(attribute)
-                    .setValue(CommonUtils.buildAnyValue(attributeValue))
-                    .build());
+        ResourceColumnStore store = operationStore.get();
+        ResourceAdjacency parents = store.getParentsByType().get(parentType);
+        if (parents == null) {
+            return;
         }
+        AnyValue[] parentValues = Arrays.stream(getParentValues(parents.getTargetStore(), attribute))
+                .map(CommonUtils::buildAnyValue)
+                .toArray(AnyValue[]::new);
+        store.addEvaluatedColumn(attribute, i -> parents.getCount(i) == 0 ? null : parentValues[parents.getTargetIndex(i, 0)]);
     }
 
     /**
@@ -296,19 +428,31 @@ public class ResourceModelGenerator {
      */
     @SuppressWarnings("unused")
     public static void modifyFromParent(String parentType, String sourceAttribute, String targetAttribute, String suffixExpression) {
-        for (GeneratorResource eachResource: resourceModel.get(ResourceModelExpressions
-                .expressionsGlobalKey.split(":")[1])) {
-            Optional<KeyValue> parentAttribute = eachResource.getParentsByType().get(parentType).get(0)
-                    .getOTelResource().getAttributesList().stream()
-                    .filter(attrKV -> attrKV.getKey().equals(sourceAttribute)).findAny();
-            String attributeValue = parentAttribute.map(keyValue -> keyValue.getValue().getStringValue()).orElse("");
-            if (suffixExpression.length() > 0) {
-                attributeValue = attributeValue + jelProcessor.eval(suffixExpression);
-            }
-            eachResource.getOTelResourceBuilder().addAttributes(KeyValue.newBuilder()
-                    .setKey(targetAttribute)
-                    .setValue(CommonUtils.buildAnyValue(attributeValue))
-                    .build());
+        ResourceColumnStore store = operationStore.get();
+        ResourceAdjacency parents = store.getParentsByType().get(parentType);
+        String[] parentValues = parents == null ? new String[0] : getParentValues(parents.getTargetStore(), sourceAttribute);
+        //The suffix expression can advance sequences, so it is evaluated in the order of the resources, with the processor
+        //of the thread executing the operations of this type
+        ExpressionProcessor jelProcessor = ResourceExpressionsJELProvider.getThreadJelProcessor();
+        String[] suffixes = new String[store.getSize()];
+        for (var i=0; i<store.getSize(); i++) {
+            suffixes[i] = suffixExpression.length() > 0 ? String.valueOf((Object) jelProcessor.eval(suffixExpression)) : "";
         }
+        store.addEvaluatedColumn(targetAttribute, i -> CommonUtils.buildAnyValue(
+                (parents == null || parents.getCount(i) == 0 ? "" : parentValues[parents.getTargetIndex(i, 0)]) + suffixes[i]));
+    }
+
+    /**
+     * Looks up the value of an attribute for each resource of a parent type once, so that it does not have to be looked up
+     * again for each of their children.
+     * @return string value of the attribute of each parent by index or an empty string if a parent does not have it
+     */
+    private static String[] getParentValues(ResourceColumnStore parentStore, String attribute) {
+        return IntStream.range(0, parentStore.getSize()).parallel()
+                .mapToObj(parentIndex -> {
+                    AnyValue parentAttribute = parentStore.getFirstAttribute(parentIndex, attribute);
+                    return parentAttribute == null ? "" : parentAttribute.getStringValue();
+                })
+                .toArray(String[]::new);
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.core;
+
+import io.opentelemetry.contrib.generator.core.dto.ResourceDefinition;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import org.apache.commons.collections4.MapUtils;
+
+import java.util.*;
+
+/**
+ * Compiled DAG of the resource types, with an edge from each type to each of the child types in its children distribution.
+ * It is compiled once per resource model: the types are ordered topologically with Kahn's algorithm, which also detects
+ * any cycle between the types, and each type is assigned the level of the longest path to it from a type without parents.
+ * So the parents of a type are always at lower levels than the type itself, and the types at the same level do not depend
+ * on each other. <p>
+ * Types that are ready at the same time are ordered by their name, so the order does not depend on the order of the input.
+ */
+public class ResourceTypeHierarchy {
+
+    private final List<String> topologicalOrder;
+    private final Map<String, Integer> levels;
+    private final List<Set<String>> typesByLevel;
+    private final Map<String, SortedSet<String>> parentTypes;
+    private final Map<String, SortedSet<String>> childTypes;
+
+    public ResourceTypeHierarchy(Collection<ResourceDefinition> resourceDefinitions) {
+        parentTypes = new HashMap<>();
+        childTypes = new HashMap<>();
+        resourceDefinitions.forEach(eachType -> {
+            parentTypes.put(eachType.getName(), new TreeSet<>());
+            childTypes.put(eachType.getName(), new TreeSet<>());
+        });
+        for (ResourceDefinition eachType: resourceDefinitions) {
+            for (String eachChildType: MapUtils.emptyIfNull(eachType.getChildrenDistribution()).keySet()) {
+                if (!parentTypes.containsKey(eachChildType)) {
+                    throw new GeneratorException("Unknown child resource name '" + eachChildType + "' provided for resource " +
+                            eachType.getName());
+                }
+                childTypes.get(eachType.getName()).add(eachChildType);
+                parentTypes.get(eachChildType).add(eachType.getName());
+            }
+        }
+        topologicalOrder = new ArrayList<>(parentTypes.size());
+        levels = new HashMap<>();
+        Map<String, Integer> remainingParents = new HashMap<>();
+        PriorityQueue<String> readyTypes = new PriorityQueue<>();
+        parentTypes.forEach((type, parents) -> {
+            remainingParents.put(type, parents.size());
+            levels.put(type, 0);
+            if (parents.isEmpty()) {
+                readyTypes.add(type);
+            }
+        });
+        while (!readyTypes.isEmpty()) {
+            String type = readyTypes.poll();
+            topologicalOrder.add(type);
+            for (String eachChildType: childTypes.get(type)) {
+                levels.put(eachChildType, Math.max(levels.get(eachChildType), levels.get(type) + 1));
+                if (remainingParents.merge(eachChildType, -1, Integer::sum) == 0) {
+                    readyTypes.add(eachChildType);
+                }
+            }
+        }
+        if (topologicalOrder.size() < parentTypes.size()) {
+            List<String> cyclicTypes = remainingParents.entrySet().stream()
+                    .filter(eachType -> eachType.getValue() > 0)
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+            throw new GeneratorException("Cycle found in the children distributions of the resource types " + cyclicTypes);
+        }
+        typesByLevel = new ArrayList<>();
+        for (String eachType: topologicalOrder) {
+            int level = levels.get(eachType);
+            while (typesByLevel.size() <= level) {
+                typesByLevel.add(new LinkedHashSet<>());
+            }
+            typesByLevel.get(level).add(eachType);
+        }
+    }
+
+    /**
+     * @return all the types, each one after all of its parent types
+     */
+    public List<String> getTopologicalOrder() {
+        return Collections.unmodifiableList(topologicalOrder);
+    }
+
+    public int getLevel(String type) {
+        return levels.get(type);
+    }
+
+    /**
+     * @return types at each level, starting from the types without parents
+     */
+    public List<Set<String>> getTypesByLevel() {
+        return Collections.unmodifiableList(typesByLevel);
+    }
+
+    public SortedSet<String> getParentTypes(String type) {
+        return Collections.unmodifiableSortedSet(parentTypes.get(type));
+    }
+
+    public SortedSet<String> getChildTypes(String type) {
+        return Collections.unmodifiableSortedSet(childTypes.get(type));
+    }
+}
@@ -16,7 +16,8 @@
 
 package io.opentelemetry.contrib.generator.core;
 
-import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.dto.ActiveResources;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
 import io.opentelemetry.contrib.generator.core.dto.RuntimeModification;
 import io.opentelemetry.contrib.generator.telemetry.ResourceModelProvider;
 import lombok.extern.slf4j.Slf4j;
@@ -25,13 +26,13 @@ import org.apache.commons.collections4.CollectionUtils;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
 
 /**
  * Runnable implementation whose single thread is started along with the MELT data generators if any of the resource types specified
- * in the resource model definition YAML have runtime modifications assigned to them. If that is true, this will be invoked every 2.5 seconds
+ * in the resource model definition YAML have runtime modifications assigned to them. If that is true, this will be invoked every second
  * to perform all the modifications due as per the runtime modification frequency specified by each resource type.
+ * Each modification is applied to the store of the resource type as a single change, which publishes a new snapshot of
+ * the active resources for the generator threads.
  * @see RuntimeModification DTO
  */
 @Slf4j
@@ -44,30 +45,25 @@ public class RuntimeModificationsThread implements Runnable {
      * Start time of when this thread is initialized. Needed for calculating the time before a modification is applied for the first time.
      */
     private final long threadStartTime;
-    private Map<String, List<GeneratorResource>> resourceModel;
 
     public RuntimeModificationsThread(String requestId, List<RuntimeModification> runtimeModifications) {
         this.runtimeModifications = runtimeModifications;
         this.requestId = requestId;
         modificationsUpdateTimestamps = new HashMap<>();
         threadStartTime = System.currentTimeMillis();
-        resourceModel = ResourceModelProvider.getResourceModel(requestId);
     }
 
     @Override
     public void run() {
-        resourceModel = ResourceModelProvider.getResourceModel(requestId);
         long currTime = System.currentTimeMillis();
-        long minsElapsedFromStart = TimeUnit.MILLISECONDS.toMinutes(currTime - threadStartTime);
         for (RuntimeModification eachModification: CollectionUtils.emptyIfNull(runtimeModifications)) {
-            long minsElapsed = modificationsUpdateTimestamps.containsKey(eachModification.getModificationId()) ?
-                    TimeUnit.MILLISECONDS.toMinutes(currTime - modificationsUpdateTimestamps.get(eachModification.getModificationId())) :
-                    minsElapsedFromStart;
-            log.debug(requestId + ": Minutes elapsed for " + eachModification.getResourceModificationType() + " on " +
-                    eachModification.getResourceType() + " type is " + minsElapsed);
-            if (minsElapsed >= eachModification.getModificationFrequencyMinutes()
-                    && minsElapsed > eachModification.getStartAfterMinutes()
-                    && minsElapsed <= eachModification.getEndAfterMinutes()) {
+            long millisElapsed = currTime - modificationsUpdateTimestamps.getOrDefault(eachModification.getModificationId(),
+                    threadStartTime);
+            log.debug(requestId + ": Milliseconds elapsed for " + eachModification.getResourceModificationType() + " on " +
+                    eachModification.getResourceType() + " type is " + millisElapsed);
+            if (millisElapsed >= eachModification.getModificationFrequencyMillis()
+                    && millisElapsed > eachModification.getStartAfterMillis()
+                    && millisElapsed <= eachModification.getEndAfterMillis()) {
                 switch (eachModification.getResourceModificationType()) {
                     case ADD ->
                             executeAddModification(eachModification.getResourceType(), eachModification.getModificationQuantity());
@@ -76,33 +72,43 @@ public class RuntimeModificationsThread implements Runnable {
                     case CHURN ->
                             executeChurnModification(eachModification.getResourceType(), eachModification.getModificationQuantity());
                 }
-                modificationsUpdateTimestamps.put(eachModification.getModificationId(), currTime);
+                //Keep the time by which this run is late, so that short frequencies do not drift by up to a run every time
+                long lateMillis = (millisElapsed - eachModification.getModificationFrequencyMillis()) %
+                        eachModification.getModificationFrequencyMillis();
+                modificationsUpdateTimestamps.put(eachModification.getModificationId(), currTime - lateMillis);
             }
         }
-        ResourceModelProvider.putResourceModel(requestId, resourceModel);
     }
 
     private void executeAddModification(String type, int quantity) {
         log.info(requestId + ": Executing add modification of " + quantity + " qty on " + type);
-        int startIndex = resourceModel.get(type).size() - 1;
-        while (!resourceModel.get(type).get(startIndex).isActive()) {
-            startIndex--;
-        }
-        IntStream.range(startIndex, startIndex + quantity).forEach(idx -> resourceModel.get(type).get(idx + 1).setActive(true));
+        updateActiveResources(type, 0, quantity);
     }
 
     private void executeRemoveModification(String type, int quantity) {
         log.info(requestId + ": Executing remove modification of " + quantity + " qty on " + type);
-        int startIndex = 0;
-        while (!resourceModel.get(type).get(startIndex).isActive()) {
-            startIndex++;
-        }
-        IntStream.range(startIndex, startIndex + quantity).forEach(idx -> resourceModel.get(type).get(idx).setActive(false));
+        updateActiveResources(type, quantity, 0);
     }
 
     private void executeChurnModification(String type, int quantity) {
         log.info(requestId + ": Executing churn modification of " + quantity + " qty on " + type);
-        executeRemoveModification(type, quantity);
-        executeAddModification(type, quantity);
+        updateActiveResources(type, quantity, quantity);
+    }
+
+    private void updateActiveResources(String type, int removeQuantity, int addQuantity) {
+        ResourceColumnStore store = ResourceModelProvider.getResourceStore(requestId, type);
+        int previousCount = store.getActiveResources().getCount();
+        ActiveResources activeResources = store.updateActiveResources(removeQuantity, addQuantity);
+        int expectedCount = Math.max(0, previousCount - removeQuantity) + addQuantity;
+        if (activeResources.getCount() < expectedCount) {
+            log.warn(requestId + ": Not enough inactive " + type + " resources to activate " + addQuantity + " of them, " +
+                    "only " + (activeResources.getCount() - Math.max(0, previousCount - removeQuantity)) + " were activated");
+        }
+        logActiveResources(type, activeResources);
+    }
+
+    private void logActiveResources(String type, ActiveResources activeResources) {
+        log.debug(requestId + ": " + activeResources.getCount() + " active " + type + " resources in version " +
+                activeResources.getVersion());
     }
 }
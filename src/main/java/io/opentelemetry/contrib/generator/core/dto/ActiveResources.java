@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.core.dto;
+
+import lombok.Getter;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the active resources of a type, published by {@link ResourceColumnStore} every time the set of
+ * active resources changes. The generator threads read the latest snapshot without any locking and always see a consistent
+ * set of active resources, with the list of the active resources built once per change rather than filtered on every read.
+ */
+public class ActiveResources {
+
+    @Getter
+    private final long version; //incremented with every published change of the type
+    private final BitSet active;
+    @Getter
+    private final List<GeneratorResource> resources; //active resources in the order of their index
+
+    ActiveResources(ResourceColumnStore store, long version, BitSet active) {
+        this.version = version;
+        this.active = (BitSet) active.clone();
+        int firstIndex = active.nextSetBit(0);
+        int endIndex = active.length();
+        if (firstIndex == -1) {
+            resources = List.of();
+        } else if (active.cardinality() == endIndex - firstIndex) {
+            //The runtime modifications keep the active resources contiguous, so this is a view without any copying
+            resources = store.getResources().subList(firstIndex, endIndex);
+        } else {
+            resources = active.stream().mapToObj(store::getResource).toList();
+        }
+    }
+
+    public boolean isActive(int index) {
+        return active.get(index);
+    }
+
+    public int getCount() {
+        return resources.size();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.core.dto;
+
+import lombok.Getter;
+
+/**
+ * A change of the active resources of a type, published along with the {@link ActiveResources} snapshot of the same version.
+ */
+@Getter
+public class ActiveResourcesChange {
+
+    private final long version;
+    private final int[] activatedIndices;
+    private final int[] deactivatedIndices;
+
+    ActiveResourcesChange(long version, int[] activatedIndices, int[] deactivatedIndices) {
+        this.version = version;
+        this.activatedIndices = activatedIndices;
+        this.deactivatedIndices = deactivatedIndices;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.core.dto;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * View of the active resources of a type, mapped to the values a generator thread derives from each of them, such as the
+ * resources matching a filter. The view is a list of the values in the order of the resource index, stored in arrays sized
+ * by the number of values rather than by the size of the store. It is maintained incrementally: each update applies the
+ * changes published since the version of the view, so only the resources activated or deactivated since then are mapped
+ * again, and they are merged into the arrays in a single pass. The view is rebuilt from the latest snapshot only if the
+ * store no longer keeps all those changes.
+ * <p>
+ * A view is meant to be used by a single thread, and the list must not be read while the view is being updated.
+ */
+public class ActiveResourcesView<T> extends AbstractList<T> implements RandomAccess {
+
+    private final ResourceColumnStore store;
+    private final Function<GeneratorResource, T> mapper; //value of a resource or null to leave the resource out of the view
+    private int[] indices; //resource index of each value, ascending
+    private Object[] values;
+    private int size;
+    private long version = -1;
+
+    public ActiveResourcesView(ResourceColumnStore store, Function<GeneratorResource, T> mapper) {
+        this.store = store;
+        this.mapper = mapper;
+        indices = new int[0];
+        values = new Object[0];
+    }
+
+    /**
+     * Applies the changes of the active resources published since the version of the view.
+     * @return this view
+     */
+    public ActiveResourcesView<T> update() {
+        ActiveResources activeResources = store.getActiveResources();
+        if (activeResources.getVersion() == version) {
+            return this;
+        }
+        List<ActiveResourcesChange> changes = version == -1 ? null :
+                store.getActiveChanges(version, activeResources.getVersion());
+        if (changes == null) {
+            rebuild(activeResources);
+        } else {
+            //Latest state of each changed resource, in the order of the resource index
+            TreeMap<Integer, Boolean> changedResources = new TreeMap<>();
+            for (ActiveResourcesChange eachChange: changes) {
+                for (int eachIndex: eachChange.getDeactivatedIndices()) {
+                    changedResources.put(eachIndex, false);
+                }
+                for (int eachIndex: eachChange.getActivatedIndices()) {
+                    changedResources.put(eachIndex, true);
+                }
+            }
+            applyChanges(changedResources);
+        }
+        version = activeResources.getVersion();
+        return this;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return value of the resource at the position in the view, as of the last update
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        return (T) values[position];
+    }
+
+    /**
+     * @return number of values as of the last update
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void rebuild(ActiveResources activeResources) {
+        indices = new int[activeResources.getCount()];
+        values = new Object[activeResources.getCount()];
+        size = 0;
+        for (GeneratorResource eachResource: activeResources.getResources()) {
+            T value = mapper.apply(eachResource);
+            if (value != null) {
+                indices[size] = eachResource.getIndex();
+                values[size++] = value;
+            }
+        }
+    }
+
+    /**
+     * Drops the values of all the changed resources and merges in the values of the ones which are active now.
+     */
+    private void applyChanges(TreeMap<Integer, Boolean> changedResources) {
+        int[] addedIndices = new int[changedResources.size()];
+        Object[] addedValues = new Object[changedResources.size()];
+        int addedCount = 0;
+        int[] changedIndices = new int[changedResources.size()];
+        int changedCount = 0;
+        for (Map.Entry<Integer, Boolean> eachChange: changedResources.entrySet()) {
+            changedIndices[changedCount++] = eachChange.getKey();
+            T value = eachChange.getValue() ? mapper.apply(store.getResource(eachChange.getKey())) : null;
+            if (value != null) {
+                addedIndices[addedCount] = eachChange.getKey();
+                addedValues[addedCount++] = value;
+            }
+        }
+        //Both arrays are in the order of the resource index, so the values of the changed resources are dropped in one pass
+        int kept = 0;
+        for (int position=0, changed=0; position<size; position++) {
+            while (changed < changedCount && changedIndices[changed] < indices[position]) {
+                changed++;
+            }
+            if (changed < changedCount && changedIndices[changed] == indices[position]) {
+                continue;
+            }
+            indices[kept] = indices[position];
+            values[kept++] = values[position];
+        }
+        Arrays.fill(values, kept, size, null);
+        int newSize = kept + addedCount;
+        if (newSize > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(newSize, indices.length + (indices.length >> 1)));
+            values = Arrays.copyOf(values, indices.length);
+        }
+        //Merged from the end, so that every kept value moves at most once
+        for (int keptPosition=kept-1, added=addedCount-1, position=newSize-1; added>=0; position--) {
+            if (keptPosition >= 0 && indices[keptPosition] > addedIndices[added]) {
+                indices[position] = indices[keptPosition];
+                values[position] = values[keptPosition--];
+            } else {
+                indices[position] = addedIndices[added];
+                values[position] = addedValues[added--];
+            }
+        }
+        size = newSize;
+        if (size < indices.length >> 2) {
+            indices = Arrays.copyOf(indices, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -16,96 +16,137 @@
 
 package io.opentelemetry.contrib.generator.core.dto;
 
-import io.opentelemetry.contrib.generator.core.utils.CommonUtils;
 import io.opentelemetry.proto.common.v1.KeyValue;
 import io.opentelemetry.proto.resource.v1.Resource;
-import lombok.Data;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.MapUtils;
+import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
- * Internal representation of a single resource.
+ * Internal representation of a single resource. This is a view over the row of the resource in the
+ * {@link ResourceColumnStore} of its type, so any number of these can exist for the same resource and they are all equal.
  */
-@Slf4j
-@Data
+@Getter
 public class GeneratorResource {
 
-    private String type; //type of this resource. There can be multiple resources of this type.
-    private boolean isActive; //if this resource is currently reporting any MELT data
-    private Resource.Builder otelResource; //OTel representation of the resource
-    private Map<String, String> evaluatedAttributes;
-    private Map<String, List<GeneratorResource>> childrenByType; //list of all the child resources of this resource, grouped by type
-    private Map<String, List<GeneratorResource>> parentsByType; //list of all the parent resources of this resource, grouped by type
+    private final ResourceColumnStore store; //columnar storage of all the resources of this type
+    private final int index; //position of this resource in the list of resources of its type
+
+    public GeneratorResource(ResourceColumnStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    public String getType() {
+        return store.getType();
+    }
+
+    /**
+     * @return true if this resource is currently reporting any MELT data
+     */
+    public boolean isActive() {
+        return store.isActive(index);
+    }
+
+    public void setActive(boolean isActive) {
+        store.setActive(index, isActive);
+    }
 
     public Resource getOTelResource() {
-        return otelResource.build();
+        return store.getOTelResource(index);
+    }
+
+    public List<KeyValue> getAttributesList() {
+        return store.getAttributes(index);
+    }
+
+    public Map<String, String> getAttributes() {
+        return store.getAttributeStrings(index);
+    }
+
+    public Map<String, String> getEvaluatedAttributes() {
+        return store.getAttributeStrings(index);
     }
 
-    public Resource.Builder getOTelResourceBuilder() {
-        return otelResource;
+    /**
+     * @return true if this resource has all the provided attributes with the same values, without building its attribute map
+     */
+    public boolean matchesAttributes(Map<String, String> attributes) {
+        return store.matchesAttributes(index, attributes);
+    }
+
+    /**
+     * @return list of all the child resources of this resource, grouped by type
+     */
+    public Map<String, List<GeneratorResource>> getChildrenByType() {
+        Map<String, List<GeneratorResource>> childrenByType = new HashMap<>();
+        store.getChildrenByType().forEach((childType, adjacency) -> childrenByType.put(childType, adjacency.getTargets(index)));
+        return childrenByType;
+    }
+
+    /**
+     * @return list of all the parent resources of this resource, grouped by type
+     */
+    public Map<String, List<GeneratorResource>> getParentsByType() {
+        Map<String, List<GeneratorResource>> parentsByType = new HashMap<>();
+        store.getParentsByType().forEach((parentType, adjacency) -> {
+            if (adjacency.getCount(index) > 0) {
+                parentsByType.put(parentType, adjacency.getTargets(index));
+            }
+        });
+        return parentsByType;
     }
 
     public Map<String, Integer> getChildrenTypeCounts() {
         Map<String, Integer> childrenTypeCounts = new HashMap<>();
-        MapUtils.emptyIfNull(childrenByType)
-                .forEach((key, value) -> childrenTypeCounts.put(key, CollectionUtils.emptyIfNull(value).size()));
+        store.getChildrenByType().forEach((childType, adjacency) -> childrenTypeCounts.put(childType, adjacency.getCount(index)));
         return childrenTypeCounts;
     }
 
     public Map<String, Integer> getParentTypeCounts() {
         Map<String, Integer> parentTypeCounts = new HashMap<>();
-        MapUtils.emptyIfNull(parentsByType)
-                .forEach((key, value) -> parentTypeCounts.put(key, CollectionUtils.emptyIfNull(value).size()));
+        store.getParentsByType().forEach((parentType, adjacency) -> {
+            if (adjacency.getCount(index) > 0) {
+                parentTypeCounts.put(parentType, adjacency.getCount(index));
+            }
+        });
         return parentTypeCounts;
     }
 
-    public void setEvaluatedAttributes() {
-        evaluatedAttributes = new HashMap<>();
-        for (KeyValue eachKv: CollectionUtils.emptyIfNull(otelResource.getAttributesList())) {
-            evaluatedAttributes.put(eachKv.getKey(), CommonUtils.anyValueToString(eachKv.getValue()));
-        }
-    }
-
     @Override
     public String toString() {
         var separator = ",\n";
         var builder = new StringBuilder("type: ");
-        builder.append(type);
-        if (!CollectionUtils.emptyIfNull(otelResource.getAttributesList()).isEmpty()) {
+        builder.append(getType());
+        List<KeyValue> attributes = getAttributesList();
+        if (!attributes.isEmpty()) {
             builder.append(separator);
             builder.append("attributes: ");
-            builder.append(StringUtils.join(otelResource.getAttributesList().stream()
-                    .collect(Collectors.toMap(KeyValue::getKey, KeyValue::getValue))));
+            builder.append(StringUtils.join(attributes.stream()
+                    .collect(Collectors.toMap(KeyValue::getKey, KeyValue::getValue, (first, last) -> last))));
         }
-        if (!MapUtils.emptyIfNull(childrenByType).isEmpty()) {
+        Map<String, Integer> childrenTypeCounts = getChildrenTypeCounts();
+        if (!childrenTypeCounts.isEmpty()) {
             builder.append(separator);
             builder.append("children: ");
-            builder.append(StringUtils.join(getChildrenTypeCounts()));
+            builder.append(StringUtils.join(childrenTypeCounts));
         }
-        if (!MapUtils.emptyIfNull(parentsByType).isEmpty()) {
+        Map<String, Integer> parentTypeCounts = getParentTypeCounts();
+        if (!parentTypeCounts.isEmpty()) {
             builder.append(separator);
             builder.append("parents: ");
-            builder.append(StringUtils.join(getParentTypeCounts()));
+            builder.append(StringUtils.join(parentTypeCounts));
         }
         return builder.toString();
     }
 
     @Override
     public int hashCode() {
-        int hashCode = type.hashCode();
-        Map<String, String> attributes = getAttributes();
-        String attributeKeys = StringUtils.join(attributes.keySet());
-        String attributeVals = StringUtils.join(attributes.values());
-        hashCode = hashCode + attributeKeys.hashCode() + attributeVals.hashCode();
-        return hashCode;
+        return 31 * getType().hashCode() + index;
     }
 
     @Override
@@ -113,20 +154,6 @@ public class GeneratorResource {
         if (!(generatorResource instanceof GeneratorResource compareResource)) {
             return false;
         }
-        if (!Objects.equals(this.type, compareResource.type)) {
-            return false;
-        }
-        return this.getAttributes().equals(compareResource.getAttributes());
-    }
-
-    public Map<String, String> getAttributes() {
-        Map<String, String> attrs = new HashMap<>();
-        if (otelResource == null || CollectionUtils.emptyIfNull(otelResource.getAttributesList()).isEmpty()) {
-            return attrs;
-        }
-        for (KeyValue eachAttrPair: otelResource.getAttributesList()) {
-            attrs.put(eachAttrPair.getKey(), CommonUtils.anyValueToString(eachAttrPair.getValue()));
-        }
-        return attrs;
+        return this.store == compareResource.store && this.index == compareResource.index;
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.core.dto;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Links from the resources of one type to the resources of another type in compressed sparse row form: the targets of
+ * the resource at index i are targets[offsets[i]] to targets[offsets[i+1]-1], in the order in which they were linked.
+ */
+public class ResourceAdjacency {
+
+    private final ResourceColumnStore targetStore;
+    private final int[] offsets;
+    private final int[] targets;
+
+    ResourceAdjacency(ResourceColumnStore targetStore, int[] offsets, int[] targets) {
+        this.targetStore = targetStore;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    public int getCount(int sourceIndex) {
+        return offsets[sourceIndex + 1] - offsets[sourceIndex];
+    }
+
+    public int getTargetIndex(int sourceIndex, int position) {
+        return targets[offsets[sourceIndex] + position];
+    }
+
+    public List<GeneratorResource> getTargets(int sourceIndex) {
+        return new TargetList(offsets[sourceIndex], offsets[sourceIndex + 1]);
+    }
+
+    public ResourceColumnStore getTargetStore() {
+        return targetStore;
+    }
+
+    int[] getOffsetArray() {
+        return offsets;
+    }
+
+    int[] getTargetArray() {
+        return targets;
+    }
+
+    private class TargetList extends AbstractList<GeneratorResource> implements RandomAccess {
+
+        private final int start;
+        private final int end;
+
+        private TargetList(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public GeneratorResource get(int position) {
+            if (position < 0 || position >= end - start) {
+                throw new IndexOutOfBoundsException(position);
+            }
+            return targetStore.getResource(targets[start + position]);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Collects the links between the resources of two types and builds the adjacency in both directions. The links of each
+     * resource keep the order in which they were added.
+     */
+    public static class Builder {
+
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int linkCount;
+
+        public void addLink(int sourceIndex, int targetIndex) {
+            if (linkCount == sources.length) {
+                sources = Arrays.copyOf(sources, linkCount * 2);
+                targets = Arrays.copyOf(targets, linkCount * 2);
+            }
+            sources[linkCount] = sourceIndex;
+            targets[linkCount] = targetIndex;
+            linkCount++;
+        }
+
+        public void addLinks(int sourceIndex, int targetStartIndex, int targetEndIndex) {
+            for (int targetIndex=targetStartIndex; targetIndex<targetEndIndex; targetIndex++) {
+                addLink(sourceIndex, targetIndex);
+            }
+        }
+
+        /**
+         * @return adjacency from the source resources to the target resources
+         */
+        public ResourceAdjacency build(ResourceColumnStore sourceStore, ResourceColumnStore targetStore) {
+            return build(sources, targets, sourceStore.getSize(), targetStore);
+        }
+
+        /**
+         * @return adjacency from the target resources back to the source resources
+         */
+        public ResourceAdjacency buildInverse(ResourceColumnStore sourceStore, ResourceColumnStore targetStore) {
+            return build(targets, sources, targetStore.getSize(), sourceStore);
+        }
+
+        private ResourceAdjacency build(int[] from, int[] to, int fromCount, ResourceColumnStore toStore) {
+            int[] offsets = new int[fromCount + 1];
+            for (var i=0; i<linkCount; i++) {
+                offsets[from[i] + 1]++;
+            }
+            for (var i=0; i<fromCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] positions = Arrays.copyOf(offsets, fromCount);
+            int[] linked = new int[linkCount];
+            //Stable counting sort, so the links of each resource stay in the order they were added
+            for (var i=0; i<linkCount; i++) {
+                linked[positions[from[i]]++] = to[i];
+            }
+            return new ResourceAdjacency(toStore, offsets, linked);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.core.dto;
+
+import io.opentelemetry.contrib.generator.core.utils.CommonUtils;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.resource.v1.Resource;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar storage of all the resources of a single type. Each attribute is a column holding the value of each resource,
+ * and the links to the resources of the other types are stored as {@link ResourceAdjacency}. The resources themselves are
+ * {@link GeneratorResource} views holding only the store and their index.
+ * <p>
+ * While a column is being built, repeated values are interned so that they are stored once. Once all the attributes are
+ * set, {@link #compactColumns()} turns the columns with few distinct values into int codes into a dictionary of those
+ * values, while the columns where most values are unique, like names and IDs, keep their plain per-resource values.
+ * <p>
+ * The attributes of a resource are the non-empty cells of its row, in the order of the columns, which is the order in
+ * which the attributes were added. Adding an attribute that a resource already has adds another column with the same
+ * key, just like adding another key-value to the OTel resource would. The columns are indexed by their key, so looking up
+ * an attribute of a resource only goes through the columns of that key.
+ * <p>
+ * A column can also be derived, in which case its values are never stored but computed from the index of the resource
+ * whenever they are read. The OTel resources of a store with derived columns can be cached in a bounded LRU cache, so that
+ * the resources reporting repeatedly are not computed again every time.
+ * <p>
+ * Every change of the active resources publishes a new {@link ActiveResources} snapshot, which is what the readers use,
+ * along with an {@link ActiveResourcesChange} listing the changed indices. The latest changes are kept, so that the
+ * {@link ActiveResourcesView} of a reader can be updated incrementally.
+ */
+public class ResourceColumnStore {
+
+    @Getter
+    private final String type;
+    @Getter
+    private final int size;
+    private final BitSet active; //guarded by itself, copied into each published snapshot
+    private volatile ActiveResources activeResources; //latest published snapshot of the active resources
+    private long activeVersion;
+    private int activationCursor; //index from which the next resources are activated, wrapping around at the store size
+    private final ArrayDeque<ActiveResourcesChange> activeChanges; //latest changes of the active resources, oldest first
+    private static final int MAX_ACTIVE_CHANGES = 256;
+    private final List<AttributeColumn> columns;
+    private final Map<String, int[]> columnsByKey; //positions of the columns of each attribute key, in order
+    private final Map<String, ResourceAdjacency> childrenByType;
+    private final Map<String, ResourceAdjacency> parentsByType;
+    private final List<GeneratorResource> resources;
+    private Map<Integer, Resource> resourceCache; //LRU cache of the OTel resources by index, if enabled
+
+    public ResourceColumnStore(String type, int size, int activeCount) {
+        this.type = type;
+        this.size = size;
+        columns = new ArrayList<>();
+        columnsByKey = new ConcurrentHashMap<>();
+        childrenByType = new LinkedHashMap<>();
+        parentsByType = new LinkedHashMap<>();
+        resources = new ResourceList();
+        activeChanges = new ArrayDeque<>();
+        active = new BitSet(size);
+        active.set(0, Math.min(activeCount, size));
+        activationCursor = size == 0 ? 0 : Math.min(activeCount, size) % size;
+        publishActiveResources();
+    }
+
+    /**
+     * @return all the resources of the store as a list of views, in the order of their index
+     */
+    public List<GeneratorResource> getResources() {
+        return resources;
+    }
+
+    public GeneratorResource getResource(int index) {
+        return new GeneratorResource(this, index);
+    }
+
+    public boolean isActive(int index) {
+        return activeResources.isActive(index);
+    }
+
+    public void setActive(int index, boolean isActive) {
+        synchronized (active) {
+            if (active.get(index) == isActive) {
+                return;
+            }
+            active.set(index, isActive);
+            int[] changedIndex = new int[] {index};
+            publishActiveResources(isActive ? changedIndex : new int[0], isActive ? new int[0] : changedIndex);
+        }
+    }
+
+    /**
+     * @return latest snapshot of the active resources, which stays unchanged even if the active resources change later
+     */
+    public ActiveResources getActiveResources() {
+        return activeResources;
+    }
+
+    /**
+     * Deactivates the oldest active resources and activates the inactive resources following the last activated one, as a
+     * single change published with one snapshot. The resources are activated in the order of their index, wrapping around
+     * at the end of the store, so the resources deactivated earlier are activated again once all the others have been
+     * used. The resources deactivated by this change are not activated by it.
+     * @param removeQuantity - Number of active resources to be deactivated
+     * @param addQuantity - Number of inactive resources to be activated, limited to the inactive resources of the store
+     * @return published snapshot of the active resources
+     */
+    public ActiveResources updateActiveResources(int removeQuantity, int addQuantity) {
+        synchronized (active) {
+            int[] activatedIndices = new int[Math.max(0, Math.min(addQuantity, size - active.cardinality()))];
+            for (int i=activationCursor, added=0; added<activatedIndices.length; i=(i + 1) % size) {
+                if (!active.get(i)) {
+                    activatedIndices[added++] = i;
+                }
+            }
+            //The oldest active resources are the first ones after the last activated one
+            int[] deactivatedIndices = new int[Math.max(0, Math.min(removeQuantity, active.cardinality()))];
+            for (int i=activationCursor, removed=0; removed<deactivatedIndices.length; i=(i + 1) % size) {
+                if (active.get(i)) {
+                    deactivatedIndices[removed++] = i;
+                }
+            }
+            for (int eachIndex: deactivatedIndices) {
+                active.clear(eachIndex);
+            }
+            for (int eachIndex: activatedIndices) {
+                active.set(eachIndex);
+            }
+            if (activatedIndices.length > 0) {
+                activationCursor = (activatedIndices[activatedIndices.length - 1] + 1) % size;
+            }
+            return publishActiveResources(activatedIndices, deactivatedIndices);
+        }
+    }
+
+    /**
+     * Returns the changes of the active resources between two versions, so that the views of the active resources can be
+     * updated incrementally.
+     * @param fromVersion - Version already known to the caller, not included in the changes
+     * @param toVersion - Latest version to be included in the changes
+     * @return changes in the order they were published or null if they are not all kept anymore
+     */
+    public List<ActiveResourcesChange> getActiveChanges(long fromVersion, long toVersion) {
+        synchronized (active) {
+            if (activeChanges.isEmpty() || activeChanges.peekFirst().getVersion() > fromVersion + 1) {
+                return fromVersion == toVersion ? List.of() : null;
+            }
+            return activeChanges.stream()
+                    .filter(eachChange -> eachChange.getVersion() > fromVersion && eachChange.getVersion() <= toVersion)
+                    .toList();
+        }
+    }
+
+    private ActiveResources publishActiveResources() {
+        //Without the list of changes, the views of the active resources have to be rebuilt
+        activeChanges.clear();
+        activeResources = new ActiveResources(this, activeVersion++, active);
+        return activeResources;
+    }
+
+    private ActiveResources publishActiveResources(int[] activatedIndices, int[] deactivatedIndices) {
+        if (activeChanges.size() == MAX_ACTIVE_CHANGES) {
+            activeChanges.removeFirst();
+        }
+        activeChanges.addLast(new ActiveResourcesChange(activeVersion, activatedIndices, deactivatedIndices));
+        activeResources = new ActiveResources(this, activeVersion++, active);
+        return activeResources;
+    }
+
+    /**
+     * Adds an empty attribute column.
+     * @return position of the column, to be used with {@link #setAttribute(int, int, AnyValue)}
+     */
+    public synchronized int addColumn(String key) {
+        columns.add(new AttributeColumn(key, size));
+        indexColumn(key);
+        return columns.size() - 1;
+    }
+
+    /**
+     * Adds an attribute column with the value of each resource computed in parallel. The resources for which the value
+     * function returns null do not get the attribute.
+     * @return position of the column
+     */
+    public int addEvaluatedColumn(String key, IntFunction<AnyValue> valueFunction) {
+        int column = addColumn(key);
+        IntStream.range(0, size).parallel().forEach(index -> {
+            AnyValue value = valueFunction.apply(index);
+            if (value != null) {
+                setAttribute(column, index, value);
+            }
+        });
+        columns.get(column).compact();
+        return column;
+    }
+
+    /**
+     * Encodes the columns with few distinct values as dictionaries and releases the values interned while building the
+     * columns. Must be called once all the attributes have been set, adding an attribute afterwards turns its column back
+     * into plain values.
+     */
+    public void compactColumns() {
+        columns.parallelStream().forEach(AttributeColumn::compact);
+    }
+
+    /**
+     * Adds a column whose value for each resource is computed from the index of the resource every time it is read.
+     * @param key - Attribute key
+     * @param expression - Attribute expression the values are derived from, kept for the snapshots of the store
+     * @param valueFunction - Value of the attribute for each index
+     */
+    public synchronized void addDerivedColumn(String key, String expression, IntFunction<AnyValue> valueFunction) {
+        columns.add(new AttributeColumn(key, expression, valueFunction));
+        indexColumn(key);
+    }
+
+    /**
+     * Adds a column with the cells and dictionary of a dictionary column read back from a snapshot.
+     */
+    synchronized void addColumn(String key, int[] codes, List<KeyValue> dictionary) {
+        var column = new AttributeColumn(key, size);
+        column.setDictionary(codes, dictionary);
+        columns.add(column);
+        indexColumn(key);
+    }
+
+    /**
+     * Adds a column with the values of a plain column read back from a snapshot.
+     */
+    synchronized void addColumn(String key, KeyValue[] values) {
+        var column = new AttributeColumn(key, size);
+        System.arraycopy(values, 0, column.values, 0, size);
+        column.internedValues = null;
+        columns.add(column);
+        indexColumn(key);
+    }
+
+    String getColumnKey(int column) {
+        return columns.get(column).key;
+    }
+
+    String getDerivedExpression(int column) {
+        return columns.get(column).expression;
+    }
+
+    boolean isDictionaryColumn(int column) {
+        return columns.get(column).codes != null;
+    }
+
+    KeyValue[] getColumnValues(int column) {
+        return columns.get(column).values;
+    }
+
+    int[] getColumnCodes(int column) {
+        return columns.get(column).codes;
+    }
+
+    List<KeyValue> getColumnDictionary(int column) {
+        return columns.get(column).dictionary;
+    }
+
+    long[] getActiveWords() {
+        synchronized (active) {
+            return active.toLongArray();
+        }
+    }
+
+    void setActiveWords(long[] words) {
+        synchronized (active) {
+            active.clear();
+            active.or(BitSet.valueOf(words));
+            activationCursor = size == 0 ? 0 : active.length() % size;
+            publishActiveResources();
+        }
+    }
+
+    private void indexColumn(String key) {
+        int[] keyColumns = columnsByKey.getOrDefault(key, new int[0]);
+        keyColumns = Arrays.copyOf(keyColumns, keyColumns.length + 1);
+        keyColumns[keyColumns.length - 1] = columns.size() - 1;
+        columnsByKey.put(key, keyColumns);
+    }
+
+    public boolean isDerivedColumn(int column) {
+        return columns.get(column).valueFunction != null;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * Sets the value of a cell of a column. Different resources of the same column can be set concurrently until the
+     * columns are compacted.
+     */
+    public void setAttribute(int column, int index, AnyValue value) {
+        columns.get(column).setValue(index, value);
+    }
+
+    /**
+     * Adds an attribute to a single resource, in the first column with the key that is still empty for the resource or in
+     * a new column with the key otherwise.
+     */
+    public synchronized void addAttribute(int index, String key, AnyValue value) {
+        for (int eachColumn: columnsByKey.getOrDefault(key, new int[0])) {
+            if (!isDerivedColumn(eachColumn) && !columns.get(eachColumn).hasValue(index)) {
+                setAttribute(eachColumn, index, value);
+                return;
+            }
+        }
+        setAttribute(addColumn(key), index, value);
+    }
+
+    /**
+     * @return the attributes of the resource in the order they were added
+     */
+    public List<KeyValue> getAttributes(int index) {
+        List<KeyValue> attributes = new ArrayList<>(columns.size());
+        for (AttributeColumn eachColumn: columns) {
+            KeyValue attribute = eachColumn.getAttribute(index);
+            if (attribute != null) {
+                attributes.add(attribute);
+            }
+        }
+        return attributes;
+    }
+
+    public Resource getOTelResource(int index) {
+        if (resourceCache == null) {
+            return Resource.newBuilder().addAllAttributes(getAttributes(index)).build();
+        }
+        Resource resource;
+        synchronized (resourceCache) {
+            resource = resourceCache.get(index);
+        }
+        if (resource == null) {
+            resource = Resource.newBuilder().addAllAttributes(getAttributes(index)).build();
+            synchronized (resourceCache) {
+                resourceCache.put(index, resource);
+            }
+        }
+        return resource;
+    }
+
+    /**
+     * Caches up to the provided number of the most recently used OTel resources. Must be enabled only once all the
+     * attributes have been added.
+     */
+    public void enableResourceCache(int maxResources) {
+        resourceCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Resource> eldest) {
+                return size() > maxResources;
+            }
+        };
+    }
+
+    /**
+     * @return the value of the first column with the key that is set for the resource or null if it does not have one
+     */
+    public AnyValue getFirstAttribute(int index, String key) {
+        for (int eachColumn: columnsByKey.getOrDefault(key, new int[0])) {
+            KeyValue attribute = columns.get(eachColumn).getAttribute(index);
+            if (attribute != null) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the string form of the last value of the attribute of the resource or null if it does not have one
+     */
+    public String getAttributeString(int index, String key) {
+        int[] keyColumns = columnsByKey.getOrDefault(key, new int[0]);
+        for (int i=keyColumns.length-1; i>=0; i--) {
+            AttributeColumn eachColumn = columns.get(keyColumns[i]);
+            if (eachColumn.hasValue(index)) {
+                return eachColumn.getString(index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the attributes of the resource as strings, where the last value wins for repeated keys
+     */
+    public Map<String, String> getAttributeStrings(int index) {
+        Map<String, String> attributes = new HashMap<>();
+        for (AttributeColumn eachColumn: columns) {
+            if (eachColumn.hasValue(index)) {
+                attributes.put(eachColumn.key, eachColumn.getString(index));
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * @return true if the resource has all the attributes with the same string values
+     */
+    public boolean matchesAttributes(int index, Map<String, String> attributes) {
+        for (Map.Entry<String, String> eachAttribute: attributes.entrySet()) {
+            if (!Objects.equals(getAttributeString(index, eachAttribute.getKey()), eachAttribute.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void setChildren(String childType, ResourceAdjacency adjacency) {
+        childrenByType.put(childType, adjacency);
+    }
+
+    public void setParents(String parentType, ResourceAdjacency adjacency) {
+        parentsByType.put(parentType, adjacency);
+    }
+
+    public Map<String, ResourceAdjacency> getChildrenByType() {
+        return childrenByType;
+    }
+
+    public Map<String, ResourceAdjacency> getParentsByType() {
+        return parentsByType;
+    }
+
+    private static class AttributeColumn {
+
+        private final String key;
+        private final int size;
+        private KeyValue[] values; //value of each resource or null if it has none, unless encoded as a dictionary
+        private volatile Map<AnyValue, KeyValue> internedValues; //distinct values while building, until there are too many
+        private int[] codes; //position of the value of each resource in the dictionary or -1 if it has none
+        private List<KeyValue> dictionary;
+        private List<String> stringValues; //string form of each dictionary value, used for the attribute filters
+        private final IntFunction<AnyValue> valueFunction; //computes the value of each resource of a derived column
+        private final String expression; //attribute expression of a derived column
+
+        private AttributeColumn(String key, int size) {
+            this.key = key;
+            this.size = size;
+            values = new KeyValue[size];
+            internedValues = new ConcurrentHashMap<>();
+            valueFunction = null;
+            expression = null;
+        }
+
+        private AttributeColumn(String key, String expression, IntFunction<AnyValue> valueFunction) {
+            this.key = key;
+            size = 0;
+            this.valueFunction = valueFunction;
+            this.expression = expression;
+        }
+
+        private boolean hasValue(int index) {
+            if (valueFunction != null) {
+                return true;
+            }
+            return codes == null ? values[index] != null : codes[index] != -1;
+        }
+
+        private KeyValue getAttribute(int index) {
+            if (valueFunction != null) {
+                return KeyValue.newBuilder().setKey(key).setValue(valueFunction.apply(index)).build();
+            }
+            if (codes == null) {
+                return values[index];
+            }
+            return codes[index] == -1 ? null : dictionary.get(codes[index]);
+        }
+
+        private String getString(int index) {
+            if (valueFunction != null) {
+                return CommonUtils.anyValueToString(valueFunction.apply(index));
+            }
+            return codes == null ? CommonUtils.anyValueToString(values[index].getValue()) : stringValues.get(codes[index]);
+        }
+
+        private void setValue(int index, AnyValue value) {
+            if (codes != null) {
+                decode();
+            }
+            values[index] = intern(value);
+        }
+
+        /**
+         * Shares the key-value of repeated values. Interning stops once the distinct values exceed half of the resources,
+         * since such a column is kept as plain values anyway.
+         */
+        private KeyValue intern(AnyValue value) {
+            Map<AnyValue, KeyValue> interned = internedValues;
+            if (interned == null) {
+                return KeyValue.newBuilder().setKey(key).setValue(value).build();
+            }
+            KeyValue keyValue = interned.computeIfAbsent(value, each -> KeyValue.newBuilder().setKey(key).setValue(each).build());
+            if (interned.size() > size / 2) {
+                internedValues = null;
+            }
+            return keyValue;
+        }
+
+        private void compact() {
+            if (values == null) {
+                return;
+            }
+            if (internedValues != null) {
+                Map<KeyValue, Integer> codesByValue = new IdentityHashMap<>();
+                List<KeyValue> distinctValues = new ArrayList<>();
+                int[] valueCodes = new int[size];
+                for (var i=0; i<size; i++) {
+                    valueCodes[i] = values[i] == null ? -1 : codesByValue.computeIfAbsent(values[i], eachValue -> {
+                        distinctValues.add(eachValue);
+                        return distinctValues.size() - 1;
+                    });
+                }
+                setDictionary(valueCodes, distinctValues);
+            }
+            internedValues = null;
+        }
+
+        private void setDictionary(int[] valueCodes, List<KeyValue> distinctValues) {
+            dictionary = distinctValues;
+            stringValues = distinctValues.stream().map(eachValue -> CommonUtils.anyValueToString(eachValue.getValue())).toList();
+            codes = valueCodes;
+            values = null;
+            internedValues = null;
+        }
+
+        private synchronized void decode() {
+            if (codes == null) {
+                return;
+            }
+            var decodedValues = new KeyValue[size];
+            for (var i=0; i<size; i++) {
+                decodedValues[i] = codes[i] == -1 ? null : dictionary.get(codes[i]);
+            }
+            values = decodedValues;
+            codes = null;
+            dictionary = null;
+            stringValues = null;
+        }
+    }
+
+    private class ResourceList extends AbstractList<GeneratorResource> implements RandomAccess {
+
+        @Override
+        public GeneratorResource get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return new GeneratorResource(ResourceColumnStore.this, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -36,6 +36,8 @@ public class ResourceDefinition {
     private Map<String, String> attributes;
     private List<String> attributeOperations;
     private List<RuntimeModification> runtimeModifications;
+    private Boolean lazyAttributes; //compute the attributes derived from the resource index on read instead of storing them
+    private Integer resourceCacheSize; //max OTel resources cached for a type with lazy attributes
     @JsonIgnore
     private Integer countWithRuntimeModifications;
 
@@ -44,6 +46,7 @@ public class ResourceDefinition {
         validateAttributes();
         validateChildren(allResourceNames);
         validateRuntimeModifications();
+        validateLazyAttributes();
     }
     
     private void validateMandatoryFields() {
@@ -82,6 +85,15 @@ public class ResourceDefinition {
         childrenDistribution = children;
     }
 
+    private void validateLazyAttributes() {
+        lazyAttributes = lazyAttributes != null && lazyAttributes;
+        if (resourceCacheSize == null) {
+            resourceCacheSize = 10_000;
+        } else if (resourceCacheSize < 1) {
+            throw new GeneratorException("'resourceCacheSize' must be at least 1 for resource " + name);
+        }
+    }
+
     private void validateRuntimeModifications() {
         for (RuntimeModification eachModification: CollectionUtils.emptyIfNull(runtimeModifications)) {
             eachModification.validate(name, count);
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.core.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Binary snapshot of a generated resource model, i.e. the column stores of all the resource types with their attributes,
+ * the links between them and the active resources. Snapshots are stored in a directory with the SHA-256 hash of the
+ * resource definitions as the file name, so a model is only ever loaded for the same definitions it was generated from.
+ * <p>
+ * The file is laid out like the stores: for each type, the active bitset, then for each column either its dictionary of
+ * serialized key-values followed by the int code of each resource, the serialized key-value of each resource for a plain
+ * column, or the expression of a derived column, and then the
+ * offsets and targets of the links to each child and parent type. A snapshot is loaded by memory mapping the file and
+ * bulk copying the arrays into the stores, so the snapshot can be shared through the page cache by several processes on
+ * the same host. The file is written to a temporary file first and moved in place, so readers never see a partial file.
+ */
+public class ResourceModelSnapshot {
+
+    private static final int MAGIC = 0x4F544753; //OTGS
+    private static final int FORMAT_VERSION = 2;
+
+    private ResourceModelSnapshot() {}
+
+    /**
+     * @return path of the snapshot for the provided resource definitions in the snapshot directory
+     */
+    public static Path getSnapshotPath(String snapshotDirectory, Collection<ResourceDefinition> resourceDefinitions) {
+        return Paths.get(snapshotDirectory, "resource-model-" + getDefinitionsHash(resourceDefinitions) + ".snapshot");
+    }
+
+    static String getDefinitionsHash(Collection<ResourceDefinition> resourceDefinitions) {
+        var jsonMapper = JsonMapper.builder()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+                .build();
+        List<ResourceDefinition> sortedDefinitions = resourceDefinitions.stream()
+                .sorted(Comparator.comparing(ResourceDefinition::getName))
+                .toList();
+        try {
+            byte[] definitions = jsonMapper.writeValueAsBytes(sortedDefinitions);
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(4).putInt(FORMAT_VERSION).array());
+            return HexFormat.of().formatHex(digest.digest(definitions));
+        } catch (JsonProcessingException | NoSuchAlgorithmException exception) {
+            throw new GeneratorException("Failed to hash resource definitions for the resource model snapshot", exception);
+        }
+    }
+
+    /**
+     * Writes the stores of all the resource types to the snapshot file, replacing any existing snapshot atomically.
+     */
+    public static void write(Path snapshotPath, Map<String, ResourceColumnStore> stores) throws IOException {
+        Path directory = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempPath = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(stores.size());
+                for (ResourceColumnStore eachStore: stores.values()) {
+                    writeStore(output, eachStore);
+                }
+                for (ResourceColumnStore eachStore: stores.values()) {
+                    writeAdjacencies(output, eachStore.getChildrenByType());
+                    writeAdjacencies(output, eachStore.getParentsByType());
+                }
+            }
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private static void writeStore(DataOutputStream output, ResourceColumnStore store) throws IOException {
+        writeString(output, store.getType());
+        output.writeInt(store.getSize());
+        long[] activeWords = store.getActiveWords();
+        output.writeInt(activeWords.length);
+        for (long eachWord: activeWords) {
+            output.writeLong(eachWord);
+        }
+        output.writeInt(store.getColumnCount());
+        for (var column=0; column<store.getColumnCount(); column++) {
+            writeString(output, store.getColumnKey(column));
+            output.writeBoolean(store.isDerivedColumn(column));
+            if (store.isDerivedColumn(column)) {
+                writeString(output, store.getDerivedExpression(column));
+                continue;
+            }
+            output.writeBoolean(store.isDictionaryColumn(column));
+            if (!store.isDictionaryColumn(column)) {
+                for (KeyValue eachValue: store.getColumnValues(column)) {
+                    writeKeyValue(output, eachValue);
+                }
+                continue;
+            }
+            List<KeyValue> dictionary = store.getColumnDictionary(column);
+            output.writeInt(dictionary.size());
+            for (KeyValue eachValue: dictionary) {
+                writeKeyValue(output, eachValue);
+            }
+            writeInts(output, store.getColumnCodes(column));
+        }
+    }
+
+    /**
+     * Writes the serialized key-value preceded by its length, or a length of -1 if there is no key-value.
+     */
+    private static void writeKeyValue(DataOutputStream output, KeyValue keyValue) throws IOException {
+        if (keyValue == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] valueBytes = keyValue.toByteArray();
+        output.writeInt(valueBytes.length);
+        output.write(valueBytes);
+    }
+
+    private static void writeAdjacencies(DataOutputStream output, Map<String, ResourceAdjacency> adjacencies) throws IOException {
+        output.writeInt(adjacencies.size());
+        for (Map.Entry<String, ResourceAdjacency> eachAdjacency: adjacencies.entrySet()) {
+            writeString(output, eachAdjacency.getKey());
+            output.writeInt(eachAdjacency.getValue().getOffsetArray().length);
+            writeInts(output, eachAdjacency.getValue().getOffsetArray());
+            output.writeInt(eachAdjacency.getValue().getTargetArray().length);
+            writeInts(output, eachAdjacency.getValue().getTargetArray());
+        }
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        var buffer = ByteBuffer.allocate(Math.min(values.length, 1 << 14) * Integer.BYTES);
+        for (var start=0; start<values.length; start+=buffer.capacity() / Integer.BYTES) {
+            int count = Math.min(values.length - start, buffer.capacity() / Integer.BYTES);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, start, count);
+            output.write(buffer.array(), 0, count * Integer.BYTES);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Loads the stores of all the resource types from a snapshot file.
+     * @param snapshotPath - Path of the snapshot file
+     * @param derivedColumnFunctions - Provides the value function of a derived column from its attribute expression
+     * @return store of each resource type
+     * @throws IOException if the snapshot cannot be read or is not a valid snapshot
+     */
+    public static Map<String, ResourceColumnStore> read(Path snapshotPath,
+                                                        Function<String, IntFunction<AnyValue>> derivedColumnFunctions) throws IOException {
+        MappedByteBuffer buffer;
+        try (var channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Resource model snapshot " + snapshotPath + " is too large to be mapped");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown format of resource model snapshot " + snapshotPath);
+            }
+            Map<String, ResourceColumnStore> stores = new LinkedHashMap<>();
+            int typeCount = buffer.getInt();
+            for (var i=0; i<typeCount; i++) {
+                ResourceColumnStore store = readStore(buffer, derivedColumnFunctions);
+                stores.put(store.getType(), store);
+            }
+            for (ResourceColumnStore eachStore: stores.values()) {
+                readAdjacencies(buffer, stores).forEach(eachStore::setChildren);
+                readAdjacencies(buffer, stores).forEach(eachStore::setParents);
+            }
+            return stores;
+        } catch (RuntimeException exception) {
+            throw new IOException("Invalid resource model snapshot " + snapshotPath, exception);
+        }
+    }
+
+    private static ResourceColumnStore readStore(ByteBuffer buffer, Function<String, IntFunction<AnyValue>> derivedColumnFunctions)
+            throws InvalidProtocolBufferException {
+        String type = readString(buffer);
+        int size = buffer.getInt();
+        long[] activeWords = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(activeWords);
+        buffer.position(buffer.position() + activeWords.length * Long.BYTES);
+        var store = new ResourceColumnStore(type, size, 0);
+        store.setActiveWords(activeWords);
+        int columnCount = buffer.getInt();
+        for (var column=0; column<columnCount; column++) {
+            String key = readString(buffer);
+            if (buffer.get() != 0) {
+                String expression = readString(buffer);
+                store.addDerivedColumn(key, expression, derivedColumnFunctions.apply(expression));
+                continue;
+            }
+            if (buffer.get() == 0) {
+                var values = new KeyValue[size];
+                for (var i=0; i<size; i++) {
+                    values[i] = readKeyValue(buffer);
+                }
+                store.addColumn(key, values);
+                continue;
+            }
+            List<KeyValue> dictionary = new ArrayList<>();
+            int dictionarySize = buffer.getInt();
+            for (var i=0; i<dictionarySize; i++) {
+                dictionary.add(readKeyValue(buffer));
+            }
+            store.addColumn(key, readInts(buffer, size), dictionary);
+        }
+        return store;
+    }
+
+    private static KeyValue readKeyValue(ByteBuffer buffer) throws InvalidProtocolBufferException {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] valueBytes = new byte[length];
+        buffer.get(valueBytes);
+        return KeyValue.parseFrom(valueBytes);
+    }
+
+    private static Map<String, ResourceAdjacency> readAdjacencies(ByteBuffer buffer, Map<String, ResourceColumnStore> stores) {
+        Map<String, ResourceAdjacency> adjacencies = new LinkedHashMap<>();
+        int adjacencyCount = buffer.getInt();
+        for (var i=0; i<adjacencyCount; i++) {
+            String targetType = readString(buffer);
+            int[] offsets = readInts(buffer, buffer.getInt());
+            int[] targets = readInts(buffer, buffer.getInt());
+            adjacencies.put(targetType, new ResourceAdjacency(stores.get(targetType), offsets, targets));
+        }
+        return adjacencies;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -18,6 +18,7 @@ package io.opentelemetry.contrib.generator.core.dto;
 
 import lombok.Data;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
 import java.util.Set;
@@ -28,8 +29,10 @@ public class Resources {
 
     private List<ResourceDefinition> resources;
     private boolean hasRuntimeModifications;
+    private String snapshotDirectory; //directory of the resource model snapshots to load instead of regenerating the model
 
     public Set<String> validate() {
+        snapshotDirectory = StringUtils.isBlank(snapshotDirectory) ? null : snapshotDirectory.trim();
         Set<String> allResourceNames = resources.stream().map(ResourceDefinition::getName).collect(Collectors.toSet());
         for (ResourceDefinition eachType: resources) {
             eachType.validate(allResourceNames);
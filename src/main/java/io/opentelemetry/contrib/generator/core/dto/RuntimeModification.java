@@ -21,6 +21,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.apache.commons.lang3.RandomStringUtils;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A modification applied to the resources of a type at runtime. The frequency and the time window of the modification can
+ * be specified either in minutes or, for finer control, in seconds which take precedence over the minutes. The number of
+ * resources modified each time is either the fixed modificationQuantity or the modificationRate as a fraction of the count
+ * of the resource type, e.g. 0.01 to churn 1% of the resources.
+ */
 @Data
 public class RuntimeModification {
 
@@ -33,21 +41,49 @@ public class RuntimeModification {
     private int modificationQuantity;
     private int startAfterMinutes;
     private int endAfterMinutes;
+    private Integer modificationFrequencySeconds;
+    private Integer startAfterSeconds;
+    private Integer endAfterSeconds;
+    private Double modificationRate;
 
     public void validate(String resourceType, int originalCount) {
         this.resourceType = resourceType;
         modificationId = RandomStringUtils.randomAlphanumeric(16);
-        if (resourceModificationType == null || modificationFrequencyMinutes < 1 || modificationQuantity < 1) {
+        if (modificationRate != null) {
+            if (modificationRate <= 0 || modificationRate > 1) {
+                throw new GeneratorException("Invalid runtime modification added for " + resourceType +
+                        ". modificationRate must be more than 0 and at most 1.");
+            }
+            modificationQuantity = (int) Math.max(1, Math.round(modificationRate * originalCount));
+        }
+        if (resourceModificationType == null || getModificationFrequencyMillis() < 1000 || modificationQuantity < 1) {
             String message = "Invalid runtime modification added for " + resourceType +
-                    ". All 3 params: (resourceModificationType, modificationFrequencyMinutes, modificationQuantity) must be provided.";
+                    ". All 3 params: (resourceModificationType, modificationFrequencyMinutes or modificationFrequencySeconds, " +
+                    "modificationQuantity or modificationRate) must be provided.";
             throw new GeneratorException(message);
         }
         if (resourceModificationType != ResourceModificationType.ADD && modificationQuantity > originalCount) {
             throw new GeneratorException(resourceModificationType + " modification type has a modification quantity more than the resource count for " + resourceType);
         }
-        if (endAfterMinutes < modificationFrequencyMinutes) {
-            throw new GeneratorException(resourceModificationType + " has an end time of " + endAfterMinutes + " minutes which exceeds the " +
-                    modificationFrequencyMinutes + " minutes specified for frequency");
+        if (getEndAfterMillis() < getModificationFrequencyMillis()) {
+            throw new GeneratorException(resourceModificationType + " has an end time of " + getEndAfterMillis() + " ms which is less than the " +
+                    getModificationFrequencyMillis() + " ms specified for frequency");
         }
     }
+
+    @JsonIgnore
+    public long getModificationFrequencyMillis() {
+        return modificationFrequencySeconds == null ? TimeUnit.MINUTES.toMillis(modificationFrequencyMinutes) :
+                TimeUnit.SECONDS.toMillis(modificationFrequencySeconds);
+    }
+
+    @JsonIgnore
+    public long getStartAfterMillis() {
+        return startAfterSeconds == null ? TimeUnit.MINUTES.toMillis(startAfterMinutes) : TimeUnit.SECONDS.toMillis(startAfterSeconds);
+    }
+
+    @JsonIgnore
+    public long getEndAfterMillis() {
+        return endAfterSeconds == null ? TimeUnit.MINUTES.toMillis(endAfterMinutes) : TimeUnit.SECONDS.toMillis(endAfterSeconds);
+    }
 }
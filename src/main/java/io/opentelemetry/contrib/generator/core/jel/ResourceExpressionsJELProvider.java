@@ -21,19 +21,25 @@ import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Provides ELProcessor initialized with all the expression methods supported by the resource model definition YAML.
+ * Provides ELProcessor initialized with all the expression methods supported by the resource model definition YAML. An
+ * ELProcessor must not be used by several threads at once, so the resources evaluated in parallel use
+ * {@link #getThreadJelProcessor()}, which gives each thread its own processor with all the same expression methods.
  */
 public class ResourceExpressionsJELProvider {
 
     private static ExpressionProcessor jelProcessor;
+    private static volatile boolean builtInFunctionsDefined;
+    private static final List<FunctionDefinition> functionDefinitions = new CopyOnWriteArrayList<>(); //all the functions defined, in order
+    private static final ThreadLocal<ThreadProcessor> threadJelProcessors = ThreadLocal.withInitial(ThreadProcessor::new);
 
     private ResourceExpressionsJELProvider() {}
 
-    public static ExpressionProcessor getJelProcessor() {
-        if (jelProcessor == null) {
-            jelProcessor = new ExpressionProcessor();
+    public static synchronized ExpressionProcessor getJelProcessor() {
+        if (builtInFunctionsDefined) {
+            return jelProcessor;
         }
         var expressionsClass = "io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions";
         List<String> methods = Arrays.asList("counter", "UUIDFromStringCounter", "roundRobin", "alphanumericSequenceFromEnv",
@@ -42,9 +48,24 @@ public class ResourceExpressionsJELProvider {
         var operationsClass = "io.opentelemetry.contrib.generator.core.ResourceModelGenerator";
         methods = Arrays.asList("copyFromParent", "modifyFromParent");
         addMethods(operationsClass, methods);
+        builtInFunctionsDefined = true;
         return jelProcessor;
     }
 
+    /**
+     * @return expression processor of the calling thread, having all the functions defined so far
+     */
+    public static ExpressionProcessor getThreadJelProcessor() {
+        if (!builtInFunctionsDefined) {
+            getJelProcessor();
+        }
+        ThreadProcessor threadProcessor = threadJelProcessors.get();
+        while (threadProcessor.definedCount < functionDefinitions.size()) {
+            functionDefinitions.get(threadProcessor.definedCount++).defineIn(threadProcessor.processor);
+        }
+        return threadProcessor.processor;
+    }
+
     private static void addMethods(String expressionsClass, List<String> methods) {
         methods.forEach(method -> addExpression("", "", expressionsClass, method));
     }
@@ -53,32 +74,48 @@ public class ResourceExpressionsJELProvider {
      * See <a href="https://jakarta.ee/specifications/platform/9/apidocs/jakarta/el/elprocessor#defineFunction-java.lang.String-java.lang.String-java.lang.String-java.lang.String-">...</a>
      * Must be called in your code before telemetry generation is started.
      */
-    public static void addExpression(String prefix, String function, String className, String methodName) {
-        if (jelProcessor == null) {
-            jelProcessor = new ExpressionProcessor();
-        }
-        try {
-            jelProcessor.defineFunction(prefix, function, className, methodName);
-        } catch (ClassNotFoundException e) {
-            throw new GeneratorException("Unable to find " + className + " having expression methods");
-        } catch (NoSuchMethodException e) {
-            throw new GeneratorException("Unknown expression method " + className + "." + methodName +
-                    " provided for class", e);
-        }
+    public static synchronized void addExpression(String prefix, String function, String className, String methodName) {
+        addFunction(new FunctionDefinition(prefix, function, className, methodName, null));
     }
 
     /**
      * See <a href="https://jakarta.ee/specifications/platform/9/apidocs/jakarta/el/elprocessor#defineFunction-java.lang.String-java.lang.String-java.lang.reflect.Method-">...</a>
      * Must be called in your code before telemetry generation is started.
      */
-    public static void addExpression(String prefix, String function, Method method) {
+    public static synchronized void addExpression(String prefix, String function, Method method) {
+        addFunction(new FunctionDefinition(prefix, function, null, null, method));
+    }
+
+    private static void addFunction(FunctionDefinition functionDefinition) {
         if (jelProcessor == null) {
             jelProcessor = new ExpressionProcessor();
         }
-        try {
-            jelProcessor.defineFunction(prefix, function, method);
-        } catch (NoSuchMethodException e) {
-            throw new GeneratorException("Unknown expression method " + method + " provided", e);
+        functionDefinition.defineIn(jelProcessor);
+        if (!functionDefinitions.contains(functionDefinition)) {
+            functionDefinitions.add(functionDefinition);
+        }
+    }
+
+    private record FunctionDefinition(String prefix, String function, String className, String methodName, Method method) {
+
+        private void defineIn(ExpressionProcessor processor) {
+            try {
+                if (method == null) {
+                    processor.defineFunction(prefix, function, className, methodName);
+                } else {
+                    processor.defineFunction(prefix, function, method);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new GeneratorException("Unable to find " + className + " having expression methods");
+            } catch (NoSuchMethodException e) {
+                throw new GeneratorException("Unknown expression method " + (method == null ? className + "." + methodName +
+                        " provided for class" : method + " provided"), e);
+            }
         }
     }
+
+    private static class ThreadProcessor {
+        private final ExpressionProcessor processor = new ExpressionProcessor();
+        private int definedCount; //number of the function definitions already defined in the processor
+    }
 }
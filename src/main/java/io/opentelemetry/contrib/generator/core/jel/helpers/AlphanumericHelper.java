@@ -22,7 +22,7 @@ import java.util.List;
 
 public class AlphanumericHelper {
 
-    private static List<Character> alphanums;
+    private static volatile List<Character> alphanums; //published only once complete since resources are generated in parallel
     private static int alphanumsLength;
 
     private AlphanumericHelper() {}
@@ -48,6 +48,67 @@ public class AlphanumericHelper {
         return String.valueOf(input);
     }
 
+    /**
+     * Get the alphanumeric string the provided number of steps after the input string, i.e. the result of calling
+     * {@link #getNext(String)} that many times. Strings of only alphanumeric characters are treated as base 62 numbers so
+     * the result is computed in a single addition, while any other string is advanced one step at a time.
+     * @param string input string
+     * @param steps number of steps to advance
+     * @return string after the steps
+     */
+    public static String getNext(String string, long steps) {
+        if (!supportsJump(string)) {
+            String next = string;
+            for (long step=0; step<steps; step++) {
+                next = getNext(next);
+            }
+            return next;
+        }
+        int[] digits = new int[string.length()];
+        for (var i=0; i<digits.length; i++) {
+            digits[i] = alphanums.indexOf(string.charAt(i));
+        }
+        long carry = steps;
+        int position = digits.length - 1;
+        while (carry > 0) {
+            if (position < 0) {
+                //Flipping past all Zs resets the string to 0s with another 0 added, which uses up one step of the carry
+                int[] widerDigits = new int[digits.length + 1];
+                System.arraycopy(digits, 0, widerDigits, 1, digits.length);
+                digits = widerDigits;
+                carry--;
+                position = 0;
+                continue;
+            }
+            long sum = digits[position] + carry;
+            digits[position] = (int) (sum % alphanumsLength);
+            carry = sum / alphanumsLength;
+            position--;
+        }
+        var next = new StringBuilder(digits.length);
+        for (int eachDigit: digits) {
+            next.append(alphanums.get(eachDigit));
+        }
+        return next.toString();
+    }
+
+    /**
+     * @param string input string
+     * @return true if the string has only alphanumeric characters, so that {@link #getNext(String, long)} jumps any number
+     * of steps in a single addition
+     */
+    public static boolean supportsJump(String string) {
+        if (alphanums == null) {
+            initAlphanums();
+        }
+        for (var i=0; i<string.length(); i++) {
+            if (alphanums.indexOf(string.charAt(i)) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean updateChar(char[] string) {
         var updated = false;
         for (int i = string.length-1; i >= 0; i--) {
@@ -65,8 +126,11 @@ public class AlphanumericHelper {
         return updated;
     }
 
-    private static void initAlphanums() {
-        alphanums = new ArrayList<>();
+    private static synchronized void initAlphanums() {
+        if (alphanums != null) {
+            return;
+        }
+        List<Character> alphanums = new ArrayList<>();
         List<Character> nums = Arrays.asList('0', '1', '2', '3', '4', '5', '6', '7', '8', '9');
         List<Character> a2z = Arrays.asList('a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o',
                 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z');
@@ -76,5 +140,6 @@ public class AlphanumericHelper {
         alphanums.addAll(a2z);
         alphanums.addAll(A2Z);
         alphanumsLength = alphanums.size();
+        AlphanumericHelper.alphanums = alphanums;
     }
 }
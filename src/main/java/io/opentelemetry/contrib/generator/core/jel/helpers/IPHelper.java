@@ -42,6 +42,59 @@ public class IPHelper {
         return StringUtils.join(ipOctets, ".");
     }
 
+    /**
+     * Get the IPv4 address the provided number of steps after the input address, i.e. the result of calling
+     * {@link #nextIPv4Address(String)} that many times. Addresses with all the octets in the 1-255 range are treated as
+     * base 255 numbers so the result is computed in a single addition, while any other address is advanced one step at a time.
+     */
+    public static String nextIPv4Address(String currentAddress, long steps) {
+        if (!supportsJump(currentAddress)) {
+            String next = currentAddress;
+            for (long step=0; step<steps; step++) {
+                next = nextIPv4Address(next);
+            }
+            return next;
+        }
+        long value = 0;
+        for (String eachOctet: currentAddress.split("\\.")) {
+            value = value * 255 + Integer.parseInt(eachOctet) - 1;
+        }
+        long addressCount = 255L * 255 * 255 * 255;
+        value = value + steps;
+        if (value >= addressCount) {
+            //Past 255.255.255.255 the sequence restarts from 10.10.10.10 and cycles through the addresses after it
+            long resetValue = ((9L * 255 + 9) * 255 + 9) * 255 + 9;
+            value = resetValue + (value - addressCount) % (addressCount - resetValue);
+        }
+        Integer[] nextOctets = new Integer[4];
+        for (var i=3; i>=0; i--) {
+            nextOctets[i] = (int) (value % 255) + 1;
+            value = value / 255;
+        }
+        return StringUtils.join(nextOctets, ".");
+    }
+
+    /**
+     * @return true if the address has 4 octets in the 1-255 range, so that {@link #nextIPv4Address(String, long)} jumps any
+     * number of steps in a single addition
+     */
+    public static boolean supportsJump(String address) {
+        String[] octets = address.split("\\.");
+        if (octets.length != 4) {
+            return false;
+        }
+        for (String eachOctet: octets) {
+            if (!StringUtils.isNumeric(eachOctet) || eachOctet.length() > 3) {
+                return false;
+            }
+            int octet = Integer.parseInt(eachOctet);
+            if (octet < 1 || octet > 255) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean updateOctet(Integer[] octets) {
         var updated = false;
         for (var i=3; i>=0; i--) {
@@ -16,7 +16,6 @@
 
 package io.opentelemetry.contrib.generator.core.jel.methods;
 
-import io.opentelemetry.contrib.generator.core.jel.ExpressionProcessor;
 import io.opentelemetry.contrib.generator.core.jel.ResourceExpressionsJELProvider;
 import io.opentelemetry.contrib.generator.core.jel.helpers.AlphanumericHelper;
 import io.opentelemetry.contrib.generator.core.jel.helpers.IPHelper;
@@ -27,6 +26,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static io.opentelemetry.contrib.generator.telemetry.misc.Constants.ENV_ALPHANUMERIC;
 
@@ -41,8 +43,10 @@ public class ResourceModelExpressions {
     private static final ConcurrentHashMap<String, Integer> counters = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<String, Double> doubleCounters = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<String, String> stringCounters = new ConcurrentHashMap<>();
-    private static final ExpressionProcessor jelProcessor = ResourceExpressionsJELProvider.getJelProcessor();
     public static String expressionsGlobalKey = ""; //Modified by the resource model generator every time a new resource/attribute is being processed
+    private static final Pattern INDEX_DERIVED_EXPRESSION = Pattern.compile(
+            "(counter|UUIDFromStringCounter|alphanumericSequence|IPv4Sequence)\\(\\s*([\"'])([^\"'\\\\]*)\\2\\s*\\)");
+    private static final ThreadLocal<SequenceContext> sequenceContext = new ThreadLocal<>(); //overrides the global key if set
 
     private ResourceModelExpressions() {}
 
@@ -54,7 +58,11 @@ public class ResourceModelExpressions {
      * @return Output string
      */
     public static String counter(String string) {
-        String expressionId = expressionsGlobalKey + ":" + string;
+        String expressionId = getExpressionsKey() + ":" + string;
+        SequenceContext context = sequenceContext.get();
+        if (context != null && context.isIndexed()) {
+            return string + (context.nextOrdinal("counters:" + expressionId) + 1);
+        }
         counters.putIfAbsent(expressionId, 0);
         counters.put(expressionId, counters.get(expressionId) + 1);
         return string + counters.get(expressionId);
@@ -68,7 +76,12 @@ public class ResourceModelExpressions {
      * @return UUID string based on string sequence
      */
     public static String UUIDFromStringCounter(String stringSequenceSeed) {
-        String expressionId = expressionsGlobalKey + ":" + stringSequenceSeed;
+        String expressionId = getExpressionsKey() + ":" + stringSequenceSeed;
+        SequenceContext context = sequenceContext.get();
+        if (context != null && context.isIndexed()) {
+            long counter = context.nextOrdinal("counters:" + expressionId) + 1;
+            return UUID.nameUUIDFromBytes((stringSequenceSeed + counter).getBytes()).toString();
+        }
         counters.putIfAbsent(expressionId, 0);
         counters.put(expressionId, counters.get(expressionId) + 1);
         return UUID.nameUUIDFromBytes((stringSequenceSeed + counters.get(expressionId)).getBytes()).toString();
@@ -82,7 +95,11 @@ public class ResourceModelExpressions {
      * @return Current output value
      */
     public static String roundRobin(List<String> values) {
-        String expressionId = expressionsGlobalKey + ":" + StringUtils.join(values);
+        String expressionId = getExpressionsKey() + ":" + StringUtils.join(values);
+        SequenceContext context = sequenceContext.get();
+        if (context != null && context.isIndexed()) {
+            return values.get((int) (context.nextOrdinal("counters:" + expressionId) % values.size()));
+        }
         if (!counters.containsKey(expressionId)) {
             counters.put(expressionId, 0);
             return values.get(0);
@@ -101,7 +118,13 @@ public class ResourceModelExpressions {
      * @return Output string in sequence
      */
     public static String alphanumericSequence(String sequenceSeed) {
-        String expressionId = expressionsGlobalKey + ":" + sequenceSeed;
+        String expressionId = getExpressionsKey() + ":" + sequenceSeed;
+        SequenceContext context = sequenceContext.get();
+        if (context != null && context.isIndexed()) {
+            String sequenceId = "strings:" + expressionId;
+            return context.getSequenceValue(sequenceId, context.nextOrdinal(sequenceId), sequenceSeed,
+                    AlphanumericHelper::getNext, AlphanumericHelper::getNext);
+        }
         if (!stringCounters.containsKey(expressionId)) {
             stringCounters.put(expressionId, sequenceSeed);
             return sequenceSeed;
@@ -131,7 +154,13 @@ public class ResourceModelExpressions {
      * @return Output IP in sequence
      */
     public static String IPv4Sequence(String sequenceSeed) {
-        String expressionId = expressionsGlobalKey + ":" + sequenceSeed;
+        String expressionId = getExpressionsKey() + ":" + sequenceSeed;
+        SequenceContext context = sequenceContext.get();
+        if (context != null && context.isIndexed()) {
+            String sequenceId = "strings:" + expressionId;
+            return context.getSequenceValue(sequenceId, context.nextOrdinal(sequenceId), sequenceSeed,
+                    IPHelper::nextIPv4Address, IPHelper::nextIPv4Address);
+        }
         if (!stringCounters.containsKey(expressionId)) {
             stringCounters.put(expressionId, sequenceSeed);
             return sequenceSeed;
@@ -145,7 +174,11 @@ public class ResourceModelExpressions {
      * @return Next value in sequence
      */
     public static double count() {
-        String expressionId = expressionsGlobalKey + ":count";
+        String expressionId = getExpressionsKey() + ":count";
+        SequenceContext context = sequenceContext.get();
+        if (context != null && context.isIndexed()) {
+            return context.nextOrdinal("doubles:" + expressionId) + 1;
+        }
         doubleCounters.putIfAbsent(expressionId, 0D);
         doubleCounters.put(expressionId, doubleCounters.get(expressionId) + 1);
         return doubleCounters.get(expressionId);
@@ -158,7 +191,7 @@ public class ResourceModelExpressions {
      * @return Next double value
      */
     public static double getDouble(String expression) {
-        return Double.parseDouble(jelProcessor.eval(expression).toString());
+        return Double.parseDouble(ResourceExpressionsJELProvider.getThreadJelProcessor().eval(expression).toString());
     }
 
     /**
@@ -200,7 +233,11 @@ public class ResourceModelExpressions {
      * @return Current distribution count
      */
     public static int distribution(int base, int everyOther, int more) {
-        String expressionId = expressionsGlobalKey + ":" + base + everyOther + more;
+        String expressionId = getExpressionsKey() + ":" + base + everyOther + more;
+        SequenceContext context = sequenceContext.get();
+        if (context != null && context.isIndexed()) {
+            return getDistributionValue((int) context.nextOrdinal("counters:" + expressionId) + 1, base, everyOther, more);
+        }
         if (!counters.containsKey(expressionId)) {
             counters.put(expressionId, 0);
             return getDistributionValue(1, base, everyOther, more);
@@ -217,6 +254,51 @@ public class ResourceModelExpressions {
         return value;
     }
 
+    /**
+     * Sets the sequence context for the expressions evaluated by the current thread, which takes precedence over the
+     * global expressions key until it is cleared.
+     */
+    public static void setSequenceContext(SequenceContext context) {
+        sequenceContext.set(context);
+    }
+
+    public static void clearSequenceContext() {
+        sequenceContext.remove();
+    }
+
+    /**
+     * Returns the function computing the value of an attribute expression for the resource at each index, if the expression
+     * is a single call with a literal seed to one of the sequences that advance once per resource, i.e. counter,
+     * UUIDFromStringCounter, alphanumericSequence or IPv4Sequence. For such an expression, the value of the resource at index
+     * i is the value the sequence has after i advances, so it does not have to be evaluated up front for every resource.
+     * Alphanumeric and IPv4 sequences are derived only if their seed lets them jump i advances at once, since any other
+     * seed is advanced one step at a time and deriving the value of index i would take i steps on every read.
+     * @param expression Attribute expression
+     * @return Function from the resource index to the value or null if the value cannot be derived from the index alone
+     */
+    public static IntFunction<String> getIndexFunction(String expression) {
+        Matcher matcher = INDEX_DERIVED_EXPRESSION.matcher(StringUtils.defaultString(expression).trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String seed = matcher.group(3);
+        if ((matcher.group(1).equals("alphanumericSequence") && !AlphanumericHelper.supportsJump(seed)) ||
+                (matcher.group(1).equals("IPv4Sequence") && !IPHelper.supportsJump(seed))) {
+            return null;
+        }
+        return switch (matcher.group(1)) {
+            case "counter" -> index -> seed + (index + 1);
+            case "UUIDFromStringCounter" -> index -> UUID.nameUUIDFromBytes((seed + (index + 1)).getBytes()).toString();
+            case "alphanumericSequence" -> index -> AlphanumericHelper.getNext(seed, index);
+            default -> index -> IPHelper.nextIPv4Address(seed, index);
+        };
+    }
+
+    private static String getExpressionsKey() {
+        SequenceContext context = sequenceContext.get();
+        return context == null ? expressionsGlobalKey : context.getExpressionsKey();
+    }
+
     /**
      * Reset the state of all counters maintained by this class. Used only for the tests as of now.
      */
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.core.jel.methods;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Evaluation state of the stateful resource expressions for a single resource attribute, set for the current thread by
+ * {@link ResourceModelExpressions#setSequenceContext(SequenceContext)}. It has 3 modes: <p>
+ *     - Keyed: only replaces the global expressions key, the sequences still advance on the shared counters <p>
+ *     - Recording: evaluates the attribute of the first resource and records how many times each sequence is advanced <p>
+ *     - Indexed: derives the position of each sequence from the index of the resource being evaluated, so that the
+ *     resources of a type can be evaluated in any order and on any thread with the same result as the sequential order
+ * <p>
+ * The indexed mode assumes that every resource advances each sequence as many times as the first resource did. If an
+ * evaluation breaks this, it fails and the resource model generator falls back to evaluating the type sequentially.
+ */
+public class SequenceContext {
+
+    private final String expressionsKey;
+    private final boolean indexed;
+    private final Map<String, Integer> callsPerEvaluation; //recorded from the first resource, null in the keyed mode
+    private final Map<String, Integer> callsInEvaluation;
+    private final Map<String, Long> lastOrdinals; //last position of each string sequence evaluated by this context
+    private final Map<String, String> lastValues;
+    private long resourceIndex;
+
+    private SequenceContext(String expressionsKey, boolean indexed, Map<String, Integer> callsPerEvaluation) {
+        this.expressionsKey = expressionsKey;
+        this.indexed = indexed;
+        this.callsPerEvaluation = callsPerEvaluation;
+        callsInEvaluation = new HashMap<>();
+        lastOrdinals = new HashMap<>();
+        lastValues = new HashMap<>();
+    }
+
+    public static SequenceContext keyed(String expressionsKey) {
+        return new SequenceContext(expressionsKey, false, null);
+    }
+
+    public static SequenceContext recording(String expressionsKey) {
+        return new SequenceContext(expressionsKey, true, null);
+    }
+
+    public static SequenceContext indexed(String expressionsKey, Map<String, Integer> callsPerEvaluation) {
+        return new SequenceContext(expressionsKey, true, Map.copyOf(callsPerEvaluation));
+    }
+
+    public String getExpressionsKey() {
+        return expressionsKey;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Starts the evaluation of the attribute for the resource at the index.
+     */
+    public void startEvaluation(long resourceIndex) {
+        this.resourceIndex = resourceIndex;
+        callsInEvaluation.clear();
+    }
+
+    /**
+     * @return the number of times each sequence was advanced by the current evaluation
+     */
+    public Map<String, Integer> getCallsInEvaluation() {
+        return Map.copyOf(callsInEvaluation);
+    }
+
+    /**
+     * Fails if the current evaluation did not advance every sequence exactly as many times as the first resource did.
+     */
+    public void verifyUniformEvaluation() {
+        if (callsPerEvaluation != null && !callsPerEvaluation.equals(callsInEvaluation)) {
+            throw new NonUniformSequenceException(expressionsKey);
+        }
+    }
+
+    /**
+     * @param sequenceId unique id of the sequence, including the namespace of the shared counters it replaces
+     * @return 0 based position of the sequence for the current call, as it would be in the sequential order
+     */
+    long nextOrdinal(String sequenceId) {
+        int callIndex = callsInEvaluation.merge(sequenceId, 1, Integer::sum) - 1;
+        if (callsPerEvaluation == null) {
+            return callIndex;
+        }
+        Integer sequenceCalls = callsPerEvaluation.get(sequenceId);
+        if (sequenceCalls == null || callIndex >= sequenceCalls) {
+            throw new NonUniformSequenceException(sequenceId);
+        }
+        return resourceIndex * sequenceCalls + callIndex;
+    }
+
+    /**
+     * Returns the value of a string sequence at a position. Moving to the next position from the last evaluated one is done
+     * in a single step, which is the common case when the resources are evaluated in order within a range, while any other
+     * position is computed from the seed.
+     */
+    String getSequenceValue(String sequenceId, long ordinal, String seed, UnaryOperator<String> nextValue,
+                            SequenceJump jump) {
+        Long lastOrdinal = lastOrdinals.get(sequenceId);
+        String value;
+        if (lastOrdinal != null && lastOrdinal == ordinal - 1) {
+            value = nextValue.apply(lastValues.get(sequenceId));
+        } else {
+            value = jump.advance(seed, ordinal);
+        }
+        lastOrdinals.put(sequenceId, ordinal);
+        lastValues.put(sequenceId, value);
+        return value;
+    }
+
+    /**
+     * @return true if the exception was caused by a resource that advanced the sequences differently from the first one
+     */
+    public static boolean isNonUniform(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof NonUniformSequenceException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    interface SequenceJump {
+        String advance(String seed, long steps);
+    }
+
+    private static class NonUniformSequenceException extends RuntimeException {
+
+        private NonUniformSequenceException(String sequenceId) {
+            super("Sequence " + sequenceId + " advanced differently from the first resource");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.telemetry.metrics.MetricSeries;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the latest values of the metrics which are rolled up into the metrics of their parents, so that the metric
+ * generator threads of the parent types can aggregate the values reported by the threads of the child types.
+ */
+public class MetricSeriesProvider {
+
+    private static final ConcurrentMap<String, Map<String, MetricSeries>> metricSeries = new ConcurrentHashMap<>();
+
+    private MetricSeriesProvider() {}
+
+    public static void putRolledUpMetrics(String requestID, Map<String, Set<String>> metricNamesByType) {
+        Map<String, MetricSeries> seriesByKey = new ConcurrentHashMap<>();
+        metricNamesByType.forEach((resourceType, metricNames) -> {
+            int resourceCount = ResourceModelProvider.getResourceStore(requestID, resourceType).getSize();
+            metricNames.forEach(eachName -> seriesByKey.put(getKey(resourceType, eachName), new MetricSeries(resourceCount)));
+        });
+        metricSeries.put(requestID, seriesByKey);
+    }
+
+    /**
+     * @return the latest values of the metric reported by the resources of the type or null if it is not rolled up
+     */
+    public static MetricSeries getMetricSeries(String requestID, String resourceType, String metricName) {
+        Map<String, MetricSeries> seriesByKey = metricSeries.get(requestID);
+        return seriesByKey == null ? null : seriesByKey.get(getKey(resourceType, metricName));
+    }
+
+    /**
+     * Drops the series of the request once its generator threads have finished, since the map is static.
+     */
+    public static void removeMetricSeries(String requestID) {
+        metricSeries.remove(requestID);
+    }
+
+    private static String getKey(String resourceType, String metricName) {
+        return resourceType + "::" + metricName;
+    }
+}
@@ -16,7 +16,9 @@
 
 package io.opentelemetry.contrib.generator.telemetry;
 
+import io.opentelemetry.contrib.generator.core.dto.ActiveResources;
 import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
 
 import java.util.List;
 import java.util.Map;
@@ -36,4 +38,16 @@ public class ResourceModelProvider {
     public static Map<String, List<GeneratorResource>> getResourceModel(String requestID) {
         return resourceModels.get(requestID);
     }
+
+    public static ResourceColumnStore getResourceStore(String requestID, String resourceType) {
+        //Every type has at least one resource and all the resources of a type are views of the same store
+        return resourceModels.get(requestID).get(resourceType).get(0).getStore();
+    }
+
+    /**
+     * @return latest snapshot of the active resources of the type
+     */
+    public static ActiveResources getActiveResources(String requestID, String resourceType) {
+        return getResourceStore(requestID, resourceType).getActiveResources();
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.telemetry.traces.ResourceSpanContexts;
+import io.opentelemetry.contrib.generator.telemetry.traces.SpanContextRing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the recently generated span contexts of the spans which are targets of span links, so that the trace generator
+ * threads can link to spans generated by other threads. It also keeps the latest span context of each resource of the
+ * resource types whose logs are correlated with traces, so that the log generator threads can attach them to the logs.
+ */
+public class SpanContextProvider {
+
+    private static final ConcurrentMap<String, Map<String, SpanContextRing>> spanContexts = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Map<String, ResourceSpanContexts>> resourceSpanContexts = new ConcurrentHashMap<>();
+
+    private SpanContextProvider() {}
+
+    public static void putLinkedSpanNames(String requestID, Set<String> spanNames) {
+        Map<String, SpanContextRing> spanContextsByName = new ConcurrentHashMap<>();
+        spanNames.forEach(eachName -> spanContextsByName.put(eachName, new SpanContextRing()));
+        spanContexts.put(requestID, spanContextsByName);
+    }
+
+    /**
+     * @return the recent span contexts of the span or null if the span is not a target of any span link
+     */
+    public static SpanContextRing getSpanContexts(String requestID, String spanName) {
+        Map<String, SpanContextRing> spanContextsByName = spanContexts.get(requestID);
+        return spanContextsByName == null ? null : spanContextsByName.get(spanName);
+    }
+
+    public static void putCorrelatedResourceTypes(String requestID, Set<String> resourceTypes) {
+        Map<String, List<GeneratorResource>> resourceModel = ResourceModelProvider.getResourceModel(requestID);
+        Map<String, ResourceSpanContexts> spanContextsByType = new ConcurrentHashMap<>();
+        resourceTypes.forEach(eachType -> spanContextsByType.put(eachType,
+                new ResourceSpanContexts(resourceModel.get(eachType).size())));
+        resourceSpanContexts.put(requestID, spanContextsByType);
+    }
+
+    /**
+     * @return the latest span contexts of the resources of the type or null if no logs of the type are correlated with traces
+     */
+    public static ResourceSpanContexts getResourceSpanContexts(String requestID, String resourceType) {
+        Map<String, ResourceSpanContexts> spanContextsByType = resourceSpanContexts.get(requestID);
+        return spanContextsByType == null ? null : spanContextsByType.get(resourceType);
+    }
+
+    /**
+     * Drops the span contexts of the request once its generator threads have finished, since the maps are static.
+     */
+    public static void removeSpanContexts(String requestID) {
+        spanContexts.remove(requestID);
+        resourceSpanContexts.remove(requestID);
+    }
+}
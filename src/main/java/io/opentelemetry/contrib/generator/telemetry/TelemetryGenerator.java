@@ -19,12 +19,15 @@ package io.opentelemetry.contrib.generator.telemetry;
 import io.opentelemetry.contrib.generator.core.dto.ResourceDefinition;
 import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
+import io.opentelemetry.contrib.generator.telemetry.logs.LogCorpus;
 import io.opentelemetry.contrib.generator.telemetry.logs.LogsGenerator;
 import io.opentelemetry.contrib.generator.telemetry.metrics.MetricsGenerator;
 import io.opentelemetry.contrib.generator.telemetry.traces.TracesGenerator;
+import io.opentelemetry.contrib.generator.telemetry.transport.BatchingPayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.transport.TransportStorage;
 import io.opentelemetry.contrib.generator.core.ResourceModelGenerator;
+import io.opentelemetry.contrib.generator.core.ResourceTypeHierarchy;
 import io.opentelemetry.contrib.generator.core.RuntimeModificationsThread;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +35,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
@@ -52,6 +56,7 @@ public class TelemetryGenerator {
     @Getter
     private final TransportStorage transportStorage;
     private Map<String, List<GeneratorResource>> resourceModel;
+    private ResourceTypeHierarchy typeHierarchy;
     @Getter
     private GeneratorsMonitor generatorsMonitor;
 
@@ -79,7 +84,13 @@ public class TelemetryGenerator {
         log.info("Received data generation request with metrics = (" + input.isHasMetrics() + "), logs = (" +
                 input.isHasLogs() + "), traces = (" +  input.isHasTraces() + ")");
         ResourceModelProvider.putResourceModel(requestID, getResourceModel());
+        if (input.isHasLogs() && input.isHasTraces()) {
+            //Has to be done before the trace generators start so that they know which resources to publish span contexts for
+            SpanContextProvider.putCorrelatedResourceTypes(requestID, input.getLogDefinitions().getTraceCorrelatedResourceTypes());
+        }
         if (input.isHasMetrics()) {
+            //Has to be done before the metric generators start so that the child types know which metrics to publish
+            MetricSeriesProvider.putRolledUpMetrics(requestID, input.getMetricDefinitions().getRolledUpMetrics());
             var metricsGenerator = new MetricsGenerator(input.getMetricDefinitions(), payloadHandler, requestID, transportStorage);
             metricsGenerator.runGenerator();
         }
@@ -94,14 +105,24 @@ public class TelemetryGenerator {
         }
         ScheduledExecutorService runtimeModsExecutor = null;
         if (input.getResourceDefinitions().isHasRuntimeModifications()) {
+            //The modifications due in the same run are applied to the parent types before their child types
             var runtimeModifications = new RuntimeModificationsThread(requestID, input.getResourceDefinitions().getResources().stream()
+                    .sorted(Comparator.comparingInt(eachType -> typeHierarchy.getLevel(eachType.getName())))
                     .map(eachType -> CollectionUtils.emptyIfNull(eachType.getRuntimeModifications()))
                     .flatMap(Collection::stream).collect(Collectors.toList()));
             runtimeModsExecutor = Executors.newScheduledThreadPool(1);
-            runtimeModsExecutor.scheduleAtFixedRate(runtimeModifications, 0, 2000, TimeUnit.MILLISECONDS);
+            runtimeModsExecutor.scheduleAtFixedRate(runtimeModifications, 0, 1000, TimeUnit.MILLISECONDS);
         }
         generatorsMonitor = new GeneratorsMonitor(requestID, input);
         generatorsMonitor.monitorThreads();
+        if (payloadHandler instanceof BatchingPayloadHandler batchingPayloadHandler) {
+            //The generator threads do not wait for their requests to be posted, so the last batches may still be pending, and
+            //the linger thread is not needed anymore
+            batchingPayloadHandler.shutdown();
+        }
+        SpanContextProvider.removeSpanContexts(requestID);
+        MetricSeriesProvider.removeMetricSeries(requestID);
+        LogCorpus.releaseCorpora(requestID);
         if (input.getResourceDefinitions().isHasRuntimeModifications() && runtimeModsExecutor != null) {
             runtimeModsExecutor.shutdown();
         }
@@ -112,7 +133,9 @@ public class TelemetryGenerator {
             Map<String, ResourceDefinition> resourcesMap = input.getResourceDefinitions().getResources().stream()
                     .collect(Collectors.toMap(ResourceDefinition::getName, Function.identity()));
             var resourceModelGenerator = new ResourceModelGenerator(resourcesMap, requestID);
+            resourceModelGenerator.setSnapshotDirectory(input.getResourceDefinitions().getSnapshotDirectory());
             resourceModel = resourceModelGenerator.getResourceModel();
+            typeHierarchy = resourceModelGenerator.getTypeHierarchy();
         }
         return resourceModel;
     }
@@ -19,6 +19,7 @@ package io.opentelemetry.contrib.generator.telemetry.cli;
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
 import io.opentelemetry.contrib.generator.telemetry.cli.dto.TargetEnvironmentDetails;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
+import io.opentelemetry.contrib.generator.telemetry.transport.BatchingPayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.TelemetryGenerator;
 import io.opentelemetry.contrib.generator.telemetry.transport.auth.AuthHandler;
@@ -187,7 +188,7 @@ public class CLIProcessor {
             if (!StringUtils.defaultString(targetEnvironmentDetails.getRestURL().getTracesPath()).isBlank()) {
                 restPayloadHandler.setTracesURL(targetEnvironmentDetails.getRestURL().getTracesPath());
             }
-            return restPayloadHandler;
+            return withBatching(targetEnvironmentDetails, restPayloadHandler);
         }
         int gRPCPort;
         try {
@@ -195,7 +196,16 @@ public class CLIProcessor {
         } catch (NumberFormatException numberFormatException) {
             throw new GeneratorException("Invalid gRPC port " + nonNullGRPCPort + " provided in environment target YAML");
         }
-        return new GRPCPayloadHandler(nonNullGRPCHost, gRPCPort, authHandler);
+        return withBatching(targetEnvironmentDetails, new GRPCPayloadHandler(nonNullGRPCHost, gRPCPort, authHandler));
+    }
+
+    private static PayloadHandler withBatching(TargetEnvironmentDetails targetEnvironmentDetails, PayloadHandler payloadHandler) {
+        if (targetEnvironmentDetails.getBatchMaxBytes() == null) {
+            return payloadHandler;
+        }
+        long lingerMillis = targetEnvironmentDetails.getBatchLingerMillis() == null ? 200 :
+                targetEnvironmentDetails.getBatchLingerMillis();
+        return new BatchingPayloadHandler(payloadHandler, targetEnvironmentDetails.getBatchMaxBytes(), lingerMillis);
     }
 
     private static TargetEnvironmentDetails getTargetEnvDetails(String targetEnvYAML) {
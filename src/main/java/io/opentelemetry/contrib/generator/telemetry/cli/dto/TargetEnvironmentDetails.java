@@ -31,4 +31,6 @@ public class TargetEnvironmentDetails {
     private String clientId;
     private String clientSecret;
     private String scope;
+    private Integer batchMaxBytes; //merge the requests of a signal into batches of up to this size, no batching if not set
+    private Long batchLingerMillis; //max time a request waits for its batch to fill up
 }
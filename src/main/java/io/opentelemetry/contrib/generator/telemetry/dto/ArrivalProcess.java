@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import lombok.Data;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Process by which each reporting resource emits its data, independently of the other resources. The parameters which
+ * are used depend on the type: <p>
+ *     - POISSON: meanIntervalMillis, the mean of the exponentially distributed gaps between arrivals <p>
+ *     - FIXED: meanIntervalMillis and phaseMillis, the offset of the first arrival. Without a phase, the resources are
+ *     spread evenly across the interval <p>
+ *     - BURSTY: bursts of burstSize arrivals burstSpacingMillis apart, with the bursts starting as a Poisson process with
+ *     mean gap meanIntervalMillis <p>
+ * The arrivals are timed with a resolution of tickMillis, and all the arrivals of a tick are sent together. A log is
+ * sent on every arrival of a resource, whereas a copy of a trace tree or the metrics of a resource are sent once per
+ * payload, at their first arrival in the period.
+ */
+@Data
+public class ArrivalProcess {
+
+    private ArrivalProcessType type;
+    private Long meanIntervalMillis;
+    private Long phaseMillis;
+    private Distribution burstSize; //number of arrivals in a burst, defaults to 10
+    private Long burstSpacingMillis; //defaults to tickMillis
+    private Long tickMillis; //defaults to 100
+
+    public void validate(String fieldName) {
+        if (type == null) {
+            throw new GeneratorException("Arrival process type not provided for " + fieldName);
+        }
+        if (meanIntervalMillis == null || meanIntervalMillis < 1) {
+            throw new GeneratorException("Arrival process meanIntervalMillis not provided or less than 1 for " + fieldName);
+        }
+        if (tickMillis == null) {
+            tickMillis = 100L;
+        }
+        if (tickMillis < 1) {
+            throw new GeneratorException("Arrival process tickMillis cannot be less than 1 for " + fieldName);
+        }
+        if (phaseMillis != null && phaseMillis < 0) {
+            throw new GeneratorException("Arrival process phaseMillis cannot be negative for " + fieldName);
+        }
+        if (type == ArrivalProcessType.BURSTY) {
+            if (burstSize == null) {
+                burstSize = Distribution.constant(10);
+            }
+            burstSize.validate("burst size of " + fieldName);
+            if (burstSpacingMillis == null) {
+                burstSpacingMillis = tickMillis;
+            }
+            if (burstSpacingMillis < 0) {
+                throw new GeneratorException("Arrival process burstSpacingMillis cannot be negative for " + fieldName);
+            }
+        }
+    }
+
+    /**
+     * @param arrivalIndex index of the arrival process among the processes following this definition, used to spread the
+     *                     phases of FIXED processes
+     * @param processCount number of processes following this definition
+     * @return millis from the start until the first arrival
+     */
+    public long getFirstDelayMillis(int arrivalIndex, int processCount, RandomGenerator random) {
+        return switch (type) {
+            case POISSON, BURSTY -> sampleGap(random);
+            case FIXED -> phaseMillis != null ? phaseMillis % meanIntervalMillis :
+                    (long) ((double) meanIntervalMillis * arrivalIndex / processCount);
+        };
+    }
+
+    /**
+     * @param burstRemaining arrivals left in the current burst of each process, only used for BURSTY processes
+     * @return millis from the previous arrival until the next one
+     */
+    public long getNextDelayMillis(int arrivalIndex, int[] burstRemaining, RandomGenerator random) {
+        return switch (type) {
+            case POISSON -> sampleGap(random);
+            case FIXED -> meanIntervalMillis;
+            case BURSTY -> {
+                if (burstRemaining[arrivalIndex] == 0) {
+                    burstRemaining[arrivalIndex] = (int) Math.max(1, burstSize.sampleLong(random));
+                }
+                burstRemaining[arrivalIndex]--;
+                yield burstRemaining[arrivalIndex] > 0 ? burstSpacingMillis : sampleGap(random);
+            }
+        };
+    }
+
+    private long sampleGap(RandomGenerator random) {
+        return Math.round(-meanIntervalMillis * Math.log(1 - random.nextDouble()));
+    }
+}
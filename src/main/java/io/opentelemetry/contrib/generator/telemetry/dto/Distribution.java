@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Random distribution which can be specified in the telemetry definitions wherever a value should vary instead of being
+ * fixed. The parameters which are used depend on the type: <p>
+ *     - CONSTANT: value <p>
+ *     - UNIFORM: min, max <p>
+ *     - NORMAL: mean, stdDev <p>
+ *     - LOGNORMAL: mean, stdDev of the underlying normal distribution <p>
+ *     - EXPONENTIAL: mean <p>
+ *     - PARETO: scale (minimum value), shape <p>
+ * For all the types other than UNIFORM, min and max are optional and clamp the sampled values. A PARETO distribution with
+ * shape of 1 or less has no finite mean, so it must be given a max.
+ */
+@Data
+public class Distribution {
+
+    private DistributionType type;
+    private Double value;
+    private Double min;
+    private Double max;
+    private Double mean;
+    private Double stdDev;
+    private Double scale;
+    private Double shape;
+
+    public static Distribution constant(double value) {
+        Distribution distribution = new Distribution();
+        distribution.setType(DistributionType.CONSTANT);
+        distribution.setValue(value);
+        return distribution;
+    }
+
+    public void validate(String fieldName) {
+        if (type == null) {
+            throw new GeneratorException("Distribution type not provided for " + fieldName);
+        }
+        switch (type) {
+            case CONSTANT -> checkProvided(fieldName, "value", value);
+            case UNIFORM -> {
+                checkProvided(fieldName, "min", min);
+                checkProvided(fieldName, "max", max);
+            }
+            case NORMAL, LOGNORMAL -> {
+                checkProvided(fieldName, "mean", mean);
+                checkProvided(fieldName, "stdDev", stdDev);
+                if (stdDev < 0) {
+                    throw new GeneratorException("Distribution stdDev for " + fieldName + " cannot be negative");
+                }
+            }
+            case EXPONENTIAL -> {
+                checkProvided(fieldName, "mean", mean);
+                if (mean <= 0) {
+                    throw new GeneratorException("Distribution mean for " + fieldName + " must be more than 0");
+                }
+            }
+            case PARETO -> {
+                checkProvided(fieldName, "scale", scale);
+                checkProvided(fieldName, "shape", shape);
+                if (scale <= 0 || shape <= 0) {
+                    throw new GeneratorException("Distribution scale and shape for " + fieldName + " must be more than 0");
+                }
+                if (shape <= 1 && max == null) {
+                    throw new GeneratorException("Distribution max must be provided for " + fieldName + " since a PARETO " +
+                            "distribution with shape of 1 or less has no finite mean");
+                }
+            }
+        }
+        if (min != null && max != null && min > max) {
+            throw new GeneratorException("Distribution min for " + fieldName + " cannot be more than max");
+        }
+    }
+
+    /**
+     * Validates a distribution whose sampled values are used as counts, which must always be bounded since an unbounded
+     * sample can expand into arbitrarily many items.
+     */
+    public void validateBounded(String fieldName) {
+        validate(fieldName);
+        if (type != DistributionType.CONSTANT && type != DistributionType.UNIFORM && max == null) {
+            throw new GeneratorException("Distribution max must be provided for " + type + " distribution of " + fieldName);
+        }
+    }
+
+    private void checkProvided(String fieldName, String parameter, Double parameterValue) {
+        if (parameterValue == null) {
+            throw new GeneratorException("Distribution parameter '" + parameter + "' not provided for " + type + " " +
+                    "distribution of " + fieldName);
+        }
+    }
+
+    public double sample(RandomGenerator random) {
+        double sampled = switch (type) {
+            case CONSTANT -> value;
+            case UNIFORM -> min + random.nextDouble() * (max - min);
+            case NORMAL -> mean + stdDev * random.nextGaussian();
+            case LOGNORMAL -> Math.exp(mean + stdDev * random.nextGaussian());
+            case EXPONENTIAL -> -mean * Math.log(1 - random.nextDouble());
+            case PARETO -> scale / Math.pow(1 - random.nextDouble(), 1 / shape);
+        };
+        if (min != null) {
+            sampled = Math.max(min, sampled);
+        }
+        if (max != null) {
+            sampled = Math.min(max, sampled);
+        }
+        return sampled;
+    }
+
+    /**
+     * Samples a value rounded to the nearest non-negative long, to be used for counts, sizes and durations.
+     */
+    public long sampleLong(RandomGenerator random) {
+        return Math.max(0, Math.round(sample(random)));
+    }
+
+    /**
+     * Approximate mean of the sampled values, clamped to min and max. A PARETO distribution without a finite mean is
+     * approximated by its max, which validation requires for it.
+     */
+    @JsonIgnore
+    public double getExpectedValue() {
+        double expected = switch (type) {
+            case CONSTANT -> value;
+            case UNIFORM -> (min + max) / 2;
+            case NORMAL, EXPONENTIAL -> mean;
+            case LOGNORMAL -> Math.exp(mean + stdDev * stdDev / 2);
+            case PARETO -> shape > 1 ? shape * scale / (shape - 1) : Double.POSITIVE_INFINITY;
+        };
+        if (min != null) {
+            expected = Math.max(min, expected);
+        }
+        if (max != null) {
+            expected = Math.min(max, expected);
+        }
+        return expected;
+    }
+}
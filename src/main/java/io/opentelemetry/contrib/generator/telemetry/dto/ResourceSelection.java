@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.telemetry.dto;
+
+import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * How the reporting resources of a log or trace definition are picked from the active resources of their type. The
+ * parameters which are used depend on the type: <p>
+ *     - SLIDING: the default, a window of resources sliding with each payload for logs and round-robin for traces <p>
+ *     - ZIPF: the resource at rank r, in the order of the active resources, is picked with weight 1 / r^exponent <p>
+ *     - WEIGHTED: each resource is picked with the numeric value of its weightAttribute as weight, or defaultWeight if it
+ *     does not have a valid one <p>
+ *     - HOTSET: the first hotFraction of the active resources are picked hotShare of the time, the rest uniformly otherwise <p>
+ * Apart from SLIDING, each pick is independent, so a hot resource can be picked several times for the same payload.
+ */
+@Data
+public class ResourceSelection {
+
+    private ResourceSelectionType type;
+    private Double exponent; //defaults to 1
+    private String weightAttribute;
+    private Double defaultWeight; //defaults to 1
+    private Double hotFraction; //defaults to 0.2
+    private Double hotShare; //defaults to 0.8
+
+    public void validate(String fieldName) {
+        if (type == null) {
+            throw new GeneratorException("Resource selection type not provided for " + fieldName);
+        }
+        switch (type) {
+            case ZIPF -> {
+                if (exponent == null) {
+                    exponent = 1.0d;
+                }
+                if (exponent <= 0) {
+                    throw new GeneratorException("Resource selection exponent must be positive for " + fieldName);
+                }
+            }
+            case WEIGHTED -> {
+                if (weightAttribute == null || weightAttribute.isBlank()) {
+                    throw new GeneratorException("Resource selection weightAttribute not provided for " + fieldName);
+                }
+                if (defaultWeight == null) {
+                    defaultWeight = 1.0d;
+                }
+                if (defaultWeight < 0) {
+                    throw new GeneratorException("Resource selection defaultWeight cannot be negative for " + fieldName);
+                }
+            }
+            case HOTSET -> {
+                if (hotFraction == null) {
+                    hotFraction = 0.2d;
+                }
+                if (hotShare == null) {
+                    hotShare = 0.8d;
+                }
+                if (hotFraction <= 0 || hotFraction > 1) {
+                    throw new GeneratorException("Resource selection hotFraction must be in (0, 1] for " + fieldName);
+                }
+                if (hotShare < 0 || hotShare > 1) {
+                    throw new GeneratorException("Resource selection hotShare must be in [0, 1] for " + fieldName);
+                }
+            }
+            case SLIDING -> { }
+        }
+    }
+
+    @JsonIgnore
+    public boolean isSliding() {
+        return type == ResourceSelectionType.SLIDING;
+    }
+
+    /**
+     * @param resources active resources of a type, in the order of their index
+     * @param store store of the resources, to read the weight attribute from
+     * @return weight of each resource by its position in resources, all equal if they would not add up to a positive value
+     */
+    public double[] getWeights(List<GeneratorResource> resources, ResourceColumnStore store) {
+        int size = resources.size();
+        double[] weights = new double[size];
+        int hotCount = type == ResourceSelectionType.HOTSET ? (int) Math.max(1, Math.round(hotFraction * size)) : 0;
+        double totalWeight = 0;
+        for (var position=0; position<size; position++) {
+            weights[position] = switch (type) {
+                case SLIDING -> 1.0d;
+                case ZIPF -> 1.0d / Math.pow(position + 1, exponent);
+                case WEIGHTED -> getAttributeWeight(store.getAttributeString(resources.get(position).getIndex(), weightAttribute));
+                case HOTSET -> hotCount >= size ? 1.0d :
+                        position < hotCount ? hotShare / hotCount : (1 - hotShare) / (size - hotCount);
+            };
+            totalWeight += weights[position];
+        }
+        if (totalWeight <= 0) {
+            Arrays.fill(weights, 1.0d);
+        }
+        return weights;
+    }
+
+    private double getAttributeWeight(String value) {
+        if (value == null) {
+            return defaultWeight;
+        }
+        try {
+            double weight = Double.parseDouble(value);
+            return weight >= 0 && Double.isFinite(weight) ? weight : defaultWeight;
+        } catch (NumberFormatException numberFormatException) {
+            return defaultWeight;
+        }
+    }
+}
@@ -14,25 +14,12 @@
  * limitations under the License.
  */
 
-package io.opentelemetry.contrib.generator.core.dto;
 
-import lombok.Getter;
-import lombok.Setter;
+package io.opentelemetry.contrib.generator.telemetry.dto;
 
-import java.util.Set;
-
-public class ResourceType {
-
-    @Setter
-    @Getter
-    private String name;
-    @Setter
-    @Getter
-    private Set<String> parentTypes;
-    @Setter
-    private Set<String> childTypes;
-
-    public ResourceType(String name) {
-        this.name = name;
-    }
+public enum ResourceSelectionType {
+    SLIDING,
+    ZIPF,
+    WEIGHTED,
+    HOTSET
 }
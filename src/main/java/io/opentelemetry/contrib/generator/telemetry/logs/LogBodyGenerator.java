@@ -0,0 +1,296 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogBodyFormat;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogBodyTemplate;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.common.v1.KeyValueList;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Renders log bodies from a {@link LogBodyTemplate}. The templates are compiled into arrays of segments once, random
+ * strings are copied from a pool of random characters which is generated once, and the bodies are rendered into a
+ * single reused StringBuilder. Instances are not thread safe, each log generator thread uses its own.
+ */
+public class LogBodyGenerator {
+
+    private static final int INT_SEGMENT = 0;
+    private static final int STRING_SEGMENT = 1;
+    private static final int UUID_SEGMENT = 2;
+    private static final int SEVERITY_SEGMENT = 3;
+    private static final int FILL_SEGMENT = 4;
+    private static final int LITERAL_SEGMENT = 5;
+    private static final int RANDOM_POOL_SIZE = 1 << 17;
+    private static final char[] RANDOM_POOL = getRandomPool();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final LogBodyFormat format;
+    private final Distribution size;
+    private final String[] fieldNames; //null unless the body is a KVLIST
+    private final CompiledTemplate[] templates; //a single template for STRING and JSON bodies, one per field for KVLIST
+    private final StringBuilder bodyBuilder;
+    private final SplittableRandom random;
+
+    private record CompiledTemplate(int[] kinds, String[] literals, long[] firstArgs, long[] secondArgs, int literalExtraBytes,
+                                    boolean isSingleInt) {}
+
+    public LogBodyGenerator(LogBodyTemplate bodyTemplate) {
+        format = bodyTemplate.getFormat();
+        size = bodyTemplate.getSize();
+        if (format == LogBodyFormat.KVLIST) {
+            fieldNames = bodyTemplate.getFields().keySet().toArray(new String[0]);
+            templates = bodyTemplate.getFields().values().stream().map(LogBodyGenerator::compile).toArray(CompiledTemplate[]::new);
+        } else {
+            fieldNames = null;
+            String template = bodyTemplate.getTemplate() != null ? bodyTemplate.getTemplate() :
+                    getJSONObjectTemplate(bodyTemplate.getFields());
+            templates = new CompiledTemplate[] { compile(template) };
+        }
+        bodyBuilder = new StringBuilder();
+        random = new SplittableRandom();
+    }
+
+    public AnyValue getBody(String severity) {
+        bodyBuilder.setLength(0);
+        long targetSize = size == null ? -1 : size.sampleLong(random);
+        if (format != LogBodyFormat.KVLIST) {
+            int fillPosition = render(templates[0], severity);
+            if (targetSize >= 0) {
+                fill(fillPosition == -1 ? bodyBuilder.length() : fillPosition, targetSize - getByteCount(templates));
+            }
+            return AnyValue.newBuilder().setStringValue(bodyBuilder.toString()).build();
+        }
+        int[] fieldEnds = new int[templates.length];
+        int fillPosition = -1;
+        int fillField = -1;
+        for (var fieldIndex=0; fieldIndex<templates.length; fieldIndex++) {
+            int fieldFillPosition = render(templates[fieldIndex], severity);
+            if (fieldFillPosition != -1 && fillPosition == -1) {
+                fillPosition = fieldFillPosition;
+                fillField = fieldIndex;
+            }
+            fieldEnds[fieldIndex] = bodyBuilder.length();
+        }
+        if (targetSize >= 0 && fillPosition != -1) {
+            int fillLength = fill(fillPosition, targetSize - getByteCount(templates));
+            for (int fieldIndex=fillField; fieldIndex<templates.length; fieldIndex++) {
+                fieldEnds[fieldIndex] += fillLength;
+            }
+        }
+        KeyValueList.Builder kvList = KeyValueList.newBuilder();
+        int fieldStart = 0;
+        for (var fieldIndex=0; fieldIndex<templates.length; fieldIndex++) {
+            String fieldValue = bodyBuilder.substring(fieldStart, fieldEnds[fieldIndex]);
+            kvList.addValues(KeyValue.newBuilder()
+                    .setKey(fieldNames[fieldIndex])
+                    .setValue(templates[fieldIndex].isSingleInt() ?
+                            AnyValue.newBuilder().setIntValue(Long.parseLong(fieldValue)) :
+                            AnyValue.newBuilder().setStringValue(fieldValue))
+                    .build());
+            fieldStart = fieldEnds[fieldIndex];
+        }
+        return AnyValue.newBuilder().setKvlistValue(kvList).build();
+    }
+
+    private int getByteCount(CompiledTemplate[] renderedTemplates) {
+        //Everything but the literals is ASCII, so only the literals can have more bytes than chars
+        int byteCount = bodyBuilder.length();
+        for (CompiledTemplate eachTemplate: renderedTemplates) {
+            byteCount += eachTemplate.literalExtraBytes();
+        }
+        return byteCount;
+    }
+
+    /**
+     * @return position of the ${fill} placeholder in the body builder or -1 if the template has none
+     */
+    private int render(CompiledTemplate template, String severity) {
+        int fillPosition = -1;
+        for (var segmentIndex=0; segmentIndex<template.kinds().length; segmentIndex++) {
+            switch (template.kinds()[segmentIndex]) {
+                case LITERAL_SEGMENT -> bodyBuilder.append(template.literals()[segmentIndex]);
+                case INT_SEGMENT -> bodyBuilder.append(random.nextLong(template.firstArgs()[segmentIndex],
+                        template.secondArgs()[segmentIndex] + 1));
+                case STRING_SEGMENT -> appendRandomString((int) template.firstArgs()[segmentIndex]);
+                case UUID_SEGMENT -> appendUUID();
+                case SEVERITY_SEGMENT -> bodyBuilder.append(severity);
+                case FILL_SEGMENT -> fillPosition = fillPosition == -1 ? bodyBuilder.length() : fillPosition;
+                default -> throw new IllegalStateException("Unknown body template segment " + template.kinds()[segmentIndex]);
+            }
+        }
+        return fillPosition;
+    }
+
+    private int fill(int position, long fillLength) {
+        int remaining = (int) Math.max(0, Math.min(fillLength, Integer.MAX_VALUE - bodyBuilder.length()));
+        int filled = remaining;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, RANDOM_POOL_SIZE);
+            int offset = random.nextInt(RANDOM_POOL_SIZE - chunk + 1);
+            bodyBuilder.insert(position, RANDOM_POOL, offset, chunk);
+            remaining -= chunk;
+        }
+        return filled;
+    }
+
+    private void appendRandomString(int length) {
+        bodyBuilder.append(RANDOM_POOL, random.nextInt(RANDOM_POOL_SIZE - length + 1), length);
+    }
+
+    private void appendUUID() {
+        long mostSigBits = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long leastSigBits = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        appendHex(mostSigBits >>> 32, 8);
+        bodyBuilder.append('-');
+        appendHex(mostSigBits >>> 16, 4);
+        bodyBuilder.append('-');
+        appendHex(mostSigBits, 4);
+        bodyBuilder.append('-');
+        appendHex(leastSigBits >>> 48, 4);
+        bodyBuilder.append('-');
+        appendHex(leastSigBits, 12);
+    }
+
+    private void appendHex(long value, int digits) {
+        for (int shift=(digits-1)*4; shift>=0; shift-=4) {
+            bodyBuilder.append(HEX_DIGITS[(int) ((value >>> shift) & 0xf)]);
+        }
+    }
+
+    private static String getJSONObjectTemplate(Map<String, String> fields) {
+        StringBuilder jsonTemplate = new StringBuilder("{");
+        for (Map.Entry<String, String> eachField: fields.entrySet()) {
+            if (jsonTemplate.length() > 1) {
+                jsonTemplate.append(',');
+            }
+            jsonTemplate.append('"').append(escapeJSON(eachField.getKey())).append("\":");
+            boolean isNumber = compile(eachField.getValue()).isSingleInt();
+            //Placeholders only produce JSON safe characters, so escaping the field template escapes all of its literal parts
+            jsonTemplate.append(isNumber ? eachField.getValue() : "\"" + escapeJSON(eachField.getValue()) + "\"");
+        }
+        return jsonTemplate.append('}').toString();
+    }
+
+    private static String escapeJSON(String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (char eachChar: value.toCharArray()) {
+            switch (eachChar) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (eachChar < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) eachChar));
+                    } else {
+                        escaped.append(eachChar);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static CompiledTemplate compile(String template) {
+        List<Integer> kinds = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        List<long[]> args = new ArrayList<>();
+        int position = 0;
+        while (position < template.length()) {
+            int placeholderStart = template.indexOf("${", position);
+            if (placeholderStart == -1) {
+                addSegment(kinds, literals, args, LITERAL_SEGMENT, template.substring(position), 0, 0);
+                break;
+            }
+            if (placeholderStart > position) {
+                addSegment(kinds, literals, args, LITERAL_SEGMENT, template.substring(position, placeholderStart), 0, 0);
+            }
+            int placeholderEnd = template.indexOf('}', placeholderStart);
+            if (placeholderEnd == -1) {
+                throw new GeneratorException("Unterminated placeholder in log body template: " + template);
+            }
+            addPlaceholder(kinds, literals, args, template.substring(placeholderStart + 2, placeholderEnd), template);
+            position = placeholderEnd + 1;
+        }
+        int literalExtraBytes = 0;
+        for (String eachLiteral: literals) {
+            if (eachLiteral != null) {
+                literalExtraBytes += eachLiteral.getBytes(StandardCharsets.UTF_8).length - eachLiteral.length();
+            }
+        }
+        return new CompiledTemplate(kinds.stream().mapToInt(Integer::intValue).toArray(), literals.toArray(new String[0]),
+                args.stream().mapToLong(arg -> arg[0]).toArray(), args.stream().mapToLong(arg -> arg[1]).toArray(),
+                literalExtraBytes, kinds.size() == 1 && kinds.get(0) == INT_SEGMENT);
+    }
+
+    private static void addPlaceholder(List<Integer> kinds, List<String> literals, List<long[]> args, String placeholder,
+                                       String template) {
+        String[] tokens = placeholder.split(":");
+        try {
+            switch (tokens[0]) {
+                case "int" -> {
+                    if (tokens.length != 3 || Long.parseLong(tokens[1]) > Long.parseLong(tokens[2])) {
+                        throw new GeneratorException("Invalid placeholder ${" + placeholder + "} in log body template: " +
+                                template + ". Expected ${int:min:max}");
+                    }
+                    addSegment(kinds, literals, args, INT_SEGMENT, null, Long.parseLong(tokens[1]), Long.parseLong(tokens[2]));
+                }
+                case "string" -> {
+                    if (tokens.length != 2 || Integer.parseInt(tokens[1]) < 0 || Integer.parseInt(tokens[1]) > RANDOM_POOL_SIZE) {
+                        throw new GeneratorException("Invalid placeholder ${" + placeholder + "} in log body template: " +
+                                template + ". Expected ${string:length} with length up to " + RANDOM_POOL_SIZE);
+                    }
+                    addSegment(kinds, literals, args, STRING_SEGMENT, null, Integer.parseInt(tokens[1]), 0);
+                }
+                case "uuid" -> addSegment(kinds, literals, args, UUID_SEGMENT, null, 0, 0);
+                case "severity" -> addSegment(kinds, literals, args, SEVERITY_SEGMENT, null, 0, 0);
+                case "fill" -> addSegment(kinds, literals, args, FILL_SEGMENT, null, 0, 0);
+                default -> throw new GeneratorException("Unknown placeholder ${" + placeholder + "} in log body template: " +
+                        template);
+            }
+        } catch (NumberFormatException numberFormatException) {
+            throw new GeneratorException("Invalid number in placeholder ${" + placeholder + "} in log body template: " + template);
+        }
+    }
+
+    private static void addSegment(List<Integer> kinds, List<String> literals, List<long[]> args, int kind, String literal,
+                                   long firstArg, long secondArg) {
+        kinds.add(kind);
+        literals.add(literal);
+        args.add(new long[] { firstArg, secondArg });
+    }
+
+    private static char[] getRandomPool() {
+        char[] alphanumerics = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+        char[] pool = new char[RANDOM_POOL_SIZE];
+        SplittableRandom poolRandom = new SplittableRandom();
+        for (var index=0; index<RANDOM_POOL_SIZE; index++) {
+            pool[index] = alphanumerics[poolRandom.nextInt(alphanumerics.length)];
+        }
+        return pool;
+    }
+}
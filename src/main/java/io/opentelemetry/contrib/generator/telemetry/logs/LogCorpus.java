@@ -0,0 +1,185 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memory-mapped text file with an index of its non-blank lines. The file is mapped in chunks of at most 2 GB which end
+ * at a line break, and the start offsets of the lines are indexed once per chunk. A line ends at the first line break
+ * after its start, which is found when the line is read. Lines are returned as byte strings which wrap the mapping
+ * without copying, so the file is never loaded on the heap. <p>
+ * Corpora are immutable once indexed and are cached by path, so all the log definitions replaying the same file share
+ * a single mapping and index. A corpus is released from the cache once all the requests using it have finished.
+ */
+@Slf4j
+public class LogCorpus {
+
+    private static final int MAX_CHUNK_BYTES = Integer.MAX_VALUE - 8;
+    private static final ConcurrentMap<Path, CachedCorpus> corpusCache = new ConcurrentHashMap<>();
+
+    private final MappedByteBuffer[] chunks;
+    private final int[][] lineStarts; //offsets of the first byte of each line within its chunk
+    private final long[] chunkFirstLines; //index of the first line of each chunk among all the lines of the file
+    private final long lineCount;
+
+    /**
+     * @return cached corpus of the file, which is kept until {@link #releaseCorpora(String)} is called for the request
+     */
+    public static LogCorpus getCorpus(String file, String requestID) {
+        return corpusCache.compute(Path.of(file).toAbsolutePath().normalize(), (path, cachedCorpus) -> {
+            CachedCorpus corpus = cachedCorpus == null ?
+                    new CachedCorpus(new LogCorpus(path, MAX_CHUNK_BYTES), new HashSet<>()) : cachedCorpus;
+            corpus.requestIDs.add(requestID);
+            return corpus;
+        }).corpus;
+    }
+
+    /**
+     * Releases the corpora used by the request, dropping the ones which no other request uses from the cache.
+     */
+    public static void releaseCorpora(String requestID) {
+        for (Path eachPath: List.copyOf(corpusCache.keySet())) {
+            corpusCache.computeIfPresent(eachPath, (path, cachedCorpus) -> {
+                cachedCorpus.requestIDs.remove(requestID);
+                return cachedCorpus.requestIDs.isEmpty() ? null : cachedCorpus;
+            });
+        }
+    }
+
+    public LogCorpus(Path path, int maxChunkBytes) {
+        List<MappedByteBuffer> mappedChunks = new ArrayList<>();
+        List<int[]> chunkLineStarts = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+            while (position < fileSize) {
+                int chunkSize = (int) Math.min(maxChunkBytes, fileSize - position);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, chunkSize);
+                if (position + chunkSize < fileSize) {
+                    //End the chunk at its last line break so that no line spans two chunks
+                    int lastBreak = chunkSize - 1;
+                    while (lastBreak >= 0 && chunk.get(lastBreak) != '\n') {
+                        lastBreak--;
+                    }
+                    if (lastBreak >= 0) {
+                        chunkSize = lastBreak + 1;
+                        chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, chunkSize);
+                    }
+                }
+                indexLines(chunk, chunkSize, chunkLineStarts);
+                mappedChunks.add(chunk);
+                position += chunkSize;
+            }
+        } catch (IOException ioException) {
+            throw new GeneratorException("Failed to map log corpus file " + path + ": " + ioException.getMessage());
+        }
+        chunks = mappedChunks.toArray(new MappedByteBuffer[0]);
+        lineStarts = chunkLineStarts.toArray(new int[0][]);
+        chunkFirstLines = new long[chunks.length];
+        long lines = 0;
+        for (var chunkIndex=0; chunkIndex<chunks.length; chunkIndex++) {
+            chunkFirstLines[chunkIndex] = lines;
+            lines += lineStarts[chunkIndex].length;
+        }
+        lineCount = lines;
+        if (lineCount == 0) {
+            throw new GeneratorException("Log corpus file " + path + " does not contain any non-blank line");
+        }
+        log.info("Indexed " + lineCount + " lines in " + chunks.length + " chunks of log corpus file " + path);
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @param lineIndex index of the line among all the non-blank lines of the file
+     * @return the line without its line break, backed by the mapping of the file
+     */
+    public ByteString getLine(long lineIndex) {
+        int chunkIndex = Arrays.binarySearch(chunkFirstLines, lineIndex);
+        if (chunkIndex < 0) {
+            chunkIndex = -chunkIndex - 2;
+        }
+        int lineInChunk = (int) (lineIndex - chunkFirstLines[chunkIndex]);
+        MappedByteBuffer chunk = chunks[chunkIndex];
+        int start = lineStarts[chunkIndex][lineInChunk];
+        //The line break of the line is before the start of the next line, which can follow some blank lines
+        int nextStart = lineInChunk + 1 < lineStarts[chunkIndex].length ? lineStarts[chunkIndex][lineInChunk + 1] :
+                chunk.limit();
+        int end = start;
+        while (end < nextStart && chunk.get(end) != '\n') {
+            end++;
+        }
+        if (end > start && chunk.get(end - 1) == '\r') {
+            end--;
+        }
+        return UnsafeByteOperations.unsafeWrap(chunk.slice(start, end - start));
+    }
+
+    private static void indexLines(MappedByteBuffer chunk, int chunkSize, List<int[]> chunkLineStarts) {
+        int[] starts = new int[1024];
+        int lines = 0;
+        int lineStart = 0;
+        for (var offset=0; offset<=chunkSize; offset++) {
+            if (offset < chunkSize && chunk.get(offset) != '\n') {
+                continue;
+            }
+            int lineEnd = offset;
+            if (lineEnd > lineStart && chunk.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (!isBlank(chunk, lineStart, lineEnd)) {
+                if (lines == starts.length) {
+                    starts = Arrays.copyOf(starts, lines * 2);
+                }
+                starts[lines++] = lineStart;
+            }
+            lineStart = offset + 1;
+        }
+        chunkLineStarts.add(Arrays.copyOf(starts, lines));
+    }
+
+    private static boolean isBlank(MappedByteBuffer chunk, int start, int end) {
+        for (var offset=start; offset<end; offset++) {
+            byte eachByte = chunk.get(offset);
+            if (eachByte != ' ' && eachByte != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record CachedCorpus(LogCorpus corpus, Set<String> requestIDs) {}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs;
+
+import com.google.protobuf.ByteString;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogCorpusDefinition;
+import io.opentelemetry.proto.common.v1.AnyValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Produces log bodies from the lines of the corpus files of a log definition, either in order or sampled uniformly at
+ * random across all the files. The reader is thread-safe, so the threads assembling the logs of a log definition in
+ * parallel can share it; they then interleave their reads of the sequence of lines.
+ */
+public class LogCorpusReader {
+
+    private final LogCorpus[] corpora;
+    private final long[] firstLines; //index of the first line of each corpus among the lines of all the corpora
+    private final long totalLines;
+    private final boolean sequential;
+    private final AtomicLong nextLine;
+
+    public LogCorpusReader(LogCorpusDefinition corpusDefinition, String requestID) {
+        corpora = corpusDefinition.getFiles().stream()
+                .map(file -> LogCorpus.getCorpus(file, requestID))
+                .toArray(LogCorpus[]::new);
+        firstLines = new long[corpora.length];
+        long lines = 0;
+        for (var corpusIndex=0; corpusIndex<corpora.length; corpusIndex++) {
+            firstLines[corpusIndex] = lines;
+            lines += corpora[corpusIndex].getLineCount();
+        }
+        totalLines = lines;
+        sequential = corpusDefinition.getSequential();
+        nextLine = new AtomicLong(0);
+    }
+
+    public AnyValue getBody() {
+        long lineIndex;
+        if (sequential) {
+            lineIndex = Math.floorMod(nextLine.getAndIncrement(), totalLines);
+        } else {
+            lineIndex = ThreadLocalRandom.current().nextLong(totalLines);
+        }
+        var corpusIndex = corpora.length - 1;
+        while (firstLines[corpusIndex] > lineIndex) {
+            corpusIndex--;
+        }
+        ByteString line = corpora[corpusIndex].getLine(lineIndex - firstLines[corpusIndex]);
+        if (!line.isValidUtf8()) {
+            line = ByteString.copyFromUtf8(line.toString(StandardCharsets.UTF_8));
+        }
+        return AnyValue.newBuilder().setStringValueBytes(line).build();
+    }
+}
@@ -16,21 +16,23 @@
 
 package io.opentelemetry.contrib.generator.telemetry.logs;
 
+import com.google.protobuf.CodedOutputStream;
+import io.opentelemetry.contrib.generator.core.dto.ActiveResourcesView;
 import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
 import io.opentelemetry.contrib.generator.core.jel.ExpressionProcessor;
 import io.opentelemetry.contrib.generator.telemetry.ResourceModelProvider;
 import io.opentelemetry.contrib.generator.telemetry.GeneratorsStateProvider;
+import io.opentelemetry.contrib.generator.telemetry.SpanContextProvider;
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcess;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorState;
 import io.opentelemetry.contrib.generator.telemetry.jel.MELTExpressionsJELProvider;
 import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogDefinition;
-import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
+import io.opentelemetry.contrib.generator.telemetry.misc.ResourceSelector;
+import io.opentelemetry.contrib.generator.telemetry.misc.TimingWheel;
+import io.opentelemetry.contrib.generator.telemetry.traces.ResourceSpanContexts;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
-import io.opentelemetry.proto.common.v1.AnyValue;
-import io.opentelemetry.proto.common.v1.InstrumentationScope;
 import io.opentelemetry.proto.logs.v1.ResourceLogs;
-import io.opentelemetry.proto.logs.v1.ScopeLogs;
-import io.opentelemetry.proto.resource.v1.Resource;
 import io.opentelemetry.proto.logs.v1.LogRecord;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -39,8 +41,10 @@ import org.apache.commons.collections4.MapUtils;
 import static io.opentelemetry.contrib.generator.telemetry.misc.GeneratorUtils.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Main thread class which generates and posts log packets to the specified destination via PayloadHandler.
@@ -48,13 +52,29 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LogGeneratorThread implements Runnable {
 
+    //Shared by all the log definitions which assemble their resource logs in parallel
+    private static final ForkJoinPool ASSEMBLY_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     private final String requestID;
     @Getter
     private final LogDefinition logDefinition;
     private final PayloadHandler payloadHandler;
     private final GeneratorState<LogGeneratorThread> logGeneratorState;
     private final ExpressionProcessor jelProcessor;
+    private final LogCorpusReader corpusReader; //null if the log definition has no corpus
+    private final ResourceLogsAssembler assembler; //assembles the resource logs on this thread
+    private final Queue<ResourceLogsAssembler> idleAssemblers; //assemble the chunks of resource logs on the pool threads
+    private long copySequence; //sequence number of the first copy of the next payload
+    private final SplittableRandom arrivalRandom;
+    private TimingWheel timingWheel; //timers of the reporting resources in the current period, with an arrival process
+    private GeneratorResource[] timerResources;
+    private String[] timerResourceTypes;
+    private int[] burstRemaining;
+    private LogRecord periodLogRecord;
+    private long periodEndMillis;
     private int currentPayloadCount;
+    private final Map<String, ActiveResourcesView<GeneratorResource>> filteredResourcesViews; //active resources matching the filters of each type
+    private final ResourceSelector resourceSelector; //null for the sliding selection of the reporting resources
 
     public LogGeneratorThread(LogDefinition logDefinition, PayloadHandler payloadHandler, String requestID) {
         this.requestID = requestID;
@@ -62,6 +82,14 @@ public class LogGeneratorThread implements Runnable {
         this.payloadHandler = payloadHandler;
         this.logGeneratorState = GeneratorsStateProvider.getLogGeneratorState(requestID);
         jelProcessor = MELTExpressionsJELProvider.getJelProcessor();
+        corpusReader = logDefinition.getCorpus() == null ? null : new LogCorpusReader(logDefinition.getCorpus(), requestID);
+        assembler = new ResourceLogsAssembler(logDefinition, corpusReader);
+        idleAssemblers = new ConcurrentLinkedQueue<>();
+        copySequence = 0;
+        arrivalRandom = new SplittableRandom();
+        filteredResourcesViews = new HashMap<>();
+        resourceSelector = logDefinition.getResourceSelection() == null || logDefinition.getResourceSelection().isSliding() ?
+                null : new ResourceSelector(requestID, logDefinition.getResourceSelection());
         currentPayloadCount = 0;
     }
 
@@ -70,93 +98,224 @@ public class LogGeneratorThread implements Runnable {
         log.debug(requestID + ": Log generator thread invoked for Log Definition type: " + logDefinition);
         if (logGeneratorState.isGenerateData() &&
                 logGeneratorState.getThreadPayloadCounts().get(logDefinition.getId()) < logDefinition.getPayloadCount()) {
-            List<ResourceLogs> resourceLogsList = new ArrayList<>();
-            ResourceLogs resourceLog;
-            LogRecord.Builder partialLogRecord = getLog(logDefinition);
-            Map<String, List<Resource>> reportingResourcesByType = new HashMap<>();
-            for (Map.Entry<String, Integer> resourceTypeWithCount:
-                    MapUtils.emptyIfNull(logDefinition.getReportingResourcesCounts()).entrySet()) {
-                reportingResourcesByType.put(resourceTypeWithCount.getKey(),
-                        getResourceSubsetByPostCount(resourceTypeWithCount.getKey(), resourceTypeWithCount.getValue()));
-            }
-            for (Map.Entry<String, Map<String, String>> resourceTypeWithFilter:
-                    MapUtils.emptyIfNull(logDefinition.getParsedFilteredReportingResources()).entrySet()) {
-                reportingResourcesByType.put(resourceTypeWithFilter.getKey(),
-                        getFilteredResources(resourceTypeWithFilter.getKey(), resourceTypeWithFilter.getValue()));
+            if (logDefinition.getArrivalProcess() != null) {
+                runArrivalTick();
+                return;
             }
-            for (Map.Entry<String, List<Resource>> reportingResourceByType : reportingResourcesByType.entrySet()) {
-                log.debug(requestID + ": Preparing " + reportingResourceByType.getValue().size() +
-                        " resource logs packets for " + reportingResourceByType.getKey());
-                for (Resource eachResource: reportingResourceByType.getValue()) {
-                    LogRecord logRecord = partialLogRecord.clone().addAllAttributes(getResourceAttributes(logDefinition
-                            .getCopyResourceAttributes(), eachResource)).build();
-                    List<LogRecord> otelLogs = Collections.nCopies(logDefinition.getCopyCount(), logRecord);
-                    resourceLog = ResourceLogs.newBuilder()
-                            .setResource(eachResource)
-                            .addScopeLogs(ScopeLogs.newBuilder()
-                                    .setScope(InstrumentationScope.newBuilder()
-                                            .setName(Constants.SELF_NAME)
-                                            .setVersion(Constants.SELF_VERSION)
-                                            .build())
-                                    .addAllLogRecords(otelLogs)
-                                    .build())
-                            .build();
-                    resourceLogsList.add(resourceLog);
-                }
-                log.info(requestID + ": Sending payload for: " + reportingResourceByType.getKey());
-                ExportLogsServiceRequest resourceLogs = ExportLogsServiceRequest.newBuilder().addAllResourceLogs(resourceLogsList).build();
-                boolean responseStatus = payloadHandler.postPayload(resourceLogs);
-                if (logGeneratorState.getTransportStorage() != null) {
-                    logGeneratorState.getTransportStorage().store(logDefinition.getId(),
-                            reportingResourceByType.getKey(), resourceLogs, responseStatus);
+            postResourceLogs(getReportingResourcesByType(), getLog(logDefinition));
+            currentPayloadCount++;
+            logGeneratorState.getThreadPayloadCounts().put(logDefinition.getId(), currentPayloadCount);
+        }
+    }
+
+    /**
+     * With an arrival process, the thread runs once per tick of the process and each payload of the log definition is a
+     * period of payloadFrequencySeconds. At the start of each period, every reporting resource gets a timer for its first
+     * arrival. On each tick, the resources whose timers expired are sent together and their timers are rescheduled for
+     * their next arrival.
+     */
+    private void runArrivalTick() {
+        long currentTimeMillis = System.currentTimeMillis();
+        if (timingWheel == null || currentTimeMillis >= periodEndMillis) {
+            if (timingWheel != null) {
+                currentPayloadCount++;
+                logGeneratorState.getThreadPayloadCounts().put(logDefinition.getId(), currentPayloadCount);
+                if (currentPayloadCount >= logDefinition.getPayloadCount()) {
+                    return;
                 }
+            }
+            startArrivalPeriod(currentTimeMillis);
+        }
+        ArrivalProcess arrivalProcess = logDefinition.getArrivalProcess();
+        Map<String, List<GeneratorResource>> arrivedResourcesByType = new HashMap<>();
+        timingWheel.advance(currentTimeMillis, timer -> {
+            arrivedResourcesByType.computeIfAbsent(timerResourceTypes[timer], type -> new ArrayList<>()).add(timerResources[timer]);
+            timingWheel.schedule(timer, timingWheel.getCurrentTickMillis() +
+                    arrivalProcess.getNextDelayMillis(timer, burstRemaining, arrivalRandom));
+        });
+        if (!arrivedResourcesByType.isEmpty()) {
+            long nanoTime = TimeUnit.MILLISECONDS.toNanos(currentTimeMillis);
+            postResourceLogs(arrivedResourcesByType, periodLogRecord.toBuilder()
+                    .setTimeUnixNano(nanoTime)
+                    .setObservedTimeUnixNano(nanoTime)
+                    .build());
+        }
+    }
+
+    private void startArrivalPeriod(long currentTimeMillis) {
+        ArrivalProcess arrivalProcess = logDefinition.getArrivalProcess();
+        periodEndMillis = currentTimeMillis + TimeUnit.SECONDS.toMillis(logDefinition.getPayloadFrequencySeconds());
+        periodLogRecord = getLog(logDefinition);
+        List<GeneratorResource> resources = new ArrayList<>();
+        List<String> resourceTypes = new ArrayList<>();
+        for (Map.Entry<String, List<GeneratorResource>> reportingResourceByType : getReportingResourcesByType().entrySet()) {
+            for (GeneratorResource eachResource: reportingResourceByType.getValue()) {
+                resources.add(eachResource);
+                resourceTypes.add(reportingResourceByType.getKey());
+            }
+        }
+        timerResources = resources.toArray(new GeneratorResource[0]);
+        timerResourceTypes = resourceTypes.toArray(new String[0]);
+        burstRemaining = new int[timerResources.length];
+        timingWheel = new TimingWheel(arrivalProcess.getTickMillis(), currentTimeMillis, timerResources.length);
+        for (var timer=0; timer<timerResources.length; timer++) {
+            timingWheel.schedule(timer, currentTimeMillis +
+                    arrivalProcess.getFirstDelayMillis(timer, timerResources.length, arrivalRandom));
+        }
+    }
+
+    private Map<String, List<GeneratorResource>> getReportingResourcesByType() {
+        Map<String, List<GeneratorResource>> reportingResourcesByType = new HashMap<>();
+        for (Map.Entry<String, Integer> resourceTypeWithCount:
+                MapUtils.emptyIfNull(logDefinition.getReportingResourcesCounts()).entrySet()) {
+            reportingResourcesByType.put(resourceTypeWithCount.getKey(),
+                    getResourceSubsetByPostCount(resourceTypeWithCount.getKey(), resourceTypeWithCount.getValue()));
+        }
+        for (Map.Entry<String, Map<String, String>> resourceTypeWithFilter:
+                MapUtils.emptyIfNull(logDefinition.getParsedFilteredReportingResources()).entrySet()) {
+            reportingResourcesByType.put(resourceTypeWithFilter.getKey(),
+                    getFilteredResources(resourceTypeWithFilter.getKey(), resourceTypeWithFilter.getValue()));
+        }
+        return reportingResourcesByType;
+    }
+
+    private void postResourceLogs(Map<String, List<GeneratorResource>> reportingResourcesByType, LogRecord partialLogRecord) {
+        for (Map.Entry<String, List<GeneratorResource>> reportingResourceByType : reportingResourcesByType.entrySet()) {
+            log.debug(requestID + ": Preparing " + reportingResourceByType.getValue().size() +
+                    " resource logs packets for " + reportingResourceByType.getKey());
+            ResourceSpanContexts resourceSpanContexts = logDefinition.getCorrelateWithTraces() ?
+                    SpanContextProvider.getResourceSpanContexts(requestID, reportingResourceByType.getKey()) : null;
+            List<ResourceLogs> resourceLogsList = getResourceLogs(reportingResourceByType.getValue(), partialLogRecord,
+                    resourceSpanContexts);
+            copySequence += (long) reportingResourceByType.getValue().size() * logDefinition.getCopyCount();
+            log.info(requestID + ": Sending payload for: " + reportingResourceByType.getKey());
+            for (ExportLogsServiceRequest resourceLogs: getExportRequests(resourceLogsList)) {
+                payloadHandler.postPayload(resourceLogs, responseStatus -> {
+                    if (logGeneratorState.getTransportStorage() != null) {
+                        logGeneratorState.getTransportStorage().store(logDefinition.getId(),
+                                reportingResourceByType.getKey(), resourceLogs, responseStatus);
+                    }
+                });
                 log.debug(requestID + ": Complete payload for resource: " + reportingResourceByType.getKey() +
                         " in log Definition" + logDefinition.getId() + ": " + resourceLogs);
-                resourceLogsList.clear();
             }
-            currentPayloadCount++;
-            logGeneratorState.getThreadPayloadCounts().put(logDefinition.getId(), currentPayloadCount);
         }
     }
 
-    private LogRecord.Builder getLog(LogDefinition logDefinition) {
+    /**
+     * Assembles the resource logs of all the reporting resources of a type, in the order of the resources. If the log
+     * definition has a parallel chunk size, the resources are split into chunks of that size which are assembled on the
+     * shared assembly pool. Each chunk borrows an idle assembler of this thread and returns it when done, so the assemblers
+     * and their buffers belong to this thread and are never kept alive by the shared pool threads.
+     */
+    private List<ResourceLogs> getResourceLogs(List<GeneratorResource> resources, LogRecord partialLogRecord,
+                                               ResourceSpanContexts resourceSpanContexts) {
+        int copyCount = logDefinition.getCopyCount();
+        long firstSequence = copySequence;
+        Integer chunkSize = logDefinition.getParallelChunkSize();
+        if (chunkSize == null || resources.size() <= chunkSize) {
+            List<ResourceLogs> resourceLogsList = new ArrayList<>(resources.size());
+            for (var resourceIndex=0; resourceIndex<resources.size(); resourceIndex++) {
+                resourceLogsList.add(assembler.assemble(resources.get(resourceIndex), partialLogRecord, resourceSpanContexts,
+                        firstSequence + (long) resourceIndex * copyCount));
+            }
+            return resourceLogsList;
+        }
+        int chunkCount = (resources.size() + chunkSize - 1) / chunkSize;
+        return ASSEMBLY_POOL.submit(() -> IntStream.range(0, chunkCount).parallel()
+                .mapToObj(chunkIndex -> {
+                    ResourceLogsAssembler workerAssembler = idleAssemblers.poll();
+                    if (workerAssembler == null) {
+                        workerAssembler = new ResourceLogsAssembler(logDefinition, corpusReader);
+                    }
+                    int fromResource = chunkIndex * chunkSize;
+                    int toResource = Math.min(fromResource + chunkSize, resources.size());
+                    List<ResourceLogs> chunk = new ArrayList<>(toResource - fromResource);
+                    try {
+                        for (var resourceIndex=fromResource; resourceIndex<toResource; resourceIndex++) {
+                            chunk.add(workerAssembler.assemble(resources.get(resourceIndex), partialLogRecord,
+                                    resourceSpanContexts, firstSequence + (long) resourceIndex * copyCount));
+                        }
+                    } finally {
+                        idleAssemblers.offer(workerAssembler);
+                    }
+                    return chunk;
+                })
+                .flatMap(List::stream)
+                .toList()).join();
+    }
+
+    /**
+     * Splits the resource logs into export requests of at most maxPayloadBytes serialized bytes each, keeping their order.
+     * A single resource logs larger than the limit is sent in a request of its own.
+     */
+    private List<ExportLogsServiceRequest> getExportRequests(List<ResourceLogs> resourceLogsList) {
+        Integer maxPayloadBytes = logDefinition.getMaxPayloadBytes();
+        if (maxPayloadBytes == null) {
+            return List.of(ExportLogsServiceRequest.newBuilder().addAllResourceLogs(resourceLogsList).build());
+        }
+        List<ExportLogsServiceRequest> exportRequests = new ArrayList<>();
+        ExportLogsServiceRequest.Builder exportRequest = ExportLogsServiceRequest.newBuilder();
+        long requestBytes = 0;
+        for (ResourceLogs eachResourceLogs: resourceLogsList) {
+            //Each repeated field entry adds a tag byte and its length prefix to the serialized size
+            int entryBytes = CodedOutputStream.computeMessageSize(ExportLogsServiceRequest.RESOURCE_LOGS_FIELD_NUMBER,
+                    eachResourceLogs);
+            if (exportRequest.getResourceLogsCount() > 0 && requestBytes + entryBytes > maxPayloadBytes) {
+                exportRequests.add(exportRequest.build());
+                exportRequest = ExportLogsServiceRequest.newBuilder();
+                requestBytes = 0;
+            }
+            exportRequest.addResourceLogs(eachResourceLogs);
+            requestBytes += entryBytes;
+        }
+        if (exportRequest.getResourceLogsCount() > 0 || exportRequests.isEmpty()) {
+            exportRequests.add(exportRequest.build());
+        }
+        return exportRequests;
+    }
+
+    private LogRecord getLog(LogDefinition logDefinition) {
         long nanoTime = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
-        String severity = jelProcessor.eval(logDefinition.getSeverityOrderFunction()).toString();
-        return LogRecord.newBuilder()
+        String severity = logDefinition.getSeverityDistribution() == null ?
+                jelProcessor.eval(logDefinition.getSeverityOrderFunction()).toString() :
+                logDefinition.getSeverityDistribution().getSeverity(currentPayloadCount + 1);
+        LogRecord.Builder partialLogRecord = LogRecord.newBuilder()
                 .setTimeUnixNano(nanoTime)
                 .setObservedTimeUnixNano(nanoTime)
                 .setSeverityText(severity)
-                .addAllAttributes(getEvaluatedAttributes(jelProcessor, logDefinition.getAttributes()))
-                .setBody(AnyValue.newBuilder().setStringValue(LogMessageProvider.getLogMessage(severity)).build());
+                .addAllAttributes(getEvaluatedAttributes(jelProcessor, logDefinition.getAttributes()));
+        if (!assembler.hasGeneratedBody()) {
+            partialLogRecord.setBody(assembler.getBody(severity));
+        }
+        return partialLogRecord.build();
     }
 
-    private List<Resource> getResourceSubsetByPostCount(String resourceName, int resourceCount) {
+    private List<GeneratorResource> getResourceSubsetByPostCount(String resourceName, int resourceCount) {
+        if (resourceSelector != null) {
+            return resourceSelector.select(resourceName, resourceCount);
+        }
         int resourceStartIndex = 0;
         //resourceEndIndex is exclusive
         int resourceEndIndex;
-        List<GeneratorResource> resourcesInResourceModel = ResourceModelProvider.getResourceModel(requestID).get(resourceName).stream()
-                .filter(GeneratorResource::isActive).toList();
+        List<GeneratorResource> resourcesInResourceModel = ResourceModelProvider.getActiveResources(requestID, resourceName)
+                .getResources();
         if (resourceCount >= resourcesInResourceModel.size()) {
             resourceEndIndex = resourcesInResourceModel.size();
         } else {
             resourceStartIndex = currentPayloadCount % (resourcesInResourceModel.size() - resourceCount + 1);
             resourceEndIndex = resourceStartIndex + resourceCount;
         }
-        return resourcesInResourceModel.subList(resourceStartIndex, resourceEndIndex)
-                .stream().map(GeneratorResource::getOTelResource).collect(Collectors.toList());
+        return resourcesInResourceModel.subList(resourceStartIndex, resourceEndIndex);
     }
 
-    private List<Resource> getFilteredResources(String resourceName, Map<String, String> filters) {
-        List<Resource> filteredResources = new ArrayList<>();
-        List<GeneratorResource> allResources = ResourceModelProvider.getResourceModel(requestID)
-                .get(resourceName).stream()
-                .filter(GeneratorResource::isActive)
-                .toList();
-        for (GeneratorResource eachResource: allResources) {
-            if (eachResource.getEvaluatedAttributes().entrySet().containsAll(filters.entrySet())) {
-                filteredResources.add(eachResource.getOTelResource());
-            }
-        }
-        return filteredResources;
+    /**
+     * @return view of the active resources matching the filters, which stays valid until the next payload of this thread
+     */
+    private List<GeneratorResource> getFilteredResources(String resourceName, Map<String, String> filters) {
+        //The filters of a type do not change, so only the resources activated since the last payload have to be matched
+        return filteredResourcesViews.computeIfAbsent(resourceName,
+                type -> new ActiveResourcesView<>(ResourceModelProvider.getResourceStore(requestID, type),
+                        resource -> resource.matchesAttributes(filters) ? resource : null)).update();
     }
 }
@@ -24,52 +24,66 @@ import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Provides log messages formatted with the pattern "%r [%t] %p %c %x - %m%n". The layout is compiled once and all the
+ * messages are rendered once per severity during class initialization. Only the relative time and the thread name vary
+ * per log record, so those are prefixed to the pre-rendered remainder of the message when a message is requested.
+ */
 public class LogMessageProvider {
 
-    private static Map<String, List<String>> severityReasonsMap;
+    private static final String LOG_PATTERN = "%r [%t] %p %c %x - %m%n";
+    private static final String RENDER_THREAD_NAME = "log-message-render";
+    private static final long JVM_START_TIME = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static Map<String, String[]> renderedMessagesMap; //severity to messages rendered without the time and thread
 
     static {
         initializeSeverityMaps();
     }
 
     public static String getLogMessage(String severity) {
-        if (!severityReasonsMap.containsKey(severity)) {
+        String[] renderedMessages = renderedMessagesMap.get(severity);
+        if (renderedMessages == null) {
             return "";
         }
-        @SuppressWarnings("OptionalGetWithoutIsPresent") List<String> possibleMessages = severityReasonsMap.entrySet().stream()
-                .filter(severityMessages -> severityMessages.getKey().equalsIgnoreCase(severity))
-                .findFirst().get().getValue();
-        String plainMessage = possibleMessages.get(ThreadLocalRandom.current().nextInt(possibleMessages.size()));
-        return getLog4j2Message(plainMessage, severity);
+        String renderedMessage = renderedMessages[ThreadLocalRandom.current().nextInt(renderedMessages.length)];
+        return (System.currentTimeMillis() - JVM_START_TIME) + " [" + Thread.currentThread().getName() + "] " + renderedMessage;
     }
 
-    private static String getLog4j2Message(String message, String severity) {
-        LogEvent logEvent = Log4jLogEvent.newBuilder()
-                .setLoggerName("TelemetryGenerator")
-                .setLevel(Level.toLevel(severity))
-                .setMessage(new SimpleMessage(message))
-                .setLoggerFqcn("org.apache.logging.log4j.core.Logger")
-                .build();
-        PatternLayout layout = PatternLayout.newBuilder().withPattern("%r [%t] %p %c %x - %m%n").build();
-        return layout.toSerializable(logEvent);
+    private static String[] renderMessages(PatternLayout layout, List<String> messages, String severity) {
+        String[] renderedMessages = new String[messages.size()];
+        String threadPrefix = "[" + RENDER_THREAD_NAME + "] ";
+        for (var messageIndex=0; messageIndex<messages.size(); messageIndex++) {
+            LogEvent logEvent = Log4jLogEvent.newBuilder()
+                    .setLoggerName("TelemetryGenerator")
+                    .setLevel(Level.toLevel(severity))
+                    .setMessage(new SimpleMessage(messages.get(messageIndex)))
+                    .setLoggerFqcn("org.apache.logging.log4j.core.Logger")
+                    .setThreadName(RENDER_THREAD_NAME)
+                    .build();
+            String rendered = layout.toSerializable(logEvent);
+            renderedMessages[messageIndex] = rendered.substring(rendered.indexOf(threadPrefix) + threadPrefix.length());
+        }
+        return renderedMessages;
     }
 
     private static void initializeSeverityMaps() {
-        severityReasonsMap = new HashMap<>();
+        PatternLayout layout = PatternLayout.newBuilder().withPattern(LOG_PATTERN).build();
+        renderedMessagesMap = new HashMap<>();
         List<String> infoMessages = LogMessages.infoMessages;
         List<String> warnMessages = LogMessages.warnMessages;
         List<String> errorMessages = LogMessages.errorMessages;
         List<String> debugMessages = LogMessages.debugMessages;
 
-        severityReasonsMap.put(Constants.INFO_SEVERITY, infoMessages);
-        severityReasonsMap.put(Constants.WARN_SEVERITY, warnMessages);
-        severityReasonsMap.put(Constants.ERROR_SEVERITY, errorMessages);
-        severityReasonsMap.put(Constants.DEBUG_SEVERITY, debugMessages);
-        severityReasonsMap.put(Constants.TRACE_SEVERITY, debugMessages);
+        renderedMessagesMap.put(Constants.INFO_SEVERITY, renderMessages(layout, infoMessages, Constants.INFO_SEVERITY));
+        renderedMessagesMap.put(Constants.WARN_SEVERITY, renderMessages(layout, warnMessages, Constants.WARN_SEVERITY));
+        renderedMessagesMap.put(Constants.ERROR_SEVERITY, renderMessages(layout, errorMessages, Constants.ERROR_SEVERITY));
+        renderedMessagesMap.put(Constants.DEBUG_SEVERITY, renderMessages(layout, debugMessages, Constants.DEBUG_SEVERITY));
+        renderedMessagesMap.put(Constants.TRACE_SEVERITY, renderMessages(layout, debugMessages, Constants.TRACE_SEVERITY));
     }
 }
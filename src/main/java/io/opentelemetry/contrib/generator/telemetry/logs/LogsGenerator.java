@@ -21,6 +21,7 @@ import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorState;
 import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogDefinition;
 import io.opentelemetry.contrib.generator.telemetry.logs.dto.Logs;
 import io.opentelemetry.contrib.generator.telemetry.misc.GeneratorExceptionHandler;
+import io.opentelemetry.contrib.generator.telemetry.misc.PayloadPhases;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.transport.TransportStorage;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +44,7 @@ public class LogsGenerator {
         private final TransportStorage transportStorage;
         private final Logs logs;
         private GeneratorState<LogGeneratorThread> generatorState;
+        private PayloadPhases payloadPhases;
 
         public LogsGenerator(Logs logs, PayloadHandler payloadHandler, String requestID, TransportStorage transportStorage) {
             this.payloadHandler = payloadHandler;
@@ -58,6 +60,9 @@ public class LogsGenerator {
                     + generatorState.getTotalPayloadCount() + ")");
             generatorState.setGeneratorThreadMap(generatorThreadMap);
             GeneratorsStateProvider.putLogGeneratorState(requestID, generatorState);
+            payloadPhases = new PayloadPhases(logs.getSpreadPayloadPhases(), logs.getLogs().stream()
+                    .filter(eachLog -> eachLog.getArrivalProcess() == null)
+                    .map(eachLog -> TimeUnit.SECONDS.toMillis(eachLog.getPayloadFrequencySeconds())).toList());
             logs.getLogs().forEach(this::initThread);
             generatorState.setGenerateData(true);
             log.debug(requestID + ": Flipped generate data flag to true for log threads");
@@ -82,8 +87,15 @@ public class LogsGenerator {
 
         private void initThread(LogDefinition logDefinition) {
             var logGeneratorThread = new LogGeneratorThread(logDefinition, payloadHandler, requestID);
-            generatorState.getExecutorService().scheduleAtFixedRate(logGeneratorThread, 10,
-                    logDefinition.getPayloadFrequencySeconds(), TimeUnit.SECONDS);
+            if (logDefinition.getArrivalProcess() == null) {
+                long periodMillis = TimeUnit.SECONDS.toMillis(logDefinition.getPayloadFrequencySeconds());
+                generatorState.getExecutorService().scheduleAtFixedRate(logGeneratorThread,
+                        payloadPhases.getInitialDelayMillis(periodMillis), periodMillis, TimeUnit.MILLISECONDS);
+            } else {
+                //The arrivals of each resource are already spread by the arrival process
+                generatorState.getExecutorService().scheduleAtFixedRate(logGeneratorThread, PayloadPhases.INITIAL_DELAY_MILLIS,
+                        logDefinition.getArrivalProcess().getTickMillis(), TimeUnit.MILLISECONDS);
+            }
             generatorThreadMap.put(logDefinition.getId(), logGeneratorThread);
             generatorState.getThreadPayloadCounts().put(logDefinition.getId(), 0);
             log.debug(requestID + ": Scheduled log generator thread for Log Definition " + logDefinition.getId());
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs;
+
+import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogCopyVariation;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogDefinition;
+import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
+import io.opentelemetry.contrib.generator.telemetry.traces.ResourceSpanContexts;
+import io.opentelemetry.contrib.generator.telemetry.traces.SpanContextRing;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.InstrumentationScope;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.logs.v1.LogRecord;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import io.opentelemetry.proto.logs.v1.ScopeLogs;
+import io.opentelemetry.proto.resource.v1.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.opentelemetry.contrib.generator.telemetry.misc.GeneratorUtils.getResourceAttributes;
+
+/**
+ * Builds the resource logs of a single resource from the log record prepared for a payload of a log definition. An
+ * assembler keeps reusable builders and its own body generator, so it must only be used by one thread at a time; the
+ * log generator thread keeps one per thread which assembles resource logs.
+ */
+class ResourceLogsAssembler {
+
+    private static final InstrumentationScope SCOPE = InstrumentationScope.newBuilder()
+            .setName(Constants.SELF_NAME)
+            .setVersion(Constants.SELF_VERSION)
+            .build();
+
+    private final LogDefinition logDefinition;
+    private final LogBodyGenerator bodyGenerator; //null if the log definition has no body template
+    private final LogCorpusReader corpusReader; //null if the log definition has no corpus, shared by all the assemblers
+    private final LogRecord.Builder copyBuilder; //reused to build the copies when copy variation is enabled
+    private final SplittableRandom copyRandom;
+
+    ResourceLogsAssembler(LogDefinition logDefinition, LogCorpusReader corpusReader) {
+        this.logDefinition = logDefinition;
+        this.corpusReader = corpusReader;
+        bodyGenerator = logDefinition.getBody() == null ? null : new LogBodyGenerator(logDefinition.getBody());
+        copyBuilder = LogRecord.newBuilder();
+        copyRandom = new SplittableRandom();
+    }
+
+    boolean hasGeneratedBody() {
+        return bodyGenerator != null || corpusReader != null;
+    }
+
+    /**
+     * @param firstSequence sequence number of the first copy, if the copies carry a sequence attribute
+     */
+    ResourceLogs assemble(GeneratorResource generatorResource, LogRecord partialLogRecord,
+                          ResourceSpanContexts resourceSpanContexts, long firstSequence) {
+        Resource resource = generatorResource.getOTelResource();
+        LogRecord.Builder logRecordBuilder = partialLogRecord.toBuilder()
+                .addAllAttributes(getResourceAttributes(logDefinition.getCopyResourceAttributes(), resource));
+        if (hasGeneratedBody()) {
+            logRecordBuilder.setBody(getBody(partialLogRecord.getSeverityText()));
+        }
+        SpanContextRing.SpanContext spanContext = resourceSpanContexts == null ? null :
+                resourceSpanContexts.get(generatorResource.getIndex());
+        if (spanContext != null) {
+            logRecordBuilder.setTraceId(spanContext.traceId()).setSpanId(spanContext.spanId());
+        }
+        LogRecord logRecord = logRecordBuilder.build();
+        List<LogRecord> otelLogs = logDefinition.getCopyVariation() == null ?
+                Collections.nCopies(logDefinition.getCopyCount(), logRecord) : getLogCopies(logRecord, firstSequence);
+        return ResourceLogs.newBuilder()
+                .setResource(resource)
+                .addScopeLogs(ScopeLogs.newBuilder()
+                        .setScope(SCOPE)
+                        .addAllLogRecords(otelLogs)
+                        .build())
+                .build();
+    }
+
+    /**
+     * @return body from the body template or the corpus of the log definition if it has one, else a canned log message
+     */
+    AnyValue getBody(String severity) {
+        if (bodyGenerator != null) {
+            return bodyGenerator.getBody(severity);
+        }
+        if (corpusReader != null) {
+            return corpusReader.getBody();
+        }
+        return AnyValue.newBuilder().setStringValue(LogMessageProvider.getLogMessage(severity)).build();
+    }
+
+    /**
+     * Creates distinct copies of the log record as specified in the copy variation of the log definition. Each copy is
+     * built by the same builder after resetting it to the log record.
+     */
+    private List<LogRecord> getLogCopies(LogRecord logRecord, long firstSequence) {
+        LogCopyVariation copyVariation = logDefinition.getCopyVariation();
+        long jitterNanos = TimeUnit.MILLISECONDS.toNanos(copyVariation.getTimestampJitterMillis());
+        List<LogRecord> logCopies = new ArrayList<>(logDefinition.getCopyCount());
+        for (var copyIndex=0; copyIndex<logDefinition.getCopyCount(); copyIndex++) {
+            copyBuilder.clear().mergeFrom(logRecord);
+            if (jitterNanos > 0) {
+                copyBuilder.setTimeUnixNano(logRecord.getTimeUnixNano() - copyRandom.nextLong(jitterNanos + 1));
+            }
+            if (copyVariation.getSequenceAttribute() != null) {
+                copyBuilder.addAttributes(KeyValue.newBuilder()
+                        .setKey(copyVariation.getSequenceAttribute())
+                        .setValue(AnyValue.newBuilder().setIntValue(firstSequence + copyIndex)));
+            }
+            String severity = logRecord.getSeverityText();
+            if (copyVariation.getSampleSeverity()) {
+                severity = logDefinition.getSeverityDistribution().sample(copyRandom);
+                copyBuilder.setSeverityText(severity);
+            }
+            if (copyVariation.getBodyVariants() || copyVariation.getSampleSeverity()) {
+                copyBuilder.setBody(getBody(severity));
+            }
+            logCopies.add(copyBuilder.build());
+        }
+        return logCopies;
+    }
+}
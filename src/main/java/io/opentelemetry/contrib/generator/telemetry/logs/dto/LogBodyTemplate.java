@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import io.opentelemetry.contrib.generator.telemetry.logs.LogBodyGenerator;
+import lombok.Data;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+
+/**
+ * Template for the body of the log records of a log definition. Templates can contain these placeholders: <p>
+ *     - ${int:min:max}: random integer between min and max, both inclusive <p>
+ *     - ${string:length}: random alphanumeric string of the given length <p>
+ *     - ${uuid}: random UUID <p>
+ *     - ${severity}: severity text of the log record <p>
+ *     - ${fill}: random alphanumeric string which pads the body to the size sampled from the size distribution <p>
+ * The body format can be: <p>
+ *     - STRING: string body rendered from template <p>
+ *     - JSON: string body rendered from template, or a JSON object with each of the fields rendered from its template <p>
+ *     - KVLIST: key-value list body with each of the fields rendered from its template <p>
+ * If a size distribution is provided, the body is padded to the sampled number of bytes at the ${fill} placeholder or at
+ * the end if there is none. For JSON bodies, the template or one of the fields must contain ${fill}, since padding after
+ * the end would not be valid JSON. For KVLIST bodies, one of the fields must contain ${fill} and the size counts the field
+ * values.
+ */
+@Data
+public class LogBodyTemplate {
+
+    private LogBodyFormat format;
+    private String template;
+    private Map<String, String> fields;
+    private Distribution size; //body size in bytes
+
+    public void validate(String logId) {
+        if (format == null) {
+            format = LogBodyFormat.STRING;
+        }
+        if (format == LogBodyFormat.STRING && StringUtils.defaultString(template).isEmpty()) {
+            throw new GeneratorException("Body template not provided for STRING body of log " + logId);
+        }
+        if (format == LogBodyFormat.JSON && StringUtils.defaultString(template).isEmpty() && MapUtils.isEmpty(fields)) {
+            throw new GeneratorException("Either body template or fields must be provided for JSON body of log " + logId);
+        }
+        if (format == LogBodyFormat.KVLIST && MapUtils.isEmpty(fields)) {
+            throw new GeneratorException("Body fields not provided for KVLIST body of log " + logId);
+        }
+        if (size != null) {
+            size.validate("body size of log " + logId);
+            if (format == LogBodyFormat.KVLIST && fields.values().stream().noneMatch(field -> field.contains("${fill}"))) {
+                throw new GeneratorException("Body size provided for KVLIST body of log " + logId + " but none of the " +
+                        "fields contains the ${fill} placeholder");
+            }
+            if (format == LogBodyFormat.JSON && (template != null ? !template.contains("${fill}") :
+                    fields.values().stream().noneMatch(field -> field.contains("${fill}")))) {
+                throw new GeneratorException("Body size provided for JSON body of log " + logId + " but neither the " +
+                        "template nor any of the fields contains the ${fill} placeholder");
+            }
+        }
+        //Compile once to report invalid placeholders during validation
+        new LogBodyGenerator(this);
+    }
+}
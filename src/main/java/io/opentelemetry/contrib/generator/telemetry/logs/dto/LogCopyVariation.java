@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import lombok.Data;
+
+/**
+ * Makes the copies of a log record distinct. Without it, all the copies of a log record for a resource are identical.
+ */
+@Data
+public class LogCopyVariation {
+
+    private Integer timestampJitterMillis; //each copy is timestamped up to this many millis before the log record
+    private String sequenceAttribute; //name of an attribute set to a sequence number unique to each copy
+    private Boolean bodyVariants; //generate the body of each copy separately
+    private Boolean sampleSeverity; //sample the severity of each copy from the severity distribution, along with its body
+
+    public void validate(String logId) {
+        if (timestampJitterMillis == null) {
+            timestampJitterMillis = 0;
+        }
+        if (timestampJitterMillis < 0) {
+            throw new GeneratorException("Timestamp jitter cannot be negative for log " + logId);
+        }
+        if (sequenceAttribute != null && sequenceAttribute.isBlank()) {
+            throw new GeneratorException("Blank sequence attribute name provided for log " + logId);
+        }
+        if (bodyVariants == null) {
+            bodyVariants = false;
+        }
+        if (sampleSeverity == null) {
+            sampleSeverity = false;
+        }
+    }
+}
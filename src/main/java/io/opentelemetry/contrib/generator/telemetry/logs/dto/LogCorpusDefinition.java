@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import lombok.Data;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Text files whose lines are replayed as the bodies of the log records of a log definition. Each non-blank line of the
+ * files is one body. The files are memory-mapped, so they can be much larger than the heap.
+ */
+@Data
+public class LogCorpusDefinition {
+
+    private List<String> files;
+    private Boolean sequential; //replay the lines in order instead of sampling them at random
+
+    public void validate(String logId) {
+        if (CollectionUtils.isEmpty(files)) {
+            throw new GeneratorException("Corpus files not provided for log " + logId);
+        }
+        for (String eachFile: files) {
+            if (!Files.isRegularFile(Path.of(eachFile)) || !Files.isReadable(Path.of(eachFile))) {
+                throw new GeneratorException("Corpus file " + eachFile + " of log " + logId + " does not exist or is not readable");
+            }
+        }
+        if (sequential == null) {
+            sequential = false;
+        }
+    }
+}
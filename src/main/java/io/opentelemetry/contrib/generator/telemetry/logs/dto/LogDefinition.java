@@ -18,6 +18,8 @@ package io.opentelemetry.contrib.generator.telemetry.logs.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcess;
+import io.opentelemetry.contrib.generator.telemetry.dto.ResourceSelection;
 import io.opentelemetry.contrib.generator.telemetry.misc.GeneratorUtils;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -39,9 +41,19 @@ public class LogDefinition {
     private Integer copyCount;
     private Set<String> copyResourceAttributes;
     private Map<String, Object> attributes;
+    private LogBodyTemplate body; //optional, the canned log messages are used if not provided
+    private LogCorpusDefinition corpus; //optional, replays lines of text files as log bodies instead of a body template
+    private LogCopyVariation copyVariation; //optional, all the copies of a log record are identical if not provided
+    private Boolean correlateWithTraces; //attach the trace & span ID of the latest span reported by the same resource
+    private Integer parallelChunkSize; //resources per chunk assembled on the shared pool, else assembled on the log thread
+    private Integer maxPayloadBytes; //split the payload of each resource type into export requests of at most this size
+    private ArrivalProcess arrivalProcess; //optional, each reporting resource emits on its own instead of all at once
+    private ResourceSelection resourceSelection; //optional, how the reportingResourcesCounts are picked, sliding if not provided
     @JsonIgnore
     private String id;
     @JsonIgnore
+    private SeverityDistribution severityDistribution; //null if the severity order function has to be evaluated each time
+    @JsonIgnore
     private Map<String, Map<String, String>> parsedFilteredReportingResources;
 
     public long validate(String requestID, Set<String> allResourceTypes, Integer globalPayloadFrequencySeconds, int logIndex) {
@@ -52,9 +64,13 @@ public class LogDefinition {
         if (copyResourceAttributes == null) {
             copyResourceAttributes = new HashSet<>();
         }
+        if (correlateWithTraces == null) {
+            correlateWithTraces = false;
+        }
         validateMandatoryFields();
         validateResourceTypes(allResourceTypes);
         parseFilteredReportingResources();
+        compileSeverityDistribution();
         addRequestIDAndLogNameToValueFunction(requestID);
         attributes = GeneratorUtils.addArgsToAttributeExpressions(requestID, "log", id, attributes);
         return validatePayloadFrequency(globalPayloadFrequencySeconds);
@@ -73,6 +89,30 @@ public class LogDefinition {
             throw new GeneratorException("Mandatory field 'severityFrequency' not provided in log definition YAML for log " + this);
         }
         validateAttributes();
+        if (body != null) {
+            body.validate(id);
+        }
+        if (corpus != null) {
+            if (body != null) {
+                throw new GeneratorException("Only one of body and corpus can be provided for log " + this);
+            }
+            corpus.validate(id);
+        }
+        if (copyVariation != null) {
+            copyVariation.validate(id);
+        }
+        if (parallelChunkSize != null && parallelChunkSize < 1) {
+            throw new GeneratorException("Parallel chunk size cannot be less than 1. Update the value in log " + this);
+        }
+        if (maxPayloadBytes != null && maxPayloadBytes < 1) {
+            throw new GeneratorException("Max payload bytes cannot be less than 1. Update the value in log " + this);
+        }
+        if (arrivalProcess != null) {
+            arrivalProcess.validate("log " + id);
+        }
+        if (resourceSelection != null) {
+            resourceSelection.validate("log " + id);
+        }
     }
 
     private long validatePayloadFrequency(Integer globalPostFrequencySeconds) {
@@ -164,6 +204,14 @@ public class LogDefinition {
         }
     }
 
+    private void compileSeverityDistribution() {
+        severityDistribution = SeverityDistribution.compile(severityOrderFunction, payloadCount);
+        if (copyVariation != null && copyVariation.getSampleSeverity() && severityDistribution == null) {
+            throw new GeneratorException("Severity of each copy can only be sampled for severityDistributionCount or " +
+                    "severityDistributionPercentage functions with literal arguments. Update the log " + this);
+        }
+    }
+
     private void addRequestIDAndLogNameToValueFunction(String requestID) {
         List<String> valueFunctions = Arrays.asList("severityDistributionCount", "severityDistributionPercentage", "severityDistributionCountIndex");
         for (String eachValueFx: valueFunctions) {
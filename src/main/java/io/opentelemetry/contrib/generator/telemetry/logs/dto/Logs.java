@@ -19,7 +19,9 @@ package io.opentelemetry.contrib.generator.telemetry.logs.dto;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
 import lombok.Data;
+import org.apache.commons.collections4.MapUtils;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +30,7 @@ public class Logs {
 
     private List<LogDefinition> logs;
     private Integer globalPayloadFrequencySeconds;
+    private Boolean spreadPayloadPhases; //stagger the start of the log definitions sharing a payload frequency
     @JsonIgnore
     private long maxPostSeconds;
     @JsonIgnore
@@ -37,6 +40,7 @@ public class Logs {
         if (globalPayloadFrequencySeconds != null && globalPayloadFrequencySeconds < 10) {
             throw new GeneratorException("Global Payload generation frequency cannot be less than 10 second");
         }
+        spreadPayloadPhases = spreadPayloadPhases != null && spreadPayloadPhases;
         maxPostSeconds = 0;
         totalPayloadCount = 0;
         int logIndex = 0;
@@ -47,4 +51,19 @@ public class Logs {
             logIndex++;
         }
     }
+
+    /**
+     * @return the reporting resource types of all the log definitions which are correlated with traces
+     */
+    @JsonIgnore
+    public Set<String> getTraceCorrelatedResourceTypes() {
+        Set<String> resourceTypes = new HashSet<>();
+        for (LogDefinition eachLog: logs) {
+            if (eachLog.getCorrelateWithTraces()) {
+                resourceTypes.addAll(MapUtils.emptyIfNull(eachLog.getReportingResourcesCounts()).keySet());
+                resourceTypes.addAll(MapUtils.emptyIfNull(eachLog.getFilteredReportingResources()).keySet());
+            }
+        }
+        return resourceTypes;
+    }
 }
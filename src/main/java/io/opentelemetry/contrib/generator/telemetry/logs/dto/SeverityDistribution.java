@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.logs.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.misc.AliasTable;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of the severityDistributionCount and severityDistributionPercentage severity order functions. The cycle
+ * of severities the functions go through over the payloads is precomputed into a schedule, so the severity of a payload
+ * is a single array access instead of an expression evaluation. The same weights also back an alias table, which is used
+ * to sample the severity of each copy of a log record when the copy variation asks for it.
+ * @see io.opentelemetry.contrib.generator.telemetry.jel.methods.LogSeverityGenerator
+ */
+@Getter
+public class SeverityDistribution {
+
+    private static final Pattern FUNCTION_PATTERN = Pattern.compile(
+            "^\\s*severityDistribution(Count|Percentage)\\s*\\(\\s*\\[(.*)]\\s*,\\s*\\[(.*)]\\s*\\)\\s*$");
+    private static final Pattern SEVERITY_PATTERN = Pattern.compile("\\s*(?:\"([^\"]*)\"|'([^']*)')\\s*(?:,|$)");
+
+    private final String[] severities;
+    private final String[] schedule; //severity for each position in the cycle, indexed by payload number modulo cycle length
+    private final AliasTable aliasTable;
+
+    private SeverityDistribution(String[] severities, long[] frequencies, double[] weights) {
+        this.severities = severities;
+        long totalFrequency = 0;
+        for (long eachFrequency: frequencies) {
+            totalFrequency += eachFrequency;
+        }
+        if (totalFrequency > Integer.MAX_VALUE) {
+            throw new GeneratorException("Invalid total severity frequency " + totalFrequency);
+        }
+        schedule = new String[(int) totalFrequency];
+        //Position 0 wraps around to the first severity, the rest follow the frequencies in order
+        schedule[0] = severities[0];
+        int position = 1;
+        for (var severityIndex=0; severityIndex<severities.length && position<schedule.length; severityIndex++) {
+            for (long eachCount=0; eachCount<frequencies[severityIndex] && position<schedule.length; eachCount++) {
+                schedule[position++] = severities[severityIndex];
+            }
+        }
+        aliasTable = new AliasTable(weights);
+    }
+
+    /**
+     * @param severityOrderFunction severity order function of the log definition, before the request ID and log ID are added
+     * @param payloadCount number of payloads of the log definition, which the percentages apply to
+     * @return the compiled distribution or null if the function is not one of the severity distribution functions with
+     * literal arguments, in which case it has to be evaluated as an expression
+     */
+    public static SeverityDistribution compile(String severityOrderFunction, int payloadCount) {
+        Matcher functionMatcher = FUNCTION_PATTERN.matcher(severityOrderFunction);
+        if (!functionMatcher.matches()) {
+            return null;
+        }
+        String[] severities = parseSeverities(functionMatcher.group(2));
+        long[] values = parseValues(functionMatcher.group(3));
+        if (severities == null || values == null || severities.length == 0 || severities.length != values.length) {
+            return null;
+        }
+        double[] weights = new double[values.length];
+        long[] frequencies = new long[values.length];
+        boolean isPercentage = functionMatcher.group(1).equals("Percentage");
+        long totalFrequency = 0;
+        for (var index=0; index<values.length; index++) {
+            weights[index] = values[index];
+            frequencies[index] = isPercentage ? (payloadCount * values[index]) / 100 : values[index];
+            totalFrequency += frequencies[index];
+        }
+        if (totalFrequency == 0) {
+            //Nothing to compile a cycle from, leave the function to fail at evaluation as it always has
+            return null;
+        }
+        return new SeverityDistribution(severities, frequencies, weights);
+    }
+
+    /**
+     * @param payloadNumber 1 based number of the payload
+     */
+    public String getSeverity(int payloadNumber) {
+        return schedule[payloadNumber % schedule.length];
+    }
+
+    public String sample(RandomGenerator random) {
+        return severities[aliasTable.sample(random)];
+    }
+
+    private static String[] parseSeverities(String severitiesList) {
+        List<String> severities = new ArrayList<>();
+        Matcher severityMatcher = SEVERITY_PATTERN.matcher(severitiesList);
+        int end = 0;
+        while (end < severitiesList.length()) {
+            if (!severityMatcher.find(end) || severityMatcher.start() != end) {
+                return null;
+            }
+            severities.add(severityMatcher.group(1) != null ? severityMatcher.group(1) : severityMatcher.group(2));
+            end = severityMatcher.end();
+        }
+        return severities.toArray(new String[0]);
+    }
+
+    private static long[] parseValues(String valuesList) {
+        String[] values = valuesList.split(",");
+        long[] parsedValues = new long[values.length];
+        try {
+            for (var index=0; index<values.length; index++) {
+                parsedValues[index] = Long.parseLong(values[index].trim());
+                if (parsedValues[index] < 0) {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException numberFormatException) {
+            return null;
+        }
+        return parsedValues;
+    }
+}
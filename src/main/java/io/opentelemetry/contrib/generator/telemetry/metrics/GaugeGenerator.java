@@ -37,17 +37,23 @@ public class GaugeGenerator {
     }
 
     public Metric.Builder getOTelMetric(MetricDefinition metricDefinition) {
+        return getOTelMetric(metricDefinition, Double.parseDouble(jelProcessor.eval(metricDefinition.getValueFunction()).toString()));
+    }
+
+    /**
+     * @return the metric with the provided value instead of the value of its value function, as for rollup metrics
+     */
+    public Metric.Builder getOTelMetric(MetricDefinition metricDefinition, double value) {
         Metric.Builder partialMetric = Metric.newBuilder().setName(metricDefinition.getName())
                 .setUnit(metricDefinition.getUnit());
         return metricDefinition.getIsDouble() ?
-                partialMetric.setGauge(getDoubleGaugeDataPoint(metricDefinition)) :
-                partialMetric.setGauge(getIntGaugeDataPoint(metricDefinition));
+                partialMetric.setGauge(getDoubleGaugeDataPoint(metricDefinition, value)) :
+                partialMetric.setGauge(getIntGaugeDataPoint(metricDefinition, value));
     }
 
-    private Gauge getDoubleGaugeDataPoint(MetricDefinition metricDefinition) {
+    private Gauge getDoubleGaugeDataPoint(MetricDefinition metricDefinition, double value) {
         long[] times = GeneratorUtils.normalizeTimestamp(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()),
                 metricDefinition.getPayloadFrequencySeconds());
-        var value = Double.parseDouble(jelProcessor.eval(metricDefinition.getValueFunction()).toString());
         return Gauge.newBuilder()
                 .addDataPoints(NumberDataPoint.newBuilder()
                         .setStartTimeUnixNano(times[0])
@@ -58,15 +64,14 @@ public class GaugeGenerator {
                 .build();
     }
 
-    private Gauge getIntGaugeDataPoint(MetricDefinition metricDefinition) {
+    private Gauge getIntGaugeDataPoint(MetricDefinition metricDefinition, double value) {
         long[] times = GeneratorUtils.normalizeTimestamp(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()),
                 metricDefinition.getPayloadFrequencySeconds());
-        Double value = Double.parseDouble(jelProcessor.eval(metricDefinition.getValueFunction()).toString());
         return Gauge.newBuilder()
                 .addDataPoints(NumberDataPoint.newBuilder()
                         .setStartTimeUnixNano(times[0])
                         .setTimeUnixNano(times[1])
-                        .setAsInt(value.longValue())
+                        .setAsInt((long) value)
                         .addAllAttributes(GeneratorUtils.getEvaluatedAttributes(jelProcessor, metricDefinition.getAttributes()))
                         .build())
                 .build();
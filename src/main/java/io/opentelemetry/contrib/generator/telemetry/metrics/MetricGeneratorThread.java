@@ -16,16 +16,23 @@
 
 package io.opentelemetry.contrib.generator.telemetry.metrics;
 
+import io.opentelemetry.contrib.generator.core.dto.ActiveResourcesView;
 import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.dto.ResourceAdjacency;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
 import io.opentelemetry.contrib.generator.core.jel.ExpressionProcessor;
 import io.opentelemetry.contrib.generator.telemetry.GeneratorsStateProvider;
+import io.opentelemetry.contrib.generator.telemetry.MetricSeriesProvider;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorState;
 import io.opentelemetry.contrib.generator.telemetry.misc.GeneratorUtils;
+import io.opentelemetry.contrib.generator.telemetry.misc.PayloadArrivals;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.ResourceModelProvider;
 import io.opentelemetry.contrib.generator.telemetry.jel.MELTExpressionsJELProvider;
 import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
 import io.opentelemetry.contrib.generator.telemetry.metrics.dto.MetricDefinition;
+import io.opentelemetry.contrib.generator.telemetry.metrics.dto.MetricRollup;
 import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
 import io.opentelemetry.proto.common.v1.InstrumentationScope;
 import io.opentelemetry.proto.common.v1.KeyValue;
@@ -33,9 +40,9 @@ import io.opentelemetry.proto.metrics.v1.*;
 import io.opentelemetry.proto.resource.v1.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -55,6 +62,13 @@ public class MetricGeneratorThread implements Runnable {
     private final HistogramGenerator histogramGenerator;
     private final SummaryGenerator summaryGenerator;
     private int currentCount;
+    private ActiveResourcesView<ReportingResource> reportingResourcesView; //reporting resources with their metrics
+    private final Map<Set<String>, Set<String>> metricNameSets; //distinct sets of reporting metrics, shared by the resources
+    private final String resourceType;
+    private final Map<String, ResourceAdjacency> rollupChildren; //children of the group type for each rollup metric
+    private final Map<String, MetricSeries> publishedSeries; //series of the metrics which are rolled up into the parents
+    private final PayloadArrivals payloadArrivals; //only for a metric with an arrival process, which is alone in its group
+    private List<ResourceMetrics> periodResourceMetrics; //metrics of each reporting resource in the current period
 
     public MetricGeneratorThread(String groupKey, List<MetricDefinition> metrics, PayloadHandler payloadHandler,
                                  String requestID) {
@@ -69,67 +83,158 @@ public class MetricGeneratorThread implements Runnable {
         histogramGenerator = new HistogramGenerator(requestID, jelProcessor);
         summaryGenerator = new SummaryGenerator(jelProcessor);
         currentCount = 0;
+        resourceType = groupKey.split("::")[0];
+        MetricDefinition firstMetric = metrics.get(0);
+        payloadArrivals = firstMetric.getArrivalProcess() == null ? null : new PayloadArrivals(firstMetric.getArrivalProcess(),
+                TimeUnit.SECONDS.toMillis(firstMetric.getPayloadFrequencySeconds()));
+        metricNameSets = new HashMap<>();
+        rollupChildren = new HashMap<>();
+        publishedSeries = new HashMap<>();
+        for (MetricDefinition eachMetric: metrics) {
+            if (eachMetric.getRollup() != null) {
+                ResourceAdjacency children = ResourceModelProvider.getResourceStore(requestID, resourceType).getChildrenByType()
+                        .get(eachMetric.getRollup().getChildType());
+                if (children == null) {
+                    throw new GeneratorException("Resource type " + eachMetric.getRollup().getChildType() + " is not a " +
+                            "child type of " + resourceType + " for rollup metric " + eachMetric.getName());
+                }
+                rollupChildren.put(eachMetric.getName(), children);
+            }
+            MetricSeries series = MetricSeriesProvider.getMetricSeries(requestID, resourceType, eachMetric.getName());
+            if (series != null) {
+                publishedSeries.put(eachMetric.getName(), series);
+            }
+        }
     }
 
     @Override
     public void run() {
+        int payloadCount = metrics.values().stream().findFirst().get().getPayloadCount();
+        if (payloadArrivals != null && metricGeneratorState.isGenerateData()) {
+            runArrivalTick(payloadCount);
+            return;
+        }
         log.debug(requestID + ": Metric generator thread invoked for resource type: " + groupKey + " with metrics: " +
                 metrics.values().stream().map(MetricDefinition::getName).toList());
-        int payloadCount = metrics.values().stream().findFirst().get().getPayloadCount();
         if (metricGeneratorState.isGenerateData() && currentCount < payloadCount) {
-            List<ResourceMetrics> resourceMetricsList = new ArrayList<>();
-            ResourceMetrics resourceMetric;
-            List<Metric.Builder> partialOTelMetrics = metrics.values().stream()
-                    .map(this::getMetric).toList();
-            Pair<List<Resource>, List<Set<String>>> reportingResourcesAndMetrics = getReportingResources();
-            List<Resource> reportingResources = reportingResourcesAndMetrics.getLeft();
-            log.debug(requestID + ": Preparing " + reportingResources.size() + " resource metric packets for " + groupKey);
-            for (int resourceIndex=0; resourceIndex<reportingResources.size(); resourceIndex++) {
-                Resource reportingResource = reportingResources.get(resourceIndex);
-                Set<String> applicableMetrics = reportingResourcesAndMetrics.getRight().get(resourceIndex);
-                List<Metric.Builder> filteredMetrics = partialOTelMetrics.stream()
-                        .filter(partialMetric -> applicableMetrics.contains(partialMetric.getName()))
-                        .toList();
-                List<Metric> otelMetrics = new ArrayList<>();
-                for (Metric.Builder eachPartialMetric: filteredMetrics) {
-                    List<KeyValue> resourceAttrs = GeneratorUtils.getResourceAttributes(
-                            metrics.get(eachPartialMetric.getName()).getCopyResourceAttributes(), reportingResource
-                    );
-                    otelMetrics.add(getMetricWithResourceAttributes(eachPartialMetric, resourceAttrs));
-                }
-                if (!otelMetrics.isEmpty()) {
-                    resourceMetric = ResourceMetrics.newBuilder()
-                            .setResource(reportingResource)
-                            .addScopeMetrics(ScopeMetrics.newBuilder()
-                                    .setScope(InstrumentationScope.newBuilder()
-                                            .setName(Constants.SELF_NAME)
-                                            .setVersion(Constants.SELF_VERSION)
-                                            .build())
-                                    .addAllMetrics(otelMetrics)
-                                    .build())
-                            .build();
-                    resourceMetricsList.add(resourceMetric);
-                }
-            }
+            List<ResourceMetrics> resourceMetricsList = getResourceMetrics();
             if (resourceMetricsList.isEmpty()) {
                 log.info("No metrics received from generator for: " + groupKey);
             } else {
-                ExportMetricsServiceRequest resourceMetrics = ExportMetricsServiceRequest.newBuilder()
-                        .addAllResourceMetrics(resourceMetricsList)
-                        .build();
-                log.info(requestID + ": Sending payload for: " + groupKey);
-                log.debug(requestID + ": Complete payload for " + groupKey + ": " + resourceMetrics);
-                boolean responseStatus = payloadHandler.postPayload(resourceMetrics);
-                if (metricGeneratorState.getTransportStorage() != null) {
-                    metricGeneratorState.getTransportStorage().store(groupKey, resourceMetrics, responseStatus);
-                }
+                postResourceMetrics(resourceMetricsList);
             }
             currentCount++;
             metricGeneratorState.getThreadPayloadCounts().put(groupKey, currentCount);
         }
     }
 
+    /**
+     * With an arrival process, the thread runs once per tick of the process and each payload of the metric is a period of
+     * payloadFrequencySeconds. The metrics of all the reporting resources are generated at the start of the period, so the
+     * rollups of the parents see one consistent set of values, and each resource sends its metrics at its first arrival.
+     */
+    private void runArrivalTick(int payloadCount) {
+        long currentTimeMillis = System.currentTimeMillis();
+        if (payloadArrivals.isPeriodOver(currentTimeMillis)) {
+            if (periodResourceMetrics != null) {
+                List<ResourceMetrics> remainingResourceMetrics = new ArrayList<>();
+                payloadArrivals.drain(resource -> remainingResourceMetrics.add(periodResourceMetrics.get(resource)));
+                postResourceMetrics(remainingResourceMetrics);
+                currentCount++;
+                metricGeneratorState.getThreadPayloadCounts().put(groupKey, currentCount);
+                periodResourceMetrics = null;
+            }
+            if (currentCount >= payloadCount) {
+                return;
+            }
+            periodResourceMetrics = getResourceMetrics();
+            payloadArrivals.startPeriod(currentTimeMillis, periodResourceMetrics.size());
+        }
+        List<ResourceMetrics> arrivedResourceMetrics = new ArrayList<>();
+        payloadArrivals.advance(currentTimeMillis, resource -> arrivedResourceMetrics.add(periodResourceMetrics.get(resource)));
+        postResourceMetrics(arrivedResourceMetrics);
+    }
+
+    /**
+     * Generates the metrics of every reporting resource of the group and publishes the values of the series which are
+     * rolled up into the parents.
+     * @return one ResourceMetrics for each reporting resource with at least one metric
+     */
+    private List<ResourceMetrics> getResourceMetrics() {
+        List<ResourceMetrics> resourceMetricsList = new ArrayList<>();
+        ResourceMetrics resourceMetric;
+        List<Metric.Builder> partialOTelMetrics = metrics.values().stream()
+                .map(this::getMetric).toList();
+        Map<String, double[]> rollupValues = getRollupValues();
+        Map<String, double[]> seriesValues = new HashMap<>();
+        publishedSeries.forEach((metricName, series) -> seriesValues.put(metricName, series.newValues()));
+        ActiveResourcesView<ReportingResource> reportingResources = getReportingResources();
+        ResourceColumnStore resourceStore = ResourceModelProvider.getResourceStore(requestID, resourceType);
+        log.debug(requestID + ": Preparing " + reportingResources.size() + " resource metric packets for " + groupKey);
+        for (ReportingResource eachReportingResource: reportingResources) {
+            Resource reportingResource = resourceStore.getOTelResource(eachReportingResource.index());
+            Set<String> applicableMetrics = eachReportingResource.metricNames();
+            List<Metric.Builder> filteredMetrics = partialOTelMetrics.stream()
+                    .filter(partialMetric -> applicableMetrics.contains(partialMetric.getName()))
+                    .toList();
+            List<Metric> otelMetrics = new ArrayList<>();
+            for (Metric.Builder eachPartialMetric: filteredMetrics) {
+                Metric.Builder reportedMetric = eachPartialMetric;
+                if (rollupChildren.containsKey(eachPartialMetric.getName())) {
+                    double[] values = rollupValues.get(eachPartialMetric.getName());
+                    if (values == null || Double.isNaN(values[eachReportingResource.index()])) {
+                        continue;
+                    }
+                    reportedMetric = getRollupMetric(eachPartialMetric, values[eachReportingResource.index()]);
+                }
+                if (seriesValues.containsKey(eachPartialMetric.getName())) {
+                    seriesValues.get(eachPartialMetric.getName())[eachReportingResource.index()] = getNumberValue(reportedMetric);
+                }
+                List<KeyValue> resourceAttrs = GeneratorUtils.getResourceAttributes(
+                        metrics.get(eachPartialMetric.getName()).getCopyResourceAttributes(), reportingResource
+                );
+                otelMetrics.add(getMetricWithResourceAttributes(reportedMetric, resourceAttrs));
+            }
+            if (!otelMetrics.isEmpty()) {
+                resourceMetric = ResourceMetrics.newBuilder()
+                        .setResource(reportingResource)
+                        .addScopeMetrics(ScopeMetrics.newBuilder()
+                                .setScope(InstrumentationScope.newBuilder()
+                                        .setName(Constants.SELF_NAME)
+                                        .setVersion(Constants.SELF_VERSION)
+                                        .build())
+                                .addAllMetrics(otelMetrics)
+                                .build())
+                        .build();
+                resourceMetricsList.add(resourceMetric);
+            }
+        }
+        seriesValues.forEach((metricName, values) -> publishedSeries.get(metricName).publish(values));
+        return resourceMetricsList;
+    }
+
+    private void postResourceMetrics(List<ResourceMetrics> resourceMetricsList) {
+        if (resourceMetricsList.isEmpty()) {
+            return;
+        }
+        ExportMetricsServiceRequest resourceMetrics = ExportMetricsServiceRequest.newBuilder()
+                .addAllResourceMetrics(resourceMetricsList)
+                .build();
+        log.info(requestID + ": Sending payload for: " + groupKey);
+        log.debug(requestID + ": Complete payload for " + groupKey + ": " + resourceMetrics);
+        payloadHandler.postPayload(resourceMetrics, responseStatus -> {
+            if (metricGeneratorState.getTransportStorage() != null) {
+                metricGeneratorState.getTransportStorage().store(groupKey, resourceMetrics, responseStatus);
+            }
+        });
+    }
+
     private Metric.Builder getMetric(MetricDefinition metricDefinition) {
+        if (metricDefinition.getRollup() != null) {
+            //The value of each resource is set from the rollup values later
+            return metricDefinition.getOtelType().equals(Constants.GAUGE) ? gaugeGenerator.getOTelMetric(metricDefinition, 0) :
+                    sumGenerator.getOTelMetric(metricDefinition, 0);
+        }
         return switch (metricDefinition.getOtelType()) {
             case Constants.GAUGE -> gaugeGenerator.getOTelMetric(metricDefinition);
             case Constants.SUM -> sumGenerator.getOTelMetric(metricDefinition);
@@ -138,41 +243,82 @@ public class MetricGeneratorThread implements Runnable {
         };
     }
 
-    private Pair<List<Resource>, List<Set<String>>> getReportingResources() {
-        String resourceType = groupKey.split("::")[0];
-        Set<String> metricsWithAllResources = metrics.values().stream()
-                .filter(metric -> CollectionUtils.emptyIfNull(metric.getReportingResources()).contains(resourceType))
-                .map(MetricDefinition::getName)
-                .collect(Collectors.toSet());
-        List<GeneratorResource> allReportingResources = ResourceModelProvider.getResourceModel(requestID)
-                .get(resourceType).stream()
-                .filter(GeneratorResource::isActive)
-                .toList();
-        int allReportingResourcesCount = allReportingResources.size();
-        log.info("All " + allReportingResourcesCount + " " + resourceType + " resources will report the metrics: " +
-                String.join(", ", metricsWithAllResources));
-        List<Set<String>> metricsForEachResource = new ArrayList<>();
-        for (int resourceIndex=0; resourceIndex<allReportingResourcesCount; resourceIndex++) {
-            metricsForEachResource.add(new HashSet<>(metricsWithAllResources));
+    /**
+     * Aggregates the latest values which the children reported for the child metric of each rollup metric of the group,
+     * in one pass over the children of all the resources of the group type.
+     * @return values by resource index for each rollup metric whose child metric has been reported at least once
+     */
+    private Map<String, double[]> getRollupValues() {
+        Map<String, double[]> rollupValues = new HashMap<>();
+        for (Map.Entry<String, ResourceAdjacency> eachRollup: rollupChildren.entrySet()) {
+            MetricRollup rollup = metrics.get(eachRollup.getKey()).getRollup();
+            MetricSeries childSeries = MetricSeriesProvider.getMetricSeries(requestID, rollup.getChildType(),
+                    rollup.getChildMetric());
+            double[] childValues = childSeries.getValues();
+            if (childValues == null) {
+                log.debug(requestID + ": Child metric " + rollup.getChildMetric() + " of rollup metric " +
+                        eachRollup.getKey() + " not reported yet");
+                continue;
+            }
+            rollupValues.put(eachRollup.getKey(), rollup.aggregate(eachRollup.getValue(),
+                    ResourceModelProvider.getResourceStore(requestID, resourceType).getSize(), childValues));
         }
-        Set<String> metricsWithFilteredResources = new HashSet<>(metrics.keySet());
-        metricsWithFilteredResources.removeAll(metricsWithAllResources);
-        for (String metricWithFilteredResources: metricsWithFilteredResources) {
-            int selectedCount = 0;
-            for (int resourceIndex=0; resourceIndex<allReportingResourcesCount; resourceIndex++) {
-                if (allReportingResources.get(resourceIndex).getEvaluatedAttributes().entrySet().containsAll(
-                        metrics.get(metricWithFilteredResources).getParsedFilteredReportingResources()
-                                .get(resourceType).entrySet()
-                )) {
-                    metricsForEachResource.get(resourceIndex).add(metricWithFilteredResources);
-                    selectedCount++;
-                }
+        return rollupValues;
+    }
+
+    private Metric.Builder getRollupMetric(Metric.Builder partialMetric, double value) {
+        Metric.Builder rollupMetric = partialMetric.clone();
+        NumberDataPoint.Builder dataPoint = rollupMetric.getDataCase() == Metric.DataCase.GAUGE ?
+                rollupMetric.getGaugeBuilder().getDataPointsBuilder(0) : rollupMetric.getSumBuilder().getDataPointsBuilder(0);
+        if (dataPoint.getValueCase() == NumberDataPoint.ValueCase.AS_DOUBLE) {
+            dataPoint.setAsDouble(value);
+        } else {
+            dataPoint.setAsInt((long) value);
+        }
+        return rollupMetric;
+    }
+
+    private double getNumberValue(Metric.Builder metric) {
+        NumberDataPoint dataPoint = metric.getDataCase() == Metric.DataCase.GAUGE ? metric.getGauge().getDataPoints(0) :
+                metric.getSum().getDataPoints(0);
+        return dataPoint.getValueCase() == NumberDataPoint.ValueCase.AS_DOUBLE ? dataPoint.getAsDouble() : dataPoint.getAsInt();
+    }
+
+    /**
+     * @return active resources of the group type with the names of the metrics each of them reports, maintained
+     * incrementally as the active resources change
+     */
+    private ActiveResourcesView<ReportingResource> getReportingResources() {
+        if (reportingResourcesView == null) {
+            Set<String> metricsWithAllResources = metrics.values().stream()
+                    .filter(metric -> CollectionUtils.emptyIfNull(metric.getReportingResources()).contains(resourceType))
+                    .map(MetricDefinition::getName)
+                    .collect(Collectors.toSet());
+            log.info("All active " + resourceType + " resources will report the metrics: " +
+                    String.join(", ", metricsWithAllResources));
+            reportingResourcesView = new ActiveResourcesView<>(ResourceModelProvider.getResourceStore(requestID, resourceType),
+                    resource -> getReportingMetrics(resource, resourceType, metricsWithAllResources));
+        }
+        long previousVersion = reportingResourcesView.getVersion();
+        reportingResourcesView.update();
+        if (reportingResourcesView.getVersion() != previousVersion) {
+            log.debug(requestID + ": " + reportingResourcesView.size() + " " + resourceType + " resources report metrics of " +
+                    groupKey + " as of version " + reportingResourcesView.getVersion());
+        }
+        return reportingResourcesView;
+    }
+
+    private ReportingResource getReportingMetrics(GeneratorResource resource, String resourceType,
+                                                  Set<String> metricsWithAllResources) {
+        Set<String> reportingMetrics = new HashSet<>(metricsWithAllResources);
+        for (MetricDefinition eachMetric: metrics.values()) {
+            if (!metricsWithAllResources.contains(eachMetric.getName()) &&
+                    resource.matchesAttributes(eachMetric.getParsedFilteredReportingResources().get(resourceType))) {
+                reportingMetrics.add(eachMetric.getName());
             }
-            log.debug(selectedCount + " " + resourceType + " resources selected for metric " +
-                    metricWithFilteredResources);
         }
-        return Pair.of(allReportingResources.stream().map(GeneratorResource::getOTelResource).toList(),
-                metricsForEachResource);
+        return reportingMetrics.isEmpty() ? null : new ReportingResource(resource.getIndex(),
+                metricNameSets.computeIfAbsent(reportingMetrics, Function.identity()));
     }
 
     private Metric getMetricWithResourceAttributes(Metric.Builder partialMetric, List<KeyValue> resourceAttributes) {
@@ -240,4 +386,8 @@ public class MetricGeneratorThread implements Runnable {
         }
     }
 
+    /**
+     * The OTel resource is built only when the metrics are sent, so that it goes through the resource cache of the store.
+     */
+    private record ReportingResource(int index, Set<String> metricNames) {}
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.telemetry.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Latest values which the resources of a single resource type reported for a metric, indexed by the position of the
+ * resource in the resource model, for the rollup metrics of their parents. Each payload of the metric publishes a complete
+ * array of values, so a rollup always aggregates the values of a single payload without taking any locks.
+ */
+public class MetricSeries {
+
+    private final int resourceCount;
+    private volatile double[] values; //null until the metric is reported for the first time
+
+    public MetricSeries(int resourceCount) {
+        this.resourceCount = resourceCount;
+    }
+
+    /**
+     * @return array to fill with the values of the next payload, NaN for all the resources to begin with
+     */
+    public double[] newValues() {
+        double[] newValues = new double[resourceCount];
+        Arrays.fill(newValues, Double.NaN);
+        return newValues;
+    }
+
+    public void publish(double[] payloadValues) {
+        values = payloadValues;
+    }
+
+    /**
+     * @return values of the latest payload, NaN for the resources which did not report the metric, or null if the metric
+     * has not been reported yet. The array must not be modified.
+     */
+    public double[] getValues() {
+        return values;
+    }
+}
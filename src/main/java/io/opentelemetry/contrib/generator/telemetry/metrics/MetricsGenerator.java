@@ -17,8 +17,10 @@
 package io.opentelemetry.contrib.generator.telemetry.metrics;
 
 import io.opentelemetry.contrib.generator.telemetry.GeneratorsStateProvider;
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcess;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorState;
 import io.opentelemetry.contrib.generator.telemetry.misc.GeneratorExceptionHandler;
+import io.opentelemetry.contrib.generator.telemetry.misc.PayloadPhases;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.transport.TransportStorage;
 import io.opentelemetry.contrib.generator.telemetry.metrics.dto.MetricDefinition;
@@ -90,7 +92,8 @@ public class MetricsGenerator {
     /**
      * Since the metric generator threads are grouped by resource type rather than each metric, we need to also consider
      * metrics having different payload count and/or payload frequency. To handle this, we introduce the concept of a group key
-     * which is obtained as - reportingResourceType::payloadFrequency::payloadCount. <p>
+     * which is obtained as - reportingResourceType::payloadFrequency::payloadCount. A metric with an arrival process is
+     * timed on its own, so its group key also has the metric name - reportingResourceType::payloadFrequency::payloadCount::metricName. <p>
      * After the grouping, we need to add the group key to expression method parameters to identify each group uniquely
      * when processing the value expressions.
      * @return Map of metrics grouped by group key
@@ -107,6 +110,9 @@ public class MetricsGenerator {
             groupKeys.addAll(MapUtils.emptyIfNull(eachMetric.getFilteredReportingResources()).keySet());
             groupKeys.forEach(eachKey -> {
                 eachKey = eachKey + "::" + eachMetric.getPayloadFrequencySeconds() + "::" + eachMetric.getPayloadCount();
+                if (eachMetric.getArrivalProcess() != null) {
+                    eachKey = eachKey + "::" + eachMetric.getName();
+                }
                 MetricDefinition metricDefinition = getMetricWithModifiedExpression(eachKey, eachMetric, expressionsFilter);
                 if (metricDefinition != null) {
                     metricThreadGroups.putIfAbsent(eachKey, new ArrayList<>());
@@ -122,6 +128,9 @@ public class MetricsGenerator {
         try {
             metricDefinition = sourceMetric.clone();
             String expression = sourceMetric.getValueFunction();
+            if (expression == null) {
+                return metricDefinition;
+            }
             String expressionMethodName = expression.split("\\(")[0];
             if (expressionsFilter.contains(expressionMethodName)) {
                 String modifiedExpression = expression.replace("(", "(\"" + requestID + "\", \"" + groupKey + "\", ");
@@ -136,10 +145,20 @@ public class MetricsGenerator {
 
     private void initThreads() {
         MetricGeneratorThread metricGeneratorThread;
+        PayloadPhases payloadPhases = new PayloadPhases(metrics.getSpreadPayloadPhases(), metricThreadGroups.values().stream()
+                .map(eachGroup -> TimeUnit.SECONDS.toMillis(eachGroup.get(0).getPayloadFrequencySeconds())).toList());
         for (Map.Entry<String, List<MetricDefinition>> eachGroup: metricThreadGroups.entrySet()) {
             metricGeneratorThread = new MetricGeneratorThread(eachGroup.getKey(), eachGroup.getValue(), payloadHandler, requestID);
-            generatorState.getExecutorService().scheduleAtFixedRate(metricGeneratorThread, 10,
-                    eachGroup.getValue().get(0).getPayloadFrequencySeconds(), TimeUnit.SECONDS);
+            ArrivalProcess arrivalProcess = eachGroup.getValue().get(0).getArrivalProcess();
+            if (arrivalProcess == null) {
+                long periodMillis = TimeUnit.SECONDS.toMillis(eachGroup.getValue().get(0).getPayloadFrequencySeconds());
+                generatorState.getExecutorService().scheduleAtFixedRate(metricGeneratorThread,
+                        payloadPhases.getInitialDelayMillis(periodMillis), periodMillis, TimeUnit.MILLISECONDS);
+            } else {
+                //The resources of the group are already spread by the arrival process
+                generatorState.getExecutorService().scheduleAtFixedRate(metricGeneratorThread, PayloadPhases.INITIAL_DELAY_MILLIS,
+                        arrivalProcess.getTickMillis(), TimeUnit.MILLISECONDS);
+            }
             generatorState.getGeneratorThreadMap().put(eachGroup.getKey(), metricGeneratorThread);
             generatorState.getThreadPayloadCounts().put(eachGroup.getKey(), 0);
             log.debug(requestID + ": Scheduled metric data generator thread for group " + eachGroup.getKey());
@@ -41,16 +41,22 @@ public class SumGenerator {
     }
 
     public Metric.Builder getOTelMetric(MetricDefinition metricDefinition) {
+        return getOTelMetric(metricDefinition, Double.parseDouble(jelProcessor.eval(metricDefinition.getValueFunction()).toString()));
+    }
+
+    /**
+     * @return the metric with the provided value instead of the value of its value function, as for rollup metrics
+     */
+    public Metric.Builder getOTelMetric(MetricDefinition metricDefinition, double value) {
         Metric.Builder partialMetric = Metric.newBuilder().setName(metricDefinition.getName())
                 .setUnit(metricDefinition.getUnit());
         return metricDefinition.getIsDouble() ?
-                partialMetric.setSum(getDoubleSumDataPoint(metricDefinition)) :
-                partialMetric.setSum(getIntSumDataPoint(metricDefinition));
+                partialMetric.setSum(getDoubleSumDataPoint(metricDefinition, value)) :
+                partialMetric.setSum(getIntSumDataPoint(metricDefinition, value));
     }
 
-    private Sum getDoubleSumDataPoint(MetricDefinition metricDefinition) {
+    private Sum getDoubleSumDataPoint(MetricDefinition metricDefinition, double value) {
         long[] times = getTimes(metricDefinition);
-        var value = Double.parseDouble(jelProcessor.eval(metricDefinition.getValueFunction()).toString());
         return Sum.newBuilder()
                 .setAggregationTemporality(metricDefinition.getAggregationTemporality())
                 .setIsMonotonic(metricDefinition.getIsMonotonic())
@@ -63,16 +69,15 @@ public class SumGenerator {
                 .build();
     }
 
-    private Sum getIntSumDataPoint(MetricDefinition metricDefinition) {
+    private Sum getIntSumDataPoint(MetricDefinition metricDefinition, double value) {
         long[] times = getTimes(metricDefinition);
-        Double value = Double.parseDouble(jelProcessor.eval(metricDefinition.getValueFunction()).toString());
         return Sum.newBuilder()
                 .setAggregationTemporality(metricDefinition.getAggregationTemporality())
                 .setIsMonotonic(metricDefinition.getIsMonotonic())
                 .addDataPoints(NumberDataPoint.newBuilder()
                         .setStartTimeUnixNano(times[0])
                         .setTimeUnixNano(times[1])
-                        .setAsInt(value.longValue())
+                        .setAsInt((long) value)
                         .addAllAttributes(GeneratorUtils.getEvaluatedAttributes(jelProcessor, metricDefinition.getAttributes()))
                         .build())
                 .build();
@@ -18,6 +18,7 @@ package io.opentelemetry.contrib.generator.telemetry.metrics.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcess;
 import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
 import io.opentelemetry.contrib.generator.telemetry.misc.GeneratorUtils;
 import io.opentelemetry.proto.metrics.v1.AggregationTemporality;
@@ -49,6 +50,8 @@ public class MetricDefinition implements Cloneable {
     private Map<String, Set<String>> filteredReportingResources;
     private Set<String> copyResourceAttributes;
     private Map<String, Object> attributes;
+    private MetricRollup rollup; //optional, aggregates the values of the children instead of evaluating the value function
+    private ArrivalProcess arrivalProcess; //optional, when each resource reports within a payload, all resources report together if not provided
     @JsonIgnore
     private Map<String, Map<String, String>> parsedFilteredReportingResources;
 
@@ -68,13 +71,18 @@ public class MetricDefinition implements Cloneable {
         if (copyResourceAttributes == null) {
             copyResourceAttributes = new HashSet<>();
         }
+        if (arrivalProcess != null) {
+            arrivalProcess.validate("metric " + name);
+        }
     }
 
     private void validateMandatoryFields() {
         validateMandatoryField("UNKNOWN", "name", name);
         validateMandatoryField(name, "unit", unit);
         validateMandatoryField(name, "otelType", otelType);
-        validateMandatoryField(name, "valueFunction", valueFunction);
+        if (rollup == null) {
+            validateMandatoryField(name, "valueFunction", valueFunction);
+        }
         if (CollectionUtils.emptyIfNull(reportingResources).isEmpty() &&
                 MapUtils.emptyIfNull(filteredReportingResources).isEmpty()) {
             throw new GeneratorException("At least one resource type must be specified in either reportingResources" +
@@ -146,6 +154,9 @@ public class MetricDefinition implements Cloneable {
     }
 
     private void checkValueFunction() {
+        if (valueFunction == null) {
+            return;
+        }
         if ((otelType.equals(Constants.SUMMARY) || otelType.equals(Constants.HISTOGRAM) ||
                 otelType.equals(Constants.EXP_HISTOGRAM)) && (!valueFunction.contains("Summary"))) {
             log.warn("Metric " + name + " should be using a summary variant of the value expression");
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.telemetry.metrics.dto;
+
+import io.opentelemetry.contrib.generator.core.dto.ResourceAdjacency;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
+import lombok.Data;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the value of a gauge or sum metric for each reporting resource from the values which its children of
+ * childType reported for childMetric in their latest payload, instead of evaluating a value function. Children which did
+ * not report the child metric are left out; a resource without any such children reports 0 for SUM and COUNT and does
+ * not report the metric for AVG, MIN and MAX.
+ */
+@Data
+public class MetricRollup {
+
+    private String childType;
+    private String childMetric;
+    private RollupFunction function;
+
+    public void validate(MetricDefinition rollupMetric, Map<String, MetricDefinition> metricsByName,
+                         Set<String> allResourceTypes) {
+        String metricName = rollupMetric.getName();
+        if (!isNumberMetric(rollupMetric)) {
+            throw new GeneratorException("Rollup metric " + metricName + " must be of type gauge or sum");
+        }
+        if (function == null) {
+            throw new GeneratorException("Rollup function not provided for metric " + metricName);
+        }
+        if (StringUtils.defaultString(childType).isBlank() || !allResourceTypes.contains(childType)) {
+            throw new GeneratorException("Invalid rollup childType (" + childType + ") found for metric " + metricName);
+        }
+        MetricDefinition childDefinition = metricsByName.get(StringUtils.defaultString(childMetric));
+        if (childDefinition == null || childDefinition == rollupMetric) {
+            throw new GeneratorException("Invalid rollup childMetric (" + childMetric + ") found for metric " + metricName);
+        }
+        if (!isNumberMetric(childDefinition)) {
+            throw new GeneratorException("Rollup childMetric " + childMetric + " of metric " + metricName +
+                    " must be of type gauge or sum");
+        }
+        if (!CollectionUtils.emptyIfNull(childDefinition.getReportingResources()).contains(childType) &&
+                !MapUtils.emptyIfNull(childDefinition.getFilteredReportingResources()).containsKey(childType)) {
+            throw new GeneratorException("Rollup childMetric " + childMetric + " of metric " + metricName +
+                    " is not reported by resource type " + childType);
+        }
+    }
+
+    /**
+     * Aggregates the child values of every parent in a single pass over the child adjacency.
+     * @param children adjacency from the parents to their children of childType
+     * @param parentCount number of resources of the parent type
+     * @param childValues latest value of the child metric by child index, NaN for the children which did not report it
+     * @return value of each parent by its index, NaN for the parents which do not have a value
+     */
+    public double[] aggregate(ResourceAdjacency children, int parentCount, double[] childValues) {
+        double[] parentValues = new double[parentCount];
+        for (var parentIndex=0; parentIndex<parentCount; parentIndex++) {
+            int childCount = children.getCount(parentIndex);
+            int reportedCount = 0;
+            double aggregate = function == RollupFunction.MIN ? Double.POSITIVE_INFINITY :
+                    function == RollupFunction.MAX ? Double.NEGATIVE_INFINITY : 0;
+            for (var position=0; position<childCount; position++) {
+                double childValue = childValues[children.getTargetIndex(parentIndex, position)];
+                if (Double.isNaN(childValue)) {
+                    continue;
+                }
+                reportedCount++;
+                aggregate = switch (function) {
+                    case SUM, AVG -> aggregate + childValue;
+                    case MIN -> Math.min(aggregate, childValue);
+                    case MAX -> Math.max(aggregate, childValue);
+                    case COUNT -> aggregate + 1;
+                };
+            }
+            parentValues[parentIndex] = switch (function) {
+                case SUM, COUNT -> aggregate;
+                case AVG -> reportedCount == 0 ? Double.NaN : aggregate / reportedCount;
+                case MIN, MAX -> reportedCount == 0 ? Double.NaN : aggregate;
+            };
+        }
+        return parentValues;
+    }
+
+    private static boolean isNumberMetric(MetricDefinition metricDefinition) {
+        return Constants.GAUGE.equals(metricDefinition.getOtelType()) || Constants.SUM.equals(metricDefinition.getOtelType());
+    }
+}
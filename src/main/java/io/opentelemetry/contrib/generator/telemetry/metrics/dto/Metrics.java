@@ -20,7 +20,10 @@ import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Data
@@ -29,6 +32,7 @@ public class Metrics {
     private Integer payloadFrequencySeconds;
     private Integer payloadCount;
     private List<MetricDefinition> metrics;
+    private Boolean spreadPayloadPhases; //stagger the start of the metric groups sharing a payload frequency
     @JsonIgnore
     private long maxPostSeconds;
 
@@ -39,10 +43,33 @@ public class Metrics {
         if (payloadCount == null || payloadCount < 1) {
             throw new GeneratorException("Global payload count is not defined or is less than 1");
         }
+        spreadPayloadPhases = spreadPayloadPhases != null && spreadPayloadPhases;
         maxPostSeconds = 0;
         for (MetricDefinition eachMetric: metrics) {
             eachMetric.validate(requestID, allResourceTypes, payloadFrequencySeconds, payloadCount);
             maxPostSeconds = Math.max(maxPostSeconds, (long) eachMetric.getPayloadFrequencySeconds() * eachMetric.getPayloadCount());
         }
+        Map<String, MetricDefinition> metricsByName = new HashMap<>();
+        metrics.forEach(eachMetric -> metricsByName.put(eachMetric.getName(), eachMetric));
+        for (MetricDefinition eachMetric: metrics) {
+            if (eachMetric.getRollup() != null) {
+                eachMetric.getRollup().validate(eachMetric, metricsByName, allResourceTypes);
+            }
+        }
+    }
+
+    /**
+     * @return names of the metrics which are rolled up into their parents, by the resource type reporting them
+     */
+    @JsonIgnore
+    public Map<String, Set<String>> getRolledUpMetrics() {
+        Map<String, Set<String>> rolledUpMetrics = new HashMap<>();
+        for (MetricDefinition eachMetric: metrics) {
+            if (eachMetric.getRollup() != null) {
+                rolledUpMetrics.computeIfAbsent(eachMetric.getRollup().getChildType(), type -> new HashSet<>())
+                        .add(eachMetric.getRollup().getChildMetric());
+            }
+        }
+        return rolledUpMetrics;
     }
 }
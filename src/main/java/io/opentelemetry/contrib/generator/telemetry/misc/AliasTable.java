@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.misc;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples indices from a discrete distribution in constant time using Vose's alias method. The table is built once from
+ * the weights of the indices and is read-only afterwards, so it can be shared by threads using their own random generators.
+ */
+public class AliasTable {
+
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    public AliasTable(double[] weights) {
+        int size = weights.length;
+        double totalWeight = 0;
+        for (double eachWeight: weights) {
+            if (eachWeight < 0 || Double.isNaN(eachWeight)) {
+                throw new GeneratorException("Invalid weight " + eachWeight + " provided for alias table");
+            }
+            totalWeight += eachWeight;
+        }
+        if (size == 0 || totalWeight <= 0) {
+            throw new GeneratorException("Weights for alias table must add up to a positive value");
+        }
+        probabilities = new double[size];
+        aliases = new int[size];
+        double[] scaledWeights = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (var index=0; index<size; index++) {
+            scaledWeights[index] = weights[index] * size / totalWeight;
+            if (scaledWeights[index] < 1.0d) {
+                small[smallCount++] = index;
+            } else {
+                large[largeCount++] = index;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int smallIndex = small[--smallCount];
+            int largeIndex = large[--largeCount];
+            probabilities[smallIndex] = scaledWeights[smallIndex];
+            aliases[smallIndex] = largeIndex;
+            scaledWeights[largeIndex] = (scaledWeights[largeIndex] + scaledWeights[smallIndex]) - 1.0d;
+            if (scaledWeights[largeIndex] < 1.0d) {
+                small[smallCount++] = largeIndex;
+            } else {
+                large[largeCount++] = largeIndex;
+            }
+        }
+        //Whatever is left is 1 apart from rounding errors
+        while (largeCount > 0) {
+            probabilities[large[--largeCount]] = 1.0d;
+        }
+        while (smallCount > 0) {
+            probabilities[small[--smallCount]] = 1.0d;
+        }
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+
+    public int sample(RandomGenerator random) {
+        int index = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[index] ? index : aliases[index];
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.misc;
+
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcess;
+
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Arrivals of the parts of a payload which are sent once per payload, such as the copies of a trace tree or the reporting
+ * resources of a metric group. Each payload is a period in which every part gets a timer for its first arrival, and the
+ * part is sent when the timer expires. Later arrivals of the process would only send the same part again, so they are
+ * not scheduled. The parts which have not arrived by the end of the period are sent when it ends, so that each payload
+ * is complete. <p>
+ * Like the timing wheel, this is meant to be driven by a single generator thread.
+ */
+public class PayloadArrivals {
+
+    private final ArrivalProcess arrivalProcess;
+    private final long periodMillis;
+    private final SplittableRandom random;
+    private TimingWheel timingWheel; //null until the first period starts
+    private boolean[] arrived;
+    private long periodEndMillis;
+
+    public PayloadArrivals(ArrivalProcess arrivalProcess, long periodMillis) {
+        this.arrivalProcess = arrivalProcess;
+        this.periodMillis = periodMillis;
+        random = new SplittableRandom();
+    }
+
+    public boolean isPeriodOver(long currentTimeMillis) {
+        return timingWheel == null || currentTimeMillis >= periodEndMillis;
+    }
+
+    public void startPeriod(long currentTimeMillis, int partCount) {
+        periodEndMillis = currentTimeMillis + periodMillis;
+        arrived = new boolean[partCount];
+        timingWheel = new TimingWheel(arrivalProcess.getTickMillis(), currentTimeMillis, partCount);
+        for (var part=0; part<partCount; part++) {
+            timingWheel.schedule(part, currentTimeMillis + arrivalProcess.getFirstDelayMillis(part, partCount, random));
+        }
+    }
+
+    /**
+     * Passes the parts whose first arrival is at or before the given time to the callback, in the order of their arrivals.
+     */
+    public void advance(long currentTimeMillis, IntConsumer arrivalCallback) {
+        timingWheel.advance(currentTimeMillis, part -> {
+            arrived[part] = true;
+            arrivalCallback.accept(part);
+        });
+    }
+
+    /**
+     * Passes the parts which have not arrived in the current period to the callback. They are not passed again in this
+     * period, and nothing is passed if no period has started.
+     */
+    public void drain(IntConsumer arrivalCallback) {
+        if (timingWheel == null) {
+            return;
+        }
+        for (var part=0; part<arrived.length; part++) {
+            if (!arrived[part]) {
+                arrived[part] = true;
+                arrivalCallback.accept(part);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.misc;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Initial delays of the generator threads of a signal. All the threads start after the same initial delay by default, so
+ * the threads with the same payload frequency post at the same instant in every period. If the phases are spread, the
+ * threads with the same payload frequency are offset from each other evenly across their period instead, which keeps
+ * the rate of each thread but flattens the peaks of the combined load.
+ */
+public class PayloadPhases {
+
+    public static final long INITIAL_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final boolean spreadPhases;
+    private final Map<Long, Integer> threadCountsByPeriod;
+    private final Map<Long, Integer> scheduledCountsByPeriod;
+
+    /**
+     * @param periodsMillis payload period of each of the threads to be scheduled
+     */
+    public PayloadPhases(boolean spreadPhases, Collection<Long> periodsMillis) {
+        this.spreadPhases = spreadPhases;
+        threadCountsByPeriod = new HashMap<>();
+        scheduledCountsByPeriod = new HashMap<>();
+        periodsMillis.forEach(eachPeriod -> threadCountsByPeriod.merge(eachPeriod, 1, Integer::sum));
+    }
+
+    /**
+     * @return initial delay for the next thread with the payload period
+     */
+    public long getInitialDelayMillis(long periodMillis) {
+        if (!spreadPhases) {
+            return INITIAL_DELAY_MILLIS;
+        }
+        int threadIndex = scheduledCountsByPeriod.merge(periodMillis, 1, Integer::sum) - 1;
+        int threadCount = Math.max(threadCountsByPeriod.getOrDefault(periodMillis, 1), threadIndex + 1);
+        return INITIAL_DELAY_MILLIS + periodMillis * threadIndex / threadCount;
+    }
+}
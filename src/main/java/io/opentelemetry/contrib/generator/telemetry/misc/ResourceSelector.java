@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.telemetry.misc;
+
+import io.opentelemetry.contrib.generator.core.dto.ActiveResources;
+import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.ResourceModelProvider;
+import io.opentelemetry.contrib.generator.telemetry.dto.ResourceSelection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Picks reporting resources following a skewed {@link ResourceSelection}. An alias table over the active resources of each
+ * type is built only when a new snapshot of the active resources is published, so each pick takes constant time.
+ * <p>
+ * A selector is meant to be used by a single thread.
+ */
+public class ResourceSelector {
+
+    private final String requestID;
+    private final ResourceSelection selection;
+    private final SplittableRandom random;
+    private final Map<String, SelectionTable> tablesByType;
+
+    public ResourceSelector(String requestID, ResourceSelection selection) {
+        this.requestID = requestID;
+        this.selection = selection;
+        random = new SplittableRandom();
+        tablesByType = new HashMap<>();
+    }
+
+    public GeneratorResource select(String resourceType) {
+        SelectionTable table = getTable(resourceType);
+        if (table.aliasTable() == null) {
+            throw new GeneratorException("No active resources of type " + resourceType + " to select from");
+        }
+        return table.resources().get(table.aliasTable().sample(random));
+    }
+
+    /**
+     * @return resourceCount independent picks, empty if the type has no active resources
+     */
+    public List<GeneratorResource> select(String resourceType, int resourceCount) {
+        SelectionTable table = getTable(resourceType);
+        if (table.aliasTable() == null) {
+            return List.of();
+        }
+        List<GeneratorResource> selected = new ArrayList<>(resourceCount);
+        for (var i=0; i<resourceCount; i++) {
+            selected.add(table.resources().get(table.aliasTable().sample(random)));
+        }
+        return selected;
+    }
+
+    private SelectionTable getTable(String resourceType) {
+        ActiveResources activeResources = ResourceModelProvider.getActiveResources(requestID, resourceType);
+        SelectionTable table = tablesByType.get(resourceType);
+        if (table == null || table.version() != activeResources.getVersion()) {
+            List<GeneratorResource> resources = activeResources.getResources();
+            AliasTable aliasTable = resources.isEmpty() ? null : new AliasTable(
+                    selection.getWeights(resources, ResourceModelProvider.getResourceStore(requestID, resourceType)));
+            table = new SelectionTable(activeResources.getVersion(), resources, aliasTable);
+            tablesByType.put(resourceType, table);
+        }
+        return table;
+    }
+
+    private record SelectionTable(long version, List<GeneratorResource> resources, AliasTable aliasTable) {}
+}
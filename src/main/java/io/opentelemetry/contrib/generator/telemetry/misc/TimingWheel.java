@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.misc;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical timing wheel for a fixed number of timers identified by their index. There are 4 levels of 256 slots; a
+ * timer goes to the lowest level whose span covers its deadline and moves down a level each time the level below it
+ * completes a rotation. Scheduling and expiring a timer are O(1), and the slots are linked lists kept in arrays indexed
+ * by timer, so millions of timers do not create any objects. <p>
+ * A timer can be pending at most once. The wheel is not thread-safe and is meant to be driven by a single thread, which
+ * may reschedule timers from within the expiry callback.
+ */
+public class TimingWheel {
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA_TICKS = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int[][] slotHeads;
+    private final int[] nextTimers;
+    private final long[] deadlineTicks;
+    private long currentTick; //last tick which has been expired
+
+    public TimingWheel(long tickMillis, long startMillis, int capacity) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        slotHeads = new int[LEVELS][WHEEL_SIZE];
+        for (int[] eachLevel: slotHeads) {
+            Arrays.fill(eachLevel, -1);
+        }
+        nextTimers = new int[capacity];
+        deadlineTicks = new long[capacity];
+        currentTick = 0;
+    }
+
+    /**
+     * Schedules the timer to expire at the first tick at or after the deadline, or at the next tick if that has passed.
+     */
+    public void schedule(int timer, long deadlineMillis) {
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadlineMillis - startMillis, tickMillis));
+        deadlineTicks[timer] = Math.min(deadlineTick, currentTick + MAX_DELTA_TICKS);
+        place(timer);
+    }
+
+    /**
+     * Expires all the timers with a deadline at or before the given time, tick by tick in the order of their deadlines.
+     */
+    public void advance(long nowMillis, IntConsumer expiryCallback) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & WHEEL_MASK);
+            int timer = slotHeads[0][slot];
+            slotHeads[0][slot] = -1;
+            while (timer != -1) {
+                int nextTimer = nextTimers[timer];
+                expiryCallback.accept(timer);
+                timer = nextTimer;
+            }
+        }
+    }
+
+    public long getCurrentTickMillis() {
+        return startMillis + currentTick * tickMillis;
+    }
+
+    /**
+     * When a level completes a rotation, the timers in the current slot of the level above are due within its next
+     * rotation, so they are placed again relative to the current tick. Higher levels go first so that their timers can
+     * move down more than one level at once.
+     */
+    private void cascade() {
+        int completedLevels = 0;
+        while (completedLevels < LEVELS - 1 && ((currentTick >>> (WHEEL_BITS * completedLevels)) & WHEEL_MASK) == 0) {
+            completedLevels++;
+        }
+        for (var level=completedLevels; level>=1; level--) {
+            int slot = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            int timer = slotHeads[level][slot];
+            slotHeads[level][slot] = -1;
+            while (timer != -1) {
+                int nextTimer = nextTimers[timer];
+                place(timer);
+                timer = nextTimer;
+            }
+        }
+    }
+
+    private void place(int timer) {
+        long delta = deadlineTicks[timer] - currentTick;
+        var level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((deadlineTicks[timer] >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        nextTimers[timer] = slotHeads[level][slot];
+        slotHeads[level][slot] = timer;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.traces;
+
+import com.google.protobuf.ByteString;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latest span context published by each resource of a single resource type, indexed by the position of the resource in
+ * the resource model. Publishing and reading do not take any locks and different resources never share a slot, so trace
+ * generator threads do not contend with each other or with the readers.
+ */
+public class ResourceSpanContexts {
+
+    private final AtomicReferenceArray<SpanContextRing.SpanContext> contexts;
+
+    public ResourceSpanContexts(int resourceCount) {
+        contexts = new AtomicReferenceArray<>(resourceCount);
+    }
+
+    public void publish(int resourceIndex, ByteString traceId, ByteString spanId) {
+        contexts.lazySet(resourceIndex, new SpanContextRing.SpanContext(traceId, spanId));
+    }
+
+    /**
+     * @return the most recent span context of the resource or null if the resource has not reported any span yet
+     */
+    public SpanContextRing.SpanContext get(int resourceIndex) {
+        return contexts.get(resourceIndex);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.traces;
+
+import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.common.v1.InstrumentationScope;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Collects the spans of a single trace payload by reporting resource. Without coalescing, every request for a resource gets
+ * its own ResourceSpans, i.e. one per resource type and copy of the tree. With coalescing, all the spans reported by the
+ * same resource in the payload go to a single ResourceSpans and ScopeSpans, so the resource is serialized only once.
+ */
+class ResourceSpansCollector {
+
+    private final boolean coalesce;
+    private final Function<Resource, KeyValue[]> copyAttributesResolver;
+    private final Map<GeneratorResource, ResourceEntry> entriesByResource;
+    private final List<ResourceSpans.Builder> resourceSpansList;
+
+    record ResourceEntry(KeyValue[] copyAttributes, ScopeSpans.Builder scopeSpans, int resourceIndex) {}
+
+    ResourceSpansCollector(boolean coalesce, Function<Resource, KeyValue[]> copyAttributesResolver) {
+        this.coalesce = coalesce;
+        this.copyAttributesResolver = copyAttributesResolver;
+        //Resources are (store, index) views created on each access, so they are matched by value, which does not hash attributes
+        entriesByResource = new HashMap<>();
+        resourceSpansList = new ArrayList<>();
+    }
+
+    ResourceEntry getEntry(GeneratorResource generatorResource) {
+        if (coalesce) {
+            ResourceEntry entry = entriesByResource.get(generatorResource);
+            if (entry == null) {
+                entry = newEntry(generatorResource);
+                entriesByResource.put(generatorResource, entry);
+            }
+            return entry;
+        }
+        return newEntry(generatorResource);
+    }
+
+    private ResourceEntry newEntry(GeneratorResource generatorResource) {
+        Resource resource = generatorResource.getOTelResource();
+        ResourceSpans.Builder resourceSpans = ResourceSpans.newBuilder().setResource(resource);
+        resourceSpansList.add(resourceSpans);
+        ScopeSpans.Builder scopeSpans = resourceSpans.addScopeSpansBuilder()
+                .setScope(InstrumentationScope.newBuilder()
+                        .setName(Constants.SELF_NAME)
+                        .setVersion(Constants.SELF_VERSION)
+                        .build());
+        return new ResourceEntry(copyAttributesResolver.apply(resource), scopeSpans, generatorResource.getIndex());
+    }
+
+    ExportTraceServiceRequest getTraceRequest() {
+        ExportTraceServiceRequest.Builder traceRequest = ExportTraceServiceRequest.newBuilder();
+        for (ResourceSpans.Builder eachResourceSpans: resourceSpansList) {
+            traceRequest.addResourceSpans(eachResourceSpans);
+        }
+        return traceRequest.build();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.traces;
+
+import com.google.protobuf.ByteString;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Fixed size ring of the most recently published span contexts of a single span. Publishing and reading do not take any
+ * locks; a reader may miss a context which is being published at the same time, which is fine for span links.
+ */
+public class SpanContextRing {
+
+    private static final int CAPACITY = 1024;
+    private final AtomicReferenceArray<SpanContext> contexts;
+    private final AtomicLong publishedCount;
+
+    public record SpanContext(ByteString traceId, ByteString spanId) {}
+
+    public SpanContextRing() {
+        contexts = new AtomicReferenceArray<>(CAPACITY);
+        publishedCount = new AtomicLong(0);
+    }
+
+    public void publish(ByteString traceId, ByteString spanId) {
+        long position = publishedCount.getAndIncrement();
+        contexts.lazySet((int) (position & (CAPACITY - 1)), new SpanContext(traceId, spanId));
+    }
+
+    /**
+     * @return one of the recently published span contexts chosen at random or null if none has been published yet
+     */
+    public SpanContext getRandom(RandomGenerator random) {
+        long available = Math.min(publishedCount.get(), CAPACITY);
+        if (available == 0) {
+            return null;
+        }
+        return contexts.get(random.nextInt((int) available));
+    }
+}
@@ -19,17 +19,24 @@ package io.opentelemetry.contrib.generator.telemetry.traces;
 import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
 import io.opentelemetry.contrib.generator.core.jel.ExpressionProcessor;
 import io.opentelemetry.contrib.generator.telemetry.ResourceModelProvider;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import io.opentelemetry.contrib.generator.telemetry.SpanContextProvider;
 import io.opentelemetry.contrib.generator.telemetry.jel.MELTExpressionsJELProvider;
-import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
+import io.opentelemetry.contrib.generator.telemetry.misc.ResourceSelector;
+import io.opentelemetry.contrib.generator.telemetry.traces.dto.CompiledTraceTree;
 import io.opentelemetry.contrib.generator.telemetry.traces.dto.RootSpanDefinition;
 import io.opentelemetry.contrib.generator.telemetry.traces.dto.SpanDefinition;
+import io.opentelemetry.contrib.generator.telemetry.traces.dto.SpanEventDefinition;
+import io.opentelemetry.contrib.generator.telemetry.traces.dto.SpanLinkDefinition;
 import com.google.protobuf.ByteString;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
-import io.opentelemetry.proto.common.v1.InstrumentationScope;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.resource.v1.Resource;
 import io.opentelemetry.proto.trace.v1.*;
 import io.opentelemetry.sdk.trace.IdGenerator;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
 
 import static io.opentelemetry.contrib.generator.telemetry.misc.GeneratorUtils.*;
 
@@ -41,23 +48,73 @@ import java.util.stream.IntStream;
 public class SpansGenerator {
 
     private final RootSpanDefinition traceTree;
+    private final CompiledTraceTree compiledTree;
     private final String groupName;
     private final String requestID;
+    private final boolean coalesceResourceSpans;
     private final ExpressionProcessor jelProcessor;
+    private final List<Map<String, Object>> spanAttributes; //attribute expressions of each span with the placeholder resolved
     private ByteString[] traceIds;
     private long[] startTimes;
     private long[] endTimes;
+    private long[] copyStartTimes; //per copy span times, indexed by spanIndex * copyCount + copyIndex, else null
+    private long[] copyEndTimes;
     private ByteString[][] spanIds;
+    private final TraceTreeExpander treeExpander;
+    private final SplittableRandom seedRandom;
+    private long traceBaseTime;
+    private long[] copySeeds; //seed from which each copy of an expandable tree is expanded in the current post
+    private int[] expandedSpanCounts;
+    private final SplittableRandom valuesRandom;
+    private final SpanEventDefinition[][] eventDefinitions;
+    private final SpanLinkDefinition[][] linkDefinitions;
+    private final SpanContextRing[][] linkedSpanContexts; //span contexts which each link definition of a span points at
+    private final SpanContextRing[] publishedSpanContexts; //where the contexts of linked spans are published, else null
+    private final ResourceSpanContexts[] resourceSpanContexts; //by resource type index, null if its logs are not correlated
+    private final Span.Event.Builder eventBuilder;
+    private final Span.Link.Builder linkBuilder;
+    private final ResourceSelector resourceSelector; //null for the round-robin selection of the reporting resources
     @Getter
     private int currentPostCount;
     @Getter
     private int currentTreePart;
 
     public SpansGenerator(String groupName, RootSpanDefinition traceTree, String requestID) {
+        this(groupName, traceTree, requestID, false);
+    }
+
+    public SpansGenerator(String groupName, RootSpanDefinition traceTree, String requestID, boolean coalesceResourceSpans) {
         this.traceTree = traceTree;
+        this.compiledTree = traceTree.getCompiledTree();
         this.groupName = groupName;
         this.requestID = requestID;
+        this.coalesceResourceSpans = coalesceResourceSpans;
         jelProcessor = MELTExpressionsJELProvider.getJelProcessor();
+        spanAttributes = getSpanAttributeExpressions();
+        treeExpander = compiledTree.isExpandable() ? new TraceTreeExpander(compiledTree) : null;
+        seedRandom = new SplittableRandom();
+        valuesRandom = seedRandom.split();
+        int spansSize = compiledTree.getSize();
+        eventDefinitions = new SpanEventDefinition[spansSize][];
+        linkDefinitions = new SpanLinkDefinition[spansSize][];
+        linkedSpanContexts = new SpanContextRing[spansSize][];
+        publishedSpanContexts = new SpanContextRing[spansSize];
+        for (var spanIndex=0; spanIndex<spansSize; spanIndex++) {
+            SpanDefinition spanDefinition = traceTree.getTreeNodesPostOrder().get(spanIndex);
+            eventDefinitions[spanIndex] = CollectionUtils.emptyIfNull(spanDefinition.getEvents()).toArray(new SpanEventDefinition[0]);
+            linkDefinitions[spanIndex] = CollectionUtils.emptyIfNull(spanDefinition.getLinks()).toArray(new SpanLinkDefinition[0]);
+            linkedSpanContexts[spanIndex] = Arrays.stream(linkDefinitions[spanIndex])
+                    .map(eachLink -> SpanContextProvider.getSpanContexts(requestID, eachLink.getSpanName()))
+                    .toArray(SpanContextRing[]::new);
+            publishedSpanContexts[spanIndex] = SpanContextProvider.getSpanContexts(requestID, spanDefinition.getName());
+        }
+        resourceSpanContexts = Arrays.stream(compiledTree.getResourceTypes())
+                .map(eachType -> SpanContextProvider.getResourceSpanContexts(requestID, eachType))
+                .toArray(ResourceSpanContexts[]::new);
+        eventBuilder = Span.Event.newBuilder();
+        linkBuilder = Span.Link.newBuilder();
+        resourceSelector = traceTree.getResourceSelection() == null || traceTree.getResourceSelection().isSliding() ? null :
+                new ResourceSelector(requestID, traceTree.getResourceSelection());
         currentPostCount = 0;
         currentTreePart = 0;
     }
@@ -68,161 +125,334 @@ public class SpansGenerator {
             initTimesAndIds();
             currentPostCount++;
         }
-        Map<String, List<List<Span.Builder>>> spanCopiesByResource = getSpanCopiesByResource();
-        Map<String, List<GeneratorResource>> resourceModel = ResourceModelProvider.getResourceModel(requestID);
-        List<ResourceSpans> resourceSpansList = new ArrayList<>();
-        ResourceSpans resourceSpans;
-        for (Map.Entry<String, List<List<Span.Builder>>> eachSpanGroup: spanCopiesByResource.entrySet()) {
+        if (compiledTree.isExpandable()) {
+            return getExpandedTraces();
+        }
+        List<List<PartialSpan>> partialSpansByResourceType = getPartialSpansByResourceType();
+        ResourceSpansCollector resourceSpansCollector = new ResourceSpansCollector(coalesceResourceSpans, this::getCopyAttributes);
+        for (var typeIndex=0; typeIndex<partialSpansByResourceType.size(); typeIndex++) {
+            List<PartialSpan> partialSpans = partialSpansByResourceType.get(typeIndex);
+            if (partialSpans.isEmpty()) {
+                continue;
+            }
+            List<GeneratorResource> validResources = ResourceModelProvider.getActiveResources(requestID,
+                    compiledTree.getResourceTypes()[typeIndex]).getResources();
             for (var copyIndex=0; copyIndex<traceTree.getCopyCount(); copyIndex++) {
-                var copyIndexFinal = copyIndex;
-                List<GeneratorResource> validResources = resourceModel.get(eachSpanGroup.getKey()).stream()
-                        .filter(GeneratorResource::isActive).toList();
-                int resourceIndex = (currentPostCount + copyIndex) % validResources.size();
-                List<Span.Builder> partialSpans = eachSpanGroup.getValue().stream()
-                        .map(list -> list.get(copyIndexFinal))
-                        .toList();
-                List<Span> spans = new ArrayList<>();
-                for (Span.Builder eachPartialSpan: partialSpans) {
-                    Set<String> attributeNames = traceTree.getTreeNodesPostOrder().get(traceTree.getSpansIndexMap()
-                            .get(eachPartialSpan.getName())).getCopyResourceAttributes();
-                    Span newSpan = eachPartialSpan.clone().addAllAttributes(getResourceAttributes(attributeNames,
-                            validResources.get(resourceIndex).getOTelResource())).build();
-                    spans.add(newSpan);
+                ResourceSpansCollector.ResourceEntry resourceEntry = resourceSpansCollector.getEntry(
+                        getReportingResource(validResources, typeIndex, currentPostCount + copyIndex));
+                for (PartialSpan eachPartialSpan: partialSpans) {
+                    resourceEntry.scopeSpans().addSpans(getSpanCopy(eachPartialSpan, copyIndex, resourceEntry));
                 }
-                resourceSpans = ResourceSpans.newBuilder()
-                        .setResource(validResources.get(resourceIndex).getOTelResource())
-                        .addScopeSpans(ScopeSpans.newBuilder()
-                                .setScope(InstrumentationScope.newBuilder()
-                                        .setName(Constants.SELF_NAME)
-                                        .setVersion(Constants.SELF_VERSION)
-                                        .build())
-                                .addAllSpans(spans)
-                                .build())
-                        .build();
-                resourceSpansList.add(resourceSpans);
             }
         }
-        return ExportTraceServiceRequest.newBuilder().addAllResourceSpans(resourceSpansList).build();
+        return resourceSpansCollector.getTraceRequest();
     }
 
-    private Map<String, List<List<Span.Builder>>> getSpanCopiesByResource() {
+    /**
+     * Expands each copy of the tree and adds its spans to the scope spans of the reporting resource of the copy as soon
+     * as they are completed. The attributes of each compiled span are evaluated once per payload and shared by all the
+     * expanded spans created from it. Error spans do not end the trace for expanded trees; if spanErrorEndsTrace is set,
+     * they mark all of their ancestors as error spans instead.
+     */
+    private ExportTraceServiceRequest getExpandedTraces() {
+        int treePart = currentTreePart;
+        currentTreePart = treePart == (traceTree.getTreeParts()-1) ? 0 : treePart + 1;
+        int resourceTypesCount = compiledTree.getResourceTypes().length;
+        boolean[] errorSpans = new boolean[compiledTree.getSize()];
+        for (var spanIndex=0; spanIndex<compiledTree.getSize(); spanIndex++) {
+            errorSpans[spanIndex] = getSpanStatusCode(spanIndex) != 0;
+        }
+        Span.Builder[] spanTemplates = new Span.Builder[compiledTree.getSize()];
+        List<List<GeneratorResource>> validResourcesByType = new ArrayList<>(resourceTypesCount);
+        for (String eachType: compiledTree.getResourceTypes()) {
+            validResourcesByType.add(ResourceModelProvider.getActiveResources(requestID, eachType).getResources());
+        }
+        ResourceSpansCollector resourceSpansCollector = new ResourceSpansCollector(coalesceResourceSpans, this::getCopyAttributes);
+        for (var copyIndex=0; copyIndex<traceTree.getCopyCount(); copyIndex++) {
+            ByteString traceId = traceIds[copyIndex];
+            int resourceOffset = currentPostCount + copyIndex;
+            ResourceSpansCollector.ResourceEntry[] resourceEntries = new ResourceSpansCollector.ResourceEntry[resourceTypesCount];
+            int fromSpan = (int) ((long) expandedSpanCounts[copyIndex] * treePart / traceTree.getTreeParts());
+            int toSpan = treePart == (traceTree.getTreeParts()-1) ? expandedSpanCounts[copyIndex] :
+                    (int) ((long) expandedSpanCounts[copyIndex] * (treePart + 1) / traceTree.getTreeParts());
+            treeExpander.expand(copySeeds[copyIndex], traceBaseTime, fromSpan, toSpan, errorSpans,
+                    traceTree.getSpanErrorEndsTrace(), (spanIndex, spanId, parentSpanId, startTimeMillis, endTimeMillis, isError) -> {
+                int typeIndex = compiledTree.getResourceTypeIndex()[spanIndex];
+                if (resourceEntries[typeIndex] == null) {
+                    resourceEntries[typeIndex] = resourceSpansCollector.getEntry(
+                            getReportingResource(validResourcesByType.get(typeIndex), typeIndex, resourceOffset));
+                }
+                if (spanTemplates[spanIndex] == null) {
+                    spanTemplates[spanIndex] = getSingleSpan(spanIndex, false).clearStartTimeUnixNano().clearEndTimeUnixNano();
+                }
+                Span.Builder expandedSpan = spanTemplates[spanIndex].clone()
+                        .setTraceId(traceId)
+                        .setSpanId(spanId)
+                        .setParentSpanId(parentSpanId)
+                        .setStartTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(startTimeMillis))
+                        .setEndTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(endTimeMillis));
+                if (isError) {
+                    expandedSpan.setStatus(Status.newBuilder().setCode(Status.StatusCode.STATUS_CODE_ERROR).build());
+                }
+                for (int attributeIndex: compiledTree.getCopyAttributeIndices()[spanIndex]) {
+                    expandedSpan.addAttributes(resourceEntries[typeIndex].copyAttributes()[attributeIndex]);
+                }
+                resourceEntries[typeIndex].scopeSpans().addSpans(finishSpan(expandedSpan, spanIndex, isError,
+                        resourceEntries[typeIndex].resourceIndex()));
+            });
+        }
+        return resourceSpansCollector.getTraceRequest();
+    }
+
+    /**
+     * @param resourceOffset offset of the copy for the round-robin selection, which moves by one with every payload
+     */
+    private GeneratorResource getReportingResource(List<GeneratorResource> validResources, int typeIndex, int resourceOffset) {
+        if (resourceSelector != null) {
+            return resourceSelector.select(compiledTree.getResourceTypes()[typeIndex]);
+        }
+        return validResources.get(resourceOffset % validResources.size());
+    }
+
+    /**
+     * Prepares a single span for each span index of the current tree part, grouped by the index of the reporting resource
+     * type. The copies for each span are created later from these when the reporting resource is known.
+     */
+    private List<List<PartialSpan>> getPartialSpansByResourceType() {
         int[] spanIndices = getSpanIndices();
         log.debug(requestID + ": Preparing " + (spanIndices[1]-spanIndices[0]) + " spans with " + traceTree.getCopyCount() +
                 " copies for " + groupName);
-        Map<String, List<List<Span.Builder>>> spanCopiesByResource = new HashMap<>();
+        List<List<PartialSpan>> partialSpansByResourceType = new ArrayList<>(compiledTree.getResourceTypes().length);
+        for (var typeIndex=0; typeIndex<compiledTree.getResourceTypes().length; typeIndex++) {
+            partialSpansByResourceType.add(new ArrayList<>());
+        }
         var spanIndex = spanIndices[0];
         int spanErrorCode = getSpanStatusCode(spanIndex);
-        SpanDefinition spanDefinition;
-        Span.Builder singleSpan;
         while (spanIndex < spanIndices[1] && spanErrorCode != 2) {
-            spanDefinition = traceTree.getTreeNodesPostOrder().get(spanIndex);
-            spanCopiesByResource.putIfAbsent(spanDefinition.getReportingResource(), new ArrayList<>());
-            singleSpan = getSingleSpan(spanDefinition, spanIndex, spanErrorCode == 1);
-            //Each span list in the list of lists of map consists of copies of a single span
-            //For each new span and its copies, a new list is added
-            spanCopiesByResource.get(spanDefinition.getReportingResource()).add(getSpanCopies(singleSpan, spanDefinition));
+            addPartialSpan(partialSpansByResourceType, spanIndex, spanErrorCode == 1);
             spanIndex++;
             spanErrorCode = spanIndex < spanIndices[1] ? getSpanStatusCode(spanIndex) : spanErrorCode;
         }
         if (spanIndex < spanIndices[1]) {
             //If the previous loop ended before reaching the last span, it means we encountered an error span and the trace tree
             //is configured to end the complete trace if an error span is encountered. In such a case, we get the current span
-            //and recursively get all parents of that span and mark them as error spans also to complete the trace in error.
-            Map<String, List<List<Span.Builder>>> errorSpansByResource =
-                    getRecursiveErrorSpans(traceTree.getTreeNodesPostOrder().get(spanIndex));
+            //and follow the chain of its parents to mark them as error spans also to complete the trace in error.
             //We reset the current tree part also
             currentTreePart = 0;
-            for (Map.Entry<String, List<List<Span.Builder>>> errorSpan: errorSpansByResource.entrySet()) {
-                if (!spanCopiesByResource.containsKey(errorSpan.getKey())) {
-                    spanCopiesByResource.put(errorSpan.getKey(), errorSpan.getValue());
-                } else {
-                    spanCopiesByResource.get(errorSpan.getKey()).addAll(errorSpan.getValue());
-                }
+            int errorSpanIndex = spanIndex;
+            while (errorSpanIndex != -1) {
+                addPartialSpan(partialSpansByResourceType, errorSpanIndex, true);
+                errorSpanIndex = compiledTree.getParentIndex()[errorSpanIndex];
             }
         }
-        return spanCopiesByResource;
+        return partialSpansByResourceType;
+    }
+
+    private void addPartialSpan(List<List<PartialSpan>> partialSpansByResourceType, int spanIndex, boolean isErrorNode) {
+        partialSpansByResourceType.get(compiledTree.getResourceTypeIndex()[spanIndex])
+                .add(new PartialSpan(spanIndex, getSingleSpan(spanIndex, isErrorNode)));
     }
 
     private void initTimesAndIds() {
         traceIds = getTraceIds(traceTree.getCopyCount());
-        int spansSize = traceTree.getTreeNodesPostOrder().size();
+        int spansSize = compiledTree.getSize();
         startTimes = new long[spansSize];
         endTimes = new long[spansSize];
         spanIds = new ByteString[spansSize][traceTree.getCopyCount()];
         long baseTime = System.currentTimeMillis();
+        traceBaseTime = baseTime;
+        if (compiledTree.isExpandable()) {
+            copySeeds = new long[traceTree.getCopyCount()];
+            expandedSpanCounts = new int[traceTree.getCopyCount()];
+            for (var copyIndex=0; copyIndex<traceTree.getCopyCount(); copyIndex++) {
+                copySeeds[copyIndex] = seedRandom.nextLong();
+                expandedSpanCounts[copyIndex] = treeExpander.countSpans(copySeeds[copyIndex]);
+            }
+            return;
+        }
         for (var spanIndex=0; spanIndex<spansSize; spanIndex++) {
-            startTimes[spanIndex] = baseTime + traceTree.getTreeNodesPostOrder().get(spanIndex).getStartTimeMillisOffset();
-            endTimes[spanIndex] = baseTime + traceTree.getTreeNodesPostOrder().get(spanIndex).getEndTimeMillisOffset();
+            startTimes[spanIndex] = baseTime + compiledTree.getStartTimeOffsets()[spanIndex];
+            endTimes[spanIndex] = baseTime + compiledTree.getEndTimeOffsets()[spanIndex];
             for (var copyIndex=0; copyIndex<traceTree.getCopyCount(); copyIndex++) {
                 spanIds[spanIndex][copyIndex] = getId(false);
             }
         }
+        if (compiledTree.isHasDurations()) {
+            initCopyTimes();
+        }
+    }
+
+    /**
+     * Samples the span times of each copy of the tree. Parents come after their children in post order, so walking the
+     * spans backwards sets up each parent before its children. A child keeps its position relative to its parent, scaled
+     * by how much the parent duration changed, and its sampled duration is capped so that it ends within its parent.
+     */
+    private void initCopyTimes() {
+        int copyCount = traceTree.getCopyCount();
+        int spansSize = compiledTree.getSize();
+        long[] startOffsets = compiledTree.getStartTimeOffsets();
+        long[] endOffsets = compiledTree.getEndTimeOffsets();
+        copyStartTimes = new long[spansSize * copyCount];
+        copyEndTimes = new long[spansSize * copyCount];
+        double[] durationScales = new double[spansSize * copyCount];
+        for (int spanIndex=spansSize-1; spanIndex>=0; spanIndex--) {
+            int parentIndex = compiledTree.getParentIndex()[spanIndex];
+            Distribution duration = compiledTree.getDurations()[spanIndex];
+            long staticDuration = endOffsets[spanIndex] - startOffsets[spanIndex];
+            int spanBase = spanIndex * copyCount;
+            int parentBase = parentIndex * copyCount;
+            for (var copyIndex=0; copyIndex<copyCount; copyIndex++) {
+                long start;
+                long end;
+                double parentScale = 1.0d;
+                if (parentIndex == -1) {
+                    start = startTimes[spanIndex];
+                    end = Long.MAX_VALUE;
+                } else {
+                    parentScale = durationScales[parentBase + copyIndex];
+                    start = Math.min(copyStartTimes[parentBase + copyIndex] +
+                            (long) ((startOffsets[spanIndex] - startOffsets[parentIndex]) * parentScale),
+                            copyEndTimes[parentBase + copyIndex]);
+                    end = copyEndTimes[parentBase + copyIndex];
+                }
+                long sampledDuration = duration == null ? (long) (staticDuration * parentScale) : duration.sampleLong(valuesRandom);
+                copyStartTimes[spanBase + copyIndex] = start;
+                copyEndTimes[spanBase + copyIndex] = Math.min(start + sampledDuration, end);
+                durationScales[spanBase + copyIndex] = staticDuration == 0 ? 1.0d :
+                        (double) (copyEndTimes[spanBase + copyIndex] - start) / staticDuration;
+            }
+        }
     }
 
     private int[] getSpanIndices() {
         int[] indices = new int[2];
         if (traceTree.getTreeParts() == 1) {
-            indices[1] = traceTree.getTreeNodesPostOrder().size();
+            indices[1] = compiledTree.getSize();
             return indices;
         }
         int spansPerPart = traceTree.getTotalChildNodeCount() / traceTree.getTreeParts();
         indices[0] = currentTreePart * spansPerPart;
         indices[1] = currentTreePart == (traceTree.getTreeParts()-1) ?
-                traceTree.getTreeNodesPostOrder().size() : (currentTreePart + 1) * spansPerPart;
+                compiledTree.getSize() : (currentTreePart + 1) * spansPerPart;
         currentTreePart = currentTreePart == (traceTree.getTreeParts()-1) ? 0 : currentTreePart + 1;
         return indices;
     }
 
-    private Span.Builder getSingleSpan(SpanDefinition spanDefinition, int spanIndex, boolean isErrorNode) {
-        Map<String, Object> modifiedAttrs = new HashMap<>();
-        for (Map.Entry<String, Object> eachAttr: spanDefinition.getAttributes().entrySet()) {
-            String modifiedExpression = eachAttr.getValue().toString()
-                    .replace(":HOLDER:", groupName+"::"+spanDefinition.getName());
-            modifiedAttrs.put(eachAttr.getKey(), modifiedExpression);
+    private List<Map<String, Object>> getSpanAttributeExpressions() {
+        List<Map<String, Object>> attributeExpressions = new ArrayList<>(compiledTree.getSize());
+        for (SpanDefinition spanDefinition: traceTree.getTreeNodesPostOrder()) {
+            Map<String, Object> modifiedAttrs = new HashMap<>();
+            for (Map.Entry<String, Object> eachAttr: spanDefinition.getAttributes().entrySet()) {
+                String modifiedExpression = eachAttr.getValue().toString()
+                        .replace(":HOLDER:", groupName+"::"+spanDefinition.getName());
+                modifiedAttrs.put(eachAttr.getKey(), modifiedExpression);
+            }
+            attributeExpressions.add(modifiedAttrs);
         }
+        return attributeExpressions;
+    }
+
+    private Span.Builder getSingleSpan(int spanIndex, boolean isErrorNode) {
+        SpanDefinition spanDefinition = traceTree.getTreeNodesPostOrder().get(spanIndex);
         return Span.newBuilder()
                 .setName(spanDefinition.getName())
                 .setKind(spanDefinition.getSpanKind())
                 .setStartTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(startTimes[spanIndex]))
                 .setEndTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(endTimes[spanIndex]))
-                .addAllAttributes(getEvaluatedAttributes(jelProcessor, modifiedAttrs))
+                .addAllAttributes(getEvaluatedAttributes(jelProcessor, spanAttributes.get(spanIndex)))
                 .setStatus(Status.newBuilder().setCode(isErrorNode ?
                         Status.StatusCode.STATUS_CODE_ERROR : Status.StatusCode.STATUS_CODE_OK).build());
     }
 
-    private List<Span.Builder> getSpanCopies(Span.Builder span, SpanDefinition spanDefinition) {
-        List<Span.Builder> spanCopies = new ArrayList<>();
-        Span.Builder eachCopy;
-        int spanIndex = traceTree.getSpansIndexMap().get(spanDefinition.getName());
-        int parentNodeIndex = spanDefinition.getParentNodes().containsKey(traceTree.getName()) ?
-                traceTree.getSpansIndexMap().get(spanDefinition.getParentNodes().get(traceTree.getName()).getName()) : -1;
-        for (var copyIndex=0; copyIndex<traceTree.getCopyCount(); copyIndex++) {
-            eachCopy = span
-                    .setTraceId(traceIds[copyIndex])
-                    .setSpanId(spanIds[spanIndex][copyIndex]);
-            if (parentNodeIndex != -1) {
-                eachCopy.setParentSpanId(spanIds[parentNodeIndex][copyIndex]);
+    /**
+     * Resolves each distinct resource attribute which is copied to any span of the tree once per reporting resource, so
+     * that the spans can pick them up by index.
+     */
+    private KeyValue[] getCopyAttributes(Resource resource) {
+        String[] attributeNames = compiledTree.getCopyAttributeNames();
+        KeyValue[] copyAttributes = new KeyValue[attributeNames.length];
+        for (var nameIndex=0; nameIndex<attributeNames.length; nameIndex++) {
+            for (KeyValue eachAttribute: resource.getAttributesList()) {
+                if (eachAttribute.getKey().equals(attributeNames[nameIndex])) {
+                    copyAttributes[nameIndex] = eachAttribute;
+                    break;
+                }
+            }
+            if (copyAttributes[nameIndex] == null) {
+                copyAttributes[nameIndex] = getEmptyKV(attributeNames[nameIndex]);
             }
-            spanCopies.add(eachCopy);
         }
-        return spanCopies;
+        return copyAttributes;
     }
 
-    private Map<String, List<List<Span.Builder>>> getRecursiveErrorSpans(SpanDefinition errorNode) {
-        Map<String, List<List<Span.Builder>>> errorSpansByResource = new HashMap<>();
-        SpanDefinition currentNode = errorNode;
-        Span.Builder singleErrorSpan;
-        while (currentNode != null) {
-            errorSpansByResource.putIfAbsent(currentNode.getReportingResource(), new ArrayList<>());
-            singleErrorSpan = getSingleSpan(currentNode, traceTree.getSpansIndexMap().get(currentNode.getName()), true);
-            errorSpansByResource.get(currentNode.getReportingResource()).add(getSpanCopies(singleErrorSpan, currentNode));
-            currentNode = currentNode.getParentNodes().get(traceTree.getName());
+    private Span getSpanCopy(PartialSpan partialSpan, int copyIndex, ResourceSpansCollector.ResourceEntry resourceEntry) {
+        int spanIndex = partialSpan.spanIndex();
+        Span.Builder spanCopy = partialSpan.span().clone()
+                .setTraceId(traceIds[copyIndex])
+                .setSpanId(spanIds[spanIndex][copyIndex]);
+        if (copyStartTimes != null) {
+            int timeIndex = spanIndex * traceTree.getCopyCount() + copyIndex;
+            spanCopy.setStartTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(copyStartTimes[timeIndex]))
+                    .setEndTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(copyEndTimes[timeIndex]));
         }
-        return errorSpansByResource;
+        int parentIndex = compiledTree.getParentIndex()[spanIndex];
+        if (parentIndex != -1) {
+            spanCopy.setParentSpanId(spanIds[parentIndex][copyIndex]);
+        }
+        for (int attributeIndex: compiledTree.getCopyAttributeIndices()[spanIndex]) {
+            spanCopy.addAttributes(resourceEntry.copyAttributes()[attributeIndex]);
+        }
+        return finishSpan(spanCopy, spanIndex, spanCopy.getStatus().getCode() == Status.StatusCode.STATUS_CODE_ERROR,
+                resourceEntry.resourceIndex());
+    }
+
+    /**
+     * Adds the events and links of the span definition to the span, builds it and publishes its context if other spans
+     * link to it or if the logs of its reporting resource are correlated with traces. The event and link builders are
+     * reused for all the spans of this generator.
+     */
+    private Span finishSpan(Span.Builder span, int spanIndex, boolean isError, int resourceIndex) {
+        for (SpanEventDefinition eachEvent: eventDefinitions[spanIndex]) {
+            if (eachEvent.getErrorSpansOnly() && !isError) {
+                continue;
+            }
+            long eventCount = eachEvent.getCount().sampleLong(valuesRandom);
+            long eventInterval = (span.getEndTimeUnixNano() - span.getStartTimeUnixNano()) / (eventCount + 1);
+            for (long eventIndex=1; eventIndex<=eventCount; eventIndex++) {
+                span.addEvents(eventBuilder.clear()
+                        .setName(eachEvent.getName())
+                        .setTimeUnixNano(span.getStartTimeUnixNano() + eventInterval * eventIndex)
+                        .addAllAttributes(eachEvent.getCompiledAttributes())
+                        .build());
+            }
+        }
+        for (var linkIndex=0; linkIndex<linkDefinitions[spanIndex].length; linkIndex++) {
+            long linkCount = linkDefinitions[spanIndex][linkIndex].getCount().sampleLong(valuesRandom);
+            for (long eachLink=0; eachLink<linkCount; eachLink++) {
+                SpanContextRing.SpanContext linkedContext = linkedSpanContexts[spanIndex][linkIndex].getRandom(valuesRandom);
+                if (linkedContext == null) {
+                    break;
+                }
+                span.addLinks(linkBuilder.clear()
+                        .setTraceId(linkedContext.traceId())
+                        .setSpanId(linkedContext.spanId())
+                        .addAllAttributes(linkDefinitions[spanIndex][linkIndex].getCompiledAttributes())
+                        .build());
+            }
+        }
+        Span builtSpan = span.build();
+        if (publishedSpanContexts[spanIndex] != null) {
+            publishedSpanContexts[spanIndex].publish(builtSpan.getTraceId(), builtSpan.getSpanId());
+        }
+        ResourceSpanContexts spanContextsOfType = resourceSpanContexts[compiledTree.getResourceTypeIndex()[spanIndex]];
+        if (spanContextsOfType != null) {
+            spanContextsOfType.publish(resourceIndex, builtSpan.getTraceId(), builtSpan.getSpanId());
+        }
+        return builtSpan;
     }
 
     private int getSpanStatusCode(int spanIndex) {
-        int spanErrorFreq = traceTree.getTreeNodesPostOrder().get(spanIndex).getErrorFrequency();
+        int spanErrorFreq = compiledTree.getErrorFrequencies()[spanIndex];
         if (spanErrorFreq == 0 || currentPostCount % spanErrorFreq != 0) {
             return 0;
         }
@@ -242,4 +472,6 @@ public class SpansGenerator {
         return ByteString.copyFrom(Base64.getEncoder().encode(idString.getBytes()));
     }
 
+    private record PartialSpan(int spanIndex, Span.Builder span) {}
+
 }
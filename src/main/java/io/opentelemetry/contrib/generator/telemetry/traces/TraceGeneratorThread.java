@@ -18,11 +18,19 @@ package io.opentelemetry.contrib.generator.telemetry.traces;
 
 import io.opentelemetry.contrib.generator.telemetry.GeneratorsStateProvider;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorState;
+import io.opentelemetry.contrib.generator.telemetry.misc.PayloadArrivals;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.traces.dto.RootSpanDefinition;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Main thread class which generates and posts trace packets to the specified destination via PayloadHandler.
  */
@@ -35,28 +43,112 @@ public class TraceGeneratorThread implements Runnable {
     private final PayloadHandler payloadHandler;
     private final GeneratorState<TraceGeneratorThread> generatorState;
     private final SpansGenerator spansGenerator;
+    private final PayloadArrivals payloadArrivals; //only with an arrival process
+    private List<ExportTraceServiceRequest> periodCopies; //spans of each copy of the tree in the current period
 
     public TraceGeneratorThread(String groupName, RootSpanDefinition traceTree, String requestID, PayloadHandler payloadHandler) {
+        this(groupName, traceTree, requestID, payloadHandler, false);
+    }
+
+    public TraceGeneratorThread(String groupName, RootSpanDefinition traceTree, String requestID, PayloadHandler payloadHandler,
+                                boolean coalesceResourceSpans) {
         this.groupName = groupName;
         this.traceTree = traceTree;
         this.requestID = requestID;
         this.payloadHandler = payloadHandler;
         generatorState = GeneratorsStateProvider.getTraceGeneratorState(requestID);
-        spansGenerator = new SpansGenerator(groupName, traceTree, requestID);
+        spansGenerator = new SpansGenerator(groupName, traceTree, requestID, coalesceResourceSpans);
+        payloadArrivals = traceTree.getArrivalProcess() == null ? null : new PayloadArrivals(traceTree.getArrivalProcess(),
+                TimeUnit.SECONDS.toMillis(traceTree.getPayloadFrequencySeconds()));
     }
 
     @Override
     public void run() {
+        if (payloadArrivals != null && generatorState.isGenerateData()) {
+            runArrivalTick();
+            return;
+        }
         if (!isPostingComplete() && generatorState.isGenerateData()) {
-            ExportTraceServiceRequest traceServiceRequest = spansGenerator.getTraces();
-            log.info(requestID + ": Sending payload for: " + groupName);
-            log.debug(requestID + ": Complete payload for " + groupName + " is : " + traceServiceRequest);
-            boolean responseStatus = payloadHandler.postPayload(traceServiceRequest);
+            postTraces(spansGenerator.getTraces());
+            generatorState.getThreadPayloadCounts().put(groupName, spansGenerator.getCurrentPostCount() * traceTree.getCopyCount());
+        }
+    }
+
+    /**
+     * With an arrival process, the thread runs once per tick of the process and each payload of the tree is a period of
+     * payloadFrequencySeconds. The spans of the payload are generated at the start of the period and each copy of the tree
+     * is sent at its first arrival, with the copies which arrive in the same tick sent together. The span times are the
+     * ones generated for the period, so the tree parts of a copy stay consistent with each other.
+     */
+    private void runArrivalTick() {
+        long currentTimeMillis = System.currentTimeMillis();
+        if (payloadArrivals.isPeriodOver(currentTimeMillis)) {
+            if (periodCopies != null) {
+                List<ExportTraceServiceRequest> remainingCopies = new ArrayList<>();
+                payloadArrivals.drain(copy -> remainingCopies.add(periodCopies.get(copy)));
+                postCopies(remainingCopies);
+                generatorState.getThreadPayloadCounts().put(groupName, spansGenerator.getCurrentPostCount() * traceTree.getCopyCount());
+                periodCopies = null;
+            }
+            if (isPostingComplete()) {
+                return;
+            }
+            periodCopies = splitByTrace(spansGenerator.getTraces());
+            payloadArrivals.startPeriod(currentTimeMillis, periodCopies.size());
+        }
+        List<ExportTraceServiceRequest> arrivedCopies = new ArrayList<>();
+        payloadArrivals.advance(currentTimeMillis, copy -> arrivedCopies.add(periodCopies.get(copy)));
+        postCopies(arrivedCopies);
+    }
+
+    private void postCopies(List<ExportTraceServiceRequest> copies) {
+        if (copies.isEmpty()) {
+            return;
+        }
+        ExportTraceServiceRequest.Builder traceServiceRequest = ExportTraceServiceRequest.newBuilder();
+        copies.forEach(eachCopy -> traceServiceRequest.addAllResourceSpans(eachCopy.getResourceSpansList()));
+        postTraces(traceServiceRequest.build());
+    }
+
+    private void postTraces(ExportTraceServiceRequest traceServiceRequest) {
+        log.info(requestID + ": Sending payload for: " + groupName);
+        log.debug(requestID + ": Complete payload for " + groupName + " is : " + traceServiceRequest);
+        payloadHandler.postPayload(traceServiceRequest, responseStatus -> {
             if (generatorState.getTransportStorage() != null) {
                 generatorState.getTransportStorage().store(groupName, traceServiceRequest, responseStatus);
             }
-            generatorState.getThreadPayloadCounts().put(groupName, spansGenerator.getCurrentPostCount() * traceTree.getCopyCount());
+        });
+    }
+
+    /**
+     * Each copy of the tree has its own trace ID, so the spans of a copy are the spans with the same trace ID, kept under
+     * their resource and scope.
+     * @return one request per copy, in the order in which the copies appear in the payload
+     */
+    private static List<ExportTraceServiceRequest> splitByTrace(ExportTraceServiceRequest traceServiceRequest) {
+        Map<ByteString, ExportTraceServiceRequest.Builder> requestsByTrace = new LinkedHashMap<>();
+        for (ResourceSpans eachResourceSpans: traceServiceRequest.getResourceSpansList()) {
+            Map<ByteString, ResourceSpans.Builder> resourceSpansByTrace = new HashMap<>();
+            for (ScopeSpans eachScopeSpans: eachResourceSpans.getScopeSpansList()) {
+                Map<ByteString, ScopeSpans.Builder> scopeSpansByTrace = new HashMap<>();
+                for (Span eachSpan: eachScopeSpans.getSpansList()) {
+                    ScopeSpans.Builder scopeSpans = scopeSpansByTrace.get(eachSpan.getTraceId());
+                    if (scopeSpans == null) {
+                        ResourceSpans.Builder resourceSpans = resourceSpansByTrace.computeIfAbsent(eachSpan.getTraceId(),
+                                traceId -> requestsByTrace.computeIfAbsent(traceId, id -> ExportTraceServiceRequest.newBuilder())
+                                        .addResourceSpansBuilder()
+                                        .setResource(eachResourceSpans.getResource())
+                                        .setSchemaUrl(eachResourceSpans.getSchemaUrl()));
+                        scopeSpans = resourceSpans.addScopeSpansBuilder()
+                                .setScope(eachScopeSpans.getScope())
+                                .setSchemaUrl(eachScopeSpans.getSchemaUrl());
+                        scopeSpansByTrace.put(eachSpan.getTraceId(), scopeSpans);
+                    }
+                    scopeSpans.addSpans(eachSpan);
+                }
+            }
         }
+        return requestsByTrace.values().stream().map(ExportTraceServiceRequest.Builder::build).toList();
     }
 
     private boolean isPostingComplete() {
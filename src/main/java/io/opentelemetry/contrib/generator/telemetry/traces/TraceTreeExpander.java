@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.traces;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.traces.dto.CompiledTraceTree;
+import com.google.protobuf.ByteString;
+
+import java.util.SplittableRandom;
+
+/**
+ * Expands a single copy of an expandable {@link CompiledTraceTree}. The number of occurrences of each child span and the
+ * span durations are sampled while walking the compiled tree, so the expanded tree is never materialized and the spans are
+ * handed over to the consumer in post order as they are completed. <p>
+ * Everything sampled for a copy is derived from the seed of the copy, so walking the same copy again produces the same
+ * spans. This is what allows an expanded tree to be posted in parts: each part walks the complete copy again and only
+ * emits the spans in its range.
+ */
+class TraceTreeExpander {
+
+    private static final long VALUES_SEED_MIX = 0x9E3779B97F4A7C15L;
+    //Upper bound on the spans in one expanded copy, so that a definition with large multiplicities fails fast
+    static final long MAX_EXPANDED_SPANS = 1_000_000;
+    private final CompiledTraceTree compiledTree;
+
+    @FunctionalInterface
+    interface ExpandedSpanConsumer {
+        void accept(int spanIndex, ByteString spanId, ByteString parentSpanId, long startTimeMillis, long endTimeMillis,
+                    boolean isError);
+    }
+
+    TraceTreeExpander(CompiledTraceTree compiledTree) {
+        this.compiledTree = compiledTree;
+    }
+
+    /**
+     * @return total number of spans in the copy of the tree expanded from the seed
+     * @throws GeneratorException if the copy expands to more than {@link #MAX_EXPANDED_SPANS} spans
+     */
+    int countSpans(long seed) {
+        return (int) countSpans(compiledTree.getRootIndex(), new SplittableRandom(seed), 0);
+    }
+
+    private long countSpans(int spanIndex, SplittableRandom structureRandom, long countSoFar) {
+        long count = Math.addExact(countSoFar, 1);
+        if (count > MAX_EXPANDED_SPANS) {
+            throw new GeneratorException("Expanded trace tree has more than " + MAX_EXPANDED_SPANS + " spans, reduce the " +
+                    "child multiplicities of the trace definition");
+        }
+        for (int eachChild: compiledTree.getChildIndices()[spanIndex]) {
+            long occurrences = getOccurrences(eachChild, structureRandom);
+            for (long occurrence=0; occurrence<occurrences; occurrence++) {
+                count = countSpans(eachChild, structureRandom, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Walks the copy of the tree expanded from the seed and emits the spans whose post order position lies in
+     * [fromSpan, toSpan). Child spans are laid out one after the other starting at the start time of their parent and a
+     * parent span lasts at least until its last child span ends.
+     * @param errorSpans whether each compiled span is an error span in the current post
+     * @param propagateErrors whether an error span also marks all of its ancestors as error spans
+     */
+    void expand(long seed, long baseTimeMillis, int fromSpan, int toSpan, boolean[] errorSpans, boolean propagateErrors,
+                ExpandedSpanConsumer consumer) {
+        WalkState walkState = new WalkState(new SplittableRandom(seed), new SplittableRandom(seed ^ VALUES_SEED_MIX),
+                fromSpan, toSpan, errorSpans, propagateErrors, consumer);
+        walk(compiledTree.getRootIndex(), ByteString.EMPTY, baseTimeMillis, walkState);
+    }
+
+    private boolean walk(int spanIndex, ByteString parentSpanId, long startTimeMillis, WalkState walkState) {
+        ByteString spanId = getSpanId(walkState.valuesRandom);
+        long duration = compiledTree.getDurations()[spanIndex] == null ?
+                compiledTree.getEndTimeOffsets()[spanIndex] - compiledTree.getStartTimeOffsets()[spanIndex] :
+                compiledTree.getDurations()[spanIndex].sampleLong(walkState.valuesRandom);
+        long childCursor = startTimeMillis;
+        boolean childError = false;
+        for (int eachChild: compiledTree.getChildIndices()[spanIndex]) {
+            long occurrences = getOccurrences(eachChild, walkState.structureRandom);
+            for (long occurrence=0; occurrence<occurrences; occurrence++) {
+                childError = walk(eachChild, spanId, childCursor, walkState) || childError;
+                childCursor = walkState.lastEndTimeMillis;
+            }
+        }
+        long endTimeMillis = Math.max(startTimeMillis + duration, childCursor);
+        boolean isError = walkState.errorSpans[spanIndex] || (walkState.propagateErrors && childError);
+        int position = walkState.position++;
+        if (position >= walkState.fromSpan && position < walkState.toSpan) {
+            walkState.consumer.accept(spanIndex, spanId, parentSpanId, startTimeMillis, endTimeMillis, isError);
+        }
+        walkState.lastEndTimeMillis = endTimeMillis;
+        return isError;
+    }
+
+    private long getOccurrences(int spanIndex, SplittableRandom structureRandom) {
+        return compiledTree.getMultiplicities()[spanIndex] == null ? 1 :
+                compiledTree.getMultiplicities()[spanIndex].sampleLong(structureRandom);
+    }
+
+    private ByteString getSpanId(SplittableRandom valuesRandom) {
+        //Expanded trees can be large, so all the 8 bytes of the span ID are random to keep collisions unlikely
+        byte[] spanId = new byte[8];
+        valuesRandom.nextBytes(spanId);
+        return ByteString.copyFrom(spanId);
+    }
+
+    private static class WalkState {
+        //Multiplicities are sampled from their own random stream so that counting the spans sees the same tree
+        private final SplittableRandom structureRandom;
+        private final SplittableRandom valuesRandom;
+        private final int fromSpan;
+        private final int toSpan;
+        private final boolean[] errorSpans;
+        private final boolean propagateErrors;
+        private final ExpandedSpanConsumer consumer;
+        private int position;
+        private long lastEndTimeMillis;
+
+        private WalkState(SplittableRandom structureRandom, SplittableRandom valuesRandom, int fromSpan, int toSpan,
+                          boolean[] errorSpans, boolean propagateErrors, ExpandedSpanConsumer consumer) {
+            this.structureRandom = structureRandom;
+            this.valuesRandom = valuesRandom;
+            this.fromSpan = fromSpan;
+            this.toSpan = toSpan;
+            this.errorSpans = errorSpans;
+            this.propagateErrors = propagateErrors;
+            this.consumer = consumer;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package io.opentelemetry.contrib.generator.telemetry.traces;
 import io.opentelemetry.contrib.generator.telemetry.GeneratorsStateProvider;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorState;
 import io.opentelemetry.contrib.generator.telemetry.misc.GeneratorExceptionHandler;
+import io.opentelemetry.contrib.generator.telemetry.misc.PayloadPhases;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.transport.TransportStorage;
 import io.opentelemetry.contrib.generator.telemetry.traces.dto.RootSpanDefinition;
@@ -87,6 +88,7 @@ public class TracesGenerator {
      * To accommodate performance concerns when a high copyCount may have been supplied, we split the copies into different thread groups.
      * The calculation done for this is: <p>
      *     totalNodes = totalNodes_InTree * copyCount <p>
+     *     For trees with child multiplicity distributions, the expected number of nodes in a tree is used. <p>
      *     If the totalNodes/totalTime_ForTreePosting_InSeconds > 25, we split the copies into separate thread groups
      *     such that each group adheres to this limit.
      * @return Trace threads groups
@@ -94,7 +96,7 @@ public class TracesGenerator {
     private Map<String, RootSpanDefinition> getTraceThreadGroups() {
         Map<String, RootSpanDefinition> traceGroups = new HashMap<>();
         for (RootSpanDefinition eachTrace: traces.getRootSpans()) {
-            double totalCopyNodes = eachTrace.getTotalChildNodeCount() * eachTrace.getCopyCount();
+            double totalCopyNodes = eachTrace.getCompiledTree().getExpectedSpanCount() * eachTrace.getCopyCount();
             double postTimeSecs = eachTrace.getTreeParts() * eachTrace.getPayloadFrequencySeconds();
             double totalNodePerSec = totalCopyNodes / postTimeSecs;
             //If there is only a single copy to be posted OR
@@ -104,7 +106,7 @@ public class TracesGenerator {
                 traceGroups.put(eachTrace.getName() + "::group::0", eachTrace);
                 continue;
             }
-            double singleCopyNodes = eachTrace.getTotalChildNodeCount();
+            double singleCopyNodes = eachTrace.getCompiledTree().getExpectedSpanCount();
             int copiesPerGroup = (int) (25.0d / (singleCopyNodes / postTimeSecs));
             int remainingCopies = eachTrace.getCopyCount() % copiesPerGroup;
             int groups = eachTrace.getCopyCount() / copiesPerGroup;
@@ -127,10 +129,20 @@ public class TracesGenerator {
 
     private void initThreads() {
         TraceGeneratorThread generatorThread;
+        PayloadPhases payloadPhases = new PayloadPhases(traces.getSpreadPayloadPhases(), traceGroups.values().stream()
+                .map(eachTree -> TimeUnit.SECONDS.toMillis(eachTree.getPayloadFrequencySeconds())).toList());
         for (Map.Entry<String, RootSpanDefinition> eachTreeGroup: traceGroups.entrySet()) {
-            generatorThread = new TraceGeneratorThread(eachTreeGroup.getKey(), eachTreeGroup.getValue(), requestID, payloadHandler);
-            generatorState.getExecutorService().scheduleAtFixedRate(generatorThread, 10,
-                    eachTreeGroup.getValue().getPayloadFrequencySeconds(), TimeUnit.SECONDS);
+            generatorThread = new TraceGeneratorThread(eachTreeGroup.getKey(), eachTreeGroup.getValue(), requestID, payloadHandler,
+                    traces.getCoalesceResourceSpans());
+            if (eachTreeGroup.getValue().getArrivalProcess() == null) {
+                long periodMillis = TimeUnit.SECONDS.toMillis(eachTreeGroup.getValue().getPayloadFrequencySeconds());
+                generatorState.getExecutorService().scheduleAtFixedRate(generatorThread,
+                        payloadPhases.getInitialDelayMillis(periodMillis), periodMillis, TimeUnit.MILLISECONDS);
+            } else {
+                //The copies of the tree are already spread by the arrival process
+                generatorState.getExecutorService().scheduleAtFixedRate(generatorThread, PayloadPhases.INITIAL_DELAY_MILLIS,
+                        eachTreeGroup.getValue().getArrivalProcess().getTickMillis(), TimeUnit.MILLISECONDS);
+            }
             generatorState.getGeneratorThreadMap().put(eachTreeGroup.getValue().getName(), generatorThread);
             log.debug(requestID + ": Initialized trace generator thread group " + eachTreeGroup.getKey() +
                     " having payload frequency of " + eachTreeGroup.getValue().getPayloadFrequencySeconds() + " seconds " +
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.traces.dto;
+
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import lombok.Getter;
+
+/**
+ * Flat representation of a single trace tree, compiled once by {@link Traces#initTrees(String)}. Every array is indexed by
+ * the position of the span in the post order of the tree, so the generators can work with plain index arithmetic instead
+ * of looking up spans by name. <p>
+ * If any span of the tree has a child multiplicity distribution, the tree is expandable: each copy of it is expanded at
+ * the time of generation, with the compiled spans acting as templates for the expanded spans. Otherwise, if any span has a
+ * duration distribution, the span times are sampled for each copy of the tree.
+ */
+@Getter
+public class CompiledTraceTree {
+
+    private final int size; //number of spans in the tree
+    private final int[] parentIndex; //position of the parent span or -1 for the root span
+    private final int[] resourceTypeIndex; //index of the reporting resource type in resourceTypes
+    private final String[] resourceTypes; //distinct reporting resource types of the tree
+    private final long[] startTimeOffsets; //span start time offsets in millis from the start of the trace
+    private final long[] endTimeOffsets; //span end time offsets in millis from the start of the trace
+    private final int[] errorFrequencies;
+    private final int[][] copyAttributeIndices; //indices in copyAttributeNames of the resource attributes to copy to each span
+    private final String[] copyAttributeNames; //distinct resource attribute names copied to any span of the tree
+    private final int[][] childIndices; //positions of the immediate child spans, in the order of the definition
+    private final Distribution[] multiplicities; //number of occurrences under the parent span or null for exactly one
+    private final Distribution[] durations; //span duration in millis or null to use the compiled time offsets
+    private final boolean expandable;
+    private final boolean hasDurations;
+    private final double expectedSpanCount; //mean number of spans in a copy of the tree
+
+    public CompiledTraceTree(int[] parentIndex, int[] resourceTypeIndex, String[] resourceTypes, long[] startTimeOffsets,
+                             long[] endTimeOffsets, int[] errorFrequencies, int[][] copyAttributeIndices,
+                             String[] copyAttributeNames, Distribution[] multiplicities, Distribution[] durations,
+                             double expectedSpanCount) {
+        this.size = parentIndex.length;
+        this.parentIndex = parentIndex;
+        this.resourceTypeIndex = resourceTypeIndex;
+        this.resourceTypes = resourceTypes;
+        this.startTimeOffsets = startTimeOffsets;
+        this.endTimeOffsets = endTimeOffsets;
+        this.errorFrequencies = errorFrequencies;
+        this.copyAttributeIndices = copyAttributeIndices;
+        this.copyAttributeNames = copyAttributeNames;
+        this.multiplicities = multiplicities;
+        this.durations = durations;
+        this.expectedSpanCount = expectedSpanCount;
+        boolean hasMultiplicities = false;
+        boolean hasDurationDistributions = false;
+        int[] childCounts = new int[size];
+        for (var spanIndex=0; spanIndex<size; spanIndex++) {
+            hasMultiplicities = hasMultiplicities || multiplicities[spanIndex] != null;
+            hasDurationDistributions = hasDurationDistributions || durations[spanIndex] != null;
+            if (parentIndex[spanIndex] != -1) {
+                childCounts[parentIndex[spanIndex]]++;
+            }
+        }
+        this.expandable = hasMultiplicities;
+        this.hasDurations = hasDurationDistributions;
+        this.childIndices = new int[size][];
+        for (var spanIndex=0; spanIndex<size; spanIndex++) {
+            childIndices[spanIndex] = new int[childCounts[spanIndex]];
+            childCounts[spanIndex] = 0;
+        }
+        //Children precede their parent in post order, so walking forward keeps the definition order of the children
+        for (var spanIndex=0; spanIndex<size; spanIndex++) {
+            int parent = parentIndex[spanIndex];
+            if (parent != -1) {
+                childIndices[parent][childCounts[parent]++] = spanIndex;
+            }
+        }
+    }
+
+    public int getRootIndex() {
+        return size - 1;
+    }
+}
@@ -17,6 +17,8 @@
 package io.opentelemetry.contrib.generator.telemetry.traces.dto;
 
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcess;
+import io.opentelemetry.contrib.generator.telemetry.dto.ResourceSelection;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -35,12 +37,14 @@ public class RootSpanDefinition extends SpanDefinition implements Cloneable {
     private Integer copyCount;
     private Integer payloadFrequencySeconds;
     private Boolean spanErrorEndsTrace;
+    private ResourceSelection resourceSelection; //optional, how the reporting resource of each copy is picked, round-robin if not provided
+    private ArrivalProcess arrivalProcess; //optional, when each copy of the tree is sent within a payload, all copies are sent together if not provided
     @JsonIgnore
     private int treeParts; //internal value to store the number of parts in which all the spans of the trace span tree are divided
     @JsonIgnore
     private List<SpanDefinition> treeNodesPostOrder; //nodes of the trace tree in post order fashion
     @JsonIgnore
-    private Map<String, Integer> spansIndexMap; //map having the position/index of each span in the trace tree
+    private CompiledTraceTree compiledTree; //flat representation of the trace tree, indexed by post order position
 
     public void validate(String requestID, int traceCompletionTimeoutSecs, Set<String> allResourceTypes, Set<String> childSpanNames) {
         super.validate(requestID, allResourceTypes, childSpanNames);
@@ -57,6 +61,14 @@ public class RootSpanDefinition extends SpanDefinition implements Cloneable {
             spanErrorEndsTrace = false;
         }
 
+        if (resourceSelection != null) {
+            resourceSelection.validate("root span " + getName());
+        }
+
+        if (arrivalProcess != null) {
+            arrivalProcess.validate("root span " + getName());
+        }
+
         if (payloadFrequencySeconds != null && payloadFrequencySeconds > 0 && payloadFrequencySeconds > traceCompletionTimeoutSecs) {
             throw new GeneratorException("The specified payload frequency " + payloadFrequencySeconds + "for root span" + getName() +
                     " is more than trace completion timeout " + traceCompletionTimeoutSecs);
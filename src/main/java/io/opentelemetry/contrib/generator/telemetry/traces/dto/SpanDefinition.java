@@ -17,8 +17,11 @@
 package io.opentelemetry.contrib.generator.telemetry.traces.dto;
 
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.core.utils.CommonUtils;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
 import io.opentelemetry.contrib.generator.telemetry.misc.GeneratorUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.opentelemetry.proto.common.v1.KeyValue;
 import io.opentelemetry.proto.trace.v1.Span;
 import lombok.Data;
 import org.apache.commons.collections4.CollectionUtils;
@@ -40,6 +43,10 @@ public class SpanDefinition {
     private Integer spanEndTimePct;
     private Set<String> copyResourceAttributes;
     private Map<String, Object> attributes;
+    private Map<String, Distribution> childMultiplicity; //number of times each child span occurs under this span
+    private Distribution durationDistribution; //span duration in millis
+    private List<SpanEventDefinition> events;
+    private List<SpanLinkDefinition> links;
     @JsonIgnore
     private List<SpanDefinition> childSpanNodes;
     @JsonIgnore
@@ -56,6 +63,8 @@ public class SpanDefinition {
         validateResourceTypes(allResourceTypes);
         validateChildSpans(allSpanNames);
         validateTimeOffsets();
+        validateDistributions();
+        CollectionUtils.emptyIfNull(events).forEach(eachEvent -> eachEvent.validate(name));
         attributes = GeneratorUtils.validateAttributes(attributes);
         attributes = GeneratorUtils.addArgsToAttributeExpressions(requestID, "span", ":HOLDER:", attributes);
         if (spanKind == null) {
@@ -115,6 +124,32 @@ public class SpanDefinition {
         }
     }
 
+    private void validateDistributions() {
+        for (Map.Entry<String, Distribution> eachMultiplicity: MapUtils.emptyIfNull(childMultiplicity).entrySet()) {
+            if (!CollectionUtils.emptyIfNull(childSpans).contains(eachMultiplicity.getKey())) {
+                throw new GeneratorException("Child multiplicity provided for " + eachMultiplicity.getKey() + " which is not " +
+                        "a child span of span " + name);
+            }
+            eachMultiplicity.getValue().validateBounded("child multiplicity of " + eachMultiplicity.getKey() + " in span " + name);
+        }
+        if (durationDistribution != null) {
+            durationDistribution.validate("duration of span " + name);
+        }
+    }
+
+    public void validateLinks(Set<String> allSpanNames) {
+        CollectionUtils.emptyIfNull(links).forEach(eachLink -> eachLink.validate(name, allSpanNames));
+    }
+
+    static List<KeyValue> getStaticAttributes(Map<String, Object> attributes) {
+        List<KeyValue> staticAttributes = new ArrayList<>();
+        GeneratorUtils.validateAttributes(attributes).forEach((key, value) -> staticAttributes.add(KeyValue.newBuilder()
+                .setKey(key)
+                .setValue(CommonUtils.buildAnyValue(value))
+                .build()));
+        return staticAttributes;
+    }
+
     @Override
     public String toString() {
         StringBuilder spanString = new StringBuilder("name: " + name + ", \n");
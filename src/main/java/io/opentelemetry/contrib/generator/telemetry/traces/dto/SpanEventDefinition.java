@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.traces.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template for the events added to each generated span of a span definition. The attributes are static values which are
+ * converted to OTel key values once during validation.
+ */
+@Data
+public class SpanEventDefinition {
+
+    private String name;
+    private Distribution count; //number of events added to each span, defaults to 1
+    private Boolean errorSpansOnly; //add the events only to spans with error status, e.g. for exception events
+    private Map<String, Object> attributes;
+    @JsonIgnore
+    private List<KeyValue> compiledAttributes;
+
+    public void validate(String spanName) {
+        if (StringUtils.defaultString(name).isBlank()) {
+            throw new GeneratorException("Mandatory field 'name' not provided for event of span " + spanName);
+        }
+        if (count == null) {
+            count = Distribution.constant(1);
+        }
+        count.validate("count of event " + name + " in span " + spanName);
+        if (errorSpansOnly == null) {
+            errorSpansOnly = false;
+        }
+        compiledAttributes = SpanDefinition.getStaticAttributes(attributes);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.traces.dto;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template for the links added to each generated span of a span definition. Each link points at a recently generated span
+ * with the name specified in spanName, which can belong to any trace tree including an earlier post of the same tree.
+ * No link is added until a span with that name has been generated.
+ */
+@Data
+public class SpanLinkDefinition {
+
+    private String spanName;
+    private Distribution count; //number of links added to each span, defaults to 1
+    private Map<String, Object> attributes;
+    @JsonIgnore
+    private List<KeyValue> compiledAttributes;
+
+    public void validate(String sourceSpanName, Set<String> allSpanNames) {
+        if (StringUtils.defaultString(spanName).isBlank()) {
+            throw new GeneratorException("Mandatory field 'spanName' not provided for link of span " + sourceSpanName);
+        }
+        if (!allSpanNames.contains(spanName)) {
+            throw new GeneratorException("Span with name " + sourceSpanName + " has link to unknown span " + spanName);
+        }
+        if (count == null) {
+            count = Distribution.constant(1);
+        }
+        count.validate("count of links to " + spanName + " in span " + sourceSpanName);
+        compiledAttributes = SpanDefinition.getStaticAttributes(attributes);
+    }
+}
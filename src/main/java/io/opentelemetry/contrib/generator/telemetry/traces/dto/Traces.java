@@ -17,17 +17,20 @@
 package io.opentelemetry.contrib.generator.telemetry.traces.dto;
 
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import io.opentelemetry.contrib.generator.telemetry.SpanContextProvider;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.collections4.MapUtils;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Slf4j
 @Data
@@ -36,6 +39,8 @@ public class Traces {
     private Integer traceCompletionTimeoutSecs;
     private List<RootSpanDefinition> rootSpans;
     private List<SpanDefinition> childSpans;
+    private Boolean coalesceResourceSpans; //send all the spans of a resource in a payload in a single ResourceSpans
+    private Boolean spreadPayloadPhases; //stagger the start of the trace groups sharing a payload frequency
     @JsonIgnore
     @Getter
     private long maxPostSeconds;
@@ -52,6 +57,8 @@ public class Traces {
             throw new GeneratorException("Root span names are not unique");
         }
         childSpans = childSpans == null ? new ArrayList<>() : childSpans;
+        coalesceResourceSpans = coalesceResourceSpans != null && coalesceResourceSpans;
+        spreadPayloadPhases = spreadPayloadPhases != null && spreadPayloadPhases;
         Set<String> childSpanNames = childSpans.stream().map(SpanDefinition::getName).collect(Collectors.toSet());
         if (childSpanNames.size() < childSpans.size()) {
             throw new GeneratorException("Child span names are not unique");
@@ -64,6 +71,8 @@ public class Traces {
         }
         rootSpans.forEach(eachSpan -> eachSpan.validate(requestID, traceCompletionTimeoutSecs, allResourceTypes, childSpanNames));
         childSpans.forEach(eachSpan -> eachSpan.validate(requestID, allResourceTypes, childSpanNames));
+        rootSpans.forEach(eachSpan -> eachSpan.validateLinks(allSpanNames));
+        childSpans.forEach(eachSpan -> eachSpan.validateLinks(allSpanNames));
     }
 
     /**
@@ -72,23 +81,36 @@ public class Traces {
      *     - All the spans in each tree are set up in post order fashion
      *     - If numberOfSpansInTree/timeToPostTree > 0.5 the tree is split up into different parts
      *     - Time offsets are set up for each span node
+     *     - For trees with child multiplicity distributions, the expected number of spans is used instead of the node count
+     *     - Spans which are targets of span links are registered with the SpanContextProvider
+     *     - Each tree is compiled into a {@link CompiledTraceTree} so that the span generation works on index arrays only
      */
     public void initTrees(String requestID) {
         log.info(requestID + ": Initializing " + rootSpans.size() + " trace trees");
         initTraceTrees();
         rootSpans.forEach(eachTree -> {
+            double expectedSpanCount = getExpectedSpanCount(eachTree);
+            int spanCount = (int) Math.ceil(expectedSpanCount);
             if (eachTree.getPayloadFrequencySeconds() == null || eachTree.getPayloadFrequencySeconds() <= 0) {
-                eachTree.setPayloadFrequencySeconds(getPayloadFrequency(eachTree.getTotalChildNodeCount()));
+                eachTree.setPayloadFrequencySeconds(getPayloadFrequency(spanCount));
             }
-            eachTree.setTreeParts(getTreeParts(eachTree.getTotalChildNodeCount(), eachTree.getPayloadFrequencySeconds()));
+            eachTree.setTreeParts(getTreeParts(spanCount, eachTree.getPayloadFrequencySeconds()));
             long totalTreePostSecs = (long) eachTree.getTreeParts() * eachTree.getPayloadFrequencySeconds();
             setSpanTimeOffsets(eachTree, 0, TimeUnit.SECONDS.toMillis(totalTreePostSecs),
                     TimeUnit.SECONDS.toMillis(totalTreePostSecs));
-            eachTree.setTreeNodesPostOrder(getTreePostOrder(eachTree));
-            eachTree.setSpansIndexMap(getSpansIndexMap(eachTree));
+            List<SpanDefinition> treePostOrder = new ArrayList<>();
+            List<Integer> parentPositions = new ArrayList<>();
+            addTreePostOrder(eachTree, treePostOrder, parentPositions);
+            eachTree.setTreeNodesPostOrder(treePostOrder);
+            eachTree.setCompiledTree(compileTree(treePostOrder, parentPositions, expectedSpanCount));
             maxPostSeconds = Math.max(maxPostSeconds, totalTreePostSecs * eachTree.getPayloadCount());
             log.debug(requestID + ": Trace tree initialized as: " + eachTree);
         });
+        Set<String> linkedSpanNames = new HashSet<>();
+        for (SpanDefinition eachSpan: ListUtils.union(rootSpans, childSpans)) {
+            CollectionUtils.emptyIfNull(eachSpan.getLinks()).forEach(eachLink -> linkedSpanNames.add(eachLink.getSpanName()));
+        }
+        SpanContextProvider.putLinkedSpanNames(requestID, linkedSpanNames);
     }
 
     private void initTraceTrees() {
@@ -167,20 +189,62 @@ public class Traces {
         }
     }
 
-    private List<SpanDefinition> getTreePostOrder(SpanDefinition spanNode) {
-        List<SpanDefinition> treePostOrder = new ArrayList<>();
+    private int addTreePostOrder(SpanDefinition spanNode, List<SpanDefinition> treePostOrder, List<Integer> parentPositions) {
+        List<Integer> childPositions = new ArrayList<>();
         if (spanNode.getTotalChildNodeCount() > 0) {
-            CollectionUtils.emptyIfNull(spanNode.getChildSpanNodes())
-                    .forEach(eachChild -> treePostOrder.addAll(getTreePostOrder(eachChild)));
+            for (SpanDefinition eachChild: CollectionUtils.emptyIfNull(spanNode.getChildSpanNodes())) {
+                childPositions.add(addTreePostOrder(eachChild, treePostOrder, parentPositions));
+            }
         }
         treePostOrder.add(spanNode);
-        return treePostOrder;
+        parentPositions.add(-1);
+        int position = treePostOrder.size() - 1;
+        childPositions.forEach(eachChildPosition -> parentPositions.set(eachChildPosition, position));
+        return position;
     }
 
-    private Map<String, Integer> getSpansIndexMap(RootSpanDefinition rootSpanDefinition) {
-        Map<String, Integer> spanMap = new HashMap<>();
-        IntStream.range(0, rootSpanDefinition.getTreeNodesPostOrder().size())
-                .forEach(index -> spanMap.put(rootSpanDefinition.getTreeNodesPostOrder().get(index).getName(), index));
-        return spanMap;
+    private double getExpectedSpanCount(SpanDefinition spanNode) {
+        double expectedCount = 1;
+        for (SpanDefinition eachChild: CollectionUtils.emptyIfNull(spanNode.getChildSpanNodes())) {
+            Distribution multiplicity = MapUtils.emptyIfNull(spanNode.getChildMultiplicity()).get(eachChild.getName());
+            expectedCount += (multiplicity == null ? 1 : multiplicity.getExpectedValue()) * getExpectedSpanCount(eachChild);
+        }
+        return expectedCount;
+    }
+
+    private CompiledTraceTree compileTree(List<SpanDefinition> treePostOrder, List<Integer> parentPositions,
+                                          double expectedSpanCount) {
+        int size = treePostOrder.size();
+        int[] parentIndex = new int[size];
+        int[] resourceTypeIndex = new int[size];
+        long[] startTimeOffsets = new long[size];
+        long[] endTimeOffsets = new long[size];
+        int[] errorFrequencies = new int[size];
+        int[][] copyAttributeIndices = new int[size][];
+        Distribution[] multiplicities = new Distribution[size];
+        Distribution[] durations = new Distribution[size];
+        Map<String, Integer> resourceTypes = new LinkedHashMap<>();
+        Map<String, Integer> copyAttributeNames = new LinkedHashMap<>();
+        for (int spanIndex=0; spanIndex<size; spanIndex++) {
+            SpanDefinition spanNode = treePostOrder.get(spanIndex);
+            parentIndex[spanIndex] = parentPositions.get(spanIndex);
+            resourceTypeIndex[spanIndex] = resourceTypes.computeIfAbsent(spanNode.getReportingResource(),
+                    type -> resourceTypes.size());
+            //Offsets are copied right after being set for this tree since child span nodes can be shared across trees
+            startTimeOffsets[spanIndex] = spanNode.getStartTimeMillisOffset();
+            endTimeOffsets[spanIndex] = spanNode.getEndTimeMillisOffset();
+            errorFrequencies[spanIndex] = spanNode.getErrorFrequency();
+            copyAttributeIndices[spanIndex] = spanNode.getCopyResourceAttributes().stream()
+                    .mapToInt(name -> copyAttributeNames.computeIfAbsent(name, key -> copyAttributeNames.size()))
+                    .toArray();
+            if (parentIndex[spanIndex] != -1) {
+                multiplicities[spanIndex] = MapUtils.emptyIfNull(treePostOrder.get(parentIndex[spanIndex]).getChildMultiplicity())
+                        .get(spanNode.getName());
+            }
+            durations[spanIndex] = spanNode.getDurationDistribution();
+        }
+        return new CompiledTraceTree(parentIndex, resourceTypeIndex, resourceTypes.keySet().toArray(new String[0]),
+                startTimeOffsets, endTimeOffsets, errorFrequencies, copyAttributeIndices,
+                copyAttributeNames.keySet().toArray(new String[0]), multiplicities, durations, expectedSpanCount);
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry.transport;
+
+import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.Message;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Payload handler that merges the export requests of the same signal posted at about the same time into a single request
+ * before posting it through the wrapped handler, like the batch processor of the collector. A batch is posted as soon as
+ * it reaches the max batch size or once the linger time has passed since its first request, whichever happens first. <p>
+ * With {@link #postPayload(GeneratedMessageV3, Consumer)}, the caller returns as soon as its request is added to a batch
+ * and gets the status of that batch through the callback once it is posted, so the requests which a single generator
+ * thread posts in a row are merged with each other as well. The generator threads store their own requests against their
+ * own group in the {@link TransportStorage} from that callback, exactly like they do without batching. With
+ * {@link #postPayload(GeneratedMessageV3)}, the caller waits for its batch to be posted, so only the requests of
+ * concurrent callers are merged. A request which is alone at least the max batch size is posted as is, right after the
+ * pending batch of its signal so that the requests of a signal are posted in order. <p>
+ * The batches still pending when the generators finish are posted by {@link #flush()} or {@link #shutdown()}, after
+ * which the requests are posted as is.
+ */
+@Slf4j
+public class BatchingPayloadHandler implements PayloadHandler {
+
+    private final PayloadHandler payloadHandler;
+    private final int maxBatchBytes;
+    private final long lingerMillis;
+    private final Map<Class<?>, PendingBatch> pendingBatches; //guarded by itself, merges and claims happen under its lock
+    private final ScheduledExecutorService lingerExecutor;
+
+    public BatchingPayloadHandler(PayloadHandler payloadHandler, int maxBatchBytes, long lingerMillis) {
+        if (maxBatchBytes < 1) {
+            throw new GeneratorException("Max batch bytes must be at least 1");
+        }
+        if (lingerMillis < 0) {
+            throw new GeneratorException("Batch linger time cannot be negative");
+        }
+        this.payloadHandler = payloadHandler;
+        this.maxBatchBytes = maxBatchBytes;
+        this.lingerMillis = lingerMillis;
+        pendingBatches = new HashMap<>();
+        lingerExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread lingerThread = new Thread(runnable, "payload-batch-linger");
+            lingerThread.setDaemon(true);
+            return lingerThread;
+        });
+    }
+
+    @Override
+    public boolean postPayload(GeneratedMessageV3 message) {
+        CompletableFuture<Boolean> status = new CompletableFuture<>();
+        postPayload(message, status::complete);
+        try {
+            return status.get();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for the payload batch to be posted");
+            return false;
+        } catch (ExecutionException executionException) {
+            log.error("Failed to post payload batch", executionException.getCause());
+            return false;
+        }
+    }
+
+    @Override
+    public void postPayload(GeneratedMessageV3 message, Consumer<Boolean> statusCallback) {
+        int messageBytes = message.getSerializedSize();
+        if (messageBytes >= maxBatchBytes || lingerMillis == 0 || lingerExecutor.isShutdown()) {
+            PendingBatch pendingBatch;
+            synchronized (pendingBatches) {
+                pendingBatch = pendingBatches.remove(message.getClass());
+            }
+            if (pendingBatch != null) {
+                postBatch(pendingBatch);
+            }
+            statusCallback.accept(payloadHandler.postPayload(message));
+            return;
+        }
+        PendingBatch fullBatch = null;
+        PendingBatch completedBatch = null;
+        synchronized (pendingBatches) {
+            PendingBatch batch = pendingBatches.get(message.getClass());
+            if (batch != null && batch.batchBytes + messageBytes > maxBatchBytes) {
+                pendingBatches.remove(message.getClass());
+                fullBatch = batch;
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new PendingBatch(message.newBuilderForType());
+                pendingBatches.put(message.getClass(), batch);
+                PendingBatch lingeringBatch = batch;
+                lingerExecutor.schedule(() -> postIfPending(message.getClass(), lingeringBatch), lingerMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+            //The requests of a signal only have the repeated resource field, so merging concatenates the resources and
+            //the size of the merged request is the sum of the sizes of the requests
+            batch.builder.mergeFrom(message);
+            batch.batchBytes += messageBytes;
+            batch.statusCallbacks.add(statusCallback);
+            if (batch.batchBytes >= maxBatchBytes) {
+                pendingBatches.remove(message.getClass());
+                completedBatch = batch;
+            }
+        }
+        //Posted outside the lock so that the other signals and the next batch of this signal are not held up
+        if (fullBatch != null) {
+            postBatch(fullBatch);
+        }
+        if (completedBatch != null) {
+            postBatch(completedBatch);
+        }
+    }
+
+    /**
+     * Posts the batches which are pending right away, without waiting for their linger time.
+     */
+    public void flush() {
+        List<PendingBatch> remainingBatches;
+        synchronized (pendingBatches) {
+            remainingBatches = List.copyOf(pendingBatches.values());
+            pendingBatches.clear();
+        }
+        remainingBatches.forEach(this::postBatch);
+    }
+
+    /**
+     * Stops the linger timer. The batches still pending at that point are posted right away.
+     */
+    public void shutdown() {
+        lingerExecutor.shutdownNow();
+        flush();
+    }
+
+    private void postIfPending(Class<?> signal, PendingBatch batch) {
+        synchronized (pendingBatches) {
+            //Already claimed if the batch filled up before its linger time
+            if (!pendingBatches.remove(signal, batch)) {
+                return;
+            }
+        }
+        postBatch(batch);
+    }
+
+    private void postBatch(PendingBatch batch) {
+        boolean status;
+        try {
+            log.debug("Posting batch of " + batch.statusCallbacks.size() + " requests having " + batch.batchBytes + " bytes");
+            status = payloadHandler.postPayload((GeneratedMessageV3) batch.builder.build());
+        } catch (RuntimeException postException) {
+            log.error("Failed to post payload batch", postException);
+            status = false;
+        }
+        for (Consumer<Boolean> eachCallback: batch.statusCallbacks) {
+            eachCallback.accept(status);
+        }
+    }
+
+    private static class PendingBatch {
+
+        private final Message.Builder builder;
+        private final List<Consumer<Boolean>> statusCallbacks;
+        private int batchBytes;
+
+        private PendingBatch(Message.Builder builder) {
+            this.builder = builder;
+            this.statusCallbacks = new ArrayList<>();
+        }
+    }
+}
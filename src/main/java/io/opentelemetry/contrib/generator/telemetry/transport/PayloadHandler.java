@@ -18,6 +18,16 @@ package io.opentelemetry.contrib.generator.telemetry.transport;
 
 import com.google.protobuf.GeneratedMessageV3;
 
+import java.util.function.Consumer;
+
 public interface PayloadHandler {
     boolean postPayload(GeneratedMessageV3 message);
+
+    /**
+     * Posts the message and passes its status to the callback once it has been posted. Handlers which post in the
+     * background return before that, so that the generator threads do not wait for each of their messages.
+     */
+    default void postPayload(GeneratedMessageV3 message, Consumer<Boolean> statusCallback) {
+        statusCallback.accept(postPayload(message));
+    }
 }
@@ -54,7 +54,7 @@ public class TransportStorage {
         storedTracesPayloads = new ConcurrentHashMap<>();
     }
 
-    public void store(String resourceType, GeneratedMessageV3 payload, boolean isSuccess) {
+    public synchronized void store(String resourceType, GeneratedMessageV3 payload, boolean isSuccess) {
         if (payload instanceof ExportMetricsServiceRequest) {
             metricsResponses.putIfAbsent(resourceType, new ArrayList<>());
             storedMetricsPayloads.putIfAbsent(resourceType, new ArrayList<>());
@@ -68,7 +68,7 @@ public class TransportStorage {
         }
     }
 
-    public void store(String logName, String resourceType, GeneratedMessageV3 payload, boolean isSuccess){
+    public synchronized void store(String logName, String resourceType, GeneratedMessageV3 payload, boolean isSuccess){
         if (payload instanceof ExportLogsServiceRequest) {
             logsResponses.putIfAbsent(logName, new HashMap<>());
             storedLogsPayloads.putIfAbsent(logName, new HashMap<>());
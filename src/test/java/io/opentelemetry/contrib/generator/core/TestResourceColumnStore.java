@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.core;
+
+import io.opentelemetry.contrib.generator.core.dto.ActiveResources;
+import io.opentelemetry.contrib.generator.core.dto.ActiveResourcesView;
+import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.dto.ResourceAdjacency;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
+import io.opentelemetry.contrib.generator.core.utils.CommonUtils;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public class TestResourceColumnStore {
+
+    @Test
+    public void testAttributeColumns() {
+        ResourceColumnStore store = new ResourceColumnStore("pod", 6, 4);
+        int nameColumn = store.addColumn("k8s.pod.name");
+        int phaseColumn = store.addColumn("k8s.pod.phase");
+        for (var i=0; i<6; i++) {
+            store.setAttribute(nameColumn, i, CommonUtils.buildAnyValue("pod-" + i));
+            store.setAttribute(phaseColumn, i, CommonUtils.buildAnyValue(i % 2 == 0 ? "Running" : "Pending"));
+        }
+        store.addAttribute(3, "k8s.pod.phase", CommonUtils.buildAnyValue("Succeeded"));
+        GeneratorResource pod = store.getResources().get(3);
+        Assert.assertEquals(pod.getAttributesList().stream().map(KeyValue::getKey).toList(),
+                List.of("k8s.pod.name", "k8s.pod.phase", "k8s.pod.phase"));
+        Assert.assertEquals(pod.getAttributes().get("k8s.pod.phase"), "Succeeded");
+        Assert.assertTrue(pod.matchesAttributes(Map.of("k8s.pod.name", "pod-3", "k8s.pod.phase", "Succeeded")));
+        Assert.assertFalse(pod.matchesAttributes(Map.of("k8s.pod.phase", "Pending")));
+        Assert.assertFalse(store.getResources().get(2).matchesAttributes(Map.of("k8s.pod.uid", "pod-2")));
+        //Repeated values of a column share the same key-value
+        Assert.assertSame(store.getAttributes(0).get(1), store.getAttributes(4).get(1));
+        Assert.assertEquals(store.getResources().stream().filter(GeneratorResource::isActive).count(), 4);
+        Assert.assertEquals(store.getResources().get(3), store.getResource(3));
+        Assert.assertNotEquals(store.getResources().get(3), store.getResource(4));
+    }
+
+    @Test
+    public void testEvaluatedColumns() {
+        ResourceColumnStore store = new ResourceColumnStore("pod", 1000, 1000);
+        store.addColumn("k8s.pod.name");
+        store.addEvaluatedColumn("k8s.node.name", index -> index % 3 == 0 ? null : CommonUtils.buildAnyValue("node-" + index % 3));
+        store.addEvaluatedColumn("k8s.node.name", index -> CommonUtils.buildAnyValue("node-" + index));
+        Assert.assertEquals(store.getFirstAttribute(4, "k8s.node.name").getStringValue(), "node-1");
+        Assert.assertEquals(store.getFirstAttribute(3, "k8s.node.name").getStringValue(), "node-3");
+        Assert.assertEquals(store.getAttributeString(4, "k8s.node.name"), "node-4");
+        Assert.assertNull(store.getFirstAttribute(4, "k8s.pod.name"));
+        Assert.assertEquals(store.getAttributes(3).size(), 1);
+        Assert.assertEquals(store.getAttributes(5).size(), 2);
+    }
+
+    @Test
+    public void testCompactedColumns() {
+        ResourceColumnStore store = new ResourceColumnStore("pod", 1000, 1000);
+        store.addEvaluatedColumn("k8s.pod.name", index -> CommonUtils.buildAnyValue("pod-" + index));
+        int phaseColumn = store.addColumn("k8s.pod.phase");
+        IntStream.range(0, 1000).parallel().forEach(i -> store.setAttribute(phaseColumn, i,
+                CommonUtils.buildAnyValue(i % 3 == 0 ? "Pending" : "Running")));
+        store.compactColumns();
+        Assert.assertEquals(store.getAttributeString(999, "k8s.pod.name"), "pod-999");
+        Assert.assertEquals(store.getAttributeString(999, "k8s.pod.phase"), "Pending");
+        Assert.assertSame(store.getAttributes(1).get(1), store.getAttributes(2).get(1));
+        //Setting a value once compacted still works
+        store.setAttribute(phaseColumn, 1, CommonUtils.buildAnyValue("Succeeded"));
+        Assert.assertEquals(store.getAttributeString(1, "k8s.pod.phase"), "Succeeded");
+        Assert.assertEquals(store.getAttributeString(2, "k8s.pod.phase"), "Running");
+    }
+
+    @Test
+    public void testAdjacency() {
+        ResourceColumnStore nodes = new ResourceColumnStore("node", 3, 3);
+        ResourceColumnStore pods = new ResourceColumnStore("pod", 7, 7);
+        var links = new ResourceAdjacency.Builder();
+        links.addLinks(0, 0, 2);
+        links.addLinks(1, 2, 5);
+        links.addLinks(2, 5, 7);
+        links.addLinks(2, 0, 1);
+        nodes.setChildren("pod", links.build(nodes, pods));
+        pods.setParents("node", links.buildInverse(nodes, pods));
+        Assert.assertEquals(nodes.getResource(1).getChildrenByType().get("pod").stream().map(GeneratorResource::getIndex).toList(),
+                List.of(2, 3, 4));
+        Assert.assertEquals(nodes.getResource(2).getChildrenByType().get("pod").stream().map(GeneratorResource::getIndex).toList(),
+                List.of(5, 6, 0));
+        Assert.assertEquals(pods.getResource(0).getParentsByType().get("node").stream().map(GeneratorResource::getIndex).toList(),
+                List.of(0, 2));
+        Assert.assertEquals(pods.getResource(4).getParentTypeCounts(), Map.of("node", 1));
+    }
+
+    @Test
+    public void testActiveResourcesSnapshots() {
+        ResourceColumnStore store = new ResourceColumnStore("pod", 10, 4);
+        ActiveResources initial = store.getActiveResources();
+        Assert.assertEquals(initial.getResources().stream().map(GeneratorResource::getIndex).toList(), List.of(0, 1, 2, 3));
+        ActiveResources churned = store.updateActiveResources(2, 3);
+        Assert.assertEquals(churned.getResources().stream().map(GeneratorResource::getIndex).toList(), List.of(2, 3, 4, 5, 6));
+        Assert.assertTrue(churned.getVersion() > initial.getVersion());
+        Assert.assertSame(store.getActiveResources(), churned);
+        //Published snapshots never change
+        Assert.assertEquals(initial.getCount(), 4);
+        Assert.assertTrue(initial.isActive(0));
+        Assert.assertFalse(store.getResource(0).isActive());
+        //Additions wrap around to the deactivated resources and are limited to the inactive resources of the store
+        Assert.assertEquals(store.updateActiveResources(0, 20).getResources().stream().map(GeneratorResource::getIndex).toList(),
+                List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        store.setActive(5, false);
+        Assert.assertEquals(store.getActiveResources().getResources().stream().map(GeneratorResource::getIndex).toList(),
+                List.of(0, 1, 2, 3, 4, 6, 7, 8, 9));
+    }
+
+    @Test
+    public void testChurnWrapsAround() {
+        ResourceColumnStore store = new ResourceColumnStore("pod", 6, 4);
+        Assert.assertEquals(store.updateActiveResources(2, 2).getResources().stream().map(GeneratorResource::getIndex).toList(),
+                List.of(2, 3, 4, 5));
+        //The oldest resources are deactivated and the ones deactivated earlier are activated again
+        Assert.assertEquals(store.updateActiveResources(2, 2).getResources().stream().map(GeneratorResource::getIndex).toList(),
+                List.of(0, 1, 4, 5));
+        for (var i=0; i<9; i++) {
+            Assert.assertEquals(store.updateActiveResources(2, 2).getCount(), 4, "Churn changed the active resource count");
+        }
+        Assert.assertEquals(store.updateActiveResources(2, 2).getResources().stream().map(GeneratorResource::getIndex).toList(),
+                List.of(0, 1, 2, 3));
+    }
+
+    @Test
+    public void testActiveResourcesView() {
+        ResourceColumnStore store = new ResourceColumnStore("pod", 2000, 100);
+        var view = new ActiveResourcesView<>(store, resource -> resource.getIndex() % 2 == 0 ? resource.getIndex() : null);
+        Assert.assertEquals(getViewValues(view.update()), IntStream.range(0, 100).filter(i -> i % 2 == 0).boxed().toList());
+        Assert.assertEquals(view.size(), 50);
+        long version = view.getVersion();
+        Assert.assertEquals(view.update().getVersion(), version);
+        //Incremental updates, and then more changes than the store keeps, which makes the view rebuild itself
+        for (int changes : new int[] {3, 300}) {
+            for (var i=0; i<changes; i++) {
+                store.updateActiveResources(1, 2);
+            }
+            store.setActive(store.getActiveResources().getResources().get(5).getIndex(), false);
+            List<Integer> expectedValues = store.getActiveResources().getResources().stream()
+                    .map(GeneratorResource::getIndex)
+                    .filter(i -> i % 2 == 0)
+                    .toList();
+            Assert.assertEquals(getViewValues(view.update()), expectedValues);
+            Assert.assertEquals(view.size(), expectedValues.size());
+            Assert.assertEquals(view.getVersion(), store.getActiveResources().getVersion());
+        }
+    }
+
+    private List<Integer> getViewValues(ActiveResourcesView<Integer> view) {
+        List<Integer> values = new ArrayList<>();
+        view.forEach(values::add);
+        Assert.assertEquals(IntStream.range(0, view.size()).mapToObj(view::get).toList(), values);
+        return values;
+    }
+}
@@ -19,6 +19,8 @@ package io.opentelemetry.contrib.generator.core;
 import io.opentelemetry.contrib.generator.core.dto.Resources;
 import io.opentelemetry.contrib.generator.core.dto.ResourceDefinition;
 import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
+import io.opentelemetry.contrib.generator.core.dto.ResourceModelSnapshot;
 import io.opentelemetry.contrib.generator.core.jel.ExpressionProcessor;
 import io.opentelemetry.contrib.generator.core.jel.ResourceExpressionsJELProvider;
 import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
@@ -36,6 +38,8 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
@@ -233,4 +237,79 @@ public class TestResourceModelGenerator {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void assertParallelGenerationMatchesSequential() {
+        Map<String, ResourceDefinition> resourcesMapRuntimeMods = resourcesWithRuntimeMods.getResources().stream()
+                .collect(Collectors.toMap(ResourceDefinition::getName, Function.identity()));
+        ResourceModelGenerator parallelGenerator = new ResourceModelGenerator(resourcesMapRuntimeMods, "TestResourceModelGeneratorParallel");
+        parallelGenerator.setParallelGeneration(1, 7);
+        Map<String, List<GeneratorResource>> parallelModel = parallelGenerator.getResourceModel();
+        for (Map.Entry<String, List<GeneratorResource>> eachType: resourceModelRuntimeMods.entrySet()) {
+            List<GeneratorResource> parallelResources = parallelModel.get(eachType.getKey());
+            Assert.assertEquals(parallelResources.size(), eachType.getValue().size());
+            for (int i=0; i<parallelResources.size(); i++) {
+                Assert.assertEquals(parallelResources.get(i).getOTelResource().getAttributesList(),
+                        eachType.getValue().get(i).getOTelResource().getAttributesList(),
+                        "Attributes mismatch for " + eachType.getKey() + " resource at index " + i);
+                Assert.assertEquals(parallelResources.get(i).isActive(), eachType.getValue().get(i).isActive());
+            }
+        }
+    }
+
+    @Test
+    public void assertLazyAttributesMatchStoredAttributes() {
+        Map<String, ResourceDefinition> resourcesMapRuntimeMods = resourcesWithRuntimeMods.getResources().stream()
+                .collect(Collectors.toMap(ResourceDefinition::getName, Function.identity()));
+        Map<String, List<GeneratorResource>> lazyModel;
+        try {
+            resourcesMapRuntimeMods.values().forEach(eachType -> eachType.setLazyAttributes(true));
+            lazyModel = new ResourceModelGenerator(resourcesMapRuntimeMods, "TestResourceModelGeneratorLazy").getResourceModel();
+        } finally {
+            resourcesMapRuntimeMods.values().forEach(eachType -> eachType.setLazyAttributes(false));
+        }
+        boolean anyDerivedColumn = false;
+        for (Map.Entry<String, List<GeneratorResource>> eachType: resourceModelRuntimeMods.entrySet()) {
+            List<GeneratorResource> lazyResources = lazyModel.get(eachType.getKey());
+            Assert.assertEquals(lazyResources.size(), eachType.getValue().size());
+            for (int i=0; i<lazyResources.size(); i++) {
+                Assert.assertEquals(lazyResources.get(i).getOTelResource().getAttributesList(),
+                        eachType.getValue().get(i).getOTelResource().getAttributesList(),
+                        "Attributes mismatch for " + eachType.getKey() + " resource at index " + i);
+                Assert.assertSame(lazyResources.get(i).getOTelResource(), lazyResources.get(i).getOTelResource());
+            }
+            ResourceColumnStore store = lazyResources.get(0).getStore();
+            anyDerivedColumn = anyDerivedColumn || IntStream.range(0, store.getColumnCount()).anyMatch(store::isDerivedColumn);
+        }
+        Assert.assertTrue(anyDerivedColumn);
+    }
+
+    @Test
+    public void assertSnapshotMatchesGeneratedModel() throws IOException {
+        Map<String, ResourceDefinition> resourcesMapRuntimeMods = resourcesWithRuntimeMods.getResources().stream()
+                .collect(Collectors.toMap(ResourceDefinition::getName, Function.identity()));
+        Path snapshotDirectory = Files.createTempDirectory("resource-model-snapshots");
+        var savingGenerator = new ResourceModelGenerator(resourcesMapRuntimeMods, "TestResourceModelGeneratorSnapshotSave");
+        savingGenerator.setSnapshotDirectory(snapshotDirectory.toString());
+        Map<String, List<GeneratorResource>> savedModel = savingGenerator.getResourceModel();
+        Path snapshotPath = ResourceModelSnapshot.getSnapshotPath(snapshotDirectory.toString(), resourcesMapRuntimeMods.values());
+        Assert.assertTrue(Files.exists(snapshotPath));
+        var loadingGenerator = new ResourceModelGenerator(resourcesMapRuntimeMods, "TestResourceModelGeneratorSnapshotLoad");
+        loadingGenerator.setSnapshotDirectory(snapshotDirectory.toString());
+        Map<String, List<GeneratorResource>> loadedModel = loadingGenerator.getResourceModel();
+        Assert.assertEquals(loadedModel.keySet(), savedModel.keySet());
+        for (Map.Entry<String, List<GeneratorResource>> eachType: savedModel.entrySet()) {
+            List<GeneratorResource> loadedResources = loadedModel.get(eachType.getKey());
+            Assert.assertEquals(loadedResources.size(), eachType.getValue().size());
+            for (int i=0; i<loadedResources.size(); i++) {
+                GeneratorResource savedResource = eachType.getValue().get(i);
+                GeneratorResource loadedResource = loadedResources.get(i);
+                Assert.assertEquals(loadedResource.getOTelResource(), savedResource.getOTelResource(),
+                        "Attributes mismatch for " + eachType.getKey() + " resource at index " + i);
+                Assert.assertEquals(loadedResource.isActive(), savedResource.isActive());
+                Assert.assertEquals(loadedResource.getChildrenTypeCounts(), savedResource.getChildrenTypeCounts());
+                Assert.assertEquals(loadedResource.getParentTypeCounts(), savedResource.getParentTypeCounts());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.core;
+
+import io.opentelemetry.contrib.generator.core.dto.ResourceDefinition;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TestResourceTypeHierarchy {
+
+    @Test
+    public void testLevels() {
+        //cluster -> node -> pod and cluster -> namespace -> deployment -> pod, so pod is at the level of its deepest parent + 1
+        ResourceTypeHierarchy hierarchy = new ResourceTypeHierarchy(List.of(
+                getDefinition("pod", Map.of()),
+                getDefinition("deployment", Map.of("pod", "1")),
+                getDefinition("node", Map.of("pod", "1")),
+                getDefinition("namespace", Map.of("deployment", "1")),
+                getDefinition("cluster", Map.of("node", "1", "namespace", "1"))));
+        Assert.assertEquals(hierarchy.getTopologicalOrder(), List.of("cluster", "namespace", "deployment", "node", "pod"));
+        Assert.assertEquals(hierarchy.getTypesByLevel(), List.of(Set.of("cluster"), Set.of("namespace", "node"),
+                Set.of("deployment"), Set.of("pod")));
+        Assert.assertEquals(hierarchy.getLevel("pod"), 3);
+        Assert.assertEquals(hierarchy.getParentTypes("pod"), Set.of("deployment", "node"));
+        Assert.assertEquals(hierarchy.getChildTypes("cluster"), Set.of("namespace", "node"));
+    }
+
+    @Test
+    public void testWideMultiParentHierarchy() {
+        //Every type is a child of all the types before it, which would be exponential without memoized levels
+        var definitions = new ArrayList<ResourceDefinition>();
+        for (var i=0; i<40; i++) {
+            Map<String, String> children = new HashMap<>();
+            for (int j=i+1; j<40; j++) {
+                children.put("type" + j, "1");
+            }
+            definitions.add(getDefinition("type" + i, children));
+        }
+        ResourceTypeHierarchy hierarchy = new ResourceTypeHierarchy(definitions);
+        Assert.assertEquals(hierarchy.getLevel("type39"), 39);
+        Assert.assertEquals(hierarchy.getTypesByLevel().size(), 40);
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testCycle() {
+        new ResourceTypeHierarchy(List.of(
+                getDefinition("cluster", Map.of("node", "1")),
+                getDefinition("node", Map.of("pod", "1")),
+                getDefinition("pod", Map.of("node", "1"))));
+    }
+
+    private ResourceDefinition getDefinition(String name, Map<String, String> childrenDistribution) {
+        var definition = new ResourceDefinition();
+        definition.setName(name);
+        definition.setCount(1);
+        definition.setChildrenDistribution(childrenDistribution);
+        return definition;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.core;
+
+import io.opentelemetry.contrib.generator.core.dto.ResourceModificationType;
+import io.opentelemetry.contrib.generator.core.dto.RuntimeModification;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestRuntimeModification {
+
+    @Test
+    public void testSecondsAndRate() {
+        var churn = new RuntimeModification();
+        churn.setResourceModificationType(ResourceModificationType.CHURN);
+        churn.setModificationFrequencySeconds(10);
+        churn.setEndAfterSeconds(120);
+        churn.setModificationRate(0.01);
+        churn.validate("pod", 5000);
+        Assert.assertEquals(churn.getModificationQuantity(), 50);
+        Assert.assertEquals(churn.getModificationFrequencyMillis(), 10_000);
+        Assert.assertEquals(churn.getEndAfterMillis(), 120_000);
+        Assert.assertEquals(churn.getStartAfterMillis(), 0);
+    }
+
+    @Test
+    public void testMinutes() {
+        var add = new RuntimeModification();
+        add.setResourceModificationType(ResourceModificationType.ADD);
+        add.setModificationFrequencyMinutes(2);
+        add.setStartAfterMinutes(1);
+        add.setEndAfterMinutes(10);
+        add.setModificationQuantity(5);
+        add.validate("pod", 10);
+        Assert.assertEquals(add.getModificationFrequencyMillis(), 120_000);
+        Assert.assertEquals(add.getStartAfterMillis(), 60_000);
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testInvalidRate() {
+        var remove = new RuntimeModification();
+        remove.setResourceModificationType(ResourceModificationType.REMOVE);
+        remove.setModificationFrequencySeconds(5);
+        remove.setEndAfterSeconds(60);
+        remove.setModificationRate(1.5);
+        remove.validate("pod", 100);
+    }
+}
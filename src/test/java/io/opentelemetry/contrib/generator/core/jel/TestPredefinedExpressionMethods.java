@@ -18,6 +18,8 @@ package io.opentelemetry.contrib.generator.core.jel;
 
 import io.opentelemetry.contrib.generator.core.jel.ExpressionProcessor;
 import io.opentelemetry.contrib.generator.core.jel.ResourceExpressionsJELProvider;
+import io.opentelemetry.contrib.generator.core.jel.helpers.AlphanumericHelper;
+import io.opentelemetry.contrib.generator.core.jel.helpers.IPHelper;
 import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -201,6 +203,34 @@ public class TestPredefinedExpressionMethods {
         }
     }
 
+    @Test
+    public void testSequenceJumps() {
+        for (String eachSeed: Arrays.asList("af1z8x", "zZ", "ZZ", "a-Z")) {
+            String next = eachSeed;
+            for (int i=0; i<5000; i++) {
+                Assert.assertEquals(AlphanumericHelper.getNext(eachSeed, i), next, "Mismatch for " + eachSeed + " at step " + i);
+                next = AlphanumericHelper.getNext(next);
+            }
+        }
+        for (String eachSeed: Arrays.asList("10.10.10.1", "255.255.254.1", "10.0.0.1")) {
+            String next = eachSeed;
+            for (int i=0; i<5000; i++) {
+                Assert.assertEquals(IPHelper.nextIPv4Address(eachSeed, i), next, "Mismatch for " + eachSeed + " at step " + i);
+                next = IPHelper.nextIPv4Address(next);
+            }
+        }
+    }
+
+    @Test
+    public void testIndexFunctionsOnlyForJumpableSeeds() {
+        Assert.assertEquals(ResourceModelExpressions.getIndexFunction("alphanumericSequence(\"af1z8x\")").apply(62), "af1z9x");
+        Assert.assertEquals(ResourceModelExpressions.getIndexFunction("IPv4Sequence(\"10.10.10.1\")").apply(255), "10.10.11.1");
+        Assert.assertNotNull(ResourceModelExpressions.getIndexFunction("counter(\"pod-\")"));
+        //These seeds can only be advanced one step at a time, so their values are evaluated and stored instead
+        Assert.assertNull(ResourceModelExpressions.getIndexFunction("alphanumericSequence(\"new.model\")"));
+        Assert.assertNull(ResourceModelExpressions.getIndexFunction("IPv4Sequence(\"10.0.0.1\")"));
+    }
+
     @Test
     public void testExpressionlessString() {
         String stringVal = "testValue";
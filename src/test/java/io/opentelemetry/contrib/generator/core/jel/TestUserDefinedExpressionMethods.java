@@ -5,8 +5,10 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 public class TestUserDefinedExpressionMethods {
 
@@ -49,6 +51,18 @@ public class TestUserDefinedExpressionMethods {
         Assert.assertEquals(nextNewValue, 35);
     }
 
+    @Test
+    public void testUserDefinedExpressionInThreadProcessors() throws NoSuchMethodException {
+        ResourceExpressionsJELProvider.addExpression("", "strrev",
+                this.getClass().getMethod("reverseString", String.class));
+        List<String> reversed = IntStream.range(0, 1000).parallel()
+                .mapToObj(i -> ResourceExpressionsJELProvider.getThreadJelProcessor().<String>eval("strrev(\"" + i + "-ab\")"))
+                .toList();
+        for (var i=0; i<1000; i++) {
+            Assert.assertEquals(reversed.get(i), StringUtils.reverse(i + "-ab"));
+        }
+    }
+
     public static String randomUUID() {
         return UUID.randomUUID().toString();
     }
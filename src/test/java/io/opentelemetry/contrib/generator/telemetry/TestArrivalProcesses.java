@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import com.google.protobuf.ByteString;
+import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
+import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
+import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
+import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.metrics.v1.Metric;
+import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestArrivalProcesses {
+
+    private final String RESOURCES_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "resource-definition-small.yaml").toString();
+    private final String TRACES_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "trace-definition-arrivals.yaml").toString();
+    private final String METRICS_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "metrics-test-arrivals.yaml").toString();
+    private final int PAYLOAD_COUNT = 2;
+    private final int COPY_COUNT = 12;
+    private final int POD_COUNT = 15;
+    private TestPayloadHandler testStore;
+
+    @BeforeClass
+    public void generateData() {
+        GeneratorInput generatorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML)
+                .withTraceDefinitionYAML(TRACES_YAML)
+                .withMetricDefinitionYAML(METRICS_YAML)
+                .build();
+        testStore = new TestPayloadHandler();
+        TelemetryGenerator telemetryGenerator = new TelemetryGenerator(generatorInput, testStore);
+        telemetryGenerator.runGenerator();
+        ResourceModelExpressions.resetCaches();
+    }
+
+    @Test
+    public void testEachTraceCopySentOncePerPayload() {
+        Map<ByteString, Integer> spansByTrace = new HashMap<>();
+        for (ExportTraceServiceRequest payload: testStore.getTracePayloads()) {
+            for (ResourceSpans resourceSpans: payload.getResourceSpansList()) {
+                for (ScopeSpans scopeSpans: resourceSpans.getScopeSpansList()) {
+                    for (Span span: scopeSpans.getSpansList()) {
+                        spansByTrace.merge(span.getTraceId(), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        //The tree has only the root span, so each copy of each payload is one trace with one span
+        Assert.assertEquals(spansByTrace.size(), PAYLOAD_COUNT * COPY_COUNT);
+        spansByTrace.forEach((traceId, spanCount) -> Assert.assertEquals(spanCount.intValue(), 1, "Copy sent more than once"));
+        //The copies arrive 1.25 seconds apart, so they are not all sent in the same request
+        Assert.assertTrue(testStore.getTracePayloads().size() > PAYLOAD_COUNT, "Copies were not spread across the period");
+    }
+
+    @Test
+    public void testEachResourceReportsOncePerPayload() {
+        Map<Resource, Integer> dataPointsByResource = new HashMap<>();
+        for (ExportMetricsServiceRequest payload: testStore.getMetricPayloads()) {
+            for (ResourceMetrics resourceMetrics: payload.getResourceMetricsList()) {
+                for (Metric metric: resourceMetrics.getScopeMetrics(0).getMetricsList()) {
+                    dataPointsByResource.merge(resourceMetrics.getResource(), metric.getGauge().getDataPointsCount(),
+                            Integer::sum);
+                }
+            }
+        }
+        Assert.assertEquals(dataPointsByResource.size(), POD_COUNT);
+        dataPointsByResource.forEach((resource, dataPointCount) -> Assert.assertEquals(dataPointCount.intValue(),
+                PAYLOAD_COUNT, "Resource reported a different number of times than the payload count"));
+        Assert.assertTrue(testStore.getMetricPayloads().size() > PAYLOAD_COUNT, "Resources were not spread across the period");
+    }
+}
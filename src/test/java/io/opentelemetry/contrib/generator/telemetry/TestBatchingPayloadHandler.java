@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
+import io.opentelemetry.contrib.generator.telemetry.transport.BatchingPayloadHandler;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
+import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
+import io.opentelemetry.proto.metrics.v1.ScopeMetrics;
+import io.opentelemetry.proto.resource.v1.Resource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class TestBatchingPayloadHandler {
+
+    private final int POSTER_COUNT = 40;
+
+    @Test
+    public void testConcurrentRequestsAreMerged() throws Exception {
+        TestPayloadHandler testStore = new TestPayloadHandler();
+        BatchingPayloadHandler batchingHandler = new BatchingPayloadHandler(testStore, 1_000_000, 500);
+        List<Boolean> statuses = postConcurrently(batchingHandler);
+        batchingHandler.shutdown();
+        Assert.assertTrue(statuses.stream().allMatch(status -> status));
+        Assert.assertEquals(testStore.getLogsPacketCount(), POSTER_COUNT);
+        Assert.assertEquals(testStore.getMetricsPacketCount(), POSTER_COUNT);
+        Assert.assertTrue(testStore.getLogsPayloads().size() < POSTER_COUNT, "Log requests were not merged");
+        Assert.assertTrue(testStore.getMetricPayloads().size() < POSTER_COUNT, "Metric requests were not merged");
+    }
+
+    @Test
+    public void testBatchesAreBoundedBySize() {
+        TestPayloadHandler testStore = new TestPayloadHandler();
+        int logsRequestBytes = getLogsRequest(0).getSerializedSize();
+        int metricsRequestBytes = getMetricsRequest(0).getSerializedSize();
+        int maxBatchBytes = logsRequestBytes * 5;
+        BatchingPayloadHandler batchingHandler = new BatchingPayloadHandler(testStore, maxBatchBytes, 60_000);
+        //A single caller does not wait for its requests to be posted, so its consecutive requests are merged
+        List<Boolean> statuses = new CopyOnWriteArrayList<>();
+        for (var i=0; i<POSTER_COUNT; i++) {
+            batchingHandler.postPayload(getLogsRequest(i), statuses::add);
+            batchingHandler.postPayload(getMetricsRequest(i), statuses::add);
+        }
+        //Posts the last batches, which would otherwise wait for the linger time
+        batchingHandler.shutdown();
+        Assert.assertEquals(statuses.size(), POSTER_COUNT * 2);
+        Assert.assertTrue(statuses.stream().allMatch(status -> status));
+        Assert.assertEquals(testStore.getLogsPacketCount(), POSTER_COUNT);
+        Assert.assertEquals(testStore.getMetricsPacketCount(), POSTER_COUNT);
+        int logsPerBatch = maxBatchBytes / logsRequestBytes;
+        int metricsPerBatch = maxBatchBytes / metricsRequestBytes;
+        Assert.assertEquals(testStore.getLogsPayloads().size(), (POSTER_COUNT + logsPerBatch - 1) / logsPerBatch);
+        Assert.assertEquals(testStore.getMetricPayloads().size(), (POSTER_COUNT + metricsPerBatch - 1) / metricsPerBatch);
+        testStore.getLogsPayloads().forEach(eachRequest -> Assert.assertTrue(eachRequest.getSerializedSize() <= maxBatchBytes,
+                "Batch of " + eachRequest.getSerializedSize() + " bytes exceeds " + maxBatchBytes + " bytes"));
+        testStore.getMetricPayloads().forEach(eachRequest -> Assert.assertTrue(eachRequest.getSerializedSize() <= maxBatchBytes,
+                "Batch of " + eachRequest.getSerializedSize() + " bytes exceeds " + maxBatchBytes + " bytes"));
+    }
+
+    @Test
+    public void testPendingBatchIsPostedBeforeLargeRequest() {
+        TestPayloadHandler testStore = new TestPayloadHandler();
+        int logsRequestBytes = getLogsRequest(0).getSerializedSize();
+        BatchingPayloadHandler batchingHandler = new BatchingPayloadHandler(testStore, logsRequestBytes * 3, 60_000);
+        batchingHandler.postPayload(getLogsRequest(1), status -> {});
+        ExportLogsServiceRequest.Builder largeRequest = ExportLogsServiceRequest.newBuilder();
+        for (var i=2; i<6; i++) {
+            largeRequest.addResourceLogs(getLogsRequest(i).getResourceLogs(0));
+        }
+        batchingHandler.postPayload(largeRequest.build(), status -> {});
+        batchingHandler.shutdown();
+        List<ExportLogsServiceRequest> postedRequests = testStore.getLogsPayloads();
+        Assert.assertEquals(postedRequests.size(), 2, "Mismatch in posted request count");
+        Assert.assertEquals(postedRequests.get(0).getResourceLogsCount(), 1, "Pending batch was not posted first");
+        Assert.assertEquals(postedRequests.get(1).getResourceLogsCount(), 4, "Large request was not posted as is");
+    }
+
+    @Test
+    public void testBatchStatusReachesEveryCaller() throws Exception {
+        BatchingPayloadHandler batchingHandler = new BatchingPayloadHandler(message -> false, 1_000_000, 200);
+        List<Boolean> statuses = postConcurrently(batchingHandler);
+        batchingHandler.shutdown();
+        Assert.assertEquals(statuses.size(), POSTER_COUNT * 2);
+        Assert.assertTrue(statuses.stream().noneMatch(status -> status));
+    }
+
+    private List<Boolean> postConcurrently(BatchingPayloadHandler batchingHandler) throws Exception {
+        ExecutorService posters = Executors.newFixedThreadPool(POSTER_COUNT);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (var i=0; i<POSTER_COUNT; i++) {
+            int posterIndex = i;
+            futures.add(posters.submit(() -> batchingHandler.postPayload(getLogsRequest(posterIndex))));
+            futures.add(posters.submit(() -> batchingHandler.postPayload(getMetricsRequest(posterIndex))));
+        }
+        List<Boolean> statuses = new ArrayList<>();
+        for (Future<Boolean> eachFuture: futures) {
+            statuses.add(eachFuture.get(30, TimeUnit.SECONDS));
+        }
+        posters.shutdown();
+        return statuses;
+    }
+
+    private Resource getResource(int index) {
+        return Resource.newBuilder().addAttributes(KeyValue.newBuilder().setKey("k8s.pod.name")
+                .setValue(AnyValue.newBuilder().setStringValue("pod-" + (1000 + index)))).build();
+    }
+
+    private ExportLogsServiceRequest getLogsRequest(int index) {
+        return ExportLogsServiceRequest.newBuilder()
+                .addResourceLogs(ResourceLogs.newBuilder().setResource(getResource(index))).build();
+    }
+
+    private ExportMetricsServiceRequest getMetricsRequest(int index) {
+        return ExportMetricsServiceRequest.newBuilder()
+                .addResourceMetrics(ResourceMetrics.newBuilder().setResource(getResource(index))
+                        .addScopeMetrics(ScopeMetrics.getDefaultInstance())).build();
+    }
+}
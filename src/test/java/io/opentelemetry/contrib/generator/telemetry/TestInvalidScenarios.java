@@ -17,8 +17,11 @@
 package io.opentelemetry.contrib.generator.telemetry;
 
 import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import io.opentelemetry.contrib.generator.telemetry.dto.DistributionType;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
 import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.nio.file.Paths;
@@ -35,4 +38,33 @@ public class TestInvalidScenarios {
         TelemetryGenerator telemetryGenerator = new TelemetryGenerator(generatorInput, payloadStore);
         telemetryGenerator.runGenerator();
     }
-}
\ No newline at end of file
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testUnboundedCountDistribution() {
+        Distribution multiplicity = new Distribution();
+        multiplicity.setType(DistributionType.EXPONENTIAL);
+        multiplicity.setMean(5.0);
+        multiplicity.validateBounded("test");
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testParetoWithoutFiniteMeanOrMax() {
+        getPareto(0.8, null).validate("test");
+    }
+
+    @Test
+    public void testParetoExpectedValueClampedToMax() {
+        Distribution pareto = getPareto(0.8, 40.0);
+        pareto.validateBounded("test");
+        Assert.assertEquals(pareto.getExpectedValue(), 40.0, "Mismatch in expected value");
+    }
+
+    private Distribution getPareto(double shape, Double max) {
+        Distribution pareto = new Distribution();
+        pareto.setType(DistributionType.PARETO);
+        pareto.setScale(2.0);
+        pareto.setShape(shape);
+        pareto.setMax(max);
+        return pareto;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import io.opentelemetry.contrib.generator.telemetry.dto.DistributionType;
+import io.opentelemetry.contrib.generator.telemetry.logs.LogBodyGenerator;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogBodyFormat;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogBodyTemplate;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestLogBodyGenerator {
+
+    @Test
+    public void testStringBodyPlaceholders() {
+        LogBodyTemplate bodyTemplate = new LogBodyTemplate();
+        bodyTemplate.setTemplate("${severity} request ${uuid} took ${int:5:10} ms for user ${string:8}");
+        bodyTemplate.validate("log_by_ttg_0");
+        LogBodyGenerator bodyGenerator = new LogBodyGenerator(bodyTemplate);
+        for (var index=0; index<20; index++) {
+            String body = bodyGenerator.getBody("WARN").getStringValue();
+            Assert.assertTrue(body.matches("WARN request [0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12} " +
+                    "took ([5-9]|10) ms for user [0-9a-zA-Z]{8}"), "Unexpected body: " + body);
+        }
+    }
+
+    @Test
+    public void testBodySize() {
+        LogBodyTemplate bodyTemplate = new LogBodyTemplate();
+        bodyTemplate.setTemplate("prefix é ${fill} suffix ${int:1:100000}");
+        bodyTemplate.setSize(getUniformSize(200, 65536));
+        bodyTemplate.validate("log_by_ttg_0");
+        LogBodyGenerator bodyGenerator = new LogBodyGenerator(bodyTemplate);
+        for (var index=0; index<20; index++) {
+            String body = bodyGenerator.getBody("INFO").getStringValue();
+            int bodySize = body.getBytes(StandardCharsets.UTF_8).length;
+            Assert.assertTrue(bodySize >= 200 && bodySize <= 65536, "Body size " + bodySize + " outside of the size distribution");
+            Assert.assertTrue(body.startsWith("prefix é ") && body.contains(" suffix "), "Unexpected body: " + body);
+        }
+        bodyTemplate.setSize(Distribution.constant(1000));
+        bodyGenerator = new LogBodyGenerator(bodyTemplate);
+        Assert.assertEquals(bodyGenerator.getBody("INFO").getStringValue().getBytes(StandardCharsets.UTF_8).length, 1000);
+    }
+
+    @Test
+    public void testJSONBodyFromFields() {
+        LogBodyTemplate bodyTemplate = new LogBodyTemplate();
+        bodyTemplate.setFormat(LogBodyFormat.JSON);
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("level", "${severity}");
+        fields.put("status", "${int:200:204}");
+        fields.put("message", "said \"hello\"");
+        bodyTemplate.setFields(fields);
+        bodyTemplate.validate("log_by_ttg_0");
+        String body = new LogBodyGenerator(bodyTemplate).getBody("ERROR").getStringValue();
+        Assert.assertTrue(body.matches("\\{\"level\":\"ERROR\",\"status\":20[0-4],\"message\":\"said \\\\\"hello\\\\\"\"}"),
+                "Unexpected body: " + body);
+    }
+
+    @Test
+    public void testKVListBody() {
+        LogBodyTemplate bodyTemplate = new LogBodyTemplate();
+        bodyTemplate.setFormat(LogBodyFormat.KVLIST);
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("count", "${int:1:3}");
+        fields.put("payload", "data-${fill}");
+        fields.put("id", "${string:4}");
+        bodyTemplate.setFields(fields);
+        bodyTemplate.setSize(Distribution.constant(500));
+        bodyTemplate.validate("log_by_ttg_0");
+        AnyValue body = new LogBodyGenerator(bodyTemplate).getBody("INFO");
+        Assert.assertTrue(body.hasKvlistValue(), "Body is not a key-value list");
+        Map<String, AnyValue> values = new LinkedHashMap<>();
+        for (KeyValue eachValue: body.getKvlistValue().getValuesList()) {
+            values.put(eachValue.getKey(), eachValue.getValue());
+        }
+        Assert.assertTrue(values.get("count").getIntValue() >= 1 && values.get("count").getIntValue() <= 3);
+        Assert.assertEquals(values.get("id").getStringValue().length(), 4);
+        Assert.assertTrue(values.get("payload").getStringValue().startsWith("data-"));
+        int valuesSize = 1 + values.get("payload").getStringValue().length() + values.get("id").getStringValue().length();
+        Assert.assertEquals(valuesSize, 500, "Mismatch in size of the field values");
+    }
+
+    @Test
+    public void testSizedJSONBody() {
+        LogBodyTemplate bodyTemplate = new LogBodyTemplate();
+        bodyTemplate.setFormat(LogBodyFormat.JSON);
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("level", "${severity}");
+        fields.put("payload", "${fill}");
+        bodyTemplate.setFields(fields);
+        bodyTemplate.setSize(Distribution.constant(300));
+        bodyTemplate.validate("log_by_ttg_0");
+        String body = new LogBodyGenerator(bodyTemplate).getBody("INFO").getStringValue();
+        Assert.assertTrue(body.matches("\\{\"level\":\"INFO\",\"payload\":\"[0-9a-zA-Z]*\"}"), "Unexpected body: " + body);
+        Assert.assertEquals(body.getBytes(StandardCharsets.UTF_8).length, 300);
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testSizedJSONBodyWithoutFill() {
+        LogBodyTemplate bodyTemplate = new LogBodyTemplate();
+        bodyTemplate.setFormat(LogBodyFormat.JSON);
+        bodyTemplate.setTemplate("{\"level\":\"${severity}\"}");
+        bodyTemplate.setSize(Distribution.constant(300));
+        bodyTemplate.validate("log_by_ttg_0");
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testUnknownPlaceholder() {
+        LogBodyTemplate bodyTemplate = new LogBodyTemplate();
+        bodyTemplate.setTemplate("value ${double:1:2}");
+        bodyTemplate.validate("log_by_ttg_0");
+    }
+
+    private Distribution getUniformSize(double min, double max) {
+        Distribution size = new Distribution();
+        size.setType(DistributionType.UNIFORM);
+        size.setMin(min);
+        size.setMax(max);
+        return size;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
+import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
+import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.logs.v1.LogRecord;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestLogCopyVariation {
+
+    private final String RESOURCES_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "resource-definition.yaml").toString();
+    private final String LOGS_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "logs-test-copy-variation.yaml").toString();
+    private final int POD_COUNT = 4;
+    private final int PAYLOAD_COUNT = 3;
+    private final int COPY_COUNT = 50;
+    private final long JITTER_NANOS = 500_000_000L;
+    private TestPayloadHandler testStore;
+
+    @BeforeClass
+    public void generateData() {
+        GeneratorInput generatorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML).withLogDefinitionYAML(LOGS_YAML).build();
+        testStore = new TestPayloadHandler();
+        TelemetryGenerator telemetryGenerator = new TelemetryGenerator(generatorInput, testStore);
+        telemetryGenerator.runGenerator();
+        ResourceModelExpressions.resetCaches();
+    }
+
+    @Test
+    public void testCopiesAreDistinct() {
+        Assert.assertEquals(testStore.getLogsPayloads().size(), PAYLOAD_COUNT);
+        Set<Long> sequences = new HashSet<>();
+        for (ExportLogsServiceRequest payload : testStore.getLogsPayloads()) {
+            Assert.assertEquals(payload.getResourceLogsCount(), POD_COUNT);
+            for (ResourceLogs resourceLogs : payload.getResourceLogsList()) {
+                Set<String> bodies = new HashSet<>();
+                long maxTime = Long.MIN_VALUE;
+                long minTime = Long.MAX_VALUE;
+                for (LogRecord logRecord : resourceLogs.getScopeLogs(0).getLogRecordsList()) {
+                    bodies.add(logRecord.getBody().getStringValue());
+                    maxTime = Math.max(maxTime, logRecord.getTimeUnixNano());
+                    minTime = Math.min(minTime, logRecord.getTimeUnixNano());
+                    KeyValue sequence = logRecord.getAttributesList().stream()
+                            .filter(attribute -> attribute.getKey().equals("log.sequence"))
+                            .findFirst().orElseThrow();
+                    Assert.assertTrue(sequences.add(sequence.getValue().getIntValue()), "Duplicate sequence number");
+                }
+                Assert.assertEquals(resourceLogs.getScopeLogs(0).getLogRecordsCount(), COPY_COUNT);
+                Assert.assertTrue(bodies.size() > 1, "All copies have the same body");
+                Assert.assertTrue(maxTime - minTime <= JITTER_NANOS, "Copy timestamps outside the jitter window");
+            }
+        }
+        Assert.assertEquals(sequences.size(), POD_COUNT * PAYLOAD_COUNT * COPY_COUNT);
+    }
+}
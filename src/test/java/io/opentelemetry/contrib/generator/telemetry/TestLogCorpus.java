@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.logs.LogCorpus;
+import io.opentelemetry.contrib.generator.telemetry.logs.LogCorpusReader;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogCorpusDefinition;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestLogCorpus {
+
+    private final List<String> LINES = List.of("GET /cart 200", "POST /checkout 500", "user=7 timeout", "héllo wörld",
+            "x", "retrying in 5s");
+    private Path corpusFile;
+    private Path blankFile;
+
+    @BeforeClass
+    public void writeCorpus() throws IOException {
+        corpusFile = Files.createTempFile("log-corpus", ".txt");
+        //Mix of line breaks, blank lines and no trailing line break
+        String content = LINES.get(0) + "\n" + LINES.get(1) + "\r\n\n   \n" + LINES.get(2) + "\n" + LINES.get(3) + "\r\n" +
+                LINES.get(4) + "\n\n" + LINES.get(5);
+        Files.writeString(corpusFile, content, StandardCharsets.UTF_8);
+        blankFile = Files.createTempFile("log-corpus-blank", ".txt");
+        Files.writeString(blankFile, "\n \n\t\n", StandardCharsets.UTF_8);
+    }
+
+    @AfterClass
+    public void deleteCorpus() throws IOException {
+        Files.deleteIfExists(corpusFile);
+        Files.deleteIfExists(blankFile);
+    }
+
+    @Test
+    public void testLinesAcrossChunks() {
+        for (int chunkBytes: new int[] {20, 32, 1024}) {
+            LogCorpus corpus = new LogCorpus(corpusFile, chunkBytes);
+            Assert.assertEquals(corpus.getLineCount(), LINES.size(), "Mismatch in line count for chunk size " + chunkBytes);
+            for (var lineIndex=0; lineIndex<LINES.size(); lineIndex++) {
+                Assert.assertEquals(corpus.getLine(lineIndex).toStringUtf8(), LINES.get(lineIndex),
+                        "Mismatch in line " + lineIndex + " for chunk size " + chunkBytes);
+            }
+        }
+    }
+
+    @Test
+    public void testReader() {
+        LogCorpusDefinition corpusDefinition = new LogCorpusDefinition();
+        corpusDefinition.setFiles(List.of(corpusFile.toString(), corpusFile.toString()));
+        corpusDefinition.validate("log_by_ttg_0");
+        Assert.assertSame(LogCorpus.getCorpus(corpusFile.toString(), "first"), LogCorpus.getCorpus(corpusFile.toString(), "second"),
+                "Corpus mapped more than once");
+        corpusDefinition.setSequential(true);
+        LogCorpusReader sequentialReader = new LogCorpusReader(corpusDefinition, "first");
+        for (var lineIndex=0; lineIndex<LINES.size() * 3; lineIndex++) {
+            Assert.assertEquals(sequentialReader.getBody().getStringValue(), LINES.get(lineIndex % LINES.size()));
+        }
+        corpusDefinition.setSequential(false);
+        LogCorpusReader randomReader = new LogCorpusReader(corpusDefinition, "first");
+        Set<String> sampledLines = new HashSet<>();
+        for (var i=0; i<1000; i++) {
+            sampledLines.add(randomReader.getBody().getStringValue());
+        }
+        Assert.assertEquals(sampledLines, new HashSet<>(LINES));
+        //The corpus stays cached while any of the requests using it has not finished
+        LogCorpus corpus = LogCorpus.getCorpus(corpusFile.toString(), "first");
+        LogCorpus.releaseCorpora("first");
+        Assert.assertSame(LogCorpus.getCorpus(corpusFile.toString(), "second"), corpus, "Corpus released while still in use");
+        LogCorpus.releaseCorpora("second");
+        Assert.assertNotSame(LogCorpus.getCorpus(corpusFile.toString(), "third"), corpus, "Corpus not released");
+        LogCorpus.releaseCorpora("third");
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testBlankCorpus() {
+        new LogCorpus(blankFile, 1024);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.telemetry.logs.LogMessageProvider;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.LogMessages;
+import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class TestLogMessageProvider {
+
+    @Test
+    public void testMessageFormat() {
+        String threadName = Thread.currentThread().getName();
+        Pattern messagePattern = Pattern.compile("^(\\d+) \\[" + Pattern.quote(threadName) + "] ERROR TelemetryGenerator  - (.+)\\R$");
+        for (var index=0; index<50; index++) {
+            String message = LogMessageProvider.getLogMessage(Constants.ERROR_SEVERITY);
+            Matcher matcher = messagePattern.matcher(message);
+            Assert.assertTrue(matcher.matches(), "Unexpected log message format: " + message);
+            Assert.assertTrue(LogMessages.errorMessages.contains(matcher.group(2)), "Unknown error message: " + message);
+        }
+    }
+
+    @Test
+    public void testTraceSeverityUsesDebugMessages() {
+        String message = LogMessageProvider.getLogMessage(Constants.TRACE_SEVERITY);
+        String plainMessage = message.substring(message.indexOf(" - ") + 3).trim();
+        Assert.assertTrue(message.contains("] TRACE TelemetryGenerator"), "Unexpected log message format: " + message);
+        Assert.assertTrue(LogMessages.debugMessages.contains(plainMessage), "Unknown trace message: " + message);
+    }
+
+    @Test
+    public void testUnknownSeverity() {
+        Assert.assertEquals(LogMessageProvider.getLogMessage("FATAL"), "");
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
+import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
+import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
+import io.opentelemetry.proto.logs.v1.LogRecord;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+
+public class TestLogParallelAssembly {
+
+    private final String RESOURCES_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "resource-definition.yaml").toString();
+    private final String LOGS_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "logs-test-parallel.yaml").toString();
+    private final int CONTAINER_COUNT = 100;
+    private final int PAYLOAD_COUNT = 2;
+    private final int COPY_COUNT = 5;
+    private final int MAX_PAYLOAD_BYTES = 8000;
+    private TestPayloadHandler testStore;
+
+    @BeforeClass
+    public void generateData() {
+        GeneratorInput generatorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML).withLogDefinitionYAML(LOGS_YAML).build();
+        testStore = new TestPayloadHandler();
+        TelemetryGenerator telemetryGenerator = new TelemetryGenerator(generatorInput, testStore);
+        telemetryGenerator.runGenerator();
+        ResourceModelExpressions.resetCaches();
+    }
+
+    @Test
+    public void testSizeBoundedRequests() {
+        Assert.assertTrue(testStore.getLogsPayloads().size() > PAYLOAD_COUNT, "Payloads were not split by size");
+        for (ExportLogsServiceRequest payload : testStore.getLogsPayloads()) {
+            Assert.assertTrue(payload.getSerializedSize() <= MAX_PAYLOAD_BYTES || payload.getResourceLogsCount() == 1,
+                    "Payload of " + payload.getSerializedSize() + " bytes exceeds the limit");
+        }
+        Assert.assertEquals(testStore.getLogsPacketCount(), CONTAINER_COUNT * PAYLOAD_COUNT);
+    }
+
+    @Test
+    public void testResourceOrderIsKept() {
+        //Payloads of the same log definition are posted one after another by its thread, so the sequence numbers of all
+        //the copies must be consecutive in the order the payloads were received
+        long expectedSequence = 0;
+        for (ExportLogsServiceRequest payload : testStore.getLogsPayloads()) {
+            for (ResourceLogs resourceLogs : payload.getResourceLogsList()) {
+                Assert.assertEquals(resourceLogs.getScopeLogs(0).getLogRecordsCount(), COPY_COUNT);
+                for (LogRecord logRecord : resourceLogs.getScopeLogs(0).getLogRecordsList()) {
+                    long sequence = logRecord.getAttributesList().stream()
+                            .filter(attribute -> attribute.getKey().equals("log.sequence"))
+                            .findFirst().orElseThrow().getValue().getIntValue();
+                    Assert.assertEquals(sequence, expectedSequence++, "Resource logs out of order");
+                }
+            }
+        }
+    }
+}
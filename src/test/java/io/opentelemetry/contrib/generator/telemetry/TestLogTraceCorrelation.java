@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import com.google.protobuf.ByteString;
+import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
+import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
+import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceRequest;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.logs.v1.LogRecord;
+import io.opentelemetry.proto.logs.v1.ResourceLogs;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestLogTraceCorrelation {
+
+    private final String RESOURCES_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "resources-traces-test.yaml").toString();
+    private final String TRACES_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "trace-definition-correlated.yaml").toString();
+    private final String LOGS_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "logs-test-correlated.yaml").toString();
+    private final String REQUEST_ID = "log-trace-correlation";
+    private TestPayloadHandler testStore;
+    private GeneratorInput generatorInput;
+
+    @BeforeClass
+    public void generateData() {
+        generatorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML)
+                .withTraceDefinitionYAML(TRACES_YAML)
+                .withLogDefinitionYAML(LOGS_YAML)
+                .build();
+        testStore = new TestPayloadHandler();
+        TelemetryGenerator telemetryGenerator = new TelemetryGenerator(generatorInput, testStore, REQUEST_ID);
+        telemetryGenerator.runGenerator();
+        ResourceModelExpressions.resetCaches();
+    }
+
+    @Test
+    public void testLogsCarrySpansOfSameResource() {
+        Map<ByteString, Resource> resourcesBySpanId = new HashMap<>();
+        for (ExportTraceServiceRequest payload : testStore.getTracePayloads()) {
+            for (ResourceSpans resourceSpans : payload.getResourceSpansList()) {
+                for (ScopeSpans scopeSpans : resourceSpans.getScopeSpansList()) {
+                    for (Span span : scopeSpans.getSpansList()) {
+                        resourcesBySpanId.put(span.getSpanId(), resourceSpans.getResource());
+                    }
+                }
+            }
+        }
+        int correlatedLogs = 0;
+        for (ExportLogsServiceRequest payload : testStore.getLogsPayloads()) {
+            for (ResourceLogs resourceLogs : payload.getResourceLogsList()) {
+                for (LogRecord logRecord : resourceLogs.getScopeLogs(0).getLogRecordsList()) {
+                    if (logRecord.getSpanId().isEmpty()) {
+                        continue;
+                    }
+                    correlatedLogs++;
+                    Assert.assertFalse(logRecord.getTraceId().isEmpty(), "Log has a span ID without a trace ID");
+                    Assert.assertEquals(resourcesBySpanId.get(logRecord.getSpanId()), resourceLogs.getResource(),
+                            "Log correlated with a span of another resource");
+                }
+            }
+        }
+        Assert.assertTrue(correlatedLogs > 0, "No log correlated with a span");
+    }
+
+    @Test
+    public void testSpanContextsRemovedAfterGeneration() {
+        Assert.assertFalse(generatorInput.getLogDefinitions().getTraceCorrelatedResourceTypes().isEmpty());
+        for (String eachType: generatorInput.getLogDefinitions().getTraceCorrelatedResourceTypes()) {
+            Assert.assertNull(SpanContextProvider.getResourceSpanContexts(REQUEST_ID, eachType));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.dto.ResourceAdjacency;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.core.jel.methods.ResourceModelExpressions;
+import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
+import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
+import io.opentelemetry.contrib.generator.telemetry.metrics.dto.MetricDefinition;
+import io.opentelemetry.contrib.generator.telemetry.metrics.dto.MetricRollup;
+import io.opentelemetry.contrib.generator.telemetry.metrics.dto.RollupFunction;
+import io.opentelemetry.contrib.generator.telemetry.misc.Constants;
+import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
+import io.opentelemetry.proto.metrics.v1.Metric;
+import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TestMetricRollup {
+
+    private final String RESOURCES_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "resource-definition-small.yaml").toString();
+    private final String METRICS_YAML = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "test-definitions", "metrics-test-rollup.yaml").toString();
+    private final String NODE_NAME = "k8s.node.name";
+    //Node 0 has pods 0 & 1, node 1 has pods 2, 3 & 4 where pod 3 did not report, node 2 has no pods
+    private final double[] podValues = {1, 2, 3, Double.NaN, 5};
+    private final ResourceAdjacency podsByNode;
+
+    public TestMetricRollup() {
+        ResourceColumnStore nodes = new ResourceColumnStore("node", 3, 3);
+        ResourceColumnStore pods = new ResourceColumnStore("pod", 5, 5);
+        var links = new ResourceAdjacency.Builder();
+        links.addLinks(0, 0, 2);
+        links.addLinks(1, 2, 5);
+        podsByNode = links.build(nodes, pods);
+    }
+
+    @Test
+    public void testRollupFunctions() {
+        assertRollup(RollupFunction.SUM, new double[] {3, 8, 0});
+        assertRollup(RollupFunction.AVG, new double[] {1.5, 4, Double.NaN});
+        assertRollup(RollupFunction.MIN, new double[] {1, 3, Double.NaN});
+        assertRollup(RollupFunction.MAX, new double[] {2, 5, Double.NaN});
+        assertRollup(RollupFunction.COUNT, new double[] {2, 2, 0});
+    }
+
+    @Test
+    public void testGeneratedRollups() {
+        GeneratorInput generatorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML)
+                .withMetricDefinitionYAML(METRICS_YAML)
+                .build();
+        TestPayloadHandler testStore = new TestPayloadHandler();
+        TelemetryGenerator telemetryGenerator = new TelemetryGenerator(generatorInput, testStore);
+        telemetryGenerator.runGenerator();
+        ResourceModelExpressions.resetCaches();
+        //Each pod payload gives the sum of the values its pods reported by the name of their node, and each node payload
+        //gives the rolled up value of each node
+        List<Map<String, Double>> podSums = new ArrayList<>();
+        List<Map<String, Double>> nodeRollups = new ArrayList<>();
+        for (ExportMetricsServiceRequest payload: testStore.getMetricPayloads()) {
+            Map<String, Double> podSumsByNode = new HashMap<>();
+            Map<String, Double> rollupsByNode = new HashMap<>();
+            for (ResourceMetrics resourceMetrics: payload.getResourceMetricsList()) {
+                String nodeName = getNodeName(resourceMetrics);
+                for (Metric metric: resourceMetrics.getScopeMetrics(0).getMetricsList()) {
+                    double value = metric.getGauge().getDataPoints(0).getAsDouble();
+                    if (metric.getName().equals("pod.cpu.usage")) {
+                        podSumsByNode.merge(nodeName, value, Double::sum);
+                    } else if (metric.getName().equals("node.cpu.usage")) {
+                        rollupsByNode.put(nodeName, value);
+                    }
+                }
+            }
+            if (!podSumsByNode.isEmpty()) {
+                podSums.add(podSumsByNode);
+            }
+            if (!rollupsByNode.isEmpty()) {
+                nodeRollups.add(rollupsByNode);
+            }
+        }
+        Assert.assertFalse(podSums.isEmpty(), "No pod metrics were reported");
+        //The nodes do not report the rollup until the pods have reported once
+        Assert.assertFalse(nodeRollups.isEmpty(), "No node rollups were reported");
+        //A node payload rolls up the latest pod payload, so all of its values must match the sums of one pod payload
+        for (Map<String, Double> rollupsByNode: nodeRollups) {
+            Assert.assertTrue(podSums.contains(rollupsByNode), "Node rollups " + rollupsByNode +
+                    " do not match the values reported by the pods in any payload: " + podSums);
+        }
+    }
+
+    @Test
+    public void testValidRollup() {
+        MetricDefinition podCPU = getMetric("pod.cpu", Constants.GAUGE, Set.of("pod"));
+        MetricDefinition nodeCPU = getMetric("node.cpu", Constants.SUM, Set.of("node"));
+        nodeCPU.setRollup(getRollup("pod", "pod.cpu"));
+        nodeCPU.getRollup().validate(nodeCPU, Map.of("pod.cpu", podCPU, "node.cpu", nodeCPU), Set.of("pod", "node"));
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testChildMetricNotReportedByChildType() {
+        MetricDefinition podCPU = getMetric("pod.cpu", Constants.GAUGE, Set.of("container"));
+        MetricDefinition nodeCPU = getMetric("node.cpu", Constants.GAUGE, Set.of("node"));
+        nodeCPU.setRollup(getRollup("pod", "pod.cpu"));
+        nodeCPU.getRollup().validate(nodeCPU, Map.of("pod.cpu", podCPU, "node.cpu", nodeCPU),
+                Set.of("pod", "node", "container"));
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testRollupOfSummary() {
+        MetricDefinition podLatency = getMetric("pod.latency", Constants.SUMMARY, Set.of("pod"));
+        MetricDefinition nodeLatency = getMetric("node.latency", Constants.GAUGE, Set.of("node"));
+        nodeLatency.setRollup(getRollup("pod", "pod.latency"));
+        nodeLatency.getRollup().validate(nodeLatency, Map.of("pod.latency", podLatency, "node.latency", nodeLatency),
+                Set.of("pod", "node"));
+    }
+
+    private void assertRollup(RollupFunction function, double[] expected) {
+        MetricRollup rollup = getRollup("pod", "pod.cpu");
+        rollup.setFunction(function);
+        double[] nodeValues = rollup.aggregate(podsByNode, 3, podValues);
+        //Arrays.equals treats NaN as equal to NaN
+        Assert.assertTrue(Arrays.equals(nodeValues, expected), "Mismatch in rollup " + function + ": " +
+                Arrays.toString(nodeValues));
+    }
+
+    private String getNodeName(ResourceMetrics resourceMetrics) {
+        return resourceMetrics.getResource().getAttributesList().stream()
+                .filter(attribute -> attribute.getKey().equals(NODE_NAME))
+                .map(attribute -> attribute.getValue().getStringValue())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Resource without " + NODE_NAME + ": " +
+                        resourceMetrics.getResource()));
+    }
+
+    private MetricRollup getRollup(String childType, String childMetric) {
+        MetricRollup rollup = new MetricRollup();
+        rollup.setChildType(childType);
+        rollup.setChildMetric(childMetric);
+        rollup.setFunction(RollupFunction.SUM);
+        return rollup;
+    }
+
+    private MetricDefinition getMetric(String name, String otelType, Set<String> reportingResources) {
+        MetricDefinition metric = new MetricDefinition();
+        metric.setName(name);
+        metric.setOtelType(otelType);
+        metric.setReportingResources(reportingResources);
+        return metric;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.telemetry.misc.PayloadPhases;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class TestPayloadPhases {
+
+    @Test
+    public void testAlignedPhasesByDefault() {
+        PayloadPhases payloadPhases = new PayloadPhases(false, List.of(60_000L, 60_000L, 30_000L));
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(60_000), PayloadPhases.INITIAL_DELAY_MILLIS);
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(60_000), PayloadPhases.INITIAL_DELAY_MILLIS);
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(30_000), PayloadPhases.INITIAL_DELAY_MILLIS);
+    }
+
+    @Test
+    public void testSpreadPhasesPerPeriod() {
+        PayloadPhases payloadPhases = new PayloadPhases(true, List.of(60_000L, 30_000L, 60_000L, 60_000L, 60_000L));
+        long start = PayloadPhases.INITIAL_DELAY_MILLIS;
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(60_000), start);
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(30_000), start);
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(60_000), start + 15_000);
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(60_000), start + 30_000);
+        Assert.assertEquals(payloadPhases.getInitialDelayMillis(60_000), start + 45_000);
+    }
+}
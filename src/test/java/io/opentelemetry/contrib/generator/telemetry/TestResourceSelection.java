@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.dto.GeneratorResource;
+import io.opentelemetry.contrib.generator.core.dto.ResourceColumnStore;
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.core.utils.CommonUtils;
+import io.opentelemetry.contrib.generator.telemetry.dto.ResourceSelection;
+import io.opentelemetry.contrib.generator.telemetry.dto.ResourceSelectionType;
+import io.opentelemetry.contrib.generator.telemetry.misc.AliasTable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class TestResourceSelection {
+
+    private final ResourceColumnStore store = new ResourceColumnStore("service", 10, 10);
+    private final List<GeneratorResource> resources = store.getResources();
+
+    @Test
+    public void testZipfWeights() {
+        ResourceSelection selection = getSelection(ResourceSelectionType.ZIPF);
+        double[] weights = selection.getWeights(resources, store);
+        for (var position=0; position<weights.length; position++) {
+            Assert.assertEquals(weights[position], 1.0d / (position + 1), 1e-12, "Mismatch in weight of rank " + (position + 1));
+        }
+    }
+
+    @Test
+    public void testHotSetShare() {
+        ResourceSelection selection = getSelection(ResourceSelectionType.HOTSET);
+        selection.setHotFraction(0.2d);
+        selection.setHotShare(0.9d);
+        AliasTable aliasTable = new AliasTable(selection.getWeights(resources, store));
+        SplittableRandom random = new SplittableRandom(11);
+        int samples = 100_000;
+        int hotPicks = 0;
+        for (var i=0; i<samples; i++) {
+            hotPicks += aliasTable.sample(random) < 2 ? 1 : 0;
+        }
+        Assert.assertEquals((double) hotPicks / samples, 0.9d, 0.01, "Mismatch in share of the hot resources");
+    }
+
+    @Test
+    public void testAttributeWeights() {
+        store.addEvaluatedColumn("service.weight", index -> index % 3 == 0 ? null :
+                CommonUtils.buildAnyValue(index % 3 == 1 ? String.valueOf(index) : "invalid"));
+        ResourceSelection selection = new ResourceSelection();
+        selection.setType(ResourceSelectionType.WEIGHTED);
+        selection.setWeightAttribute("service.weight");
+        selection.setDefaultWeight(0.5d);
+        selection.validate("test");
+        double[] weights = selection.getWeights(resources, store);
+        for (var position=0; position<weights.length; position++) {
+            Assert.assertEquals(weights[position], position % 3 == 1 ? position : 0.5d, "Mismatch in weight of " + position);
+        }
+    }
+
+    @Test
+    public void testEqualWeightsWithoutTotal() {
+        ResourceSelection selection = new ResourceSelection();
+        selection.setType(ResourceSelectionType.WEIGHTED);
+        selection.setWeightAttribute("service.missing");
+        selection.setDefaultWeight(0.0d);
+        selection.validate("test");
+        for (double eachWeight: selection.getWeights(resources, store)) {
+            Assert.assertEquals(eachWeight, 1.0d);
+        }
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testWeightedWithoutAttribute() {
+        getSelection(ResourceSelectionType.WEIGHTED);
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testInvalidHotFraction() {
+        ResourceSelection selection = new ResourceSelection();
+        selection.setType(ResourceSelectionType.HOTSET);
+        selection.setHotFraction(1.5d);
+        selection.validate("test");
+    }
+
+    private ResourceSelection getSelection(ResourceSelectionType type) {
+        ResourceSelection selection = new ResourceSelection();
+        selection.setType(type);
+        selection.validate("test");
+        return selection;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.logs.dto.SeverityDistribution;
+import io.opentelemetry.contrib.generator.telemetry.misc.AliasTable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+
+public class TestSeverityDistribution {
+
+    @Test
+    public void testCountSchedule() {
+        SeverityDistribution distribution = SeverityDistribution.compile(
+                "severityDistributionCount([\"INFO\", \"ERROR\", \"DEBUG\"], [1, 2, 3])", 10);
+        Assert.assertNotNull(distribution);
+        //Same cycle as LogSeverityGenerator.severityDistributionCount, where payload numbers start from 1
+        String[] expected = {"INFO", "ERROR", "ERROR", "DEBUG", "DEBUG", "INFO"};
+        for (var payloadNumber=1; payloadNumber<=18; payloadNumber++) {
+            Assert.assertEquals(distribution.getSeverity(payloadNumber), expected[(payloadNumber - 1) % expected.length],
+                    "Mismatch in severity of payload " + payloadNumber);
+        }
+    }
+
+    @Test
+    public void testPercentageSchedule() {
+        SeverityDistribution distribution = SeverityDistribution.compile(
+                "severityDistributionPercentage(['INFO', 'TRACE'], [20, 80])", 10);
+        Assert.assertNotNull(distribution);
+        Assert.assertEquals(distribution.getSchedule().length, 10);
+        Assert.assertEquals(distribution.getSeverity(1), "INFO");
+        Assert.assertEquals(distribution.getSeverity(2), "INFO");
+        Assert.assertEquals(distribution.getSeverity(3), "TRACE");
+        Assert.assertEquals(distribution.getSeverity(10), "INFO");
+    }
+
+    @Test
+    public void testNonLiteralFunctions() {
+        Assert.assertNull(SeverityDistribution.compile("increasingErrorSeverity(\"custom-expr-log\")", 10));
+        Assert.assertNull(SeverityDistribution.compile("severityDistributionCount(severities, [1, 2])", 10));
+        Assert.assertNull(SeverityDistribution.compile("severityDistributionPercentage([\"INFO\"], [5])", 10));
+    }
+
+    @Test
+    public void testAliasTableSampling() {
+        double[] weights = {5, 0, 1, 4};
+        AliasTable aliasTable = new AliasTable(weights);
+        SplittableRandom random = new SplittableRandom(7);
+        int samples = 200_000;
+        int[] counts = new int[weights.length];
+        for (var i=0; i<samples; i++) {
+            counts[aliasTable.sample(random)]++;
+        }
+        Assert.assertEquals(counts[1], 0, "Sampled an index with zero weight");
+        for (var index=0; index<weights.length; index++) {
+            Assert.assertEquals((double) counts[index] / samples, weights[index] / 10, 0.01,
+                    "Mismatch in sampled share of index " + index);
+        }
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testAliasTableWithoutWeight() {
+        new AliasTable(new double[] {0, 0});
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 AppDynamics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.contrib.generator.telemetry;
+
+import io.opentelemetry.contrib.generator.core.exception.GeneratorException;
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcess;
+import io.opentelemetry.contrib.generator.telemetry.dto.ArrivalProcessType;
+import io.opentelemetry.contrib.generator.telemetry.dto.Distribution;
+import io.opentelemetry.contrib.generator.telemetry.misc.PayloadArrivals;
+import io.opentelemetry.contrib.generator.telemetry.misc.TimingWheel;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class TestTimingWheel {
+
+    private final long TICK_MILLIS = 10;
+    private final long START_MILLIS = 1_000;
+
+    @Test
+    public void testTimersExpireAtTheirTick() {
+        SplittableRandom random = new SplittableRandom(11);
+        int timerCount = 100_000;
+        TimingWheel timingWheel = new TimingWheel(TICK_MILLIS, START_MILLIS, timerCount);
+        long[] deadlines = new long[timerCount];
+        for (var timer=0; timer<timerCount; timer++) {
+            //Deadlines from a few millis to a few days, so that all the levels of the wheel are used
+            deadlines[timer] = START_MILLIS + (long) Math.pow(10, random.nextDouble() * 8.5);
+            timingWheel.schedule(timer, deadlines[timer]);
+        }
+        long[] expiryTimes = new long[timerCount];
+        Arrays.fill(expiryTimes, -1);
+        int[] expiredCount = new int[1];
+        long currentTime = START_MILLIS;
+        while (expiredCount[0] < timerCount) {
+            currentTime += 1 + random.nextInt(100_000);
+            timingWheel.advance(currentTime, timer -> {
+                Assert.assertEquals(expiryTimes[timer], -1, "Timer " + timer + " expired twice");
+                expiryTimes[timer] = timingWheel.getCurrentTickMillis();
+                expiredCount[0]++;
+            });
+        }
+        for (var timer=0; timer<timerCount; timer++) {
+            long expectedTick = Math.max(1, (deadlines[timer] - START_MILLIS + TICK_MILLIS - 1) / TICK_MILLIS);
+            Assert.assertEquals(expiryTimes[timer], START_MILLIS + expectedTick * TICK_MILLIS,
+                    "Timer " + timer + " expired at the wrong tick");
+        }
+    }
+
+    @Test
+    public void testRescheduleFromCallback() {
+        TimingWheel timingWheel = new TimingWheel(TICK_MILLIS, START_MILLIS, 1);
+        timingWheel.schedule(0, START_MILLIS + 50);
+        int[] expiredCount = new int[1];
+        timingWheel.advance(START_MILLIS + 1_000, timer -> {
+            expiredCount[0]++;
+            timingWheel.schedule(timer, timingWheel.getCurrentTickMillis() + 100);
+        });
+        //Expires at 50, 150, ..., 950
+        Assert.assertEquals(expiredCount[0], 10);
+    }
+
+    @Test
+    public void testFixedArrivalPhases() {
+        ArrivalProcess arrivalProcess = new ArrivalProcess();
+        arrivalProcess.setType(ArrivalProcessType.FIXED);
+        arrivalProcess.setMeanIntervalMillis(1_000L);
+        arrivalProcess.validate("test");
+        SplittableRandom random = new SplittableRandom();
+        for (var arrivalIndex=0; arrivalIndex<4; arrivalIndex++) {
+            Assert.assertEquals(arrivalProcess.getFirstDelayMillis(arrivalIndex, 4, random), arrivalIndex * 250L);
+            Assert.assertEquals(arrivalProcess.getNextDelayMillis(arrivalIndex, new int[4], random), 1_000L);
+        }
+    }
+
+    @Test
+    public void testBurstyArrivals() {
+        ArrivalProcess arrivalProcess = new ArrivalProcess();
+        arrivalProcess.setType(ArrivalProcessType.BURSTY);
+        arrivalProcess.setMeanIntervalMillis(60_000L);
+        arrivalProcess.setBurstSize(Distribution.constant(5));
+        arrivalProcess.setBurstSpacingMillis(20L);
+        arrivalProcess.validate("test");
+        SplittableRandom random = new SplittableRandom(3);
+        int[] burstRemaining = new int[1];
+        for (var burst=0; burst<3; burst++) {
+            for (var arrival=0; arrival<4; arrival++) {
+                Assert.assertEquals(arrivalProcess.getNextDelayMillis(0, burstRemaining, random), 20L);
+            }
+            //Last arrival of the burst waits for the next burst
+            arrivalProcess.getNextDelayMillis(0, burstRemaining, random);
+            Assert.assertEquals(burstRemaining[0], 0);
+        }
+    }
+
+    @Test
+    public void testPayloadArrivalsOncePerPeriod() {
+        ArrivalProcess arrivalProcess = new ArrivalProcess();
+        arrivalProcess.setType(ArrivalProcessType.POISSON);
+        arrivalProcess.setMeanIntervalMillis(500L);
+        arrivalProcess.setTickMillis(TICK_MILLIS);
+        arrivalProcess.validate("test");
+        long periodMillis = 1_000;
+        int partCount = 1_000;
+        PayloadArrivals payloadArrivals = new PayloadArrivals(arrivalProcess, periodMillis);
+        Assert.assertTrue(payloadArrivals.isPeriodOver(START_MILLIS));
+        for (var period=0; period<3; period++) {
+            long periodStart = START_MILLIS + period * periodMillis;
+            payloadArrivals.startPeriod(periodStart, partCount);
+            int[] sentCounts = new int[partCount];
+            long currentTime = periodStart;
+            while (!payloadArrivals.isPeriodOver(currentTime + TICK_MILLIS)) {
+                currentTime += TICK_MILLIS;
+                payloadArrivals.advance(currentTime, part -> sentCounts[part]++);
+            }
+            int arrivedCount = (int) Arrays.stream(sentCounts).filter(count -> count > 0).count();
+            //With a mean gap of half the period, most but not all the parts arrive within the period
+            Assert.assertTrue(arrivedCount > partCount / 2 && arrivedCount < partCount, "Arrived " + arrivedCount);
+            payloadArrivals.drain(part -> sentCounts[part]++);
+            for (var part=0; part<partCount; part++) {
+                Assert.assertEquals(sentCounts[part], 1, "Part " + part + " of period " + period);
+            }
+            Assert.assertTrue(payloadArrivals.isPeriodOver(periodStart + periodMillis));
+        }
+    }
+
+    @Test(expectedExceptions = GeneratorException.class)
+    public void testArrivalProcessWithoutInterval() {
+        ArrivalProcess arrivalProcess = new ArrivalProcess();
+        arrivalProcess.setType(ArrivalProcessType.POISSON);
+        arrivalProcess.validate("test");
+    }
+}
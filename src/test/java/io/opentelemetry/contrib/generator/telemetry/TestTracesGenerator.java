@@ -16,6 +16,7 @@
 
 package io.opentelemetry.contrib.generator.telemetry;
 
+import com.google.protobuf.ByteString;
 import io.opentelemetry.contrib.generator.telemetry.dto.GeneratorInput;
 import io.opentelemetry.contrib.generator.telemetry.helpers.TestPayloadHandler;
 import io.opentelemetry.contrib.generator.telemetry.transport.PayloadHandler;
@@ -27,6 +28,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -236,6 +238,24 @@ public class TestTracesGenerator {
                 "Mismatch in end time for deleteAccountQuery span");
     }
 
+    @Test(dependsOnMethods = "generateData")
+    public void testSpanCopyIds() {
+        //Each copy of a span in a payload belongs to a different trace and must have its own span ID
+        for (ExportTraceServiceRequest eachTrace: testStore.getTracePayloads()) {
+            Map<String, List<Span>> spansByName = eachTrace.getResourceSpansList().stream()
+                    .map(ResourceSpans::getScopeSpansList)
+                    .flatMap(List::stream)
+                    .map(ScopeSpans::getSpansList)
+                    .flatMap(List::stream)
+                    .collect(Collectors.groupingBy(Span::getName));
+            for (Map.Entry<String, List<Span>> eachSpanCopies: spansByName.entrySet()) {
+                long distinctIds = eachSpanCopies.getValue().stream().map(Span::getSpanId).distinct().count();
+                Assert.assertEquals(distinctIds, eachSpanCopies.getValue().size(),
+                        "Duplicate span IDs found in copies of span " + eachSpanCopies.getKey());
+            }
+        }
+    }
+
     @Test
     public void testWithOnlyRootSpans() {
         String onlyRootSpanTraces =  Paths.get(TEST_DEFS_PATH, "trace-definition-onlyrootspans.yaml").toString();
@@ -248,6 +268,111 @@ public class TestTracesGenerator {
         Assert.assertEquals(90, rootSpansTestStore.getTracePacketCount());
     }
 
+    @Test
+    public void testWithCoalescedResourceSpans() {
+        String coalescedTraces = Paths.get(TEST_DEFS_PATH, "trace-definition-coalesced.yaml").toString();
+        GeneratorInput coalescedGeneratorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML)
+                .withTraceDefinitionYAML(coalescedTraces).build();
+        PayloadHandler coalescedStore = new TestPayloadHandler();
+        TelemetryGenerator coalescedTelemetryGenerator = new TelemetryGenerator(coalescedGeneratorInput, coalescedStore, false);
+        coalescedTelemetryGenerator.runGenerator();
+        TestPayloadHandler coalescedTestStore = (TestPayloadHandler) coalescedStore;
+        //healthCheck: 5 payloads with a single copy, getAccountDetails: 5 payloads with 17 copies over 3 request resources
+        Assert.assertEquals(coalescedTestStore.getTracePacketCount(), 5 + 5 * 3, "Mismatch in resource span counts");
+        Assert.assertEquals(coalescedTestStore.getSpanCount().get("healthCheck").get(), 5, "Mismatch in span count for healthCheck");
+        Assert.assertEquals(coalescedTestStore.getSpanCount().get("getAccountDetails").get(), 5 * 17,
+                "Mismatch in span count for getAccountDetails");
+        for (ExportTraceServiceRequest eachTrace: coalescedTestStore.getTracePayloads()) {
+            Assert.assertEquals(eachTrace.getResourceSpansList().stream().map(ResourceSpans::getResource).distinct().count(),
+                    eachTrace.getResourceSpansCount(), "Same resource found in multiple resource spans of a payload");
+        }
+    }
+
+    @Test
+    public void testWithDurationDistributions() {
+        String durationTraces = Paths.get(TEST_DEFS_PATH, "trace-definition-durations.yaml").toString();
+        GeneratorInput durationsGeneratorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML)
+                .withTraceDefinitionYAML(durationTraces).build();
+        PayloadHandler durationsStore = new TestPayloadHandler();
+        TelemetryGenerator durationsTelemetryGenerator = new TelemetryGenerator(durationsGeneratorInput, durationsStore, false);
+        durationsTelemetryGenerator.runGenerator();
+        TestPayloadHandler durationsTestStore = (TestPayloadHandler) durationsStore;
+        Map<ByteString, List<Span>> spansByTrace = durationsTestStore.getTracePayloads().stream()
+                .map(ExportTraceServiceRequest::getResourceSpansList)
+                .flatMap(List::stream)
+                .map(ResourceSpans::getScopeSpansList)
+                .flatMap(List::stream)
+                .map(ScopeSpans::getSpansList)
+                .flatMap(List::stream)
+                .collect(Collectors.groupingBy(Span::getTraceId));
+        Assert.assertEquals(spansByTrace.size(), 10, "Mismatch in trace count");
+        Set<Long> chargeDurations = new HashSet<>();
+        for (List<Span> eachTrace: spansByTrace.values()) {
+            Span rootSpan = eachTrace.stream().filter(span -> span.getName().equals("checkout")).findAny().get();
+            Span chargeSpan = eachTrace.stream().filter(span -> span.getName().equals("chargeCard")).findAny().get();
+            Assert.assertTrue(chargeSpan.getStartTimeUnixNano() >= rootSpan.getStartTimeUnixNano() &&
+                    chargeSpan.getEndTimeUnixNano() <= rootSpan.getEndTimeUnixNano(),
+                    "Child span is not contained in its parent span");
+            chargeDurations.add(chargeSpan.getEndTimeUnixNano() - chargeSpan.getStartTimeUnixNano());
+        }
+        Assert.assertTrue(chargeDurations.size() > 1, "Span durations are not sampled for each copy");
+    }
+
+    @Test
+    public void testWithDistributions() {
+        String distributionTraces = Paths.get(TEST_DEFS_PATH, "trace-definition-distributions.yaml").toString();
+        GeneratorInput distributionsGeneratorInput = new GeneratorInput.YAMLFilesBuilder(RESOURCES_YAML)
+                .withTraceDefinitionYAML(distributionTraces).build();
+        PayloadHandler distributionsStore = new TestPayloadHandler();
+        TelemetryGenerator distributionsTelemetryGenerator = new TelemetryGenerator(distributionsGeneratorInput,
+                distributionsStore, false);
+        distributionsTelemetryGenerator.runGenerator();
+        TestPayloadHandler distributionsTestStore = (TestPayloadHandler) distributionsStore;
+        Map<ByteString, List<Span>> spansByTrace = distributionsTestStore.getTracePayloads().stream()
+                .map(ExportTraceServiceRequest::getResourceSpansList)
+                .flatMap(List::stream)
+                .map(ResourceSpans::getScopeSpansList)
+                .flatMap(List::stream)
+                .map(ScopeSpans::getSpansList)
+                .flatMap(List::stream)
+                .collect(Collectors.groupingBy(Span::getTraceId));
+        //2 payloads with 4 copies each
+        Assert.assertEquals(spansByTrace.size(), 8, "Mismatch in trace count");
+        int linkedRootSpans = 0;
+        for (List<Span> eachTrace: spansByTrace.values()) {
+            List<Span> rootSpans = eachTrace.stream().filter(span -> span.getName().equals("fetchOrders")).toList();
+            List<Span> querySpans = eachTrace.stream().filter(span -> span.getName().equals("fetchOrdersQuery")).toList();
+            Assert.assertEquals(rootSpans.size(), 1, "Expected a single root span in each trace");
+            Assert.assertTrue(querySpans.size() >= 1 && querySpans.size() <= 50,
+                    "Child span count " + querySpans.size() + " outside of the multiplicity distribution range");
+            Span rootSpan = rootSpans.get(0);
+            Assert.assertTrue(rootSpan.getParentSpanId().isEmpty(), "Root span must not have a parent span");
+            Assert.assertEquals(querySpans.stream().map(Span::getSpanId).distinct().count(), querySpans.size(),
+                    "Duplicate span IDs found in expanded trace");
+            for (Span eachQuery: querySpans) {
+                Assert.assertEquals(eachQuery.getParentSpanId(), rootSpan.getSpanId(), "Mismatch in parent span ID");
+                Assert.assertTrue(eachQuery.getStartTimeUnixNano() >= rootSpan.getStartTimeUnixNano() &&
+                        eachQuery.getEndTimeUnixNano() <= rootSpan.getEndTimeUnixNano(),
+                        "Child span is not contained in its parent span");
+                Assert.assertEquals(eachQuery.getEventsCount(), 2, "Mismatch in event count");
+                for (Span.Event eachEvent: eachQuery.getEventsList()) {
+                    Assert.assertEquals(eachEvent.getName(), "rowsFetched", "Unexpected event for span without error");
+                    Assert.assertEquals(eachEvent.getAttributes(0).getValue().getIntValue(), 10L, "Mismatch in event attribute");
+                    Assert.assertTrue(eachEvent.getTimeUnixNano() >= eachQuery.getStartTimeUnixNano() &&
+                            eachEvent.getTimeUnixNano() <= eachQuery.getEndTimeUnixNano(), "Event is outside of its span");
+                }
+            }
+            Assert.assertTrue(rootSpan.getLinksCount() <= 1, "Mismatch in link count");
+            for (Span.Link eachLink: rootSpan.getLinksList()) {
+                Assert.assertTrue(spansByTrace.containsKey(eachLink.getTraceId()), "Link points at an unknown trace");
+                Assert.assertNotEquals(eachLink.getTraceId(), rootSpan.getTraceId(), "Link points at its own trace");
+                linkedRootSpans++;
+            }
+        }
+        //Only the very first root span has no earlier root span to link to
+        Assert.assertEquals(linkedRootSpans, 7, "Mismatch in linked root span count");
+    }
+
     private long[] getSpanStartTimeEndTime(ExportTraceServiceRequest trace, String spanName) {
         Span span = trace.getResourceSpansList().stream()
                 .map(ResourceSpans::getScopeSpansList)